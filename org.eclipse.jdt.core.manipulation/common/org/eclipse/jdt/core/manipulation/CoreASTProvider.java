@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 IBM Corporation and others.
+ * Copyright (c) 2018, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,7 @@ import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 
+import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.ASTNode;
@@ -31,12 +32,17 @@ import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 
 import org.eclipse.jdt.internal.core.manipulation.JavaManipulationPlugin;
+import org.eclipse.jdt.internal.core.manipulation.RecentASTCache;
 import org.eclipse.jdt.internal.corext.dom.ASTNodes;
 import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
 
 /**
  * The {@link CoreASTProvider} provides access to the {@link CompilationUnit AST root} used by
  * the current active Java editor.
+ * <p>
+ * The ASTs of recently active or requested Java elements are kept in a small cache, so that they
+ * don't have to be created again as long as their source doesn't change.
+ * </p>
  *
  * The {@link CoreASTProvider} contains all methods/functionality that are
  * not dependent on the UI, from org.eclipse.jdt.internal.ui.javaeditor.ASTProvider
@@ -59,6 +65,15 @@ public final class CoreASTProvider {
 	private volatile ITypeRoot fReconcilingJavaElement;
 	private ITypeRoot fActiveJavaElement;
 	private CompilationUnit fAST;
+	/**
+	 * The Java element of {@link #fAST}
+	 */
+	private ITypeRoot fASTJavaElement;
+	/**
+	 * The stamp of the source {@link #fAST} has been created from, see
+	 * {@link RecentASTCache#getStamp(ITypeRoot)}
+	 */
+	private long fASTStamp;
 	private Object fReconcileLock= new Object();
 	private Object fWaitLock= new Object();
 	private volatile boolean fIsReconciling;
@@ -152,6 +167,16 @@ public final class CoreASTProvider {
 			}
 		}
 
+		if (!isActiveElement) {
+			CompilationUnit recentAST= RecentASTCache.getDefault().get(input);
+			if (recentAST != null) {
+				if (JavaManipulationPlugin.DEBUG_AST_PROVIDER)
+					System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "returning recent AST:" + toString(recentAST) + " for: " + input.getElementName()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+				return recentAST;
+			}
+		}
+
 		final boolean canReturnNull= waitFlag == CoreASTProvider.WAIT_NO || (waitFlag == CoreASTProvider.WAIT_ACTIVE_ONLY && (!isActiveElement || fAST != null));
 		boolean isReconciling= false;
 		final ITypeRoot activeElement;
@@ -196,11 +221,26 @@ public final class CoreASTProvider {
 
 		CompilationUnit ast= null;
 		try {
-			ast= createAST(input, progressMonitor);
-			if (progressMonitor != null && progressMonitor.isCanceled()) {
-				ast= null;
-				if (JavaManipulationPlugin.DEBUG_AST_PROVIDER)
-					System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "Ignore created AST for: " + input.getElementName() + " - operation has been cancelled"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			if (isActiveElement) {
+				// e.g. switched back to a recently active editor
+				ast= RecentASTCache.getDefault().get(input);
+				if (ast != null) {
+					RecentASTCache.getDefault().remove(input);
+					if (JavaManipulationPlugin.DEBUG_AST_PROVIDER)
+						System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "reusing recent AST:" + toString(ast) + " for: " + input.getElementName()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+			}
+			if (ast == null) {
+				long stamp= RecentASTCache.getDefault().getStamp(input);
+				long start= System.nanoTime();
+				ast= createAST(input, progressMonitor);
+				if (progressMonitor != null && progressMonitor.isCanceled()) {
+					ast= null;
+					if (JavaManipulationPlugin.DEBUG_AST_PROVIDER)
+						System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "Ignore created AST for: " + input.getElementName() + " - operation has been cancelled"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				} else if (!isActiveElement && ast != null) {
+					RecentASTCache.getDefault().put(input, ast, stamp, System.nanoTime() - start);
+				}
 			}
 		} finally {
 			if (isActiveElement) {
@@ -357,26 +397,68 @@ public final class CoreASTProvider {
 	 * @param ast the ast
 	 * @param javaElement the java element
 	 */
-	public synchronized void cache(CompilationUnit ast, ITypeRoot javaElement) {
+	public void cache(CompilationUnit ast, ITypeRoot javaElement) {
+		// don't access the buffer while holding the lock
+		long stamp= ast != null && javaElement != null ? getStamp(ast, javaElement) : -1;
+		ITypeRoot previousJavaElement;
+		CompilationUnit previousAST;
+		long previousStamp;
 
-		if (fActiveJavaElement != null && !fActiveJavaElement.equals(javaElement)) {
-			if (JavaManipulationPlugin.DEBUG_AST_PROVIDER && javaElement != null) // don't report call from disposeAST()
-				System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "don't cache AST for inactive: " + toString(javaElement)); //$NON-NLS-1$ //$NON-NLS-2$
-			return;
-		}
+		synchronized (this) {
+			if (fActiveJavaElement != null && !fActiveJavaElement.equals(javaElement)) {
+				if (JavaManipulationPlugin.DEBUG_AST_PROVIDER && javaElement != null) // don't report call from disposeAST()
+					System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "don't cache AST for inactive: " + toString(javaElement)); //$NON-NLS-1$ //$NON-NLS-2$
+				return;
+			}
 
-		if (JavaManipulationPlugin.DEBUG_AST_PROVIDER && (javaElement != null || ast != null)) // don't report call from disposeAST()
-			System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "caching AST: " + toString(ast) + " for: " + toString(javaElement)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			if (JavaManipulationPlugin.DEBUG_AST_PROVIDER && (javaElement != null || ast != null)) // don't report call from disposeAST()
+				System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "caching AST: " + toString(ast) + " for: " + toString(javaElement)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
-		if (fAST != null)
-			disposeAST();
+			previousJavaElement= fASTJavaElement;
+			previousAST= fAST;
+			previousStamp= fASTStamp;
 
-		fAST= ast;
+			if (fAST != null)
+				disposeAST();
 
-		// Signal AST change
-		synchronized (fWaitLock) {
-			fWaitLock.notifyAll();
+			fAST= ast;
+			fASTJavaElement= ast != null ? javaElement : null;
+			fASTStamp= stamp;
+
+			// Signal AST change
+			synchronized (fWaitLock) {
+				fWaitLock.notifyAll();
+			}
+		}
+
+		if (previousAST != null && previousJavaElement != null && !previousJavaElement.equals(javaElement)) {
+			// the previously active element may become active again, or be used by hovers or quick fixes
+			RecentASTCache.getDefault().put(previousJavaElement, previousAST, previousStamp, -1);
+		}
+	}
+
+	/**
+	 * Returns the stamp of the current source of the given Java element, if the given AST has
+	 * been created from it.
+	 *
+	 * @param ast the AST
+	 * @param javaElement the Java element of the AST
+	 * @return the stamp or <code>-1</code> if the AST has not been created from the current
+	 *         source
+	 */
+	private static long getStamp(CompilationUnit ast, ITypeRoot javaElement) {
+		long stamp= RecentASTCache.getDefault().getStamp(javaElement);
+		if (stamp == -1)
+			return -1;
+		try {
+			// the source may have changed since the AST has been created, e.g. while reconciling
+			IBuffer buffer= javaElement.getBuffer();
+			if (!javaElement.isConsistent() || buffer == null || buffer.getLength() != ast.getStartPosition() + ast.getLength())
+				return -1;
+		} catch (JavaModelException e) {
+			return -1;
 		}
+		return stamp;
 	}
 
 	/**
@@ -410,6 +492,7 @@ public final class CoreASTProvider {
 			System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "disposing AST: " + toString(fAST) + " for: " + toString(fActiveJavaElement)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
 		fAST= null;
+		fASTJavaElement= null;
 
 		cache(null, null);
 	}
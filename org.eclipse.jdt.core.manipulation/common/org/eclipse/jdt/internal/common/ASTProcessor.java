@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Carsten Hammer.
+ * Copyright (c) 2021, 2024 Carsten Hammer and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -2461,7 +2461,7 @@ public class ASTProcessor<E extends HelperVisitorProvider<V, T, E>, V, T> {
 				return test;
 			});
 		}
-		hv.build(localnode);
+		hv.buildCompiled(localnode);
 	}
 
 
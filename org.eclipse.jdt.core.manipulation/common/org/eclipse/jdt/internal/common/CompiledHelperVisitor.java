@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.common;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+
+/**
+ * Visitor that dispatches to the predicates and consumers of one or more {@link HelperVisitor}s
+ * through tables indexed by {@link ASTNode#getNodeType()}, instead of looking them up in maps for
+ * every visited node like {@link LambdaASTVisitor}.
+ * <p>
+ * Several helper visitors can be fused, so that they share one traversal of the tree. Each of them
+ * sees the same calls in the same order as if it was built on its own: when one of its predicates
+ * returns <code>false</code>, the children of that node are skipped for that helper visitor only.
+ * Subtrees are pruned once no helper visitor is interested in them anymore.
+ * </p>
+ * <p>
+ * The predicates and consumers are taken from the helper visitors when they are compiled. Kinds
+ * removed with {@link HelperVisitor#removeVisitor(VisitorEnum)} while visiting are not called
+ * anymore, other changes are not reflected.
+ * </p>
+ *
+ * @see HelperVisitor#buildCompiled(ASTNode)
+ * @see #fuse(HelperVisitor...)
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public final class CompiledHelperVisitor extends ASTVisitor {
+
+	private static final int NODE_TYPE_COUNT= VisitorEnum.stream().mapToInt(VisitorEnum::getValue).max().getAsInt() + 1;
+
+	private final HelperVisitor<?, ?, ?>[] fHelperVisitors;
+
+	private final Object[] fDataHolders;
+
+	/**
+	 * The predicates per node type and helper visitor, <code>null</code> for node types without
+	 * any predicate.
+	 */
+	private final BiPredicate[][] fPredicates;
+
+	/**
+	 * The consumers per node type and helper visitor, <code>null</code> for node types without
+	 * any consumer.
+	 */
+	private final BiConsumer[][] fConsumers;
+
+	/**
+	 * The node whose children are skipped per helper visitor, or <code>null</code>.
+	 */
+	private final ASTNode[] fSkippedAt;
+
+	private int fSkippedCount;
+
+	private CompiledHelperVisitor(HelperVisitor<?, ?, ?>[] helperVisitors) {
+		// LambdaASTVisitor visits Javadoc comments unconditionally as well
+		super(true);
+		fHelperVisitors= helperVisitors;
+		fDataHolders= new Object[helperVisitors.length];
+		fPredicates= new BiPredicate[NODE_TYPE_COUNT][];
+		fConsumers= new BiConsumer[NODE_TYPE_COUNT][];
+		fSkippedAt= new ASTNode[helperVisitors.length];
+		for (int i= 0; i < helperVisitors.length; i++) {
+			HelperVisitor<?, ?, ?> helperVisitor= helperVisitors[i];
+			fDataHolders[i]= helperVisitor.dataholder;
+			for (Map.Entry<VisitorEnum, ? extends BiPredicate> entry : helperVisitor.predicatemap.entrySet()) {
+				VisitorEnum kind= entry.getKey();
+				int nodeType= kind.getValue();
+				if (fPredicates[nodeType] == null)
+					fPredicates[nodeType]= new BiPredicate[helperVisitors.length];
+				fPredicates[nodeType][i]= filter(kind, entry.getValue(), helperVisitor.getSupplierData().get(kind));
+			}
+			for (Map.Entry<VisitorEnum, ? extends BiConsumer> entry : helperVisitor.consumermap.entrySet()) {
+				VisitorEnum kind= entry.getKey();
+				int nodeType= kind.getValue();
+				if (fConsumers[nodeType] == null)
+					fConsumers[nodeType]= new BiConsumer[helperVisitors.length];
+				fConsumers[nodeType][i]= filter(kind, entry.getValue(), helperVisitor.getConsumerData().get(kind));
+			}
+		}
+	}
+
+	/**
+	 * Compiles the given helper visitor.
+	 *
+	 * @param helperVisitor - HelperVisitor
+	 * @return - visitor dispatching to the helper visitor
+	 */
+	public static CompiledHelperVisitor compile(HelperVisitor<?, ?, ?> helperVisitor) {
+		return new CompiledHelperVisitor(new HelperVisitor<?, ?, ?>[] { helperVisitor });
+	}
+
+	/**
+	 * Compiles the given helper visitors into one visitor, so that they share one traversal.
+	 *
+	 * @param helperVisitors - HelperVisitors, called in this order for each node
+	 * @return - visitor dispatching to all the helper visitors
+	 */
+	public static CompiledHelperVisitor fuse(HelperVisitor<?, ?, ?>... helperVisitors) {
+		return new CompiledHelperVisitor(helperVisitors.clone());
+	}
+
+	/**
+	 * Visits the given node and its children with all compiled helper visitors.
+	 *
+	 * @param node - ASTNode
+	 */
+	public void build(ASTNode node) {
+		for (HelperVisitor<?, ?, ?> helperVisitor : fHelperVisitors) {
+			helperVisitor.astvisitor= this;
+		}
+		Arrays.fill(fSkippedAt, null);
+		fSkippedCount= 0;
+		node.accept(this);
+	}
+
+	@Override
+	public boolean preVisit2(ASTNode node) {
+		int nodeType= node.getNodeType();
+		BiPredicate[] predicates= nodeType < NODE_TYPE_COUNT ? fPredicates[nodeType] : null;
+		if (predicates != null) {
+			for (int i= 0; i < predicates.length; i++) {
+				BiPredicate predicate= predicates[i];
+				if (predicate != null && fSkippedAt[i] == null && !predicate.test(node, fDataHolders[i])) {
+					fSkippedAt[i]= node;
+					fSkippedCount++;
+				}
+			}
+		}
+		return fSkippedCount < fSkippedAt.length;
+	}
+
+	@Override
+	public void postVisit(ASTNode node) {
+		int nodeType= node.getNodeType();
+		BiConsumer[] consumers= nodeType < NODE_TYPE_COUNT ? fConsumers[nodeType] : null;
+		if (consumers == null && fSkippedCount == 0)
+			return;
+		for (int i= 0; i < fSkippedAt.length; i++) {
+			ASTNode skippedAt= fSkippedAt[i];
+			if (skippedAt == null || skippedAt == node) {
+				// like endVisit, also called for the node whose children have been skipped
+				if (consumers != null && consumers[i] != null)
+					consumers[i].accept(node, fDataHolders[i]);
+				if (skippedAt != null) {
+					fSkippedAt[i]= null;
+					fSkippedCount--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stops calling the predicate and consumer of the given kind of the given helper visitor.
+	 *
+	 * @param helperVisitor - HelperVisitor
+	 * @param kind - visitor kind
+	 */
+	void remove(HelperVisitor<?, ?, ?> helperVisitor, VisitorEnum kind) {
+		for (int i= 0; i < fHelperVisitors.length; i++) {
+			if (fHelperVisitors[i] == helperVisitor) {
+				int nodeType= kind.getValue();
+				if (fPredicates[nodeType] != null)
+					fPredicates[nodeType][i]= null;
+				if (fConsumers[nodeType] != null)
+					fConsumers[nodeType][i]= null;
+			}
+		}
+	}
+
+	/**
+	 * Applies the additional data of the convenience methods of {@link HelperVisitor}, see
+	 * {@link LambdaASTVisitor#visit(MethodInvocation)} and
+	 * {@link LambdaASTVisitor#visit(VariableDeclarationStatement)}.
+	 */
+	private static BiPredicate filter(VisitorEnum kind, BiPredicate predicate, Object data) {
+		if (data == null)
+			return predicate;
+		switch (kind) {
+			case MethodInvocation:
+				return (node, holder) -> !matches((MethodInvocation) node, (String) data) || predicate.test(node, holder);
+			case VariableDeclarationStatement:
+				return (node, holder) -> !matches((VariableDeclarationStatement) node, (Class<?>) data) || predicate.test(node, holder);
+			default:
+				return predicate;
+		}
+	}
+
+	private static BiConsumer filter(VisitorEnum kind, BiConsumer consumer, Object data) {
+		if (data == null)
+			return consumer;
+		switch (kind) {
+			case MethodInvocation:
+				return (node, holder) -> {
+					if (matches((MethodInvocation) node, (String) data))
+						consumer.accept(node, holder);
+				};
+			case VariableDeclarationStatement:
+				return (node, holder) -> {
+					if (matches((VariableDeclarationStatement) node, (Class<?>) data))
+						consumer.accept(node, holder);
+				};
+			default:
+				return consumer;
+		}
+	}
+
+	private static boolean matches(MethodInvocation node, String methodName) {
+		return node.getName().getIdentifier().equals(methodName);
+	}
+
+	private static boolean matches(VariableDeclarationStatement node, Class<?> type) {
+		VariableDeclarationFragment bli= (VariableDeclarationFragment) node.fragments().get(0);
+		IVariableBinding resolveBinding= bli.resolveBinding();
+		if (resolveBinding != null) {
+			String qualifiedName= resolveBinding.getType().getErasure().getQualifiedName();
+			return type.getCanonicalName().equals(qualifiedName);
+		}
+		return true;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Carsten Hammer.
+ * Copyright (c) 2021, 2024 Carsten Hammer and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -124,6 +124,19 @@ public class HelperVisitor<E extends HelperVisitorProvider<V, T, E>,V,T> {
 		return this;
 	}
 
+	/**
+	 * Like {@link #build(ASTNode)}, but dispatches through tables indexed by node type, which is
+	 * faster for large trees. Only removing visitor kinds while visiting is reflected, see
+	 * {@link CompiledHelperVisitor}.
+	 *
+	 * @param node - ASTNode
+	 * @return - HelperVisitor
+	 */
+	public HelperVisitor<E, V, T> buildCompiled(ASTNode node) {
+		CompiledHelperVisitor.compile(this).build(node);
+		return this;
+	}
+
 	/**
 	 * Add BiPredicate for visitor kind
 	 *
@@ -179,6 +192,9 @@ public class HelperVisitor<E extends HelperVisitorProvider<V, T, E>,V,T> {
 	public void removeVisitor(VisitorEnum ve) {
 		this.predicatemap.remove(ve);
 		this.consumermap.remove(ve);
+		if (astvisitor instanceof CompiledHelperVisitor compiledVisitor) {
+			compiledVisitor.remove(this, ve);
+		}
 	}
 
 	/**
@@ -0,0 +1,351 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.manipulation;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.core.BufferChangedEvent;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.IBufferChangedListener;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+
+/**
+ * Cache of recently used shared ASTs of Java elements that are not active in an editor, used by
+ * {@link CoreASTProvider}.
+ * <p>
+ * Entries are keyed by the Java element and a stamp of its buffer, so that an AST is only
+ * returned for the contents it has been created from. The stamp changes whenever the buffer
+ * changes, without looking at its contents. The cache holds at most {@link #MAX_ENTRIES} ASTs,
+ * evicting the least recently used one, and only holds them softly, so that they are released
+ * when memory gets low. Since the bindings of a cached AST may refer to other elements, the cache
+ * is cleared when the Java model changes (e.g. when a file is saved or the classpath changes) and
+ * when a working copy is reconciled with changes outside of method bodies.
+ * </p>
+ * <p>
+ * Lookups don't block; only adding an AST synchronizes with other writers.
+ * </p>
+ */
+public final class RecentASTCache {
+
+	/**
+	 * Maximal number of cached ASTs.
+	 */
+	public static final int MAX_ENTRIES= 8;
+
+	private static final RecentASTCache INSTANCE= new RecentASTCache();
+
+	/**
+	 * Flags of a reconcile delta of a compilation unit that only changed inside method bodies or
+	 * initializers. Changes of members are reported as child deltas.
+	 */
+	private static final int BODY_CHANGE_FLAGS= IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED | IJavaElementDelta.F_AST_AFFECTED;
+
+	/**
+	 * Stamps the contents of a buffer. The stamp is unique across buffers and changes whenever
+	 * the buffer changes.
+	 */
+	private final class BufferStamp implements IBufferChangedListener {
+		volatile long fStamp= fStampCounter.incrementAndGet();
+
+		@Override
+		public void bufferChanged(BufferChangedEvent event) {
+			fStamp= fStampCounter.incrementAndGet();
+			IBuffer buffer= event.getBuffer();
+			if (buffer.isClosed()) {
+				buffer.removeBufferChangedListener(this);
+				fBufferStamps.remove(buffer);
+			}
+		}
+	}
+
+	private static final class Entry {
+		final BufferStamp fBufferStamp;
+		final long fStamp;
+		final SoftReference<CompilationUnit> fAST;
+		final long fParseNanos;
+		volatile long fLastAccess;
+
+		Entry(BufferStamp bufferStamp, long stamp, CompilationUnit ast, long parseNanos, long access) {
+			fBufferStamp= bufferStamp;
+			fStamp= stamp;
+			fAST= new SoftReference<>(ast);
+			fParseNanos= parseNanos;
+			fLastAccess= access;
+		}
+	}
+
+	private final Map<ITypeRoot, Entry> fEntries= new ConcurrentHashMap<>();
+
+	private final AtomicLong fAccessCounter= new AtomicLong();
+
+	private final AtomicLong fStampCounter= new AtomicLong();
+
+	/**
+	 * The stamps of the buffers, the stamps don't keep the buffers alive.
+	 */
+	private final Map<IBuffer, BufferStamp> fBufferStamps= Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final AtomicLong fHits= new AtomicLong();
+	private final AtomicLong fMisses= new AtomicLong();
+	private final AtomicLong fSavedNanos= new AtomicLong();
+
+	/**
+	 * Measured time to create an AST, used for ASTs that have not been created by the
+	 * {@link CoreASTProvider}, e.g. by the reconciler.
+	 */
+	private volatile long fAverageParseNanos;
+
+	private boolean fListening;
+
+	private final IElementChangedListener fListener= new IElementChangedListener() {
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			// the AST of the reconciled working copy itself is invalidated by its buffer stamp
+			if (event.getType() != ElementChangedEvent.POST_RECONCILE || !isBodyChange(event.getDelta()))
+				clear();
+		}
+	};
+
+	public static RecentASTCache getDefault() {
+		return INSTANCE;
+	}
+
+	private RecentASTCache() {
+	}
+
+	/**
+	 * Returns the cached AST for the current source of the given element.
+	 *
+	 * @param input the Java element
+	 * @return the AST or <code>null</code> if none is cached for the current source
+	 */
+	public CompilationUnit get(ITypeRoot input) {
+		Entry entry= fEntries.get(input);
+		if (entry != null) {
+			CompilationUnit ast= entry.fAST.get();
+			if (ast != null && entry.fStamp == entry.fBufferStamp.fStamp) {
+				entry.fLastAccess= fAccessCounter.incrementAndGet();
+				fHits.incrementAndGet();
+				fSavedNanos.addAndGet(entry.fParseNanos);
+				return ast;
+			}
+			fEntries.remove(input, entry);
+		}
+		fMisses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Adds an AST that has been created from the current source of the given element.
+	 *
+	 * @param input the Java element
+	 * @param ast the AST
+	 * @param parseNanos the time it took to create the AST, or <code>-1</code> if unknown
+	 */
+	public void put(ITypeRoot input, CompilationUnit ast, long parseNanos) {
+		put(input, ast, getStamp(input), parseNanos);
+	}
+
+	/**
+	 * Adds an AST that has been created from the source with the given stamp.
+	 *
+	 * @param input the Java element
+	 * @param ast the AST
+	 * @param stamp the stamp of the source the AST has been created from, see
+	 *            {@link #getStamp(ITypeRoot)}
+	 * @param parseNanos the time it took to create the AST, or <code>-1</code> if unknown
+	 */
+	public synchronized void put(ITypeRoot input, CompilationUnit ast, long stamp, long parseNanos) {
+		if (input == null || ast == null || stamp == -1)
+			return;
+		BufferStamp bufferStamp= getBufferStamp(input);
+		if (bufferStamp == null || stamp != bufferStamp.fStamp)
+			return;
+		if (!fListening) {
+			JavaCore.addElementChangedListener(fListener, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+			fListening= true;
+		}
+		if (parseNanos >= 0) {
+			long average= fAverageParseNanos;
+			fAverageParseNanos= average == 0 ? parseNanos : (3 * average + parseNanos) / 4;
+		} else {
+			parseNanos= fAverageParseNanos;
+		}
+		fEntries.put(input, new Entry(bufferStamp, stamp, ast, parseNanos, fAccessCounter.incrementAndGet()));
+		while (fEntries.size() > MAX_ENTRIES) {
+			evictLeastRecentlyUsed();
+		}
+	}
+
+	/**
+	 * Removes the AST of the given element.
+	 *
+	 * @param input the Java element
+	 */
+	public void remove(ITypeRoot input) {
+		fEntries.remove(input);
+	}
+
+	/**
+	 * Removes all ASTs.
+	 */
+	public void clear() {
+		fEntries.clear();
+	}
+
+	/**
+	 * Removes all ASTs and stops listening to changes of the Java model and of the buffers.
+	 */
+	public synchronized void dispose() {
+		if (fListening) {
+			JavaCore.removeElementChangedListener(fListener);
+			fListening= false;
+		}
+		clear();
+		List<Map.Entry<IBuffer, BufferStamp>> bufferStamps;
+		synchronized (fBufferStamps) {
+			bufferStamps= new ArrayList<>(fBufferStamps.entrySet());
+			fBufferStamps.clear();
+		}
+		for (Map.Entry<IBuffer, BufferStamp> entry : bufferStamps) {
+			entry.getKey().removeBufferChangedListener(entry.getValue());
+		}
+	}
+
+	/**
+	 * Tells whether the given reconcile delta only reports changes inside method bodies or
+	 * initializers, which don't affect the bindings of other compilation units.
+	 *
+	 * @param delta the delta
+	 * @return <code>true</code> if the delta only reports changes inside bodies
+	 */
+	private static boolean isBodyChange(IJavaElementDelta delta) {
+		if (delta.getKind() != IJavaElementDelta.CHANGED)
+			return false;
+		if (delta.getElement().getElementType() == IJavaElement.COMPILATION_UNIT)
+			return (delta.getFlags() & ~BODY_CHANGE_FLAGS) == 0 && delta.getAffectedChildren().length == 0;
+		if ((delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0)
+			return false;
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (!isBodyChange(child))
+				return false;
+		}
+		return true;
+	}
+
+	private void evictLeastRecentlyUsed() {
+		ITypeRoot eldest= null;
+		long eldestAccess= Long.MAX_VALUE;
+		for (Map.Entry<ITypeRoot, Entry> entry : fEntries.entrySet()) {
+			Entry value= entry.getValue();
+			if (value.fAST.get() == null) {
+				eldest= entry.getKey();
+				break;
+			}
+			if (value.fLastAccess < eldestAccess) {
+				eldestAccess= value.fLastAccess;
+				eldest= entry.getKey();
+			}
+		}
+		if (eldest != null)
+			fEntries.remove(eldest);
+	}
+
+	/**
+	 * Returns a stamp of the current source of the given element. The stamp changes whenever the
+	 * buffer of the element changes, it has to be taken before creating an AST from the buffer.
+	 *
+	 * @param input the Java element
+	 * @return the stamp, or <code>-1</code> if the element has no source
+	 */
+	public long getStamp(ITypeRoot input) {
+		BufferStamp bufferStamp= getBufferStamp(input);
+		return bufferStamp != null ? bufferStamp.fStamp : -1;
+	}
+
+	private BufferStamp getBufferStamp(ITypeRoot input) {
+		try {
+			IBuffer buffer= input.getBuffer();
+			if (buffer == null || buffer.isClosed())
+				return null;
+			BufferStamp bufferStamp= fBufferStamps.get(buffer);
+			if (bufferStamp != null)
+				return bufferStamp;
+			// only publish stamps that already listen to the buffer, and don't call the buffer while holding the lock
+			bufferStamp= new BufferStamp();
+			buffer.addBufferChangedListener(bufferStamp);
+			BufferStamp existing= fBufferStamps.putIfAbsent(buffer, bufferStamp);
+			if (existing != null) {
+				buffer.removeBufferChangedListener(bufferStamp);
+				return existing;
+			}
+			return bufferStamp;
+		} catch (JavaModelException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the number of ASTs returned from the cache
+	 */
+	public long getHitCount() {
+		return fHits.get();
+	}
+
+	/**
+	 * @return the number of lookups that did not find an AST for the current source
+	 */
+	public long getMissCount() {
+		return fMisses.get();
+	}
+
+	/**
+	 * @return the ratio of lookups that found an AST, between 0 and 1
+	 */
+	public double getHitRate() {
+		long hits= fHits.get();
+		long total= hits + fMisses.get();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * @return the time in milliseconds it would have taken to create the ASTs returned from
+	 *         the cache
+	 */
+	public long getSavedParseMillis() {
+		return fSavedNanos.get() / 1_000_000;
+	}
+
+	@Override
+	public String toString() {
+		return "RecentASTCache [size=" + fEntries.size() + ", hits=" + fHits.get() + ", misses=" + fMisses.get() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", saved=" + getSavedParseMillis() + "ms]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
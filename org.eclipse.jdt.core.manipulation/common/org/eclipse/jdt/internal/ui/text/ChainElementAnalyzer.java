@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2011, 2019 Stefan Henss and others.
+ * Copyright (c) 2011, 2024 Stefan Henss and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,13 +10,14 @@
  */
 package org.eclipse.jdt.internal.ui.text;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import org.eclipse.jdt.core.CompletionContext;
@@ -34,7 +35,7 @@ import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 
 public final class ChainElementAnalyzer {
 
-	private static final Map<String, IType> typeCache= new HashMap<>();
+	private static final Map<String, IType> typeCache= new ConcurrentHashMap<>();
 
 	private static final Predicate<IField> NON_STATIC_FIELDS_ONLY_FILTER = t -> {
 		try {
@@ -81,23 +82,43 @@ public final class ChainElementAnalyzer {
 
     public static Collection<IJavaElement> findVisibleInstanceFieldsAndRelevantInstanceMethods(final ChainType type,
             final ChainType receiverType) {
-        return findFieldsAndMethods(type, receiverType, NON_STATIC_FIELDS_ONLY_FILTER,
-                RELEVANT_NON_STATIC_METHODS_ONLY_FILTER);
+        return findVisibleFieldsAndMethods(type, receiverType, false);
     }
 
     public static Collection<IJavaElement> findAllPublicStaticFieldsAndNonVoidNonPrimitiveStaticMethods(
             final ChainType type, final ChainType receiverType) {
-        return findFieldsAndMethods(type, receiverType, STATIC_FIELDS_ONLY_FILTER,
-                STATIC_NON_VOID_NON_PRIMITIVE_METHODS_ONLY_FILTER);
+        return findVisibleFieldsAndMethods(type, receiverType, true);
     }
 
-    private static Collection<IJavaElement> findFieldsAndMethods(final ChainType type, final ChainType receiverType,
-            final Predicate<IField> fieldFilter, final Predicate<IMethod> methodFilter) {
+    private static Collection<IJavaElement> findVisibleFieldsAndMethods(final ChainType type, final ChainType receiverType,
+            final boolean staticOnly) {
+        final List<IJavaElement> visible = new ArrayList<>();
+        for (final IJavaElement member : findFieldsAndMethods(type, staticOnly)) {
+            if (canBeSeenBy(member, receiverType.getType())) {
+                visible.add(member);
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * Returns the fields and methods of the given type and its super types that are candidates for
+     * chain elements, regardless of their visibility. The result only depends on the type
+     * hierarchy and can therefore be shared by several searches, see {@link ChainFinderCache}.
+     *
+     * @param type the type
+     * @param staticOnly <code>true</code> for the static fields and non-void methods,
+     *            <code>false</code> for the instance fields and non-void methods
+     * @return the fields and methods, in the order of the super type hierarchy
+     */
+    public static List<IJavaElement> findFieldsAndMethods(final ChainType type, final boolean staticOnly) {
+        final Predicate<IField> fieldFilter = staticOnly ? STATIC_FIELDS_ONLY_FILTER : NON_STATIC_FIELDS_ONLY_FILTER;
+        final Predicate<IMethod> methodFilter = staticOnly ? STATIC_NON_VOID_NON_PRIMITIVE_METHODS_ONLY_FILTER : RELEVANT_NON_STATIC_METHODS_ONLY_FILTER;
         final Map<String, IJavaElement> tmp = new LinkedHashMap<>();
         for (final IType cur : findAllSupertypesIncludingArgument(type)) {
             try {
 				for (final IMethod method : cur.getMethods()) {
-				    if (!methodFilter.test(method) || !methodCanBeSeenBy(method, receiverType.getType())) {
+				    if (!methodFilter.test(method)) {
 				        continue;
 				    }
 				    final String key = method.getKey();
@@ -110,7 +131,7 @@ public final class ChainElementAnalyzer {
 			}
             try {
 				for (final IField field : cur.getFields()) {
-				    if (!fieldFilter.test(field) || !fieldCanBeSeenBy(field, receiverType.getType())) {
+				    if (!fieldFilter.test(field)) {
 				        continue;
 				    }
 				    final String key = field.getKey();
@@ -122,7 +143,21 @@ public final class ChainElementAnalyzer {
 				// ignore
 			}
         }
-        return tmp.values();
+        return Collections.unmodifiableList(new ArrayList<>(tmp.values()));
+    }
+
+    /**
+     * Tells whether the given field or method is visible in the given type.
+     *
+     * @param member the field or method
+     * @param invocationType the type in which the member is accessed
+     * @return <code>true</code> if the member is visible
+     */
+    public static boolean canBeSeenBy(final IJavaElement member, final IType invocationType) {
+        if (member instanceof IMethod) {
+            return methodCanBeSeenBy((IMethod) member, invocationType);
+        }
+        return fieldCanBeSeenBy((IField) member, invocationType);
     }
 
     private static List<IType> findAllSupertypesIncludingArgument(final ChainType type) {
@@ -293,7 +328,7 @@ public final class ChainElementAnalyzer {
 			if (resType != null) {
 				String fqExpectedType= JavaModelUtil.concatenateName(resType[0][0], resType[0][1]);
 				res= proj.findType(fqExpectedType);
-				if (isResolved) {
+				if (isResolved && res != null) {
 					typeCache.put(typeSig, res);
 				}
 				return res;
@@ -408,6 +443,14 @@ public final class ChainElementAnalyzer {
 		return false;
 	}
 
+	/**
+	 * Removes all types resolved by {@link #getTypeFromSignature(IJavaProject, String, IType)}, e.g.
+	 * after a classpath change.
+	 */
+	static void clearTypeCache() {
+		typeCache.clear();
+	}
+
 	public static boolean isPrimitive (String typeSig) {
 		String elementType= Signature.getElementType(typeSig);
 		int kind= Signature.getTypeSignatureKind(elementType);
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2010, 2020 Darmstadt University of Technology and others.
+ * Copyright (c) 2010, 2024 Darmstadt University of Technology and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,32 +11,90 @@
  */
 package org.eclipse.jdt.internal.ui.text;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IType;
 
 import org.eclipse.jdt.internal.ui.text.ChainElement.ElementType;
 
+/**
+ * Searches chains of fields and method calls whose result is assignable to the expected types.
+ * <p>
+ * The member tables, chain elements and assignability results are shared with later searches in
+ * the same project through the {@link ChainFinderCache}. The chains of several expected types are
+ * searched in parallel.
+ * </p>
+ */
 public class ChainFinder {
 
+	/**
+	 * Maximal number of incomplete chains in the queue of one expected type.
+	 */
+	private static final int MAX_QUEUE_SIZE= 50000;
+
+	/**
+	 * An incomplete chain, represented by its last element and a pointer to the chain without its
+	 * last element, so that appending an element does not copy the chain.
+	 */
+	private static final class PartialChain {
+
+		final ChainElement edge;
+
+		final PartialChain parent;
+
+		final int length;
+
+		PartialChain(ChainElement edge, PartialChain parent) {
+			this.edge= edge;
+			this.parent= parent;
+			this.length= parent == null ? 1 : parent.length + 1;
+		}
+
+		boolean contains(ChainElement element) {
+			for (PartialChain chain= this; chain != null; chain= chain.parent) {
+				if (chain.edge.equals(element)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		List<ChainElement> toList() {
+			ChainElement[] elements= new ChainElement[length];
+			PartialChain chain= this;
+			for (int i= length - 1; i >= 0; i--) {
+				elements[i]= chain.edge;
+				chain= chain.parent;
+			}
+			return Arrays.asList(elements);
+		}
+	}
+
 	private final List<ChainType> expectedTypes;
 
 	private final List<String> excludedTypes;
 
 	private final IType receiverType;
 
-	private final List<Chain> chains= new LinkedList<>();
+	private final ChainFinderCache cache;
 
-	private final Map<IJavaElement, ChainElement> edgeCache= new HashMap<>();
+	/**
+	 * The chains found per expected type, in the order of the expected types.
+	 */
+	private final List<List<Chain>> chainsPerExpectedType;
 
-	private final Map<String, List<IJavaElement>> fieldsAndMethodsCache= new HashMap<>();
+	private final AtomicInteger chainCount= new AtomicInteger();
 
-	private final Map<String, Boolean> assignableCache= new HashMap<>();
+	private final Map<String, List<IJavaElement>> fieldsAndMethodsCache= new ConcurrentHashMap<>();
 
 	private volatile boolean isCanceled;
 
@@ -45,11 +103,21 @@ public class ChainFinder {
 		this.expectedTypes= expectedTypes;
 		this.excludedTypes= excludedTypes;
 		this.receiverType= receiverType;
+		this.cache= ChainFinderCache.get(receiverType != null ? receiverType.getJavaProject() : null);
+		this.chainsPerExpectedType= new ArrayList<>(expectedTypes.size());
+		for (int i= 0; i < expectedTypes.size(); i++) {
+			chainsPerExpectedType.add(Collections.synchronizedList(new ArrayList<>()));
+		}
 	}
 
 	public void startChainSearch(final List<ChainElement> entrypoints, final int maxChains, final int minDepth,
 			final int maxDepth) {
-		for (final ChainType expected : expectedTypes) {
+		IntStream indices= IntStream.range(0, expectedTypes.size());
+		if (expectedTypes.size() > 1) {
+			indices= indices.parallel();
+		}
+		indices.forEach(i -> {
+			final ChainType expected= expectedTypes.get(i);
 			if (expected != null && !ChainFinder.isFromExcludedType(excludedTypes, expected)) {
 				ChainType expectedType= expected;
 				int expectedDimension= 0;
@@ -57,9 +125,9 @@ public class ChainFinder {
 					expectedDimension= expectedType.getDimension();
 				}
 				searchChainsForExpectedType(expectedType, expectedDimension, entrypoints, maxChains, minDepth,
-						maxDepth);
+						maxDepth, chainsPerExpectedType.get(i));
 			}
-		}
+		});
 	}
 
 	public void cancel() {
@@ -67,22 +135,23 @@ public class ChainFinder {
 	}
 
 	private void searchChainsForExpectedType(final ChainType expectedType, final int expectedDimensions,
-			final List<ChainElement> entrypoints, final int maxChains, final int minDepth, final int maxDepth) {
-		final LinkedList<LinkedList<ChainElement>> incompleteChains= prepareQueue(entrypoints);
+			final List<ChainElement> entrypoints, final int maxChains, final int minDepth, final int maxDepth,
+			final List<Chain> chains) {
+		final ArrayDeque<PartialChain> incompleteChains= prepareQueue(entrypoints);
 
-		while (!incompleteChains.isEmpty() && !isCanceled) {
-			final LinkedList<ChainElement> chain= incompleteChains.poll();
-			final ChainElement edge= chain.getLast();
+		while (!incompleteChains.isEmpty() && !isCanceled && chainCount.get() < maxChains) {
+			final PartialChain chain= incompleteChains.poll();
+			final ChainElement edge= chain.edge;
 			if (isValidEndOfChain(edge, expectedType, expectedDimensions)) {
-				if (chain.size() >= minDepth) {
-					chains.add(new Chain(chain, expectedDimensions));
-					if (chains.size() == maxChains) {
+				if (chain.length >= minDepth) {
+					if (chainCount.getAndIncrement() >= maxChains) {
 						break;
 					}
+					chains.add(new Chain(chain.toList(), expectedDimensions));
 				}
 				continue;
 			}
-			if (chain.size() < maxDepth && incompleteChains.size() <= 50000) {
+			if (chain.length < maxDepth && incompleteChains.size() <= MAX_QUEUE_SIZE) {
 				searchDeeper(chain, incompleteChains, edge.getReturnType());
 			}
 		}
@@ -90,24 +159,27 @@ public class ChainFinder {
 
 	/**
 	 * Returns the potentially incomplete list of call chains that could be found before a time out
-	 * happened. The contents of this list are mutable and may change as the search makes progress.
+	 * happened. The list is a snapshot of the chains found so far, ordered by expected type.
 	 *
 	 * @return The list of call chains
 	 */
 	public List<Chain> getChains() {
-		return chains;
+		final List<Chain> result= new ArrayList<>();
+		for (final List<Chain> chains : chainsPerExpectedType) {
+			synchronized (chains) {
+				result.addAll(chains);
+			}
+		}
+		return result;
 	}
 
-	private static LinkedList<LinkedList<ChainElement>> prepareQueue(final List<ChainElement> entrypoints) {
-		final LinkedList<LinkedList<ChainElement>> incompleteChains= new LinkedList<>();
+	private static ArrayDeque<PartialChain> prepareQueue(final List<ChainElement> entrypoints) {
+		final ArrayDeque<PartialChain> incompleteChains= new ArrayDeque<>();
 		for (final ChainElement entrypoint : entrypoints) {
-			final LinkedList<ChainElement> chain= new LinkedList<>();
-			chain.add(entrypoint);
-			incompleteChains.add(chain);
+			incompleteChains.add(new PartialChain(entrypoint, null));
 		}
 		return incompleteChains;
 	}
-
 	public static boolean isFromExcludedType(final List<String> excluded, final IJavaElement element) {
 		if (element instanceof IType) {
 			return excluded.contains(((IType) element).getFullyQualifiedName());
@@ -134,60 +206,36 @@ public class ChainFinder {
 		if (expectedType.getPrimitiveType() != null) {
 			return expectedType.getPrimitiveType().equals(edge.getReturnType().getPrimitiveType());
 		}
-		Boolean isAssignable= assignableCache.get(edge.toString() + expectedType.toString());
-		if (isAssignable == null) {
-			isAssignable= ChainElementAnalyzer.isAssignable(edge, expectedType.getType(), expectedDimension);
-			assignableCache.put(edge.toString() + expectedType.toString(), isAssignable);
-		}
-		return isAssignable;
+		return cache.isAssignable(edge, expectedType.getType(), expectedDimension);
 	}
 
-	private void searchDeeper(final LinkedList<ChainElement> chain,
-			final List<LinkedList<ChainElement>> incompleteChains, final ChainType currentlyVisitedType) {
+	private void searchDeeper(final PartialChain chain, final ArrayDeque<PartialChain> incompleteChains,
+			final ChainType currentlyVisitedType) {
 		boolean staticOnly= false;
-		if (chain.getLast().getElementType() == ElementType.TYPE) {
+		if (chain.edge.getElementType() == ElementType.TYPE) {
 			staticOnly= true;
 		}
 
 		for (final IJavaElement element : findAllFieldsAndMethods(currentlyVisitedType, staticOnly)) {
-			final ChainElement newEdge= createEdge(element);
+			final ChainElement newEdge= cache.getEdge(element);
 			if (newEdge.getElementType() != null && !chain.contains(newEdge)) {
-				incompleteChains.add(cloneChainAndAppendEdge(chain, newEdge));
+				incompleteChains.add(new PartialChain(newEdge, chain));
 			}
 		}
 	}
 
 	private List<IJavaElement> findAllFieldsAndMethods(final ChainType chainElementType, boolean staticOnly) {
-		List<IJavaElement> cached= fieldsAndMethodsCache.get(chainElementType.toString() + Boolean.toString(staticOnly));
+		final String key= chainElementType.toString() + Boolean.toString(staticOnly);
+		List<IJavaElement> cached= fieldsAndMethodsCache.get(key);
 		if (cached == null) {
-			cached= new LinkedList<>();
-			Collection<IJavaElement> candidates= staticOnly
-					? ChainElementAnalyzer.findAllPublicStaticFieldsAndNonVoidNonPrimitiveStaticMethods(chainElementType, new ChainType(receiverType))
-					: ChainElementAnalyzer.findVisibleInstanceFieldsAndRelevantInstanceMethods(chainElementType, new ChainType(receiverType));
-			for (final IJavaElement e : candidates) {
-				if (!ChainFinder.isFromExcludedType(excludedTypes, e)) {
+			cached= new ArrayList<>();
+			for (final IJavaElement e : cache.getFieldsAndMethods(chainElementType, staticOnly)) {
+				if (ChainElementAnalyzer.canBeSeenBy(e, receiverType) && !ChainFinder.isFromExcludedType(excludedTypes, e)) {
 					cached.add(e);
 				}
 			}
-			fieldsAndMethodsCache.put(chainElementType.toString() + Boolean.toString(staticOnly), cached);
+			fieldsAndMethodsCache.put(key, cached);
 		}
 		return cached;
 	}
-
-	private ChainElement createEdge(final IJavaElement member) {
-		ChainElement cached= edgeCache.get(member);
-		if (cached == null) {
-			cached= new ChainElement(member, false);
-			edgeCache.put(member, cached);
-		}
-		return cached;
-	}
-
-	private static LinkedList<ChainElement> cloneChainAndAppendEdge(final LinkedList<ChainElement> chain,
-			final ChainElement newEdge) {
-		@SuppressWarnings("unchecked")
-		final LinkedList<ChainElement> chainCopy= (LinkedList<ChainElement>) chain.clone();
-		chainCopy.add(newEdge);
-		return chainCopy;
-	}
 }
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Cache of the type member tables, chain elements and assignability results of
+ * {@link ChainFinder}, which outlives a single content assist request.
+ * <p>
+ * The cache is scoped by Java project. Information about binary types is kept until the classpath
+ * of a project changes, while information about source types is discarded whenever any source
+ * changes, including reconciles of working copies.
+ * </p>
+ * <p>
+ * The cache is safe to use from several threads.
+ * </p>
+ */
+public final class ChainFinderCache {
+
+	/**
+	 * Maximal number of entries per table, a table is cleared when it gets larger.
+	 */
+	private static final int MAX_TABLE_SIZE= 10000;
+
+	private static final Map<IJavaProject, ChainFinderCache> fgCaches= new ConcurrentHashMap<>();
+
+	private static boolean fgListening;
+
+	private static final IElementChangedListener fgListener= new IElementChangedListener() {
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			if (event.getType() == ElementChangedEvent.POST_RECONCILE || !affectsClasspath(event.getDelta())) {
+				for (ChainFinderCache cache : fgCaches.values()) {
+					cache.fSourceTables= new Tables();
+				}
+			} else {
+				clearAll();
+			}
+		}
+	};
+
+	/**
+	 * The tables for either binary or source types.
+	 */
+	private static final class Tables {
+		final Map<String, List<IJavaElement>> fMembers= new ConcurrentHashMap<>();
+		final Map<IJavaElement, ChainElement> fEdges= new ConcurrentHashMap<>();
+		final Map<String, Boolean> fAssignable= new ConcurrentHashMap<>();
+	}
+
+	private final Tables fBinaryTables= new Tables();
+
+	private volatile Tables fSourceTables= new Tables();
+
+	private ChainFinderCache() {
+	}
+
+	/**
+	 * Returns the cache for the given project.
+	 *
+	 * @param project the Java project, or <code>null</code>
+	 * @return the cache of the project, or a new cache that is not shared if the project is
+	 *         <code>null</code>
+	 */
+	public static ChainFinderCache get(IJavaProject project) {
+		if (project == null)
+			return new ChainFinderCache();
+		synchronized (fgCaches) {
+			if (!fgListening) {
+				JavaCore.addElementChangedListener(fgListener, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+				fgListening= true;
+			}
+		}
+		return fgCaches.computeIfAbsent(project, p -> new ChainFinderCache());
+	}
+
+	/**
+	 * Removes all cached information of all projects.
+	 */
+	public static void clearAll() {
+		fgCaches.clear();
+		ChainElementAnalyzer.clearTypeCache();
+	}
+
+	/**
+	 * Returns the fields and methods of the given type and its super types that are candidates for
+	 * chain elements, without checking their visibility.
+	 *
+	 * @param type the type
+	 * @param staticOnly <code>true</code> for the static members, <code>false</code> for the
+	 *            instance members
+	 * @return the members
+	 */
+	public List<IJavaElement> getFieldsAndMethods(ChainType type, boolean staticOnly) {
+		Tables tables= getTables(type.getType());
+		String key= type.toString() + staticOnly;
+		List<IJavaElement> members= tables.fMembers.get(key);
+		if (members == null) {
+			members= ChainElementAnalyzer.findFieldsAndMethods(type, staticOnly);
+			put(tables.fMembers, key, members);
+		}
+		return members;
+	}
+
+	/**
+	 * Returns the chain element for the given member.
+	 *
+	 * @param member the field or method
+	 * @return the chain element
+	 */
+	public ChainElement getEdge(IJavaElement member) {
+		Tables tables= member instanceof IMember && ((IMember) member).isBinary() ? fBinaryTables : fSourceTables;
+		ChainElement edge= tables.fEdges.get(member);
+		if (edge == null) {
+			edge= new ChainElement(member, false);
+			put(tables.fEdges, member, edge);
+		}
+		return edge;
+	}
+
+	/**
+	 * Tells whether the return type of the given chain element is assignable to the expected type.
+	 *
+	 * @param edge the chain element
+	 * @param expectedType the expected type
+	 * @param expectedDimension the expected array dimension
+	 * @return <code>true</code> if the return type is assignable
+	 * @see ChainElementAnalyzer#isAssignable(ChainElement, IType, int)
+	 */
+	public boolean isAssignable(ChainElement edge, IType expectedType, int expectedDimension) {
+		IType returnType= edge.getReturnType().getType();
+		Tables tables= returnType != null && returnType.isBinary() && expectedType.isBinary() ? fBinaryTables : fSourceTables;
+		String key= edge.getReturnType().toString() + '[' + edge.getReturnTypeDimension() + '>' + expectedType.getFullyQualifiedName() + '[' + expectedDimension;
+		Boolean isAssignable= tables.fAssignable.get(key);
+		if (isAssignable == null) {
+			isAssignable= Boolean.valueOf(ChainElementAnalyzer.isAssignable(edge, expectedType, expectedDimension));
+			put(tables.fAssignable, key, isAssignable);
+		}
+		return isAssignable.booleanValue();
+	}
+
+	private Tables getTables(IType type) {
+		return type != null && type.isBinary() ? fBinaryTables : fSourceTables;
+	}
+
+	private static <K, V> void put(Map<K, V> table, K key, V value) {
+		if (table.size() >= MAX_TABLE_SIZE)
+			table.clear();
+		table.put(key, value);
+	}
+
+	private static boolean affectsClasspath(IJavaElementDelta delta) {
+		int kind= delta.getKind();
+		int flags= delta.getFlags();
+		switch (delta.getElement().getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				break;
+			case IJavaElement.JAVA_PROJECT:
+				if (kind != IJavaElementDelta.CHANGED
+						|| (flags & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED)) != 0)
+					return true;
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				return kind != IJavaElementDelta.CHANGED
+						|| (flags & (IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_REORDER)) != 0;
+			default:
+				return false;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (affectsClasspath(child))
+				return true;
+		}
+		return false;
+	}
+}
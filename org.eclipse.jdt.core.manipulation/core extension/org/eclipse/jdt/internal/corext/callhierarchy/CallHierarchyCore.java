@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019, 2021 IBM Corporation and others.
+ * Copyright (c) 2019, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -224,6 +224,20 @@ public class CallHierarchyCore {
     	this.defaultIgnoreFilters= defaultIgnoreFilters;
     }
 
+    /**
+     * Returns a string that identifies the settings which filter the callers found by a search.
+     *
+     * @return the filter settings
+     */
+    String getFilterSettings() {
+        StringBuilder settings= new StringBuilder();
+        settings.append(isFilterTestCode());
+        if (isFilterEnabled()) {
+            settings.append(':').append(getFilters()).append(':').append(defaultIgnoreFilters);
+        }
+        return settings.toString();
+    }
+
     /**
      * Reset filters variable to null.
      */
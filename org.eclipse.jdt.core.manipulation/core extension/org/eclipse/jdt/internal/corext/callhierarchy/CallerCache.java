@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Workspace-wide cache of the callers found by {@link CallerMethodWrapper}.
+ * <p>
+ * Unlike the method cache of a {@link MethodWrapper}, which lives as long as the input of the call
+ * hierarchy, the cached callers are shared by all hierarchies, so that refreshing, switching the
+ * input or expanding the same member again does not search the workspace again. Any change of the
+ * Java model discards the whole cache, since a changed compilation unit can add or remove
+ * references to any member.
+ * </p>
+ */
+final class CallerCache implements IElementChangedListener {
+
+	/** If the cache grows beyond this, it is discarded */
+	private static final int MAX_ENTRIES= 5000;
+
+	private static CallerCache fgInstance;
+
+	/**
+	 * Returns the shared cache.
+	 *
+	 * @return the cache
+	 */
+	static synchronized CallerCache getDefault() {
+		if (fgInstance == null) {
+			fgInstance= new CallerCache();
+			JavaCore.addElementChangedListener(fgInstance);
+		}
+		return fgInstance;
+	}
+
+	/** The callers by search key, see {@link CallerMethodWrapper} */
+	private final Map<String, Map<String, MethodCall>> fCallers= new ConcurrentHashMap<>();
+
+	/** Incremented on every change of the Java model */
+	private final AtomicLong fGeneration= new AtomicLong();
+
+	private CallerCache() {
+	}
+
+	/**
+	 * Returns the state of the cache, to be passed to {@link #put(String, Map, long)} when the
+	 * search started with this state has finished.
+	 *
+	 * @return the current generation of the cache
+	 */
+	long getGeneration() {
+		return fGeneration.get();
+	}
+
+	/**
+	 * Returns the cached callers of a search.
+	 *
+	 * @param key the key of the search
+	 * @return a map from handle identifier to {@link MethodCall}, or <code>null</code> if the
+	 *         search has not been cached
+	 */
+	Map<String, MethodCall> get(String key) {
+		Map<String, MethodCall> callers= fCallers.get(key);
+		return callers != null ? new HashMap<>(callers) : null;
+	}
+
+	/**
+	 * Caches the callers of a search, unless the Java model changed while searching.
+	 *
+	 * @param key the key of the search
+	 * @param callers a map from handle identifier to {@link MethodCall}
+	 * @param generation the generation of the cache when the search was started
+	 */
+	void put(String key, Map<String, MethodCall> callers, long generation) {
+		if (fCallers.size() >= MAX_ENTRIES)
+			fCallers.clear();
+		fCallers.put(key, new HashMap<>(callers));
+		if (fGeneration.get() != generation) {
+			// changed concurrently, the callers may be stale
+			fCallers.remove(key);
+		}
+	}
+
+	/**
+	 * Discards the cached callers of the given member, for all search modes and filter settings.
+	 *
+	 * @param member the member
+	 */
+	void remove(IMember member) {
+		// searches for the member that are running now must not cache their results either
+		fGeneration.incrementAndGet();
+		String prefix= member.getHandleIdentifier() + '|';
+		fCallers.keySet().removeIf(key -> key.startsWith(prefix));
+	}
+
+	/**
+	 * Discards all cached callers.
+	 */
+	void clear() {
+		fGeneration.incrementAndGet();
+		fCallers.clear();
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		clear();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -147,14 +147,27 @@ public class CallerMethodWrapper extends MethodWrapper {
 				return new HashMap<>(0);
 			}
 
-			SearchEngine searchEngine= new SearchEngine();
-			MethodReferencesSearchRequestor searchRequestor= new MethodReferencesSearchRequestor();
 			IJavaSearchScope defaultSearchScope= getSearchScope();
 			boolean isWorkspaceScope= SearchEngine.createWorkspaceScope().equals(defaultSearchScope);
+			// the accurate scope only depends on the member, so only the scope of the view has to be checked
+			String cacheKey= isWorkspaceScope ? getCacheKey(member) : null;
+			CallerCache cache= CallerCache.getDefault();
+			long generation= cache.getGeneration();
+			if (cacheKey != null) {
+				Map<String, MethodCall> callers= cache.get(cacheKey);
+				if (callers != null)
+					return callers;
+			}
+
+			SearchEngine searchEngine= new SearchEngine();
+			MethodReferencesSearchRequestor searchRequestor= new MethodReferencesSearchRequestor();
 			IJavaSearchScope searchScope= isWorkspaceScope ? getAccurateSearchScope(defaultSearchScope, member) : defaultSearchScope;
 			searchEngine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, searchScope, searchRequestor,
 					monitor);
-			return searchRequestor.getCallers();
+			Map<String, MethodCall> callers= searchRequestor.getCallers();
+			if (cacheKey != null)
+				cache.put(cacheKey, callers, generation);
+			return callers;
 
 		} catch (CoreException e) {
 			JavaManipulationPlugin.log(e);
@@ -162,6 +175,34 @@ public class CallerMethodWrapper extends MethodWrapper {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The callers of the member are searched again, even if they are in the
+	 * {@link CallerCache}.
+	 * </p>
+	 */
+	@Override
+	public void removeFromCache() {
+		super.removeFromCache();
+		CallerCache.getDefault().remove(getMember());
+	}
+
+	/**
+	 * Returns the key of the search for the callers of the given member in the workspace.
+	 *
+	 * @param member the member
+	 * @return the key for the {@link CallerCache}
+	 */
+	private String getCacheKey(IMember member) {
+		StringBuilder key= new StringBuilder(member.getHandleIdentifier());
+		key.append('|');
+		key.append(member.getElementType() == IJavaElement.FIELD ? getFieldSearchMode() : IJavaSearchConstants.REFERENCES);
+		key.append('|');
+		key.append(CallHierarchyCore.getDefault().getFilterSettings());
+		return key.toString();
+	}
+
 	private IJavaSearchScope getAccurateSearchScope(IJavaSearchScope defaultSearchScope, IMember member) throws JavaModelException {
 		if (!JdtFlags.isPrivate(member) || isRecordComponent(member))
 			return defaultSearchScope;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,12 +14,14 @@
 package org.eclipse.jdt.internal.corext.refactoring.structure.constraints;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 
@@ -28,6 +30,7 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.internal.corext.refactoring.typeconstraints.types.TType;
 import org.eclipse.jdt.internal.corext.refactoring.typeconstraints2.CastVariable2;
 import org.eclipse.jdt.internal.corext.refactoring.typeconstraints2.ConstraintVariable2;
+import org.eclipse.jdt.internal.corext.refactoring.typeconstraints2.ConstraintVariableWorkList;
 import org.eclipse.jdt.internal.corext.refactoring.typeconstraints2.ITypeConstraint2;
 import org.eclipse.jdt.internal.corext.refactoring.typeconstraints2.ITypeConstraintVariable;
 import org.eclipse.jdt.internal.corext.refactoring.typeconstraints2.ITypeSet;
@@ -51,7 +54,7 @@ public class SuperTypeConstraintsSolver {
 	protected Map<ICompilationUnit, Collection<CastVariable2>> fObsoleteCasts= null;
 
 	/** The list of constraint variables to be processed */
-	protected LinkedList<ConstraintVariable2> fProcessable= null;
+	protected ConstraintVariableWorkList fProcessable= null;
 
 	/** The type occurrences (element type: <code>&lt;ICompilationUnit, Collection&lt;ITypeConstraintVariable&gt;</code>) */
 	protected Map<ICompilationUnit, Collection<ITypeConstraintVariable>> fTypeOccurrences= null;
@@ -247,17 +250,39 @@ public class SuperTypeConstraintsSolver {
 				final ITypeSet newEstimate= leftEstimate.restrictedTo(constraint.getRight().getTypeEstimate());
 				if (leftEstimate != newEstimate) {
 					set.setTypeEstimate(newEstimate);
-					fProcessable.addAll(Arrays.asList(set.getContributingVariables()));
+					fProcessable.addAll(set.getContributingVariables());
 				}
 			}
 		}
 	}
 
+	/**
+	 * Returns the constraint variables whose type estimates can change when the type estimate of
+	 * the given variable changes, one variable per type equivalence set.
+	 *
+	 * @param variable the constraint variable
+	 * @return the dependent variables
+	 */
+	private static Collection<ConstraintVariable2> getDependentVariables(final ConstraintVariable2 variable) {
+		final Collection<ITypeConstraint2> usage= SuperTypeConstraintsModel.getVariableUsage(variable);
+		if (usage.isEmpty())
+			return Collections.emptyList();
+		final Set<TypeEquivalenceSet> sets= new HashSet<>();
+		final List<ConstraintVariable2> result= new ArrayList<>();
+		TypeEquivalenceSet set= null;
+		for (final Iterator<ITypeConstraint2> iterator= usage.iterator(); iterator.hasNext();) {
+			set= iterator.next().getLeft().getTypeEquivalenceSet();
+			// the work list treats the members of a set as one node
+			if (set != null && sets.add(set) && set.getContributingVariables().length > 0)
+				result.add(set.getContributingVariables()[0]);
+		}
+		return result;
+	}
+
 	/**
 	 * Solves the constraints of the associated model.
 	 */
 	public final void solveConstraints() {
-		fProcessable= new LinkedList<>();
 		final Collection<ConstraintVariable2> variables= fModel.getConstraintVariables();
 		final Collection<ITypeConstraint2> constraints= fModel.getTypeConstraints();
 		final int level= fModel.getCompliance();
@@ -267,6 +292,7 @@ public class SuperTypeConstraintsSolver {
 		computeConditionalTypeConstraints(constraints, level);
 
 		computeTypeEstimates(variables);
+		fProcessable= new ConstraintVariableWorkList(variables, SuperTypeConstraintsSolver::getDependentVariables);
 		fProcessable.addAll(variables);
 		Collection<ITypeConstraint2> usage= null;
 		ConstraintVariable2 variable= null;
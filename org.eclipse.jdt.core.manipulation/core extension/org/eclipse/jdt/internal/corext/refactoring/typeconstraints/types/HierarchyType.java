@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -62,8 +62,8 @@ public abstract class HierarchyType extends TType {
 
 	public boolean isSubType(HierarchyType other) {
 		if (getEnvironment() == other.getEnvironment()) {
-			Map<TypeTuple, Boolean> cache= getEnvironment().getSubTypeCache();
-			TypeTuple key= new TypeTuple(this, other);
+			Map<Long, Boolean> cache= getEnvironment().getSubTypeCache();
+			Long key= Long.valueOf(((long) getId() << 32) | (other.getId() & 0xFFFFFFFFL));
 			Boolean value= cache.get(key);
 			if (value != null)
 				return value;
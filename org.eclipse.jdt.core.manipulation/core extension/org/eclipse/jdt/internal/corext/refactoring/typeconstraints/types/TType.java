@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -71,6 +71,7 @@ public abstract class TType {
 	protected static final TType[] EMPTY_TYPE_ARRAY= new TType[0];
 
 	private TypeEnvironment fEnvironment;
+	private final int fId;
 	private String fBindingKey;
 	private int fModifiers;
 	private int fFlags;
@@ -83,6 +84,7 @@ public abstract class TType {
 	 */
 	protected TType(TypeEnvironment environment) {
 		fEnvironment= environment;
+		fId= environment.nextTypeId();
 	}
 
 	/**
@@ -142,6 +144,16 @@ public abstract class TType {
 		return fEnvironment;
 	}
 
+	/**
+	 * Returns the number of this type in its environment. The numbers are assigned sequentially
+	 * and are unique among the types of an environment.
+	 *
+	 * @return the type's number
+	 */
+	public final int getId() {
+		return fId;
+	}
+
 	/**
 	 * Returns the key of the binding from which this type
 	 * got constructed.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -117,11 +117,21 @@ public class TypeEnvironment {
 	private Map<TType, SuperWildcardType>    fSuperWildcardTypes= new HashMap<>();
 	private UnboundWildcardType fUnboundWildcardType= null;
 
-	private static final int MAX_ENTRIES= 1024;
-	private Map<TypeTuple, Boolean> fSubTypeCache= new LinkedHashMap<>(50, 0.75f, true) {
+	/**
+	 * The number of the next type. Intentionally not initialized explicitly, since
+	 * the primitive types are created by field initializers that run before this one.
+	 */
+	private int fNextTypeId;
+
+	private static final int MAX_ENTRIES= 64 * 1024;
+	/**
+	 * Cache of the subtype relation between hierarchy types, keyed by the
+	 * numbers of the subtype (upper 32 bits) and the supertype (lower 32 bits).
+	 */
+	private Map<Long, Boolean> fSubTypeCache= new LinkedHashMap<>(50, 0.75f, true) {
 		private static final long serialVersionUID= 1L;
 		@Override
-		protected boolean removeEldestEntry(Map.Entry<TypeTuple, Boolean> eldest) {
+		protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
 			return size() > MAX_ENTRIES;
 		}
 	};
@@ -182,10 +192,19 @@ public class TypeEnvironment {
 		fRemoveCapures= removeCapures;
 	}
 
-	Map<TypeTuple, Boolean> getSubTypeCache() {
+	Map<Long, Boolean> getSubTypeCache() {
 		return fSubTypeCache;
 	}
 
+	/**
+	 * Returns the number of the next type created in this environment.
+	 *
+	 * @return the next type number
+	 */
+	int nextTypeId() {
+		return fNextTypeId++;
+	}
+
 	public TType create(ITypeBinding binding) {
 		if (binding.isPrimitive()) {
 			return createPrimitiveType(binding);
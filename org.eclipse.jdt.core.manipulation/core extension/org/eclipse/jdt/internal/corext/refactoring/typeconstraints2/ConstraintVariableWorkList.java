@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.refactoring.typeconstraints2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Work list of the constraint variables whose type estimates have to be (re-)propagated by a type
+ * constraint solver.
+ * <p>
+ * A variable is contained at most once, adding a pending variable again has no effect. The
+ * variables are removed in the topological order of the strongly connected components of the
+ * constraint graph, so that a component is only processed after the estimates of the components
+ * it depends on have reached their fixpoint. Since the solvers only ever narrow the estimates, the
+ * order does not change the solution.
+ * </p>
+ * <p>
+ * The members of a {@link TypeEquivalenceSet} share their type estimate, so they form a single
+ * node of the graph. It suffices that the successors contain one member of each dependent set.
+ * </p>
+ */
+public final class ConstraintVariableWorkList {
+
+	/** The indices of the known variables, in evaluation order */
+	private final Map<ConstraintVariable2, Integer> fIndices;
+
+	/** The variables by index */
+	private final List<ConstraintVariable2> fVariables;
+
+	/** The indices of the pending variables */
+	private final BitSet fPending= new BitSet();
+
+	/** No pending variable has an index lower than this */
+	private int fLowest;
+
+	private int fSize;
+
+	/**
+	 * Creates a work list that evaluates the given variables in the order of the strongly
+	 * connected components of the graph defined by <code>successors</code>. The work list is
+	 * initially empty.
+	 *
+	 * @param variables the constraint variables
+	 * @param successors returns the variables whose estimates may change when the estimate of the
+	 *            argument changed, one variable per type equivalence set suffices
+	 */
+	public ConstraintVariableWorkList(Collection<? extends ConstraintVariable2> variables, Function<ConstraintVariable2, Collection<ConstraintVariable2>> successors) {
+		ConstraintVariable2[] order= computeOrder(variables, successors);
+		fIndices= new IdentityHashMap<>(2 * order.length);
+		fVariables= new ArrayList<>(Arrays.asList(order));
+		for (int i= 0; i < order.length; i++)
+			fIndices.put(order[i], Integer.valueOf(i));
+	}
+
+	/**
+	 * Adds a variable unless it is already pending.
+	 *
+	 * @param variable the variable to add
+	 */
+	public void add(ConstraintVariable2 variable) {
+		Integer index= fIndices.get(variable);
+		int i;
+		if (index == null) {
+			// not part of the constraint graph, evaluate last
+			i= fVariables.size();
+			fVariables.add(variable);
+			fIndices.put(variable, Integer.valueOf(i));
+		} else {
+			i= index.intValue();
+		}
+		if (!fPending.get(i)) {
+			fPending.set(i);
+			fSize++;
+			if (i < fLowest)
+				fLowest= i;
+		}
+	}
+
+	/**
+	 * Adds all variables that are not already pending.
+	 *
+	 * @param variables the variables to add
+	 */
+	public void addAll(ConstraintVariable2[] variables) {
+		for (ConstraintVariable2 variable : variables)
+			add(variable);
+	}
+
+	/**
+	 * Adds all variables that are not already pending.
+	 *
+	 * @param variables the variables to add
+	 */
+	public void addAll(Collection<? extends ConstraintVariable2> variables) {
+		for (ConstraintVariable2 variable : variables)
+			add(variable);
+	}
+
+	/**
+	 * Removes the pending variable that comes first in the evaluation order.
+	 *
+	 * @return the removed variable
+	 * @throws IllegalStateException if the work list is empty
+	 */
+	public ConstraintVariable2 removeFirst() {
+		int i= fPending.nextSetBit(fLowest);
+		if (i < 0)
+			throw new IllegalStateException();
+		fPending.clear(i);
+		fSize--;
+		fLowest= i;
+		return fVariables.get(i);
+	}
+
+	public boolean isEmpty() {
+		return fSize == 0;
+	}
+
+	public int size() {
+		return fSize;
+	}
+
+	/**
+	 * Orders the variables topologically by the strongly connected components of the graph, using
+	 * an iterative version of Tarjan's algorithm to support deep constraint graphs. The nodes of
+	 * the graph are the type equivalence sets, so that the number of edges does not grow with the
+	 * square of the set sizes.
+	 *
+	 * @param variables the variables
+	 * @param successors the edges of the graph
+	 * @return the ordered variables
+	 */
+	private static ConstraintVariable2[] computeOrder(Collection<? extends ConstraintVariable2> variables, Function<ConstraintVariable2, Collection<ConstraintVariable2>> successors) {
+		Map<ConstraintVariable2, Integer> indices= new IdentityHashMap<>(2 * variables.size());
+		List<ConstraintVariable2> variableList= new ArrayList<>(variables.size());
+		for (ConstraintVariable2 variable : variables) {
+			if (!indices.containsKey(variable)) {
+				indices.put(variable, Integer.valueOf(variableList.size()));
+				variableList.add(variable);
+			}
+		}
+		int variableCount= variableList.size();
+
+		// one node per type equivalence set, variables without a set are nodes of their own
+		Map<Object, Integer> nodeIds= new IdentityHashMap<>();
+		int[] nodeOf= new int[variableCount];
+		for (int i= 0; i < variableCount; i++) {
+			ConstraintVariable2 variable= variableList.get(i);
+			Object key= variable.getTypeEquivalenceSet() != null ? variable.getTypeEquivalenceSet() : variable;
+			Integer node= nodeIds.get(key);
+			if (node == null) {
+				node= Integer.valueOf(nodeIds.size());
+				nodeIds.put(key, node);
+			}
+			nodeOf[i]= node.intValue();
+		}
+		int count= nodeIds.size();
+		int[] firstMember= new int[count];
+		int[] nextMember= new int[variableCount];
+		Arrays.fill(firstMember, -1);
+		for (int i= variableCount - 1; i >= 0; i--) {
+			nextMember[i]= firstMember[nodeOf[i]];
+			firstMember[nodeOf[i]]= i;
+		}
+
+		// the targets of each node, without duplicates
+		int[][] edges= new int[count][];
+		int[] lastSource= new int[count];
+		Arrays.fill(lastSource, -1);
+		int[] buffer= new int[16];
+		for (int node= 0; node < count; node++) {
+			int length= 0;
+			lastSource[node]= node;
+			for (int member= firstMember[node]; member != -1; member= nextMember[member]) {
+				for (ConstraintVariable2 successor : successors.apply(variableList.get(member))) {
+					Integer index= indices.get(successor);
+					if (index == null)
+						continue;
+					int target= nodeOf[index.intValue()];
+					if (lastSource[target] != node) {
+						lastSource[target]= node;
+						if (length == buffer.length)
+							buffer= Arrays.copyOf(buffer, 2 * length);
+						buffer[length++]= target;
+					}
+				}
+			}
+			edges[node]= Arrays.copyOf(buffer, length);
+		}
+
+		int[] index= new int[count];
+		int[] lowLink= new int[count];
+		boolean[] onStack= new boolean[count];
+		Arrays.fill(index, -1);
+		int[] stack= new int[count];
+		int stackSize= 0;
+		int[] callStack= new int[count];
+		int[] edgePositions= new int[count];
+		int[] order= new int[count];
+		// Tarjan finds the components in reverse topological order
+		int orderPosition= count;
+		int nextIndex= 0;
+
+		for (int root= 0; root < count; root++) {
+			if (index[root] != -1)
+				continue;
+			int depth= 0;
+			callStack[depth]= root;
+			index[root]= lowLink[root]= nextIndex++;
+			stack[stackSize++]= root;
+			onStack[root]= true;
+			edgePositions[root]= 0;
+			while (depth >= 0) {
+				int node= callStack[depth];
+				int[] targets= edges[node];
+				if (edgePositions[node] < targets.length) {
+					int target= targets[edgePositions[node]++];
+					if (index[target] == -1) {
+						index[target]= lowLink[target]= nextIndex++;
+						stack[stackSize++]= target;
+						onStack[target]= true;
+						edgePositions[target]= 0;
+						callStack[++depth]= target;
+					} else if (onStack[target]) {
+						lowLink[node]= Math.min(lowLink[node], index[target]);
+					}
+					continue;
+				}
+				if (lowLink[node] == index[node]) {
+					int componentStart= stackSize;
+					do {
+						componentStart--;
+						onStack[stack[componentStart]]= false;
+					} while (stack[componentStart] != node);
+					orderPosition-= stackSize - componentStart;
+					System.arraycopy(stack, componentStart, order, orderPosition, stackSize - componentStart);
+					stackSize= componentStart;
+				}
+				depth--;
+				if (depth >= 0) {
+					int parent= callStack[depth];
+					lowLink[parent]= Math.min(lowLink[parent], lowLink[node]);
+				}
+			}
+		}
+
+		ConstraintVariable2[] result= new ConstraintVariable2[variableCount];
+		int position= 0;
+		for (int node : order) {
+			for (int member= firstMember[node]; member != -1; member= nextMember[member])
+				result[position++]= variableList.get(member);
+		}
+		return result;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,8 +14,10 @@
 package org.eclipse.jdt.internal.corext.util;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
@@ -26,6 +28,15 @@ import org.eclipse.jdt.core.JavaModelException;
 
 /**
  * A thread-safe cache for super type hierarchies.
+ * <p>
+ * All types of a cached hierarchy are indexed, so that lookups don't have to test every cached
+ * hierarchy and don't block. The capacity of the cache is the total number of types in the
+ * cached hierarchies (see {@link #setCapacity(int)}), so that many small hierarchies can be
+ * cached while large ones don't pin too much memory. Since every cached hierarchy listens to the
+ * changes of the Java model, the number of cached hierarchies is bounded as well. A hierarchy is
+ * removed (along with its {@link MethodOverrideTester}s) as soon as it reports a change; other
+ * hierarchies stay cached.
+ * </p>
  */
 // @see JDTUIHelperClasses
 public class SuperTypeHierarchyCache {
@@ -33,25 +44,47 @@ public class SuperTypeHierarchyCache {
 	private static class HierarchyCacheEntry implements ITypeHierarchyChangedListener {
 
 		private ITypeHierarchy fTypeHierarchy;
-		private long fLastAccess;
+		private final IType[] fTypes;
+		private final Map<IType, MethodOverrideTester> fMethodOverrideTesters= new ConcurrentHashMap<>();
+		private volatile long fLastAccess;
+		private volatile boolean fValid= true;
 
 		public HierarchyCacheEntry(ITypeHierarchy hierarchy) {
 			fTypeHierarchy= hierarchy;
+			fTypes= hierarchy.getAllTypes();
 			fTypeHierarchy.addTypeHierarchyChangedListener(this);
 			markAsAccessed();
 		}
 
 		@Override
 		public void typeHierarchyChanged(ITypeHierarchy typeHierarchy) {
+			// lookups don't block, they may still find the entry until it is removed
+			fValid= false;
 			removeHierarchyEntryFromCache(this);
 		}
 
+		public boolean isValid() {
+			return fValid && fTypeHierarchy.exists();
+		}
+
 		public ITypeHierarchy getTypeHierarchy() {
 			return fTypeHierarchy;
 		}
 
+		public IType[] getTypes() {
+			return fTypes;
+		}
+
+		public int getWeight() {
+			return Math.max(1, fTypes.length);
+		}
+
+		public MethodOverrideTester getMethodOverrideTester(IType type) {
+			return fMethodOverrideTesters.computeIfAbsent(type, t -> new MethodOverrideTester(t, fTypeHierarchy));
+		}
+
 		public void markAsAccessed() {
-			fLastAccess= System.currentTimeMillis();
+			fLastAccess= fgAccessCounter.incrementAndGet();
 		}
 
 		public long getLastAccess() {
@@ -61,8 +94,8 @@ public class SuperTypeHierarchyCache {
 		public void dispose() {
 			if (fTypeHierarchy != null) {
 				fTypeHierarchy.removeTypeHierarchyChangedListener(this);
-				fTypeHierarchy= null;
 			}
+			fMethodOverrideTesters.clear();
 		}
 
 		@Override
@@ -73,13 +106,34 @@ public class SuperTypeHierarchyCache {
 	}
 
 
-	private static final int CACHE_SIZE= 8;
+	/**
+	 * Default capacity, in number of types. Can be set with the system property
+	 * <code>jdt.superTypeHierarchyCacheCapacity</code>.
+	 */
+	private static final int DEFAULT_CAPACITY= Integer.getInteger("jdt.superTypeHierarchyCacheCapacity", 2000).intValue(); //$NON-NLS-1$
 
-	private static ArrayList<HierarchyCacheEntry> fgHierarchyCache= new ArrayList<>(CACHE_SIZE);
-	private static Map<IType, MethodOverrideTester> fgMethodOverrideTesterCache= new LRUMap<>(CACHE_SIZE);
+	/**
+	 * Maximal number of cached hierarchies, each of them processes all changes of the Java model.
+	 * Can be set with the system property <code>jdt.superTypeHierarchyCacheMaxHierarchies</code>.
+	 */
+	private static final int MAX_HIERARCHIES= Integer.getInteger("jdt.superTypeHierarchyCacheMaxHierarchies", 32).intValue(); //$NON-NLS-1$
+
+	/**
+	 * The cached hierarchies, indexed by all the types they contain.
+	 */
+	private static final Map<IType, HierarchyCacheEntry> fgTypeIndex= new ConcurrentHashMap<>();
+
+	/**
+	 * The cached hierarchies. Guarded by itself, like all modifications of the cache.
+	 */
+	private static final List<HierarchyCacheEntry> fgHierarchyCache= new ArrayList<>();
+
+	private static int fgCapacity= DEFAULT_CAPACITY;
+	private static int fgWeight= 0;
 
-	private static int fgCacheHits= 0;
-	private static int fgCacheMisses= 0;
+	private static final AtomicLong fgAccessCounter= new AtomicLong();
+	private static final AtomicLong fgCacheHits= new AtomicLong();
+	private static final AtomicLong fgCacheMisses= new AtomicLong();
 
 	/**
 	 * Returns a super type hierarchy that contains the given type.
@@ -97,32 +151,14 @@ public class SuperTypeHierarchyCache {
 	}
 
 	public static MethodOverrideTester getMethodOverrideTester(IType type) throws JavaModelException {
-		MethodOverrideTester test= null;
-		synchronized (fgMethodOverrideTesterCache) {
-			test= fgMethodOverrideTesterCache.get(type);
-		}
-		if (test == null) {
-			ITypeHierarchy hierarchy= getTypeHierarchy(type); // don't nest the locks
-			synchronized (fgMethodOverrideTesterCache) {
-				test= fgMethodOverrideTesterCache.get(type); // test again after waiting a long time for 'getTypeHierarchy'
-				if (test == null) {
-					test= new MethodOverrideTester(type, hierarchy);
-					fgMethodOverrideTesterCache.put(type, test);
-				}
-			}
-		}
-		return test;
-	}
-
-	private static void removeMethodOverrideTester(ITypeHierarchy hierarchy) {
-		synchronized (fgMethodOverrideTesterCache) {
-			for (Iterator<MethodOverrideTester> iter= fgMethodOverrideTesterCache.values().iterator(); iter.hasNext();) {
-				MethodOverrideTester curr= iter.next();
-				if (curr.getTypeHierarchy().equals(hierarchy)) {
-					iter.remove();
-				}
-			}
+		HierarchyCacheEntry entry= findEntryInCache(type);
+		if (entry == null) {
+			fgCacheMisses.incrementAndGet();
+			entry= addTypeHierarchyToCache(type.newSupertypeHierarchy(null));
+		} else {
+			fgCacheHits.incrementAndGet();
 		}
+		return entry.getMethodOverrideTester(type);
 	}
 
 	/**
@@ -138,44 +174,64 @@ public class SuperTypeHierarchyCache {
 	 * @throws JavaModelException if a problem occurs
 	 */
 	public static ITypeHierarchy getTypeHierarchy(IType type, IProgressMonitor progressMonitor) throws JavaModelException {
-		ITypeHierarchy hierarchy= findTypeHierarchyInCache(type);
-		if (hierarchy == null) {
-			fgCacheMisses++;
-			hierarchy= type.newSupertypeHierarchy(progressMonitor);
-			addTypeHierarchyToCache(hierarchy);
+		HierarchyCacheEntry entry= findEntryInCache(type);
+		if (entry == null) {
+			fgCacheMisses.incrementAndGet();
+			entry= addTypeHierarchyToCache(type.newSupertypeHierarchy(progressMonitor));
 		} else {
-			fgCacheHits++;
+			fgCacheHits.incrementAndGet();
 		}
-		return hierarchy;
+		return entry.getTypeHierarchy();
 	}
 
-	private static void addTypeHierarchyToCache(ITypeHierarchy hierarchy) {
+	private static HierarchyCacheEntry addTypeHierarchyToCache(ITypeHierarchy hierarchy) {
+		HierarchyCacheEntry newEntry= new HierarchyCacheEntry(hierarchy);
 		synchronized (fgHierarchyCache) {
-			int nEntries= fgHierarchyCache.size();
-			if (nEntries >= CACHE_SIZE) {
-				// find obsolete entries or remove entry that was least recently accessed
-				HierarchyCacheEntry oldest= null;
-				ArrayList<HierarchyCacheEntry> obsoleteHierarchies= new ArrayList<>(CACHE_SIZE);
-				for (HierarchyCacheEntry entry : fgHierarchyCache) {
-					ITypeHierarchy curr= entry.getTypeHierarchy();
-					if (!curr.exists() || hierarchy.contains(curr.getType())) {
-						obsoleteHierarchies.add(entry);
-					} else {
-						if (oldest == null || entry.getLastAccess() < oldest.getLastAccess()) {
-							oldest= entry;
-						}
-					}
-				}
-				if (!obsoleteHierarchies.isEmpty()) {
-					for (HierarchyCacheEntry obsoleteHierarchie : obsoleteHierarchies) {
-						removeHierarchyEntryFromCache(obsoleteHierarchie);
-					}
-				} else if (oldest != null) {
-					removeHierarchyEntryFromCache(oldest);
+			if (!newEntry.isValid()) {
+				// changed while being created, use it once but don't cache it
+				newEntry.dispose();
+				return newEntry;
+			}
+			// hierarchies of super types are contained in the new one
+			ArrayList<HierarchyCacheEntry> obsoleteHierarchies= new ArrayList<>();
+			for (HierarchyCacheEntry entry : fgHierarchyCache) {
+				ITypeHierarchy curr= entry.getTypeHierarchy();
+				if (!entry.isValid() || hierarchy.contains(curr.getType())) {
+					obsoleteHierarchies.add(entry);
 				}
 			}
-			HierarchyCacheEntry newEntry= new HierarchyCacheEntry(hierarchy);
+			for (HierarchyCacheEntry obsoleteHierarchy : obsoleteHierarchies) {
+				removeHierarchyEntryFromCache(obsoleteHierarchy);
+			}
+
 			fgHierarchyCache.add(newEntry);
+			fgWeight+= newEntry.getWeight();
+			for (IType type : newEntry.getTypes()) {
+				fgTypeIndex.put(type, newEntry);
+			}
+			evict(newEntry);
+		}
+		return newEntry;
+	}
+
+	/**
+	 * Removes the least recently accessed hierarchies until the cache is within its capacity and
+	 * holds at most {@link #MAX_HIERARCHIES} hierarchies. Must be called while holding the lock on
+	 * {@link #fgHierarchyCache}.
+	 *
+	 * @param keep an entry not to remove, or <code>null</code>
+	 */
+	private static void evict(HierarchyCacheEntry keep) {
+		while (fgWeight > fgCapacity || fgHierarchyCache.size() > MAX_HIERARCHIES) {
+			HierarchyCacheEntry oldest= null;
+			for (HierarchyCacheEntry entry : fgHierarchyCache) {
+				if (entry != keep && (oldest == null || entry.getLastAccess() < oldest.getLastAccess())) {
+					oldest= entry;
+				}
+			}
+			if (oldest == null)
+				return;
+			removeHierarchyEntryFromCache(oldest);
 		}
 	}
 
@@ -186,43 +242,99 @@ public class SuperTypeHierarchyCache {
 	 * @return <code>true</code> if a hierarchy for the given type is cached
 	 */
 	public static boolean hasInCache(IType type) {
-		return findTypeHierarchyInCache(type) != null;
+		return findEntryInCache(type) != null;
 	}
 
 
-	private static ITypeHierarchy findTypeHierarchyInCache(IType type) {
-		synchronized (fgHierarchyCache) {
-			for (int i= fgHierarchyCache.size() - 1; i>= 0; i--) {
-				HierarchyCacheEntry curr= fgHierarchyCache.get(i);
-				ITypeHierarchy hierarchy= curr.getTypeHierarchy();
-				if (!hierarchy.exists()) {
-					removeHierarchyEntryFromCache(curr);
-				} else {
-					if (hierarchy.contains(type)) {
-						curr.markAsAccessed();
-						return hierarchy;
-					}
-				}
-			}
+	private static HierarchyCacheEntry findEntryInCache(IType type) {
+		HierarchyCacheEntry entry= fgTypeIndex.get(type);
+		if (entry == null)
+			return null;
+		if (!entry.isValid()) {
+			removeHierarchyEntryFromCache(entry);
+			return null;
 		}
-		return null;
+		entry.markAsAccessed();
+		return entry;
 	}
 
 	private static void removeHierarchyEntryFromCache(HierarchyCacheEntry entry) {
 		synchronized (fgHierarchyCache) {
-			removeMethodOverrideTester(entry.getTypeHierarchy());
+			if (!fgHierarchyCache.remove(entry))
+				return;
+			fgWeight-= entry.getWeight();
+			for (IType type : entry.getTypes()) {
+				// the type may be indexed for another hierarchy that contains it as well
+				fgTypeIndex.remove(type, entry);
+			}
 			entry.dispose();
-			fgHierarchyCache.remove(entry);
 		}
 	}
 
 
+	/**
+	 * Sets the capacity of the cache, in number of types of the cached hierarchies.
+	 *
+	 * @param capacity the new capacity
+	 */
+	public static void setCapacity(int capacity) {
+		synchronized (fgHierarchyCache) {
+			fgCapacity= Math.max(1, capacity);
+			evict(null);
+		}
+	}
+
+	/**
+	 * @return the capacity of the cache, in number of types of the cached hierarchies
+	 */
+	public static int getCapacity() {
+		synchronized (fgHierarchyCache) {
+			return fgCapacity;
+		}
+	}
+
+	/**
+	 * @return the number of types in the cached hierarchies
+	 */
+	public static int getWeight() {
+		synchronized (fgHierarchyCache) {
+			return fgWeight;
+		}
+	}
+
+	/**
+	 * @return the number of cached hierarchies
+	 */
+	public static int getHierarchyCount() {
+		synchronized (fgHierarchyCache) {
+			return fgHierarchyCache.size();
+		}
+	}
+
+	/**
+	 * @return the maximal number of cached hierarchies
+	 */
+	public static int getMaxHierarchyCount() {
+		return MAX_HIERARCHIES;
+	}
+
+	/**
+	 * Removes all hierarchies from the cache.
+	 */
+	public static void clear() {
+		synchronized (fgHierarchyCache) {
+			for (HierarchyCacheEntry entry : new ArrayList<>(fgHierarchyCache)) {
+				removeHierarchyEntryFromCache(entry);
+			}
+		}
+	}
+
 	/**
 	 * Gets the number of times the hierarchy could be taken from the hierarchy.
 	 * @return Returns a int
 	 */
 	public static int getCacheHits() {
-		return fgCacheHits;
+		return (int) fgCacheHits.get();
 	}
 
 	/**
@@ -230,7 +342,16 @@ public class SuperTypeHierarchyCache {
 	 * @return Returns a int
 	 */
 	public static int getCacheMisses() {
-		return fgCacheMisses;
+		return (int) fgCacheMisses.get();
+	}
+
+	/**
+	 * @return the ratio of lookups that found a cached hierarchy, between 0 and 1
+	 */
+	public static double getHitRate() {
+		long hits= fgCacheHits.get();
+		long total= hits + fgCacheMisses.get();
+		return total == 0 ? 0 : (double) hits / total;
 	}
 
 	private SuperTypeHierarchyCache() {
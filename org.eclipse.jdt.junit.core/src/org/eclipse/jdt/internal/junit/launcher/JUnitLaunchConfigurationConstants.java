@@ -62,6 +62,11 @@ public class JUnitLaunchConfigurationConstants {
 	public static final String ATTR_TEST_METHOD_NAME= ATTR_TEST_NAME;
 
 	public static final String ATTR_KEEPRUNNING = JUnitCorePlugin.PLUGIN_ID+ ".KEEPRUNNING_ATTR"; //$NON-NLS-1$
+	/**
+	 * Boolean attribute: <code>true</code> iff the tests should be executed in parallel.
+	 * Only supported by the JUnit 5 test runner.
+	 */
+	public static final String ATTR_PARALLEL_EXECUTION= JUnitCorePlugin.PLUGIN_ID + ".PARALLEL_EXECUTION"; //$NON-NLS-1$
 	/**
 	 * The launch container, or "" iff running a single test type.
 	 */
@@ -0,0 +1,328 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jdt.internal.junit.model.TestElement.Status;
+
+
+/**
+ * An {@link ITestSessionListener} that aggregates the per-test notifications of a test run
+ * session and forwards them to a delegate as time-sliced deltas.
+ * <p>
+ * Within one slice, the transitions of a test are merged into one delta, which is forwarded
+ * in the order the test was first seen. A {@link #testStarted(TestCaseElement)} is dropped
+ * if the test also ended in the same slice. Session notifications and reruns are forwarded
+ * immediately, after all pending deltas have been forwarded. No notification is forwarded
+ * while holding the lock of this listener, so that the delegate may synchronize with
+ * the UI thread.
+ * </p>
+ * <p>
+ * The listener has to be {@link #dispose() disposed} when it is removed from the session, so
+ * that pending deltas of the old session are not forwarded later.
+ * </p>
+ * <p>
+ * Listeners that need to see every single notification (e.g. the
+ * {@link org.eclipse.jdt.junit.TestRunListener} API) must not be wrapped.
+ * </p>
+ */
+public class CoalescingTestSessionListener implements ITestSessionListener {
+
+	/**
+	 * Default length of a time slice in milliseconds.
+	 */
+	public static final int DEFAULT_INTERVAL= 100;
+
+	/**
+	 * The transitions of one test element within the current slice.
+	 */
+	private static class Delta {
+		boolean fAdded;
+		boolean fStarted;
+		boolean fEnded;
+		Status fFailureStatus;
+		String fTrace;
+		String fExpected;
+		String fActual;
+	}
+
+	private final ITestSessionListener fDelegate;
+
+	private final long fInterval;
+
+	private final Job fFlushJob;
+
+	/**
+	 * Serializes forwarding to the delegate, so that the deltas of consecutive slices are
+	 * forwarded in order. Never acquired while holding <code>this</code>.
+	 */
+	private final Object fForwardLock= new Object();
+
+	/**
+	 * Pending deltas, in the order their test elements were first notified.
+	 * Guarded by <code>this</code>.
+	 */
+	private LinkedHashMap<TestElement, Delta> fPending= new LinkedHashMap<>();
+
+	private long fSliceStart;
+
+	/** Statistics, guarded by <code>this</code> */
+	private long fReceivedCount;
+	private long fMergedCount;
+	private long fDroppedCount;
+	/** Guarded by {@link #fForwardLock} */
+	private long fForwardedCount;
+
+	private volatile boolean fDisposed;
+
+	public CoalescingTestSessionListener(ITestSessionListener delegate) {
+		this(delegate, DEFAULT_INTERVAL);
+	}
+
+	/**
+	 * @param delegate the listener to forward the deltas to
+	 * @param interval the length of a time slice in milliseconds
+	 */
+	public CoalescingTestSessionListener(ITestSessionListener delegate, long interval) {
+		fDelegate= delegate;
+		fInterval= interval;
+		fFlushJob= new Job("Test session notifications") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				flush();
+				return org.eclipse.core.runtime.Status.OK_STATUS;
+			}
+		};
+		fFlushJob.setSystem(true);
+	}
+
+	public ITestSessionListener getDelegate() {
+		return fDelegate;
+	}
+
+	/**
+	 * @return the number of per-test notifications received from the session
+	 */
+	public synchronized long getReceivedCount() {
+		return fReceivedCount;
+	}
+
+	/**
+	 * @return the number of per-test notifications forwarded to the delegate
+	 */
+	public long getForwardedCount() {
+		synchronized (fForwardLock) {
+			return fForwardedCount;
+		}
+	}
+
+	/**
+	 * @return the number of notifications that have been merged into the pending delta of
+	 *         a test element
+	 */
+	public synchronized long getMergedCount() {
+		return fMergedCount;
+	}
+
+	/**
+	 * @return the number of notifications that are not forwarded, because they were
+	 *         superseded by a later transition in the same slice
+	 */
+	public synchronized long getDroppedCount() {
+		return fDroppedCount;
+	}
+
+	/**
+	 * Discards the pending deltas and stops forwarding to the delegate. To be called when the
+	 * listener is removed from its session.
+	 */
+	public void dispose() {
+		fDisposed= true;
+		fFlushJob.cancel();
+		synchronized (this) {
+			fPending= new LinkedHashMap<>();
+		}
+	}
+
+	/**
+	 * Forwards all pending deltas to the delegate.
+	 */
+	public void flush() {
+		synchronized (fForwardLock) {
+			LinkedHashMap<TestElement, Delta> pending;
+			synchronized (this) {
+				if (fPending.isEmpty())
+					return;
+				pending= fPending;
+				fPending= new LinkedHashMap<>();
+			}
+			for (Entry<TestElement, Delta> entry : pending.entrySet()) {
+				if (fDisposed)
+					return;
+				TestElement testElement= entry.getKey();
+				Delta delta= entry.getValue();
+				if (delta.fAdded) {
+					fDelegate.testAdded(testElement);
+					fForwardedCount++;
+				}
+				if (delta.fStarted && !delta.fEnded) {
+					fDelegate.testStarted((TestCaseElement) testElement);
+					fForwardedCount++;
+				}
+				if (delta.fFailureStatus != null) {
+					fDelegate.testFailed(testElement, delta.fFailureStatus, delta.fTrace, delta.fExpected, delta.fActual);
+					fForwardedCount++;
+				}
+				if (delta.fEnded) {
+					fDelegate.testEnded((TestCaseElement) testElement);
+					fForwardedCount++;
+				}
+			}
+		}
+	}
+
+	private Delta getDelta(TestElement testElement) {
+		fReceivedCount++;
+		Delta delta= fPending.get(testElement);
+		if (delta == null) {
+			if (fPending.isEmpty()) {
+				fSliceStart= System.currentTimeMillis();
+				if (!fDisposed)
+					fFlushJob.schedule(fInterval);
+			}
+			delta= new Delta();
+			fPending.put(testElement, delta);
+		} else {
+			fMergedCount++;
+		}
+		return delta;
+	}
+
+	/**
+	 * @return whether the current slice is over, called while holding <code>this</code>
+	 */
+	private boolean isSliceOver() {
+		return System.currentTimeMillis() - fSliceStart >= fInterval;
+	}
+
+	@Override
+	public void testAdded(TestElement testElement) {
+		boolean sliceOver;
+		synchronized (this) {
+			getDelta(testElement).fAdded= true;
+			sliceOver= isSliceOver();
+		}
+		if (sliceOver)
+			flush();
+	}
+
+	@Override
+	public void testStarted(TestCaseElement testCaseElement) {
+		boolean sliceOver;
+		synchronized (this) {
+			Delta delta= getDelta(testCaseElement);
+			if (delta.fEnded && !delta.fStarted)
+				fDroppedCount++;
+			delta.fStarted= true;
+			sliceOver= isSliceOver();
+		}
+		if (sliceOver)
+			flush();
+	}
+
+	@Override
+	public void testEnded(TestCaseElement testCaseElement) {
+		boolean sliceOver;
+		synchronized (this) {
+			Delta delta= getDelta(testCaseElement);
+			// the start is not forwarded
+			if (delta.fStarted && !delta.fEnded)
+				fDroppedCount++;
+			delta.fEnded= true;
+			sliceOver= isSliceOver();
+		}
+		if (sliceOver)
+			flush();
+	}
+
+	@Override
+	public void testFailed(TestElement testElement, Status status, String trace, String expected, String actual) {
+		boolean sliceOver;
+		synchronized (this) {
+			Delta delta= getDelta(testElement);
+			if (delta.fFailureStatus != null)
+				fDroppedCount++;
+			delta.fFailureStatus= status;
+			delta.fTrace= trace;
+			delta.fExpected= expected;
+			delta.fActual= actual;
+			sliceOver= isSliceOver();
+		}
+		if (sliceOver)
+			flush();
+	}
+
+	@Override
+	public void testReran(TestCaseElement testCaseElement, Status status, String trace, String expectedResult, String actualResult) {
+		flush();
+		fDelegate.testReran(testCaseElement, status, trace, expectedResult, actualResult);
+	}
+
+	@Override
+	public void sessionStarted() {
+		flush();
+		fDelegate.sessionStarted();
+	}
+
+	@Override
+	public void runningBegins() {
+		flush();
+		fDelegate.runningBegins();
+	}
+
+	@Override
+	public void sessionEnded(long elapsedTime) {
+		flush();
+		fDelegate.sessionEnded(elapsedTime);
+	}
+
+	@Override
+	public void sessionStopped(long elapsedTime) {
+		flush();
+		fDelegate.sessionStopped(elapsedTime);
+	}
+
+	@Override
+	public void sessionTerminated() {
+		flush();
+		fDelegate.sessionTerminated();
+	}
+
+	@Override
+	public boolean acceptsSwapToDisk() {
+		return fDelegate.acceptsSwapToDisk();
+	}
+
+	@Override
+	public String toString() {
+		return "CoalescingTestSessionListener [received=" + getReceivedCount() + ", forwarded=" + getForwardedCount() //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", merged=" + getMergedCount() + ", dropped=" + getDroppedCount() + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
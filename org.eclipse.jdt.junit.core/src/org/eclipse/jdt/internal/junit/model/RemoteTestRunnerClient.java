@@ -15,8 +15,12 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.junit.model;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
@@ -25,11 +29,15 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.SafeRunner;
 
 import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.runner.BinaryMessageIds;
 import org.eclipse.jdt.internal.junit.runner.MessageIds;
 import org.eclipse.jdt.internal.junit.runner.RemoteTestRunner;
 
@@ -237,7 +245,25 @@ public class RemoteTestRunnerClient {
 	private int fPort= -1;
 	private PrintWriter fWriter;
 	private PushbackReader fPushbackReader;
+	private DataInputStream fBinaryReader;
 	private String fLastLineDelimiter;
+	/**
+	 * Test names received in the binary protocol, indexed by test id
+	 */
+	private String[] fTestNames= new String[64];
+	/**
+	 * String representations of the test ids received in the binary protocol, indexed by test id
+	 */
+	private String[] fTestIds= new String[64];
+	/**
+	 * The runner assigns test ids densely, ids below this bound are kept in the arrays. Larger ids
+	 * are kept in {@link #fSparseTests}, so that a corrupt id cannot make the arrays grow.
+	 */
+	private static final int MAX_DENSE_TEST_ID= 1 << 20;
+	/**
+	 * Test names and string representations of the test ids above {@link #MAX_DENSE_TEST_ID}
+	 */
+	private final Map<Integer, String[]> fSparseTests= new HashMap<>();
 	/**
 	 * The protocol version
 	 */
@@ -275,11 +301,17 @@ public class RemoteTestRunnerClient {
 					System.out.println("Creating server socket "+fServerPort); //$NON-NLS-1$
 				fServerSocket= new ServerSocket(fServerPort);
 				fSocket= fServerSocket.accept();
-				fPushbackReader= new PushbackReader(new BufferedReader(new InputStreamReader(fSocket.getInputStream(), StandardCharsets.UTF_8)));
+				InputStream in= new BufferedInputStream(fSocket.getInputStream());
 				fWriter= new PrintWriter(new OutputStreamWriter(fSocket.getOutputStream(), StandardCharsets.UTF_8), true);
-				String message;
-				while(fPushbackReader != null && (message= readMessage(fPushbackReader)) != null)
-					receiveMessage(message);
+				if (BinaryMessageIds.readHeader(in)) {
+					fBinaryReader= new DataInputStream(in);
+					readBinaryMessages();
+				} else {
+					fPushbackReader= new PushbackReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+					String message;
+					while(fPushbackReader != null && (message= readMessage(fPushbackReader)) != null)
+						receiveMessage(message);
+				}
 			} catch (SocketException e) {
 				notifyTestRunTerminated();
 			} catch (IOException e) {
@@ -333,6 +365,10 @@ public class RemoteTestRunnerClient {
 				fPushbackReader.close();
 				fPushbackReader= null;
 			}
+			if (fBinaryReader != null) {
+				fBinaryReader.close();
+				fBinaryReader= null;
+			}
 		} catch(IOException e) {
 		}
 		try {
@@ -383,6 +419,101 @@ public class RemoteTestRunnerClient {
 		return buf.toString();
 	}
 
+	/**
+	 * Reads the frames of the binary protocol until the stream ends.
+	 *
+	 * @throws IOException if reading fails
+	 * @see BinaryMessageIds
+	 */
+	private void readBinaryMessages() throws IOException {
+		// appended payloads (traces, expected and actual values) are sent in one message
+		fLastLineDelimiter= "\n"; //$NON-NLS-1$
+		StringBuilder chunks= new StringBuilder();
+		DataInputStream in;
+		while ((in= fBinaryReader) != null) {
+			int frame;
+			try {
+				frame= in.readByte();
+			} catch (EOFException e) {
+				return;
+			}
+			switch (frame) {
+				case BinaryMessageIds.MESSAGE:
+					String message= readString(in);
+					if (chunks.length() > 0) {
+						chunks.append(message);
+						message= chunks.toString();
+						chunks.setLength(0);
+					}
+					receiveMessage(message);
+					break;
+				case BinaryMessageIds.CHUNK:
+					chunks.append(readString(in));
+					break;
+				case BinaryMessageIds.TEST_START:
+				case BinaryMessageIds.TEST_END:
+				case BinaryMessageIds.TEST_ERROR:
+				case BinaryMessageIds.TEST_FAILED:
+					receiveTestMessage(frame, in);
+					break;
+				default:
+					throw new IOException("Unknown frame: " + frame); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private void receiveTestMessage(int frame, DataInputStream in) throws IOException {
+		int id= in.readInt();
+		if (id < 0)
+			throw new IOException("Invalid test id: " + id); //$NON-NLS-1$
+		String testName;
+		String testId;
+		if (id < MAX_DENSE_TEST_ID) {
+			if (id >= fTestNames.length) {
+				int length= Math.min(Math.max(id + 1, fTestNames.length * 2), MAX_DENSE_TEST_ID);
+				fTestNames= Arrays.copyOf(fTestNames, length);
+				fTestIds= Arrays.copyOf(fTestIds, length);
+			}
+			if (in.readBoolean())
+				fTestNames[id]= readString(in);
+			testName= fTestNames[id];
+			testId= fTestIds[id];
+			if (testId == null) {
+				testId= Integer.toString(id);
+				fTestIds[id]= testId;
+			}
+		} else {
+			String[] test= fSparseTests.computeIfAbsent(Integer.valueOf(id), key -> new String[] { null, key.toString() });
+			if (in.readBoolean())
+				test[0]= readString(in);
+			testName= test[0];
+			testId= test[1];
+		}
+		switch (frame) {
+			case BinaryMessageIds.TEST_START:
+				notifyTestStarted(testId, testName);
+				break;
+			case BinaryMessageIds.TEST_END:
+				notifyTestEnded(testId, testName);
+				break;
+			case BinaryMessageIds.TEST_ERROR:
+				extractFailure(testId, testName, ITestRunListener2.STATUS_ERROR);
+				break;
+			default:
+				extractFailure(testId, testName, ITestRunListener2.STATUS_FAILURE);
+				break;
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length= in.readInt();
+		if (length < 0)
+			throw new IOException("Invalid string length: " + length); //$NON-NLS-1$
+		byte[] bytes= new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
 	private void receiveMessage(String message) {
 	    fCurrentState= fCurrentState.readMessage(message);
 	}
@@ -438,8 +569,12 @@ public class RemoteTestRunnerClient {
 
 	private void extractFailure(String arg, int status) {
 		String s[]= extractTestId(arg);
-		fFailedTestId= s[0];
-		fFailedTest= s[1];
+		extractFailure(s[0], s[1], status);
+	}
+
+	private void extractFailure(String testId, String testName, int status) {
+		fFailedTestId= testId;
+		fFailedTest= testName;
 		fFailureKind= status;
 	}
 
@@ -522,28 +657,36 @@ public class RemoteTestRunnerClient {
 	}
 
 	private void notifyTestEnded(final String test) {
+		String s[]= extractTestId(test);
+		notifyTestEnded(s[0], s[1]);
+	}
+
+	private void notifyTestEnded(final String testId, final String testName) {
 		if (JUnitCorePlugin.isStopped())
 			return;
 		for (ITestRunListener2 listener : fListeners) {
 			SafeRunner.run(new ListenerSafeRunnable() {
 				@Override
 				public void run() {
-					String s[]= extractTestId(test);
-					listener.testEnded(s[0], s[1]);
+					listener.testEnded(testId, testName);
 				}
 			});
 		}
 	}
 
 	private void notifyTestStarted(final String test) {
+		String s[]= extractTestId(test);
+		notifyTestStarted(s[0], s[1]);
+	}
+
+	private void notifyTestStarted(final String testId, final String testName) {
 		if (JUnitCorePlugin.isStopped())
 			return;
 		for (ITestRunListener2 listener : fListeners) {
 			SafeRunner.run(new ListenerSafeRunnable() {
 				@Override
 				public void run() {
-					String s[]= extractTestId(test);
-					listener.testStarted(s[0], s[1]);
+					listener.testStarted(testId, testName);
 				}
 			});
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,12 +17,16 @@
 
 package org.eclipse.jdt.internal.junit.model;
 
+import java.io.IOException;
+
 import org.eclipse.jdt.junit.model.ITestElement;
 import org.eclipse.jdt.junit.model.ITestElementContainer;
 import org.eclipse.jdt.junit.model.ITestRunSession;
 
 import org.eclipse.core.runtime.Assert;
 
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+
 public abstract class TestElement implements ITestElement {
 	public final static class Status {
 		public static final Status RUNNING_ERROR= new Status("RUNNING_ERROR", 5); //$NON-NLS-1$
@@ -194,6 +198,11 @@ public abstract class TestElement implements ITestElement {
 	private String fExpected;
 	private String fActual;
 
+	/**
+	 * The failure trace in the swap file that has not been read yet, or <code>null</code>.
+	 */
+	private volatile TestRunSessionSwapFile.SwappedFailure fSwappedFailure;
+
 	private boolean fAssumptionFailed;
 
 	/**
@@ -262,7 +271,8 @@ public abstract class TestElement implements ITestElement {
 	public FailureTrace getFailureTrace() {
 		Result testResult= getTestResult(false);
 		if (testResult == Result.ERROR || testResult == Result.FAILURE
-				|| (testResult == Result.IGNORED && fTrace != null)) {
+				|| (testResult == Result.IGNORED && getTrace() != null)) {
+			readSwappedFailure();
 			return new FailureTrace(fTrace, fExpected, fActual);
 		}
 		return null;
@@ -304,6 +314,7 @@ public abstract class TestElement implements ITestElement {
 	}
 
 	public void setStatus(Status status, String trace, String expected, String actual) {
+		readSwappedFailure();
 		if (trace != null && fTrace != null) {
 			//don't overwrite first trace if same test run logs multiple errors
 			fTrace= fTrace + trace;
@@ -320,21 +331,60 @@ public abstract class TestElement implements ITestElement {
 	}
 
 	public String getTrace() {
+		readSwappedFailure();
 		return fTrace;
 	}
 
 	public String getExpected() {
+		readSwappedFailure();
 		return fExpected;
 	}
 
 	public String getActual() {
+		readSwappedFailure();
 		return fActual;
 	}
 
 	public boolean isComparisonFailure() {
+		readSwappedFailure();
 		return fExpected != null && fActual != null;
 	}
 
+	/**
+	 * Sets the failure trace that will be read from the swap file on first access.
+	 *
+	 * @param swappedFailure the location of the failure trace, or <code>null</code>
+	 */
+	void setSwappedFailure(TestRunSessionSwapFile.SwappedFailure swappedFailure) {
+		fSwappedFailure= swappedFailure;
+	}
+
+	/**
+	 * @return the failure trace in the swap file that has not been read yet, or <code>null</code>
+	 */
+	TestRunSessionSwapFile.SwappedFailure getSwappedFailure() {
+		return fSwappedFailure;
+	}
+
+	private void readSwappedFailure() {
+		if (fSwappedFailure == null)
+			return;
+		synchronized (this) {
+			TestRunSessionSwapFile.SwappedFailure swappedFailure= fSwappedFailure;
+			if (swappedFailure == null)
+				return;
+			try {
+				String[] failure= swappedFailure.read();
+				fTrace= failure[0];
+				fExpected= failure[1];
+				fActual= failure[2];
+			} catch (IOException e) {
+				JUnitCorePlugin.log(e);
+			}
+			fSwappedFailure= null;
+		}
+	}
+
 	/**
 	 * @return return the class name
 	 * @see org.eclipse.jdt.internal.junit.runner.ITestIdentifier#getName()
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Map from test id to test element.
+ * <p>
+ * The test runners number their tests densely, starting at 1, so numeric ids index into an
+ * array. The array only grows while it stays at least half full, so numeric ids that are far
+ * apart are kept in a hash map, like other ids (e.g. from imported test runs).
+ * </p>
+ */
+public class TestElementIndex {
+
+	private static final int INITIAL_CAPACITY= 64;
+
+	private TestElement[] fElements= new TestElement[INITIAL_CAPACITY];
+
+	/** The number of elements in the array */
+	private int fIndexedCount;
+
+	/** Elements with numeric ids beyond the array */
+	private HashMap<Integer, TestElement> fSparseElements;
+
+	private HashMap<String, TestElement> fOtherElements;
+
+	public TestElement get(String id) {
+		int index= parseId(id);
+		if (index >= 0) {
+			if (index < fElements.length)
+				return fElements[index];
+			return fSparseElements == null ? null : fSparseElements.get(Integer.valueOf(index));
+		}
+		return fOtherElements == null ? null : fOtherElements.get(id);
+	}
+
+	public void put(String id, TestElement testElement) {
+		int index= parseId(id);
+		if (index >= 0) {
+			if (index >= fElements.length) {
+				if (index >= 2 * Math.max(fIndexedCount + 1, INITIAL_CAPACITY)) {
+					if (fSparseElements == null)
+						fSparseElements= new HashMap<>();
+					fSparseElements.put(Integer.valueOf(index), testElement);
+					return;
+				}
+				grow(index);
+			}
+			if (fElements[index] == null)
+				fIndexedCount++;
+			fElements[index]= testElement;
+		} else {
+			if (fOtherElements == null)
+				fOtherElements= new HashMap<>();
+			fOtherElements.put(id, testElement);
+		}
+	}
+
+	/**
+	 * Returns the length of the array, for tests.
+	 *
+	 * @return the number of ids that can be stored in the array
+	 */
+	public int getCapacity() {
+		return fElements.length;
+	}
+
+	private void grow(int index) {
+		fElements= Arrays.copyOf(fElements, Math.max(index + 1, fElements.length * 2));
+		if (fSparseElements != null) {
+			// move the elements that fit into the array now
+			for (Iterator<Map.Entry<Integer, TestElement>> iter= fSparseElements.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<Integer, TestElement> entry= iter.next();
+				int sparseIndex= entry.getKey().intValue();
+				if (sparseIndex < fElements.length) {
+					fElements[sparseIndex]= entry.getValue();
+					fIndexedCount++;
+					iter.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Parses a decimal id without allocating.
+	 *
+	 * @param id the test id
+	 * @return the id as array index, or <code>-1</code> if the id is not a decimal number
+	 *         without leading zeros or does not fit into an int
+	 */
+	private static int parseId(String id) {
+		int length= id.length();
+		if (length == 0 || length > 9 || (length > 1 && id.charAt(0) == '0'))
+			return -1;
+		int value= 0;
+		for (int i= 0; i < length; i++) {
+			char c= id.charAt(i);
+			if (c < '0' || c > '9')
+				return -1;
+			value= value * 10 + (c - '0');
+		}
+		return value;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,7 +21,6 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 
 import org.eclipse.jdt.junit.model.ITestElement;
@@ -83,10 +82,16 @@ public class TestRunSession implements ITestRunSession {
 	 */
 	private Result fTestResult;
 
+	/**
+	 * <code>true</code> iff the swap file holds the current test tree, i.e. the tree has not been
+	 * modified since it has been swapped in or out.
+	 */
+	private volatile boolean fSwapFileValid;
+
 	/**
 	 * Map from testId to testElement.
 	 */
-	private HashMap<String, TestElement> fIdToTest;
+	private TestElementIndex fIdToTest;
 
 	/**
 	 * The TestSuites for which additional children are expected.
@@ -116,6 +121,10 @@ public class TestRunSession implements ITestRunSession {
  	 * Number of tests started during this test run.
  	 */
 	volatile int fStartedCount;
+	/**
+	 * Number of tests ended during this test run.
+	 */
+	volatile int fEndedCount;
 	/**
 	 * Number of tests ignored during this test run.
 	 */
@@ -167,7 +176,7 @@ public class TestRunSession implements ITestRunSession {
 		fTestRunnerKind= ITestKind.NULL; //TODO
 
 		fTestRoot= new TestRoot(this);
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestElementIndex();
 
 		fTestRunnerClient= null;
 
@@ -191,7 +200,7 @@ public class TestRunSession implements ITestRunSession {
 		}
 
 		fTestRoot= new TestRoot(this);
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestElementIndex();
 
 		fTestRunnerClient= new RemoteTestRunnerClient();
 		fTestRunnerClient.startListening(new ITestRunListener2[] { new TestSessionNotifier() }, port);
@@ -230,6 +239,7 @@ public class TestRunSession implements ITestRunSession {
 
 	void reset() {
 		fStartedCount= 0;
+		fEndedCount= 0;
 		fFailureCount= 0;
 		fAssumptionFailureCount = 0;
 		fErrorCount= 0;
@@ -238,7 +248,8 @@ public class TestRunSession implements ITestRunSession {
 
 		fTestRoot= new TestRoot(this);
 		fTestResult= null;
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestElementIndex();
+		fSwapFileValid= false;
 	}
 
 	@Override
@@ -328,6 +339,18 @@ public class TestRunSession implements ITestRunSession {
 		return fStartedCount;
 	}
 
+	/**
+	 * Returns the number of tests that have been started but have not ended yet. This is more
+	 * than one if the tests are executed in parallel.
+	 *
+	 * @return the number of running tests
+	 */
+	public int getRunningCount() {
+		if (!isRunning())
+			return 0;
+		return Math.max(0, fStartedCount - fEndedCount);
+	}
+
 	public int getIgnoredCount() {
 		return fIgnoredCount;
 	}
@@ -368,13 +391,14 @@ public class TestRunSession implements ITestRunSession {
 		}
 
 		try {
-			File swapFile= getSwapFile();
-
-			JUnitModel.exportTestRunSession(this, swapFile);
+			if (!fSwapFileValid) {
+				getSwapFile().write(this);
+				fSwapFileValid= true;
+			}
 			fTestResult= fTestRoot.getTestResult(true);
 			fTestRoot= null;
 			fTestRunnerClient= null;
-			fIdToTest= new HashMap<>();
+			fIdToTest= new TestElementIndex();
 			fIncompleteTestSuites= null;
 			fFactoryTestSuites= null;
 			fUnrootedSuite= null;
@@ -390,25 +414,30 @@ public class TestRunSession implements ITestRunSession {
 
 
 	public void removeSwapFile() {
-		File swapFile= getSwapFile();
+		TestRunSessionSwapFile swapFile= getSwapFile();
 		if (swapFile.exists())
 			swapFile.delete();
 	}
 
-	private File getSwapFile() throws IllegalStateException {
+	private TestRunSessionSwapFile getSwapFile() throws IllegalStateException {
 		File historyDir= JUnitCorePlugin.getHistoryDirectory();
 		String isoTime= new SimpleDateFormat("yyyyMMdd-HHmmss.SSS").format(new Date(getStartTime())); //$NON-NLS-1$
-		String swapFileName= isoTime + ".xml"; //$NON-NLS-1$
-		return new File(historyDir, swapFileName);
+		String swapFileName= isoTime + ".swap"; //$NON-NLS-1$
+		return new TestRunSessionSwapFile(new File(historyDir, swapFileName));
 	}
 
 
+	/**
+	 * Reads the test tree from the swap file. Failure traces are only read when they are
+	 * accessed.
+	 */
 	public synchronized void swapIn() {
 		if (fTestRoot != null)
 			return;
 
 		try {
-			JUnitModel.importIntoTestRunSession(getSwapFile(), this);
+			getSwapFile().read(this);
+			fSwapFileValid= true;
 		} catch (IllegalStateException | CoreException e) {
 			JUnitCorePlugin.log(e);
 			fTestRoot= new TestRoot(this);
@@ -631,6 +660,7 @@ public class TestRunSession implements ITestRunSession {
 			fFactoryTestSuites= new ArrayList<>();
 
 			fStartedCount= 0;
+			fEndedCount= 0;
 			fIgnoredCount= 0;
 			fFailureCount= 0;
 			fAssumptionFailureCount = 0;
@@ -676,6 +706,7 @@ public class TestRunSession implements ITestRunSession {
 
 		@Override
 		public void testTreeEntry(String description) {
+			fSwapFileValid= false;
 			TestElement testElement= addTreeEntry(description);
 
 			for (ITestSessionListener listener : fSessionListeners) {
@@ -696,6 +727,7 @@ public class TestRunSession implements ITestRunSession {
 
 		@Override
 		public void testStarted(String testId, String testName) {
+			fSwapFileValid= false;
 			if (fStartedCount == 0) {
 				for (ITestSessionListener listener : fSessionListeners) {
 					listener.runningBegins();
@@ -724,6 +756,7 @@ public class TestRunSession implements ITestRunSession {
 
 		@Override
 		public void testEnded(String testId, String testName) {
+			fSwapFileValid= false;
 			boolean isIgnored= testName.startsWith(MessageIds.IGNORED_TEST_PREFIX);
 
 			TestElement testElement= getTestElement(testId);
@@ -744,6 +777,7 @@ public class TestRunSession implements ITestRunSession {
 				testCaseElement.setIgnored(true);
 				fIgnoredCount++;
 			}
+			fEndedCount++;
 
 			if (testCaseElement.getStatus() == Status.RUNNING)
 				setStatus(testCaseElement, Status.OK);
@@ -756,6 +790,7 @@ public class TestRunSession implements ITestRunSession {
 
 		@Override
 		public void testFailed(int statusCode, String testId, String testName, String trace, String expected, String actual) {
+			fSwapFileValid= false;
 			TestElement testElement= getTestElement(testId);
 			if (testElement == null) {
 				testElement= createUnrootedTestElement(testId, testName);
@@ -779,6 +814,7 @@ public class TestRunSession implements ITestRunSession {
 
 		@Override
 		public void testReran(String testId, String className, String testName, int statusCode, String trace, String expectedResult, String actualResult) {
+			fSwapFileValid= false;
 			TestElement testElement= getTestElement(testId);
 			if (testElement == null) {
 				testElement= createUnrootedTestElement(testId, testName);
@@ -830,6 +866,7 @@ public class TestRunSession implements ITestRunSession {
 				return;
 			}
 			fStartedCount++;
+			fEndedCount++;
 			if (((TestCaseElement) testElement).isIgnored()) {
 				fIgnoredCount++;
 			}
@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.junit.model.ITestElement;
+import org.eclipse.jdt.junit.model.ITestElement.FailureTrace;
+import org.eclipse.jdt.junit.model.ITestElement.ProgressState;
+import org.eclipse.jdt.junit.model.ITestElement.Result;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+
+import org.eclipse.jdt.internal.junit.BasicElementLabels;
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.Messages;
+import org.eclipse.jdt.internal.junit.model.TestElement.Status;
+
+/**
+ * Compact on-disk representation of a swapped-out {@link TestRunSession}.
+ * <p>
+ * A swap file consists of two files: the tree file holds the test elements in pre-order, and
+ * the trace file holds the failure traces. Tree records only refer to their failure trace by
+ * offset, so that swapping in a session only reads the tree. Failure traces are read when they
+ * are requested for the first time (see {@link TestElement#getTrace()}).
+ * </p>
+ * <p>
+ * Swapping in produces the same model as importing the XML format written by
+ * {@link TestRunSessionSerializer}, except that test ids are preserved.
+ * </p>
+ */
+class TestRunSessionSwapFile {
+
+	private static final int MAGIC= 0x4A555357; // "JUSW"
+	private static final int VERSION= 1;
+
+	private static final byte END= 0;
+	private static final byte SUITE_START= 1;
+	private static final byte SUITE_END= 2;
+	private static final byte TEST_CASE= 3;
+
+	private static final byte NO_FAILURE= 0;
+	private static final byte ERROR= 1;
+	private static final byte FAILURE= 2;
+	private static final byte SKIPPED= 3;
+
+	private static final String TRACES_EXTENSION= ".traces"; //$NON-NLS-1$
+
+	/**
+	 * Guards the offsets of {@link SwappedFailure}s, which change when a trace file is replaced.
+	 */
+	private static final Object TRACE_LOCK= new Object();
+
+	/**
+	 * Location of a failure trace that has not been read yet.
+	 */
+	static class SwappedFailure {
+		private final File fTraceFile;
+		private long fOffset;
+
+		SwappedFailure(File traceFile, long offset) {
+			fTraceFile= traceFile;
+			fOffset= offset;
+		}
+
+		/**
+		 * Reads the failure trace.
+		 *
+		 * @return the trace, expected and actual values
+		 * @throws IOException if the trace file cannot be read
+		 */
+		String[] read() throws IOException {
+			synchronized (TRACE_LOCK) {
+				try (RandomAccessFile in= new RandomAccessFile(fTraceFile, "r")) { //$NON-NLS-1$
+					in.seek(fOffset);
+					return new String[] { readString(in), readString(in), readString(in) };
+				}
+			}
+		}
+
+		/**
+		 * Copies the failure trace to another trace file without decoding it.
+		 *
+		 * @param out the trace file to copy to
+		 * @throws IOException if the trace file cannot be read or written
+		 */
+		void copyTo(DataOutputStream out) throws IOException {
+			synchronized (TRACE_LOCK) {
+				try (RandomAccessFile in= new RandomAccessFile(fTraceFile, "r")) { //$NON-NLS-1$
+					in.seek(fOffset);
+					byte[] buffer= new byte[8192];
+					for (int i= 0; i < 3; i++) {
+						int length= in.readInt();
+						out.writeInt(length);
+						while (length > 0) {
+							int read= Math.min(length, buffer.length);
+							in.readFully(buffer, 0, read);
+							out.write(buffer, 0, read);
+							length-= read;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private final File fTreeFile;
+	private final File fTraceFile;
+
+	/**
+	 * @param treeFile the file holding the test tree, the failure traces are stored in a
+	 *            sibling file
+	 */
+	TestRunSessionSwapFile(File treeFile) {
+		fTreeFile= treeFile;
+		fTraceFile= new File(treeFile.getParentFile(), treeFile.getName() + TRACES_EXTENSION);
+	}
+
+	boolean exists() {
+		return fTreeFile.exists() && fTraceFile.exists();
+	}
+
+	void delete() {
+		fTreeFile.delete();
+		fTraceFile.delete();
+	}
+
+	/**
+	 * Writes the test tree of the given session. The files are replaced atomically, so that
+	 * failure traces that have not been read from a previous version are still available
+	 * while writing.
+	 *
+	 * @param session the session to write
+	 * @throws CoreException if the files cannot be written
+	 */
+	void write(TestRunSession session) throws CoreException {
+		File tmpTreeFile= new File(fTreeFile.getPath() + ".tmp"); //$NON-NLS-1$
+		File tmpTraceFile= new File(fTraceFile.getPath() + ".tmp"); //$NON-NLS-1$
+		Map<SwappedFailure, Long> copiedFailures= new HashMap<>();
+		try {
+			try (DataOutputStream tree= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpTreeFile)));
+					DataOutputStream traces= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpTraceFile)))) {
+				tree.writeInt(MAGIC);
+				tree.writeInt(VERSION);
+				for (ITestElement child : session.getTestRoot().getChildren()) {
+					writeElement(tree, traces, (TestElement) child, copiedFailures);
+				}
+				tree.writeByte(END);
+			}
+			synchronized (TRACE_LOCK) {
+				Files.move(tmpTraceFile.toPath(), fTraceFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				Files.move(tmpTreeFile.toPath(), fTreeFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				// traces that have not been read yet are now at their offset in the new trace file
+				for (Map.Entry<SwappedFailure, Long> entry : copiedFailures.entrySet()) {
+					entry.getKey().fOffset= entry.getValue().longValue();
+				}
+			}
+		} catch (IOException e) {
+			tmpTreeFile.delete();
+			tmpTraceFile.delete();
+			throw new CoreException(new org.eclipse.core.runtime.Status(IStatus.ERROR, JUnitCorePlugin.getPluginId(),
+					Messages.format(ModelMessages.JUnitModel_could_not_write, BasicElementLabels.getPathLabel(fTreeFile)), e));
+		}
+	}
+
+	/**
+	 * Reads the test tree into the given session. Failure traces are not read.
+	 *
+	 * @param session the session to fill
+	 * @throws CoreException if the tree file cannot be read
+	 */
+	void read(TestRunSession session) throws CoreException {
+		try (DataInputStream tree= new DataInputStream(new BufferedInputStream(new FileInputStream(fTreeFile)))) {
+			if (tree.readInt() != MAGIC || tree.readInt() != VERSION)
+				throw new IOException("Unsupported swap file format"); //$NON-NLS-1$
+			session.reset();
+			TestSuiteElement parent= session.getTestRoot();
+			byte kind;
+			while ((kind= tree.readByte()) != END) {
+				switch (kind) {
+					case SUITE_START:
+						parent= (TestSuiteElement) readElement(tree, session, parent, true);
+						break;
+					case SUITE_END:
+						session.registerTestEnded(parent, !tree.readBoolean());
+						parent= parent.getParent();
+						break;
+					case TEST_CASE:
+						TestElement testCase= readElement(tree, session, parent, false);
+						session.registerTestEnded(testCase, !tree.readBoolean());
+						break;
+					default:
+						throw new IOException("Unknown record: " + kind); //$NON-NLS-1$
+				}
+			}
+		} catch (IOException e) {
+			throw new CoreException(new org.eclipse.core.runtime.Status(IStatus.ERROR, JUnitCorePlugin.getPluginId(),
+					Messages.format(ModelMessages.JUnitModel_could_not_read, BasicElementLabels.getPathLabel(fTreeFile)), e));
+		}
+	}
+
+	private void writeElement(DataOutputStream tree, DataOutputStream traces, TestElement testElement, Map<SwappedFailure, Long> copiedFailures) throws IOException {
+		boolean isSuite= testElement instanceof TestSuiteElement;
+		tree.writeByte(isSuite ? SUITE_START : TEST_CASE);
+		writeString(tree, testElement.getId());
+		writeString(tree, testElement.getTestName());
+		writeString(tree, testElement.getDisplayName());
+		String[] parameterTypes= testElement.getParameterTypes();
+		writeString(tree, parameterTypes == null ? null : String.join(",", parameterTypes)); //$NON-NLS-1$
+		writeString(tree, testElement.getUniqueId());
+		tree.writeDouble(testElement.getElapsedTimeInSeconds());
+		if (!isSuite) {
+			TestCaseElement testCaseElement= (TestCaseElement) testElement;
+			tree.writeBoolean(testCaseElement.isDynamicTest());
+			tree.writeBoolean(testCaseElement.isIgnored());
+		}
+		writeFailure(tree, traces, testElement, copiedFailures);
+
+		if (isSuite) {
+			for (ITestElement child : ((TestSuiteElement) testElement).getChildren()) {
+				writeElement(tree, traces, (TestElement) child, copiedFailures);
+			}
+			tree.writeByte(SUITE_END);
+			tree.writeBoolean(testElement.getProgressState() != ProgressState.COMPLETED || testElement.getTestResult(false) != Result.UNDEFINED);
+		} else {
+			tree.writeBoolean(testElement.getProgressState() != ProgressState.COMPLETED);
+		}
+	}
+
+	private void writeFailure(DataOutputStream tree, DataOutputStream traces, TestElement testElement, Map<SwappedFailure, Long> copiedFailures) throws IOException {
+		// traces that have not been read are copied, so that rewriting does not load them all
+		SwappedFailure swappedFailure= testElement.getSwappedFailure();
+		boolean hasTrace= swappedFailure != null || testElement.getTrace() != null;
+		Result result= testElement.getTestResult(false);
+		byte kind;
+		if (testElement.isAssumptionFailure()) {
+			kind= SKIPPED;
+		} else if (result == Result.ERROR) {
+			kind= ERROR;
+		} else if (result == Result.FAILURE || (result == Result.IGNORED && hasTrace)) {
+			kind= FAILURE;
+		} else {
+			kind= NO_FAILURE;
+		}
+		tree.writeByte(kind);
+		if (kind == NO_FAILURE)
+			return;
+
+		if (kind == SKIPPED && !hasTrace) {
+			tree.writeLong(-1);
+		} else if (swappedFailure != null) {
+			long offset= traces.size();
+			tree.writeLong(offset);
+			swappedFailure.copyTo(traces);
+			copiedFailures.put(swappedFailure, Long.valueOf(offset));
+		} else {
+			tree.writeLong(traces.size());
+			writeString(traces, testElement.getTrace());
+			writeString(traces, testElement.getExpected());
+			writeString(traces, testElement.getActual());
+		}
+	}
+
+	private TestElement readElement(DataInputStream tree, TestRunSession session, TestSuiteElement parent, boolean isSuite) throws IOException {
+		String id= readString(tree);
+		String testName= readString(tree);
+		String displayName= readString(tree);
+		String parameterTypesString= readString(tree);
+		String[] parameterTypes= parameterTypesString == null ? null : parameterTypesString.split(","); //$NON-NLS-1$
+		String uniqueId= readString(tree);
+		double time= tree.readDouble();
+		boolean isDynamicTest= false;
+		boolean isIgnored= false;
+		if (!isSuite) {
+			isDynamicTest= tree.readBoolean();
+			isIgnored= tree.readBoolean();
+		}
+
+		TestElement testElement= session.createTestElement(parent, id, testName, isSuite, 0, isDynamicTest, displayName, parameterTypes, uniqueId);
+		if (!Double.isNaN(time))
+			testElement.setElapsedTimeInSeconds(time);
+		if (isIgnored)
+			((TestCaseElement) testElement).setIgnored(true);
+
+		byte failureKind= tree.readByte();
+		if (failureKind != NO_FAILURE) {
+			long offset= tree.readLong();
+			SwappedFailure failure= offset == -1 ? null : new SwappedFailure(fTraceFile, offset);
+			switch (failureKind) {
+				case ERROR:
+					session.registerTestFailureStatus(testElement, Status.ERROR, null, null, null);
+					testElement.setSwappedFailure(failure);
+					break;
+				case FAILURE:
+					session.registerTestFailureStatus(testElement, Status.FAILURE, null, null, null);
+					testElement.setSwappedFailure(failure);
+					break;
+				default:
+					if (failure != null) {
+						session.registerTestFailureStatus(testElement, Status.OK, null, null, null);
+						testElement.setSwappedFailure(failure);
+					}
+					testElement.setAssumptionFailed(true);
+					break;
+			}
+		}
+		return testElement;
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes= s.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		int length= in.readInt();
+		if (length == -1)
+			return null;
+		byte[] bytes= new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.runner;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Frame identifiers for the binary variant of the RemoteTestRunner protocol.
+ * <p>
+ * The binary protocol is only used if the runner is started with the
+ * <code>-binaryprotocol</code> argument. The stream then starts with {@link #HEADER}
+ * followed by a sequence of frames. Every frame starts with a one byte frame id.
+ * Strings are encoded as an <code>int</code> length followed by the UTF-8 bytes.
+ * </p>
+ * <p>
+ * The logical messages are the same as in the text protocol (see {@link MessageIds}),
+ * but they are neither split into lines nor escaped. Messages about a single test
+ * carry the numeric test id, and the test name is only sent the first time a test
+ * id is used.
+ * </p>
+ *
+ * @see BinaryMessageSender
+ * @see MessageIds
+ */
+public class BinaryMessageIds {
+	/**
+	 * The stream header of the binary protocol. Can never be confused with the first
+	 * message of the text protocol, which always starts with '%'.
+	 */
+	public static final byte[] HEADER= { (byte) 0xCA, (byte) 0xFE, 'J', 'U', 1 };
+
+	/**
+	 * A complete text protocol message.
+	 * MESSAGE + string
+	 */
+	public static final byte MESSAGE= 1;
+	/**
+	 * A part of a long text protocol message. The remaining parts follow in further
+	 * CHUNK frames, the last part is sent as a MESSAGE frame.
+	 * CHUNK + string
+	 */
+	public static final byte CHUNK= 2;
+	/**
+	 * Notification that a test has started.
+	 * TEST_START + testId + hasName + [testName]
+	 */
+	public static final byte TEST_START= 3;
+	/**
+	 * Notification that a test has ended.
+	 * TEST_END + testId + hasName + [testName]
+	 */
+	public static final byte TEST_END= 4;
+	/**
+	 * Notification that a test had an error.
+	 * TEST_ERROR + testId + hasName + [testName]
+	 */
+	public static final byte TEST_ERROR= 5;
+	/**
+	 * Notification that a test had a failure.
+	 * TEST_FAILED + testId + hasName + [testName]
+	 */
+	public static final byte TEST_FAILED= 6;
+
+	/**
+	 * Maximum number of characters sent in one MESSAGE or CHUNK frame.
+	 */
+	public static final int MAX_CHUNK_LENGTH= 16 * 1024;
+
+	private BinaryMessageIds() {
+	}
+
+	/**
+	 * Checks whether the given stream starts with the binary protocol {@link #HEADER}.
+	 * If not, the stream is reset to its initial position.
+	 *
+	 * @param in the stream to check, must support {@link InputStream#mark(int)}
+	 * @return <code>true</code> iff the header was found and consumed
+	 * @throws IOException if reading from the stream fails
+	 */
+	public static boolean readHeader(InputStream in) throws IOException {
+		in.mark(HEADER.length);
+		for (byte b : HEADER) {
+			if (in.read() != (b & 0xFF)) {
+				in.reset();
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.runner;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A {@link MessageSender} that encodes the messages of the RemoteTestRunner
+ * in the binary protocol described in {@link BinaryMessageIds}. Messages about a single
+ * test are encoded from their parts, see {@link #sendTestMessage(String, int, String)}.
+ * <p>
+ * Calls to {@link #flush()} are batched: the buffered frames are written at most
+ * every {@link #FLUSH_INTERVAL} milliseconds, except for the messages that
+ * terminate a run, which are flushed immediately.
+ * </p>
+ */
+public class BinaryMessageSender implements MessageSender {
+
+	/**
+	 * Interval in milliseconds in which pending frames are flushed.
+	 */
+	public static final int FLUSH_INTERVAL= 50;
+
+	private static final int BUFFER_SIZE= 64 * 1024;
+
+	private final DataOutputStream fOut;
+
+	/**
+	 * Test names that have already been sent, indexed by test id
+	 */
+	private String[] fSentNames= new String[64];
+
+	private final Thread fFlusher;
+
+	private boolean fDirty;
+
+	private boolean fUrgent;
+
+	private volatile boolean fClosed;
+
+	/**
+	 * Creates a sender and writes the protocol header.
+	 *
+	 * @param out the stream to write to
+	 * @throws IOException if the header cannot be written
+	 */
+	public BinaryMessageSender(OutputStream out) throws IOException {
+		fOut= new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+		fOut.write(BinaryMessageIds.HEADER);
+		fOut.flush();
+		fFlusher= new Thread("BinaryMessageSender") { //$NON-NLS-1$
+			@Override
+			public void run() {
+				flushPeriodically();
+			}
+		};
+		fFlusher.setDaemon(true);
+		fFlusher.start();
+	}
+
+	@Override
+	public synchronized void sendMessage(String msg) {
+		if (fClosed)
+			return;
+		try {
+			writeTextMessage(msg);
+			if (msg.startsWith(MessageIds.TEST_RUN_END) || msg.startsWith(MessageIds.TEST_STOPPED) || msg.startsWith(MessageIds.TEST_RERAN))
+				fUrgent= true;
+			fDirty= true;
+		} catch (IOException e) {
+			// like PrintWriter, don't report errors to the test run
+			fClosed= true;
+		}
+	}
+
+	@Override
+	public synchronized void sendTestMessage(String messageId, int testId, String testName) {
+		if (fClosed)
+			return;
+		byte frame;
+		if (MessageIds.TEST_START.equals(messageId)) {
+			frame= BinaryMessageIds.TEST_START;
+		} else if (MessageIds.TEST_END.equals(messageId)) {
+			frame= BinaryMessageIds.TEST_END;
+		} else if (MessageIds.TEST_ERROR.equals(messageId)) {
+			frame= BinaryMessageIds.TEST_ERROR;
+		} else if (MessageIds.TEST_FAILED.equals(messageId)) {
+			frame= BinaryMessageIds.TEST_FAILED;
+		} else {
+			throw new IllegalArgumentException(messageId);
+		}
+		try {
+			if (testId < 0)
+				writeTextMessage(messageId + testId + ',' + testName);
+			else
+				writeTestMessage(frame, testId, testName);
+			fDirty= true;
+		} catch (IOException e) {
+			fClosed= true;
+		}
+	}
+
+	@Override
+	public synchronized void flush() {
+		if (fUrgent) {
+			fUrgent= false;
+			doFlush();
+		}
+	}
+
+	/**
+	 * Flushes all pending frames and closes the underlying stream.
+	 */
+	public void close() {
+		synchronized (this) {
+			doFlush();
+			fClosed= true;
+			try {
+				fOut.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+		fFlusher.interrupt();
+	}
+
+	private void flushPeriodically() {
+		while (!fClosed) {
+			try {
+				Thread.sleep(FLUSH_INTERVAL);
+			} catch (InterruptedException e) {
+				return;
+			}
+			synchronized (this) {
+				doFlush();
+			}
+		}
+	}
+
+	private void doFlush() {
+		if (!fDirty || fClosed)
+			return;
+		fDirty= false;
+		try {
+			fOut.flush();
+		} catch (IOException e) {
+			fClosed= true;
+		}
+	}
+
+	private void writeTestMessage(byte frame, int id, String name) throws IOException {
+		fOut.writeByte(frame);
+		fOut.writeInt(id);
+		if (id >= fSentNames.length)
+			fSentNames= Arrays.copyOf(fSentNames, Math.max(id + 1, fSentNames.length * 2));
+		if (name.equals(fSentNames[id])) {
+			fOut.writeBoolean(false);
+		} else {
+			fSentNames[id]= name;
+			fOut.writeBoolean(true);
+			writeString(name);
+		}
+	}
+
+	private void writeTextMessage(String msg) throws IOException {
+		int length= msg.length();
+		int start= 0;
+		while (length - start > BinaryMessageIds.MAX_CHUNK_LENGTH) {
+			int end= start + BinaryMessageIds.MAX_CHUNK_LENGTH;
+			if (Character.isHighSurrogate(msg.charAt(end - 1)))
+				end--; // don't split surrogate pairs
+			fOut.writeByte(BinaryMessageIds.CHUNK);
+			writeString(msg.substring(start, end));
+			start= end;
+		}
+		fOut.writeByte(BinaryMessageIds.MESSAGE);
+		writeString(start == 0 ? msg : msg.substring(start));
+	}
+
+	private void writeString(String s) throws IOException {
+		byte[] bytes= s.getBytes(StandardCharsets.UTF_8);
+		fOut.writeInt(bytes.length);
+		fOut.write(bytes);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2021 IBM Corporation and others.
+ * Copyright (c) 2006, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -47,8 +47,8 @@ public class FirstRunExecutionListener implements IListensToTestExecutions {
 		fSender.flush();
 	}
 
-	private String getTestId(ITestIdentifier test) {
-		return fIds.getTestId(test);
+	private int getTestId(ITestIdentifier test) {
+		return fIds.getId(test);
 	}
 
 	protected void sendFailure(TestReferenceFailure failure, String startTrace,
@@ -64,7 +64,7 @@ public class FirstRunExecutionListener implements IListensToTestExecutions {
 	}
 
 	private void sendMessage(ITestIdentifier test, String status) {
-		fSender.sendMessage(status + getTestId(test) + ',' + RemoteTestRunner.escapeText(test.getName()));
+		fSender.sendTestMessage(status, getTestId(test), RemoteTestRunner.escapeText(test.getName()));
 	}
 
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006 IBM Corporation and others.
+ * Copyright (c) 2006, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,18 @@ public interface MessageSender {
 
 	void sendMessage(String msg);
 
+	/**
+	 * Sends a message about a single test.
+	 *
+	 * @param messageId one of {@link MessageIds#TEST_START}, {@link MessageIds#TEST_END},
+	 *            {@link MessageIds#TEST_ERROR} or {@link MessageIds#TEST_FAILED}
+	 * @param testId the id of the test
+	 * @param testName the escaped name of the test
+	 */
+	default void sendTestMessage(String messageId, int testId, String testName) {
+		sendMessage(messageId + testId + ',' + testName);
+	}
+
 	void flush();
 
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -90,6 +90,10 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * Print writer for sending messages
 	 */
 	private PrintWriter fWriter;
+	/**
+	 * Sender for the binary protocol, or <code>null</code> if the text protocol is used
+	 */
+	private BinaryMessageSender fBinarySender;
 	/**
 	 * Reader for incoming messages
 	 */
@@ -111,6 +115,14 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * This allows to rerun tests.
 	 */
 	private boolean fKeepAlive= false;
+	/**
+	 * Send messages in the binary protocol (see BinaryMessageIds)
+	 */
+	private boolean fBinaryProtocol= false;
+	/**
+	 * Execute the tests in parallel, if supported by the test loader
+	 */
+	private boolean fParallelExecution= false;
 	/**
 	 * Has the server been stopped
 	 */
@@ -201,6 +213,8 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * -host: the host to connect to default local host
 	 * -port: the port to connect to, mandatory argument
 	 * -keepalive: keep the process alive after a test run
+	 * -binaryprotocol: report results in the binary protocol
+	 * -parallel: execute the tests in parallel, if supported by the test loader
      * </pre>
      */
 	public static void main(String[] args) {
@@ -300,6 +314,12 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 			else if("-keepalive".equalsIgnoreCase(args[i])) { //$NON-NLS-1$
 				fKeepAlive= true;
 			}
+			else if("-binaryprotocol".equalsIgnoreCase(args[i])) { //$NON-NLS-1$
+				fBinaryProtocol= true;
+			}
+			else if("-parallel".equalsIgnoreCase(args[i])) { //$NON-NLS-1$
+				fParallelExecution= true;
+			}
 			else if("-debugging".equalsIgnoreCase(args[i]) || "-debug".equalsIgnoreCase(args[i])){ //$NON-NLS-1$ //$NON-NLS-2$
 			    fDebugMode= true;
 
@@ -578,7 +598,7 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 
 	@Override
 	public void visitTreeEntry(ITestIdentifier identifier, boolean hasChildren, int testCount, boolean isDynamicTest, String parentId) {
-		String treeEntry= getTestId(identifier) + ',' + escapeText(identifier.getName()) + ',' + hasChildren + ',' + testCount
+		String treeEntry= Integer.toString(fIds.getId(identifier)) + ',' + escapeText(identifier.getName()) + ',' + hasChildren + ',' + testCount
 				+ ',' + isDynamicTest + ',' + parentId + ',' + escapeText(identifier.getDisplayName()) + ',' + escapeText(identifier.getParameterTypes())
 				+ ',' + escapeText(identifier.getUniqueId());
 		notifyTestTreeEntry(treeEntry);
@@ -614,6 +634,15 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 		return sb.toString();
 	}
 
+	/**
+	 * @return <code>true</code> iff the tests should be executed in parallel. Test loaders
+	 *         that support parallel execution must report the test events in a way that the
+	 *         messages of one event are not interleaved with the messages of another event.
+	 */
+	public boolean isParallelExecution() {
+		return fParallelExecution;
+	}
+
 	// WANT: work in bug fixes since RC2?
 	public String getTestId(ITestIdentifier id) {
 		return fIds.getTestId(id);
@@ -648,6 +677,8 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 		for (int i= 1; i < 20; i++) {
 			try{
 				fClientSocket= new Socket(fHost, fPort);
+				if (fBinaryProtocol)
+					fBinarySender= new BinaryMessageSender(fClientSocket.getOutputStream());
 				try {
 				    fWriter= new PrintWriter(new BufferedWriter(new OutputStreamWriter(fClientSocket.getOutputStream(), "UTF-8")), false/*true*/); //$NON-NLS-1$
 	            } catch (UnsupportedEncodingException e1) {
@@ -677,6 +708,10 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * Shutsdown the connection to the remote test listener.
 	 */
 	private void shutDown() {
+		if (fBinarySender != null) {
+			fBinarySender.close();
+			fBinarySender= null;
+		}
 		if (fWriter != null) {
 			fWriter.close();
 			fWriter= null;
@@ -710,6 +745,10 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 
 	@Override
 	public void sendMessage(String msg) {
+		if (fBinarySender != null) {
+			fBinarySender.sendMessage(msg);
+			return;
+		}
 		if(fWriter == null)
 			return;
 		fWriter.println(msg);
@@ -717,6 +756,15 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 //			System.out.println(msg);
 	}
 
+	@Override
+	public void sendTestMessage(String messageId, int testId, String testName) {
+		if (fBinarySender != null) {
+			fBinarySender.sendTestMessage(messageId, testId, testName);
+			return;
+		}
+		MessageSender.super.sendTestMessage(messageId, testId, testName);
+	}
+
 	protected void notifyTestRunStarted(int testCount) {
 		fSender.sendMessage(MessageIds.TEST_RUN_START + testCount + " " + "v2"); //$NON-NLS-1$ //$NON-NLS-2$
 	}
@@ -750,6 +798,10 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 
 	@Override
 	public void flush() {
+		if (fBinarySender != null) {
+			fBinarySender.flush();
+			return;
+		}
 	    fWriter.flush();
 	}
 
@@ -16,23 +16,75 @@
 
 package org.eclipse.jdt.internal.junit.runner;
 
-import java.util.HashMap;
-
+/**
+ * Assigns dense <code>int</code> ids to test identifiers, starting at 1.
+ * <p>
+ * The ids are kept in an open addressing table with parallel key and id arrays, so that
+ * looking up the id of a test does not allocate.
+ * </p>
+ */
 public class TestIdMap {
-	private HashMap<ITestIdentifier, String> fIdMap= new HashMap<>();
+	private static final int INITIAL_CAPACITY= 256; // must be a power of 2
+
+	private ITestIdentifier[] fKeys= new ITestIdentifier[INITIAL_CAPACITY];
+
+	private int[] fIds= new int[INITIAL_CAPACITY];
+
+	private int fSize;
 
 	private int fNextId= 1;
 
-	public String getTestId(ITestIdentifier identifier) {
-		Object id= fIdMap.get(identifier);
-		if (id != null)
-			return (String) id;
-		String newId= Integer.toString(fNextId++);
-		fIdMap.put(identifier, newId);
+	/**
+	 * Returns the id of the given test, assigning a new id if the test has not been seen yet.
+	 *
+	 * @param identifier the test
+	 * @return the id, a positive number
+	 */
+	public synchronized int getId(ITestIdentifier identifier) {
+		int mask= fKeys.length - 1;
+		int index= hash(identifier) & mask;
+		ITestIdentifier key;
+		while ((key= fKeys[index]) != null) {
+			if (key.equals(identifier))
+				return fIds[index];
+			index= (index + 1) & mask;
+		}
+		int newId= fNextId++;
+		fKeys[index]= identifier;
+		fIds[index]= newId;
+		if (++fSize * 4 > fKeys.length * 3)
+			rehash();
 		return newId;
 	}
 
+	public String getTestId(ITestIdentifier identifier) {
+		return Integer.toString(getId(identifier));
+	}
+
 	public String getTestId(ITestReference ref) { // not used
 		return getTestId(ref.getIdentifier());
 	}
+
+	private void rehash() {
+		ITestIdentifier[] oldKeys= fKeys;
+		int[] oldIds= fIds;
+		fKeys= new ITestIdentifier[oldKeys.length * 2];
+		fIds= new int[oldKeys.length * 2];
+		int mask= fKeys.length - 1;
+		for (int i= 0; i < oldKeys.length; i++) {
+			ITestIdentifier key= oldKeys[i];
+			if (key == null)
+				continue;
+			int index= hash(key) & mask;
+			while (fKeys[index] != null)
+				index= (index + 1) & mask;
+			fKeys[index]= key;
+			fIds[index]= oldIds[i];
+		}
+	}
+
+	private static int hash(ITestIdentifier identifier) {
+		int h= identifier.hashCode();
+		return h ^ (h >>> 16);
+	}
 }
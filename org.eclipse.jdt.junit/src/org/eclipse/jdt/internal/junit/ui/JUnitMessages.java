@@ -146,6 +146,8 @@ public final class JUnitMessages extends NLS {
 
 	public static String JUnitLaunchConfigurationTab_label_method;
 
+	public static String JUnitLaunchConfigurationTab_label_parallel;
+
 	public static String JUnitLaunchConfigurationTab_label_oneTest;
 
 	public static String JUnitLaunchConfigurationTab_label_project;
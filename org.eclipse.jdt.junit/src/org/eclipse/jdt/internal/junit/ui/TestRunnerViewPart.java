@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -146,6 +146,7 @@ import org.eclipse.jdt.internal.junit.Messages;
 import org.eclipse.jdt.internal.junit.launcher.ITestKind;
 import org.eclipse.jdt.internal.junit.launcher.JUnitLaunchConfigurationConstants;
 import org.eclipse.jdt.internal.junit.launcher.TestKindRegistry;
+import org.eclipse.jdt.internal.junit.model.CoalescingTestSessionListener;
 import org.eclipse.jdt.internal.junit.model.ITestRunSessionListener;
 import org.eclipse.jdt.internal.junit.model.ITestSessionListener;
 import org.eclipse.jdt.internal.junit.model.JUnitModel;
@@ -245,7 +246,10 @@ public class TestRunnerViewPart extends ViewPart {
 	private ToggleSortingAction[] fToggleSortingActions;
 
 	private TestRunSession fTestRunSession;
-	private TestSessionListener fTestSessionListener;
+	/**
+	 * The view's {@link TestSessionListener}, wrapped to coalesce the per-test notifications
+	 */
+	private CoalescingTestSessionListener fTestSessionListener;
 
 	private RunnerViewHistory fViewHistory;
 	private TestRunSessionListener fTestRunSessionListener;
@@ -1637,7 +1641,7 @@ action enablement
 
 		} else {
 			if (fTestRunSession.isStarting() || fTestRunSession.isRunning() || fTestRunSession.isKeptAlive()) {
-				fTestSessionListener= new TestSessionListener();
+				fTestSessionListener= new CoalescingTestSessionListener(new TestSessionListener());
 				fTestRunSession.addTestSessionListener(fTestSessionListener);
 			}
 			if (!fTestRunSession.isStarting() && !fShowOnErrorOnly)
@@ -1672,6 +1676,8 @@ action enablement
 	private void deregisterTestSessionListener(boolean force) {
 		if (fTestRunSession != null && fTestSessionListener != null && (force || !fTestRunSession.isKeptAlive())) {
 			fTestRunSession.removeTestSessionListener(fTestSessionListener);
+			// drop the deltas of the old session that have not been forwarded yet
+			fTestSessionListener.dispose();
 			fTestSessionListener= null;
 		}
 	}
@@ -1787,8 +1793,8 @@ action enablement
 			ticksDone= 0;
 		else if (startedCount == totalCount && ! fTestRunSession.isRunning())
 			ticksDone= totalCount;
-		else
-			ticksDone= startedCount - 1;
+		else // tests that are still running (more than one if executed in parallel) are not done
+			ticksDone= startedCount - Math.max(1, fTestRunSession.getRunningCount());
 
 		fProgressBar.reset(hasErrorsOrFailures, stopped, ticksDone, totalCount);
 	}
@@ -143,6 +143,8 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 
 	private Button fKeepRunning;
 
+	private Button fParallelExecution;
+
 	// Test class UI widgets
 	private Text fTestText;
 
@@ -213,6 +215,7 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 		createSpacer(comp);
 
 		createKeepAliveGroup(comp);
+		createParallelExecutionGroup(comp);
 		Dialog.applyDialogFont(comp);
 		PlatformUI.getWorkbench().getHelpSystem().setHelp(getControl(), IJUnitHelpContextIds.LAUNCH_CONFIGURATION_DIALOG_JUNIT_MAIN_TAB);
 		validatePage();
@@ -282,6 +285,7 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 				if (first instanceof ITestKind) {
 					boolean isJUnit5= TestKindRegistry.JUNIT5_TEST_KIND_ID.equals(((ITestKind) first).getId());
 					fIncludeExcludeTagsButton.setEnabled(isJUnit5);
+					fParallelExecution.setEnabled(isJUnit5);
 				}
 			}
 		}
@@ -463,6 +467,26 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 		fKeepRunning.setLayoutData(gd);
 	}
 
+	private void createParallelExecutionGroup(Composite comp) {
+		GridData gd;
+		fParallelExecution= new Button(comp, SWT.CHECK);
+		fParallelExecution.addSelectionListener(new SelectionListener() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				updateLaunchConfigurationDialog();
+			}
+
+			@Override
+			public void widgetDefaultSelected(SelectionEvent e) {
+			}
+		});
+		fParallelExecution.setText(JUnitMessages.JUnitLaunchConfigurationTab_label_parallel);
+		gd= new GridData();
+		gd.horizontalAlignment= GridData.FILL;
+		gd.horizontalSpan= 3;
+		fParallelExecution.setLayoutData(gd);
+	}
+
 	private static Image createImage(String path) {
 		return JUnitPlugin.getImageDescriptor(path).createImage();
 	}
@@ -485,6 +509,7 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 				updateTestTypeFromConfig(config);
 			}
 			updateKeepRunning(config);
+			updateParallelExecution(config);
 			updateTestLoaderFromConfig(config);
 
 			calculateMethodsCache();
@@ -522,6 +547,15 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 		fKeepRunning.setSelection(running);
 	}
 
+	private void updateParallelExecution(ILaunchConfiguration config) {
+		boolean parallel= false;
+		try {
+			parallel= config.getAttribute(JUnitLaunchConfigurationConstants.ATTR_PARALLEL_EXECUTION, false);
+		} catch (CoreException ce) {
+		}
+		fParallelExecution.setSelection(parallel);
+	}
+
 	private void updateProjectFromConfig(ILaunchConfiguration config) {
 		String projectName= ""; //$NON-NLS-1$
 		try {
@@ -592,6 +626,7 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 			config.setAttribute(JUnitLaunchConfigurationConstants.ATTR_TEST_NAME, fTestMethodText.getText());
 		}
 		config.setAttribute(JUnitLaunchConfigurationConstants.ATTR_KEEPRUNNING, fKeepRunning.getSelection());
+		config.setAttribute(JUnitLaunchConfigurationConstants.ATTR_PARALLEL_EXECUTION, fParallelExecution.getSelection());
 		try {
 			mapResources(config);
 		} catch (CoreException e) {
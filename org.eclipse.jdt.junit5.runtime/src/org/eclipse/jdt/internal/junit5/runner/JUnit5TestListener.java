@@ -16,7 +16,9 @@ package org.eclipse.jdt.internal.junit5.runner;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.TestExecutionResult.Status;
@@ -36,13 +38,27 @@ import org.eclipse.jdt.internal.junit.runner.RemoteTestRunner;
 import org.eclipse.jdt.internal.junit.runner.TestIdMap;
 import org.eclipse.jdt.internal.junit.runner.TestReferenceFailure;
 
+/**
+ * Reports the execution of a JUnit 5 test plan to the RemoteTestRunner.
+ * <p>
+ * The listener is thread-safe, so that tests can be executed in parallel: each event is
+ * reported while holding the lock of this listener, so that the messages of one event (e.g.
+ * a failure and its trace) are never interleaved with the messages of an event from another
+ * thread. Failure traces are computed before acquiring the lock.
+ * </p>
+ */
 public class JUnit5TestListener implements TestExecutionListener {
 
 	private final IListensToTestExecutions fNotified;
 
 	private RemoteTestRunner fRemoteTestRunner;
 
-	private TestPlan fTestPlan;
+	private volatile TestPlan fTestPlan;
+
+	/**
+	 * Tests that have been reported as started but not as ended yet
+	 */
+	private final Map<TestIdentifier, ITestIdentifier> fRunningTests= new ConcurrentHashMap<>();
 
 	public JUnit5TestListener(IListensToTestExecutions notified, RemoteTestRunner remoteTestRunner) {
 		fNotified= notified;
@@ -56,25 +72,42 @@ public class JUnit5TestListener implements TestExecutionListener {
 
 	@Override
 	public void testPlanExecutionFinished(TestPlan testPlan) {
+		// tests that are still running in other threads when the execution has been aborted
+		synchronized (this) {
+			for (ITestIdentifier identifier : fRunningTests.values()) {
+				fNotified.notifyTestEnded(identifier);
+			}
+		}
+		fRunningTests.clear();
 		fTestPlan= null;
 	}
 
 	@Override
 	public void executionStarted(TestIdentifier testIdentifier) {
 		if (testIdentifier.isTest()) {
-			fNotified.notifyTestStarted(getIdentifier(testIdentifier, false, false));
+			ITestIdentifier identifier= getIdentifier(testIdentifier, false, false);
+			synchronized (this) {
+				fRunningTests.put(testIdentifier, identifier);
+				fNotified.notifyTestStarted(identifier);
+			}
 		}
 	}
 
 	@Override
 	public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
-		notifyIfNotSuccessful(testIdentifier, testExecutionResult);
-		if (testIdentifier.isTest()) {
-			fNotified.notifyTestEnded(getIdentifier(testIdentifier, false, false));
+		TestReferenceFailure failure= getFailure(testIdentifier, testExecutionResult);
+		synchronized (this) {
+			if (failure != null) {
+				fNotified.notifyTestFailed(failure);
+			}
+			if (testIdentifier.isTest()) {
+				ITestIdentifier identifier= fRunningTests.remove(testIdentifier);
+				fNotified.notifyTestEnded(identifier != null ? identifier : getIdentifier(testIdentifier, false, false));
+			}
 		}
 	}
 
-	private void notifyIfNotSuccessful(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+	private TestReferenceFailure getFailure(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
 		Status result= testExecutionResult.getStatus();
 		if (result != Status.SUCCESSFUL) {
 			String trace= ""; //$NON-NLS-1$
@@ -91,8 +124,9 @@ public class JUnit5TestListener implements TestExecutionListener {
 			}
 
 			ITestIdentifier identifier= getIdentifier(testIdentifier, false, assumptionFailed);
-			fNotified.notifyTestFailed(new TestReferenceFailure(identifier, status, trace, comparison));
+			return new TestReferenceFailure(identifier, status, trace, comparison);
 		}
+		return null;
 	}
 
 	private String getTrace(Throwable exception) {
@@ -166,9 +200,10 @@ public class JUnit5TestListener implements TestExecutionListener {
 	}
 
 	@Override
-	public void executionSkipped(TestIdentifier testIdentifier, String reason) {
-		if (testIdentifier.isContainer() && fTestPlan != null) {
-			fTestPlan.getDescendants(testIdentifier).stream().filter(TestIdentifier::isTest).forEachOrdered(this::notifySkipped);
+	public synchronized void executionSkipped(TestIdentifier testIdentifier, String reason) {
+		TestPlan testPlan= fTestPlan;
+		if (testIdentifier.isContainer() && testPlan != null) {
+			testPlan.getDescendants(testIdentifier).stream().filter(TestIdentifier::isTest).forEachOrdered(this::notifySkipped);
 		} else {
 			notifySkipped(testIdentifier);
 		}
@@ -183,19 +218,20 @@ public class JUnit5TestListener implements TestExecutionListener {
 
 
 	@Override
-	public void dynamicTestRegistered(TestIdentifier testIdentifier) {
-		if (fTestPlan != null) {
+	public synchronized void dynamicTestRegistered(TestIdentifier testIdentifier) {
+		TestPlan testPlan= fTestPlan;
+		if (testPlan != null) {
 			JUnit5Identifier dynamicTestIdentifier= new JUnit5Identifier(testIdentifier);
 			boolean hasChildren;
 			int testCount;
 			if (testIdentifier.isContainer()) {
 				hasChildren= true;
-				testCount= fTestPlan.getChildren(testIdentifier).size();
+				testCount= testPlan.getChildren(testIdentifier).size();
 			} else {
 				hasChildren= false;
 				testCount= 1;
 			}
-			String parentId= getParentId(testIdentifier, fTestPlan);
+			String parentId= getParentId(testIdentifier, testPlan);
 			fRemoteTestRunner.visitTreeEntry(dynamicTestIdentifier, hasChildren, testCount, true, parentId);
 		}
 	}
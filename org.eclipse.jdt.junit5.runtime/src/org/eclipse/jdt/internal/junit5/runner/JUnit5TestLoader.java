@@ -34,6 +34,12 @@ public class JUnit5TestLoader implements ITestLoader {
 
 	public final static String FAILURE_NAMES= "org.eclipse.jdt.junit5.runtime.failureNames"; //$NON-NLS-1$
 
+	private static final String PARALLEL_ENABLED= "junit.jupiter.execution.parallel.enabled"; //$NON-NLS-1$
+
+	private static final String PARALLEL_MODE_DEFAULT= "junit.jupiter.execution.parallel.mode.default"; //$NON-NLS-1$
+
+	private static final String PARALLEL_MODE_CLASSES_DEFAULT= "junit.jupiter.execution.parallel.mode.classes.default"; //$NON-NLS-1$
+
 	private Launcher fLauncher= LauncherFactory.create();
 
 	private RemoteTestRunner fRemoteTestRunner;
@@ -70,7 +76,7 @@ public class JUnit5TestLoader implements ITestLoader {
 	}
 
 	private ITestReference createFilteredTest(Class<?> clazz, String testName, String[][] includeExcludeTags) {
-		LauncherDiscoveryRequest request= LauncherDiscoveryRequestBuilder.request().selectors(DiscoverySelectors.selectMethod(clazz.getName() + "#" + testName)).filters(getTagFilters(includeExcludeTags)).build(); //$NON-NLS-1$
+		LauncherDiscoveryRequest request= build(LauncherDiscoveryRequestBuilder.request().selectors(DiscoverySelectors.selectMethod(clazz.getName() + "#" + testName)).filters(getTagFilters(includeExcludeTags))); //$NON-NLS-1$
 		return new JUnit5TestReference(request, fLauncher, fRemoteTestRunner);
 	}
 
@@ -84,7 +90,7 @@ public class JUnit5TestLoader implements ITestLoader {
 			requestBuilder.configurationParameter(FAILURE_NAMES, failureNamesString);
 			requestBuilder.configurationParameter("junit.jupiter.testmethod.order.default", FailuresFirstMethodOrderer.class.getName()); //$NON-NLS-1$
 		}
-		LauncherDiscoveryRequest request= requestBuilder.build();
+		LauncherDiscoveryRequest request= build(requestBuilder);
 		return new JUnit5TestReference(request, fLauncher, fRemoteTestRunner);
 	}
 
@@ -99,20 +105,29 @@ public class JUnit5TestLoader implements ITestLoader {
 		} else {
 			pattern= "^" + pkg + "\\.[^.]+$"; //$NON-NLS-1$//$NON-NLS-2$
 		}
-		LauncherDiscoveryRequest request= LauncherDiscoveryRequestBuilder.request()
+		LauncherDiscoveryRequest request= build(LauncherDiscoveryRequestBuilder.request()
 				.selectors(DiscoverySelectors.selectPackage(pkg))
 				.filters(ClassNameFilter.includeClassNamePatterns(pattern))
-				.filters(getTagFilters(includeExcludeTags))
-				.build();
+				.filters(getTagFilters(includeExcludeTags)));
 
 		return new JUnit5TestReference(request, fLauncher, fRemoteTestRunner);
 	}
 
 	private ITestReference createUniqueIdTest(String uniqueId, String[][] includeExcludeTags) {
-		LauncherDiscoveryRequest request= LauncherDiscoveryRequestBuilder.request().selectors(DiscoverySelectors.selectUniqueId(uniqueId)).filters(getTagFilters(includeExcludeTags)).build();
+		LauncherDiscoveryRequest request= build(LauncherDiscoveryRequestBuilder.request().selectors(DiscoverySelectors.selectUniqueId(uniqueId)).filters(getTagFilters(includeExcludeTags)));
 		return new JUnit5TestReference(request, fLauncher, fRemoteTestRunner);
 	}
 
+	private LauncherDiscoveryRequest build(LauncherDiscoveryRequestBuilder requestBuilder) {
+		if (fRemoteTestRunner.isParallelExecution()) {
+			// test classes and methods can still opt out with @Execution(ExecutionMode.SAME_THREAD)
+			requestBuilder.configurationParameter(PARALLEL_ENABLED, "true"); //$NON-NLS-1$
+			requestBuilder.configurationParameter(PARALLEL_MODE_DEFAULT, "concurrent"); //$NON-NLS-1$
+			requestBuilder.configurationParameter(PARALLEL_MODE_CLASSES_DEFAULT, "concurrent"); //$NON-NLS-1$
+		}
+		return requestBuilder.build();
+	}
+
 	private Filter<?>[] getTagFilters(String[][] includeExcludeTags) {
 		String[] includeTags= includeExcludeTags[0];
 		String[] excludeTags= includeExcludeTags[1];
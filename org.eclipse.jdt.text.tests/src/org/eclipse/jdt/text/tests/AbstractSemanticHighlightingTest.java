@@ -136,6 +136,14 @@ public class AbstractSemanticHighlightingTest {
 		return buf.toString();
 	}
 
+	protected static JavaEditor getEditor() {
+		return fEditor;
+	}
+
+	protected static SourceViewer getSourceViewer() {
+		return fSourceViewer;
+	}
+
 	protected Position[] getSemanticHighlightingPositions() throws BadPositionCategoryException {
 		SemanticHighlightingManager manager= (SemanticHighlightingManager) new Accessor(fEditor, JavaEditor.class).get("fSemanticManager");
 		SemanticHighlightingPresenter presenter= (SemanticHighlightingPresenter) new Accessor(manager, manager.getClass()).get("fPresenter");
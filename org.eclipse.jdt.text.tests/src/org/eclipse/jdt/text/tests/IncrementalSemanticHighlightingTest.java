@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingManager;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingPresenter;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingReconciler;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightings;
+
+/**
+ * Tests that reconciling only the changed body yields the same highlighting as reconciling the
+ * whole compilation unit.
+ */
+public class IncrementalSemanticHighlightingTest extends AbstractSemanticHighlightingTest {
+
+	@Rule
+	public SemanticHighlightingTestSetup shts= new SemanticHighlightingTestSetup("/SHTest/src/SHTest.java");
+
+	private SemanticHighlightingReconciler getReconciler() {
+		SemanticHighlightingManager manager= (SemanticHighlightingManager) new Accessor(getEditor(), JavaEditor.class).get("fSemanticManager");
+		return (SemanticHighlightingReconciler) new Accessor(manager, manager.getClass()).get("fReconciler");
+	}
+
+	private boolean wasIncremental() {
+		return new Accessor(getReconciler(), SemanticHighlightingReconciler.class).getBoolean("fLastReconcileIncremental");
+	}
+
+	private Position[] reconcile(boolean full) throws Exception {
+		if (full) {
+			SemanticHighlightingManager manager= (SemanticHighlightingManager) new Accessor(getEditor(), JavaEditor.class).get("fSemanticManager");
+			SemanticHighlightingPresenter presenter= (SemanticHighlightingPresenter) new Accessor(manager, manager.getClass()).get("fPresenter");
+			presenter.invalidateChangedRegion();
+			EditorTestHelper.forceReconcile(getSourceViewer());
+		}
+		assertTrue(EditorTestHelper.joinReconciler(getSourceViewer(), 0, 10000, 100));
+		EditorTestHelper.runEventQueue(100);
+		return getSemanticHighlightingPositions();
+	}
+
+	private void replace(int line, int column, int length, String text) throws Exception {
+		IDocument document= getSourceViewer().getDocument();
+		document.replace(document.getLineOffset(line) + column, length, text);
+	}
+
+	@Test
+	public void changeInMethodBody() throws Exception {
+		setUpSemanticHighlighting(SemanticHighlightings.LOCAL_VARIABLE);
+
+		replace(9, 2, 0, "int local3= local; local3++;\n\t\t");
+		Position[] incremental= reconcile(false);
+		assertTrue(wasIncremental());
+
+		Position[] full= reconcile(true);
+		assertFalse(wasIncremental());
+		assertEqualPositions(full, incremental);
+	}
+
+	@Test
+	public void removeInMethodBody() throws Exception {
+		setUpSemanticHighlighting(SemanticHighlightings.LOCAL_VARIABLE);
+
+		replace(9, 2, "local++;".length(), "");
+		Position[] incremental= reconcile(false);
+		assertTrue(wasIncremental());
+
+		Position[] full= reconcile(true);
+		assertEqualPositions(full, incremental);
+	}
+
+	@Test
+	public void changeOfDeclaration() throws Exception {
+		setUpSemanticHighlighting(SemanticHighlightings.FIELD);
+
+		// a new field changes the highlighting of other members
+		replace(3, 0, 0, "\tint local;\n");
+		Position[] positions= reconcile(false);
+		assertFalse(wasIncremental());
+
+		Position[] full= reconcile(true);
+		assertEqualPositions(full, positions);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019, 2020 Red Hat Inc. and others.
+ * Copyright (c) 2019, 2024 Red Hat Inc. and others.
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -665,6 +665,54 @@ public class ChainCompletionTest {
 		assertEquals(expectedContent,doc.get());
 	}
 
+	@Test
+	public void testCompletionAfterChangeOfSourceType() throws Exception {
+		StringBuffer bar= new StringBuffer();
+		bar.append("package test;\n" +
+				"public class Bar {\n" +
+				"  public Baz getBaz() {\n" +
+				"    return new Baz();\n" +
+				"  }\n" +
+				"}\n" +
+				"class Baz {\n" +
+				"}");
+		getCompilationUnit(pkg, bar, "Bar.java");
+
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test;\n" +
+				"public class Foo {\n" +
+				"  public void method() {\n" +
+				"    Bar b = new Bar();\n" +
+				"    Baz baz = $\n" +
+				"  }\n" +
+				"}");
+
+		int completionIndex= getCompletionIndex(buf);
+		ICompilationUnit cu= getCompilationUnit(pkg, buf, "Foo.java");
+
+		List<ICompletionProposal> proposals= computeCompletionProposals(cu, completionIndex);
+		assertProposalsExist(Arrays.asList("b.getBaz() - 2 elements"), proposals);
+		assertFalse(proposals.stream().anyMatch(p -> p.getDisplayString().startsWith("b.getOtherBaz()")));
+
+		// the members of Bar are cached, they must be recomputed after Bar changed
+		bar= new StringBuffer();
+		bar.append("package test;\n" +
+				"public class Bar {\n" +
+				"  public Baz getBaz() {\n" +
+				"    return new Baz();\n" +
+				"  }\n" +
+				"  public Baz getOtherBaz() {\n" +
+				"    return new Baz();\n" +
+				"  }\n" +
+				"}\n" +
+				"class Baz {\n" +
+				"}");
+		pkg.createCompilationUnit("Bar.java", bar.toString(), true, null);
+
+		proposals= computeCompletionProposals(cu, completionIndex);
+		assertProposalsExist(Arrays.asList("b.getBaz() - 2 elements", "b.getOtherBaz() - 2 elements"), proposals);
+	}
+
 	private ICompilationUnit getCompilationUnit(IPackageFragment pack, StringBuffer buf, String name) throws JavaModelException {
 		return pack.createCompilationUnit(name, buf.toString().replace("$", ""), false, null);
 	}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.contentassist.ContentAssistant;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.ui.JavaUI;
+import org.eclipse.jdt.ui.text.IJavaPartitions;
+
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.text.java.JavaCompletionProcessor;
+
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+/**
+ * Tests that content assist shows the results of the categories that complete within the latency
+ * budget when another category misses it.
+ */
+public class ContentAssistLatencyBudgetTest {
+
+	private static final String SLOW_CATEGORY_NAME= "Slow Test Proposals";
+
+	private IJavaProject fJProject;
+
+	private JavaEditor fEditor;
+
+	@After
+	public void tearDown() throws Exception {
+		if (fEditor != null) {
+			EditorTestHelper.closeEditor(fEditor);
+			fEditor= null;
+		}
+		if (fJProject != null) {
+			JavaProjectHelper.delete(fJProject);
+			fJProject= null;
+		}
+		SlowCompletionProposalComputer.reset();
+	}
+
+	@Test
+	public void slowCategoryIsDropped() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+		JavaProjectHelper.addRTJar(fJProject);
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		IPackageFragment pack1= sourceFolder.createPackageFragment("test1", false, null);
+		String contents= LongCompletionProposalComputer.CONTENT_TRIGGER_STRING + " " + SlowCompletionProposalComputer.CONTENT_TRIGGER_STRING;
+		ICompilationUnit cu= pack1.createCompilationUnit("Blah.java", contents, true, new NullProgressMonitor());
+		fEditor= (JavaEditor) JavaUI.openInEditor(cu);
+		ContentAssistant assistant= new ContentAssistant();
+		assistant.setDocumentPartitioning(IJavaPartitions.JAVA_PARTITIONING);
+		JavaCompletionProcessor processor= new JavaCompletionProcessor(fEditor, assistant, IDocument.DEFAULT_CONTENT_TYPE);
+
+		ICompletionProposal[] proposals= processor.computeCompletionProposals(fEditor.getViewer(), 0);
+
+		List<String> displayStrings= Arrays.stream(proposals).map(ICompletionProposal::getDisplayString).collect(Collectors.toList());
+		assertTrue(displayStrings.toString(), displayStrings.contains(LongCompletionProposalComputer.CONTENT_TRIGGER_STRING));
+		assertFalse(displayStrings.toString(), displayStrings.contains(SlowCompletionProposalComputer.CONTENT_TRIGGER_STRING));
+		String errorMessage= processor.getErrorMessage();
+		assertNotNull(errorMessage);
+		assertTrue(errorMessage, errorMessage.contains(SLOW_CATEGORY_NAME));
+		assertTrue("Slow computer was not canceled", SlowCompletionProposalComputer.awaitCanceled(10000));
+	}
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.eclipse.jdt.internal.ui.text.java.LatencyHistogram;
+
+public class LatencyHistogramTest {
+
+	private static long millis(double millis) {
+		return (long) (millis * 1e6);
+	}
+
+	@Test
+	public void empty() {
+		LatencyHistogram histogram= new LatencyHistogram();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentileMillis(50));
+		assertEquals(0, histogram.getMeanMillis(), 0);
+		assertEquals(0, histogram.getMaxMillis());
+	}
+
+	@Test
+	public void percentiles() {
+		LatencyHistogram histogram= new LatencyHistogram();
+		histogram.record(millis(0.5)); // bucket 0: below 1 ms
+		histogram.record(millis(1)); // bucket 1: 1 ms to below 2 ms
+		histogram.record(millis(3)); // bucket 2: 2 ms to below 4 ms
+		histogram.record(millis(100)); // bucket 7: 64 ms to below 128 ms
+		assertEquals(4, histogram.getCount());
+		assertEquals(1, histogram.getPercentileMillis(25));
+		assertEquals(2, histogram.getPercentileMillis(50));
+		assertEquals(4, histogram.getPercentileMillis(75));
+		assertEquals(128, histogram.getPercentileMillis(99));
+		assertEquals(128, histogram.getPercentileMillis(100));
+		assertEquals(100, histogram.getMaxMillis());
+	}
+
+	@Test
+	public void longLatenciesInLastBucket() {
+		LatencyHistogram histogram= new LatencyHistogram();
+		histogram.record(TimeUnit.HOURS.toNanos(1));
+		assertEquals(Long.MAX_VALUE, histogram.getPercentileMillis(50));
+		assertEquals(TimeUnit.HOURS.toMillis(1), histogram.getMaxMillis());
+	}
+
+	@Test
+	public void mean() {
+		LatencyHistogram histogram= new LatencyHistogram();
+		histogram.record(millis(1));
+		histogram.record(millis(3));
+		assertEquals(2, histogram.getMeanMillis(), 1e-9);
+	}
+
+	@Test
+	public void timeoutsAreNotLatencies() {
+		LatencyHistogram histogram= new LatencyHistogram();
+		histogram.record(millis(5));
+		histogram.recordTimeout();
+		histogram.recordTimeout();
+		assertEquals(2, histogram.getTimeouts());
+		assertEquals(1, histogram.getCount());
+		assertEquals(8, histogram.getPercentileMillis(100));
+	}
+
+	@Test
+	public void concurrentRecording() throws Exception {
+		LatencyHistogram histogram= new LatencyHistogram();
+		Thread[] threads= new Thread[4];
+		for (int i= 0; i < threads.length; i++) {
+			threads[i]= new Thread(() -> {
+				for (int j= 0; j < 10000; j++)
+					histogram.record(millis(j % 10));
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(4 * 10000, histogram.getCount());
+		assertEquals(9, histogram.getMaxMillis());
+	}
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.text.contentassist.CompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.IContextInformation;
+
+import org.eclipse.jdt.ui.text.java.ContentAssistInvocationContext;
+import org.eclipse.jdt.ui.text.java.IJavaCompletionProposalComputer;
+
+/**
+ * A computer which misses the latency budget of content assist: it computes until it is canceled.
+ */
+public class SlowCompletionProposalComputer implements IJavaCompletionProposalComputer {
+
+	public static final String CONTENT_TRIGGER_STRING= "slowCompletion";
+
+	private static final long MAX_DURATION= TimeUnit.SECONDS.toNanos(30);
+
+	private static volatile CountDownLatch fgCanceled= new CountDownLatch(1);
+
+	/**
+	 * Waits until a computation has been canceled.
+	 *
+	 * @param timeout the timeout in ms
+	 * @return <code>true</code> if a computation has been canceled
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public static boolean awaitCanceled(long timeout) throws InterruptedException {
+		return fgCanceled.await(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	public static void reset() {
+		fgCanceled= new CountDownLatch(1);
+	}
+
+	@Override
+	public void sessionStarted() {
+	}
+
+	@Override
+	public List<ICompletionProposal> computeCompletionProposals(ContentAssistInvocationContext context, IProgressMonitor monitor) {
+		if (context.getDocument().get().contains(CONTENT_TRIGGER_STRING)) {
+			long start= System.nanoTime();
+			while (!monitor.isCanceled() && System.nanoTime() - start < MAX_DURATION) {
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			if (monitor.isCanceled())
+				fgCanceled.countDown();
+			return Collections.singletonList(new CompletionProposal(CONTENT_TRIGGER_STRING, 0, 0, 0, null, CONTENT_TRIGGER_STRING, null, null));
+		}
+		return Collections.emptyList();
+	}
+
+	@Override
+	public List<IContextInformation> computeContextInformation(ContentAssistInvocationContext context, IProgressMonitor monitor) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public String getErrorMessage() {
+		return null;
+	}
+
+	@Override
+	public void sessionEnded() {
+	}
+
+}
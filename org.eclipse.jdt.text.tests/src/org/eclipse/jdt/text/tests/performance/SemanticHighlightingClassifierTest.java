@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.SimpleName;
+
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingClassifier;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightings;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticToken;
+
+/**
+ * Measures the time to classify all simple names of large compilation units by the semantic
+ * highlightings, once by asking every highlighting about every name and once with the
+ * {@link SemanticHighlightingClassifier}.
+ *
+ * @since 3.32
+ */
+public class SemanticHighlightingClassifierTest extends TextPerformanceTestCase {
+
+	private static final Class<SemanticHighlightingClassifierTest> THIS= SemanticHighlightingClassifierTest.class;
+
+	private static final String[] FILES= { PerformanceTestSetup.STYLED_TEXT, PerformanceTestSetup.TEXT_LAYOUT };
+
+	private static final int WARM_UP_RUNS= 5;
+
+	private static final int MEASURED_RUNS= 20;
+
+	private interface Classification {
+		int classify(SemanticToken token);
+	}
+
+	private SemanticHighlighting[] fSemanticHighlightings;
+
+	private SimpleName[] fNames;
+
+	public static Test suite() {
+		return new PerformanceTestSetup(new TestSuite(THIS));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		setWarmUpRuns(WARM_UP_RUNS);
+		setMeasuredRuns(MEASURED_RUNS);
+
+		fSemanticHighlightings= SemanticHighlightings.getSemanticHighlightings();
+		final List<SimpleName> names= new ArrayList<>();
+		for (String file : FILES) {
+			ICompilationUnit cu= JavaCore.createCompilationUnitFrom(ResourceTestHelper.findFile(file));
+			ASTParser parser= ASTParser.newParser(AST.getJLSLatest());
+			parser.setSource(cu);
+			parser.setResolveBindings(true);
+			CompilationUnit root= (CompilationUnit) parser.createAST(null);
+			root.accept(new ASTVisitor(false) {
+				@Override
+				public boolean visit(SimpleName node) {
+					names.add(node);
+					return false;
+				}
+			});
+		}
+		fNames= names.toArray(new SimpleName[names.size()]);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		fSemanticHighlightings= null;
+		fNames= null;
+	}
+
+	/**
+	 * Measures asking every enabled highlighting about every simple name.
+	 */
+	public void testLinearScan() throws Exception {
+		measure("Java Editor: semantic highlighting linear scan", createLinearScan());
+	}
+
+	/**
+	 * Measures classifying every simple name with the classifier.
+	 */
+	public void testClassifier() throws Exception {
+		measure("Java Editor: semantic highlighting classifier", createClassifier()::classify);
+	}
+
+	/**
+	 * Tests that the classifier yields the same highlightings as the linear scan.
+	 */
+	public void testSameClassification() throws Exception {
+		int[] expected= classifyAll(createLinearScan());
+		int[] actual= classifyAll(createClassifier()::classify);
+		assertTrue(Arrays.equals(expected, actual));
+
+		SemanticHighlightingClassifier classifier= createClassifier();
+		SemanticToken token= new SemanticToken();
+		int[] matches= new int[fSemanticHighlightings.length];
+		for (int i= 0; i < fNames.length; i++) {
+			token.update(fNames[i]);
+			int count= classifier.classifyAll(token, matches);
+			boolean[] consumed= new boolean[fSemanticHighlightings.length];
+			for (int j= 0; j < count; j++)
+				consumed[matches[j]]= true;
+			for (int j= 0; j < fSemanticHighlightings.length; j++)
+				assertEquals(fSemanticHighlightings[j].consumes(token), consumed[j]);
+			assertEquals(expected[i], count == 0 ? -1 : matches[0]);
+			token.clear();
+		}
+	}
+
+	private Classification createLinearScan() {
+		final SemanticHighlighting[] semanticHighlightings= fSemanticHighlightings;
+		return token -> {
+			for (int i= 0, n= semanticHighlightings.length; i < n; i++) {
+				if (semanticHighlightings[i].consumes(token))
+					return i;
+			}
+			return -1;
+		};
+	}
+
+	private SemanticHighlightingClassifier createClassifier() {
+		boolean[] enabled= new boolean[fSemanticHighlightings.length];
+		Arrays.fill(enabled, true);
+		return new SemanticHighlightingClassifier(fSemanticHighlightings, enabled);
+	}
+
+	private int[] classifyAll(Classification classification) {
+		SemanticToken token= new SemanticToken();
+		int[] result= new int[fNames.length];
+		for (int i= 0; i < fNames.length; i++) {
+			token.update(fNames[i]);
+			result[i]= classification.classify(token);
+			token.clear();
+		}
+		return result;
+	}
+
+	private void measure(String name, Classification classification) {
+		measure(getNullPerformanceMeter(), getWarmUpRuns(), classification);
+		PerformanceMeter performanceMeter= createPerformanceMeter(name);
+		measure(performanceMeter, getMeasuredRuns(), classification);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	private void measure(PerformanceMeter performanceMeter, int runs, Classification classification) {
+		for (int i= 0; i < runs; i++) {
+			performanceMeter.start();
+			classifyAll(classification);
+			performanceMeter.stop();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.performance;
+
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.jdt.internal.ui.text.spelling.SpellCheckEngine;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.DefaultPhoneticDistanceAlgorithm;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.LocaleSensitiveSpellDictionary;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.RankedWordProposal;
+
+/**
+ * Measures the time to compute the correction proposals for words that are typically misspelled
+ * in Javadoc comments.
+ *
+ * @since 3.32
+ */
+public class SpellingProposalsPerformanceTest extends TextPerformanceTestCase {
+
+	private static final Class<SpellingProposalsPerformanceTest> THIS= SpellingProposalsPerformanceTest.class;
+
+	private static final String[] MISSPELLED= {
+			"recieve", "paramter", "retrun", "arguement", "initalize", "seperator", "occurence", "accross",
+			"refered", "enviroment", "accesible", "implmentation", "specifed", "wich", "teh", "lenght",
+			"dependecy", "existance", "managment", "overriden", "propogate", "reciever", "succesful", "threshhold",
+			"transfered", "unneccessary", "visibilty", "writting", "adress", "begining", "calender", "comparision",
+	};
+
+	private static final int WARM_UP_RUNS= 3;
+
+	private static final int MEASURED_RUNS= 20;
+
+	private LocaleSensitiveSpellDictionary fDictionary;
+
+	public static Test suite() {
+		return new PerformanceTestSetup(new TestSuite(THIS));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		setWarmUpRuns(WARM_UP_RUNS);
+		setMeasuredRuns(MEASURED_RUNS);
+
+		Enumeration<URL> locations= SpellCheckEngine.getDictionaryLocations();
+		assertNotNull(locations);
+		assertTrue(locations.hasMoreElements());
+		fDictionary= new LocaleSensitiveSpellDictionary(Locale.US, locations.nextElement());
+		assertTrue(fDictionary.isCorrect("receive"));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		fDictionary.unload();
+		fDictionary= null;
+	}
+
+	/**
+	 * Measures computing the proposals for all misspelled words.
+	 */
+	public void testProposals() throws Exception {
+		measure(getNullPerformanceMeter(), getWarmUpRuns());
+		PerformanceMeter performanceMeter= createPerformanceMeter("Java Editor: spelling proposals");
+		measure(performanceMeter, getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	/**
+	 * Tests that the distance bounded by a threshold agrees with the exact distance.
+	 */
+	public void testBoundedDistance() throws Exception {
+		DefaultPhoneticDistanceAlgorithm algorithm= new DefaultPhoneticDistanceAlgorithm();
+		for (String word : MISSPELLED) {
+			Set<RankedWordProposal> proposals= fDictionary.getProposals(word, false);
+			assertFalse(word, proposals.isEmpty());
+			for (RankedWordProposal proposal : proposals) {
+				for (int threshold : new int[] { 0, 95, 160, 300 }) {
+					int distance= algorithm.getDistance(word, proposal.getText());
+					int bounded= algorithm.getDistance(word, proposal.getText(), threshold);
+					if (distance < threshold)
+						assertEquals(distance, bounded);
+					else
+						assertTrue(bounded >= threshold);
+				}
+			}
+		}
+	}
+
+	private void measure(PerformanceMeter performanceMeter, int runs) {
+		for (int i= 0; i < runs; i++) {
+			performanceMeter.start();
+			for (String word : MISSPELLED) {
+				fDictionary.getProposals(word, false);
+			}
+			performanceMeter.stop();
+		}
+	}
+}
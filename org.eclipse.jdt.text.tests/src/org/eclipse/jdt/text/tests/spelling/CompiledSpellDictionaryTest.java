@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.spelling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.eclipse.jdt.internal.ui.text.spelling.engine.AbstractSpellDictionary;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.MappedSpellDictionaryTable;
+
+/**
+ * Tests the compiled, memory-mapped word lists of spell dictionaries.
+ */
+public class CompiledSpellDictionaryTest {
+
+	private static final String[] WORDS= { "truck", "trucks", "lorry", "lorries", "sentence", "global", "spelling", "dictionary" };
+
+	private class CompiledDictionary extends AbstractSpellDictionary {
+
+		@Override
+		public void addWord(String word) {
+			hashWord(word);
+		}
+
+		@Override
+		protected URL getURL() throws MalformedURLException {
+			return fWordList.toUri().toURL();
+		}
+
+		@Override
+		protected Path getCompiledPath() {
+			return fCompiled;
+		}
+
+		@Override
+		protected String getEncoding() {
+			return "UTF-8";
+		}
+	}
+
+	@Rule
+	public TemporaryFolder fFolder= new TemporaryFolder();
+
+	private Path fWordList;
+
+	private Path fCompiled;
+
+	@Before
+	public void setUp() throws Exception {
+		fWordList= fFolder.newFile("words.dictionary").toPath();
+		Files.write(fWordList, Arrays.asList(WORDS), StandardCharsets.UTF_8);
+		fCompiled= fFolder.getRoot().toPath().resolve("compiled").resolve("words.dictionary.bin");
+	}
+
+	@Test
+	public void testCompiledOnFirstLoad() throws Exception {
+		CompiledDictionary dictionary= new CompiledDictionary();
+		assertTrue(dictionary.isCorrect("truck"));
+		assertTrue(Files.isRegularFile(fCompiled));
+
+		for (String word : WORDS)
+			assertTrue(word, dictionary.isCorrect(word));
+		assertFalse(dictionary.isCorrect("lastwagen"));
+	}
+
+	@Test
+	public void testSameResultsFromCompiledWordList() throws Exception {
+		CompiledDictionary first= new CompiledDictionary();
+		first.isCorrect("truck");
+		long modified= Files.getLastModifiedTime(fCompiled).toMillis();
+
+		CompiledDictionary second= new CompiledDictionary();
+		for (String word : WORDS)
+			assertTrue(word, second.isCorrect(word));
+		assertEquals(modified, Files.getLastModifiedTime(fCompiled).toMillis());
+		assertEquals(first.getProposals("truk", false), second.getProposals("truk", false));
+	}
+
+	@Test
+	public void testAddedWordsLayerOverCompiledWordList() throws Exception {
+		CompiledDictionary dictionary= new CompiledDictionary();
+		assertFalse(dictionary.isCorrect("trucker"));
+		dictionary.addWord("trucker");
+		assertTrue(dictionary.isCorrect("trucker"));
+		assertTrue(dictionary.isCorrect("truck"));
+
+		// added words are not part of the compiled word list
+		assertFalse(new CompiledDictionary().isCorrect("trucker"));
+	}
+
+	@Test
+	public void testRecompiledAfterChange() throws Exception {
+		new CompiledDictionary().isCorrect("truck");
+
+		List<String> words= new ArrayList<>(Arrays.asList(WORDS));
+		words.add("lastwagen");
+		Files.write(fWordList, words, StandardCharsets.UTF_8);
+
+		assertTrue(new CompiledDictionary().isCorrect("lastwagen"));
+	}
+
+	@Test
+	public void testTable() throws Exception {
+		byte[] hash1= "A".getBytes(StandardCharsets.UTF_8);
+		byte[] hash2= "B".getBytes(StandardCharsets.UTF_8);
+		byte[] word1= "a".getBytes(StandardCharsets.UTF_8);
+		byte[] word2= "b".getBytes(StandardCharsets.UTF_8);
+		byte[] word3= "bb".getBytes(StandardCharsets.UTF_8);
+		MappedSpellDictionaryTable.write(fCompiled, "source", Arrays.asList(hash1, hash2), Arrays.asList(Arrays.asList(word1), Arrays.asList(word2, word3)));
+
+		assertNull(MappedSpellDictionaryTable.open(fCompiled, "other source"));
+		MappedSpellDictionaryTable table= MappedSpellDictionaryTable.open(fCompiled, "source");
+		assertNotNull(table);
+		assertEquals(2, table.size());
+		assertTrue(Arrays.equals(word1, (byte[]) table.getCandidates(hash1)));
+		List<?> candidates= (List<?>) table.getCandidates(hash2);
+		assertEquals(2, candidates.size());
+		assertTrue(Arrays.equals(word2, (byte[]) candidates.get(0)));
+		assertTrue(Arrays.equals(word3, (byte[]) candidates.get(1)));
+		assertNull(table.getCandidates("C".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void testCorruptTable() throws Exception {
+		byte[] hash= "A".getBytes(StandardCharsets.UTF_8);
+		byte[] word= "a".getBytes(StandardCharsets.UTF_8);
+		MappedSpellDictionaryTable.write(fCompiled, "source", Arrays.asList(hash), Arrays.asList(Arrays.asList(word)));
+		byte[] bytes= Files.readAllBytes(fCompiled);
+		int header= 12 + "source".length();
+
+		// truncated
+		Files.write(fCompiled, Arrays.copyOf(bytes, bytes.length - 1));
+		assertNull(MappedSpellDictionaryTable.open(fCompiled, "source"));
+
+		// counts and offsets beyond the end of the file
+		for (int field= 0; field < 4; field++) {
+			ByteBuffer corrupt= ByteBuffer.wrap(bytes.clone());
+			corrupt.putInt(header + 4 * field, 1 << 20);
+			Files.write(fCompiled, corrupt.array());
+			assertNull(String.valueOf(field), MappedSpellDictionaryTable.open(fCompiled, "source"));
+		}
+
+		// slot pointing to a hash that does not exist
+		ByteBuffer corrupt= ByteBuffer.wrap(bytes.clone());
+		corrupt.putInt(header + 16, 5);
+		Files.write(fCompiled, corrupt.array());
+		assertNull(MappedSpellDictionaryTable.open(fCompiled, "source"));
+
+		Files.write(fCompiled, bytes);
+		assertNotNull(MappedSpellDictionaryTable.open(fCompiled, "source"));
+	}
+
+	@Test
+	public void testRecompiledWhenCorrupt() throws Exception {
+		new CompiledDictionary().isCorrect("truck");
+		long size= Files.size(fCompiled);
+		Files.write(fCompiled, Arrays.copyOf(Files.readAllBytes(fCompiled), (int) size / 2));
+
+		CompiledDictionary dictionary= new CompiledDictionary();
+		for (String word : WORDS)
+			assertTrue(word, dictionary.isCorrect(word));
+		assertEquals(size, Files.size(fCompiled));
+	}
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.spelling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+
+import org.eclipse.ui.texteditor.spelling.ISpellingProblemCollector;
+import org.eclipse.ui.texteditor.spelling.SpellingContext;
+import org.eclipse.ui.texteditor.spelling.SpellingProblem;
+
+import org.eclipse.jdt.ui.PreferenceConstants;
+import org.eclipse.jdt.ui.text.IJavaPartitions;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.text.spelling.JavaSpellingEngine;
+import org.eclipse.jdt.internal.ui.text.spelling.SpellCheckEngine;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellChecker;
+
+/**
+ * Tests that checking only the changed comment partitions yields the same problems as checking the
+ * whole document.
+ */
+public class IncrementalSpellCheckingTest {
+
+	private static final String CONTENT= "/**\n * Thiss is the firstt comment.\n */\n"
+			+ "class A {\n"
+			+ "\t// a secund comment\n"
+			+ "\tString s= \"no problemm in strings\";\n"
+			+ "\t/* the thirdd comment */\n"
+			+ "}\n";
+
+	private final IPreferenceStore fPreferences= PreferenceConstants.getPreferenceStore();
+
+	private IDocument fDocument;
+
+	@Before
+	public void setUp() {
+		fPreferences.setValue(PreferenceConstants.SPELLING_LOCALE, "en_US");
+		fPreferences.setValue(PreferenceConstants.SPELLING_IGNORE_JAVA_STRINGS, true);
+		fDocument= new Document(CONTENT);
+		JavaPlugin.getDefault().getJavaTextTools().setupJavaDocumentPartitioner(fDocument, IJavaPartitions.JAVA_PARTITIONING);
+	}
+
+	@After
+	public void tearDown() {
+		fPreferences.setToDefault(PreferenceConstants.SPELLING_LOCALE);
+		fPreferences.setToDefault(PreferenceConstants.SPELLING_IGNORE_JAVA_STRINGS);
+		fDocument= null;
+	}
+
+	private List<String> check(IDocument document) {
+		final List<String> problems= new ArrayList<>();
+		IRegion[] regions= { new Region(0, document.getLength()) };
+		new JavaSpellingEngine().check(document, regions, new SpellingContext(), new ISpellingProblemCollector() {
+			@Override
+			public void accept(SpellingProblem problem) {
+				problems.add(problem.getOffset() + ":" + problem.getLength());
+			}
+
+			@Override
+			public void beginCollecting() {
+			}
+
+			@Override
+			public void endCollecting() {
+			}
+		}, new NullProgressMonitor());
+		return problems;
+	}
+
+	private List<String> checkCopy() {
+		Document copy= new Document(fDocument.get());
+		JavaPlugin.getDefault().getJavaTextTools().setupJavaDocumentPartitioner(copy, IJavaPartitions.JAVA_PARTITIONING);
+		return check(copy);
+	}
+
+	@Test
+	public void testSameProblemsWhenUnchanged() throws Exception {
+		List<String> first= check(fDocument);
+		assertFalse(first.isEmpty());
+		assertEquals(first, check(fDocument));
+	}
+
+	@Test
+	public void testSameProblemsAfterChange() throws Exception {
+		List<String> first= check(fDocument);
+
+		// moves the partitions after the change
+		fDocument.replace(CONTENT.indexOf("firstt"), 0, "wrongg ");
+		List<String> incremental= check(fDocument);
+		assertEquals(first.size() + 1, incremental.size());
+		assertEquals(checkCopy(), incremental);
+
+		fDocument.replace(fDocument.get().indexOf("secund"), 0, "okay ");
+		assertEquals(checkCopy(), check(fDocument));
+	}
+
+	@Test
+	public void testAddedWordNotReported() throws Exception {
+		List<String> first= check(fDocument);
+
+		SpellCheckEngine.getInstance().getSpellChecker().ignoreWord("thirdd");
+		try {
+			List<String> second= check(fDocument);
+			assertEquals(first.size() - 1, second.size());
+		} finally {
+			SpellCheckEngine.getInstance().getSpellChecker().checkWord("thirdd");
+		}
+	}
+
+	@Test
+	public void testWordNoLongerIgnoredReported() throws Exception {
+		ISpellChecker checker= SpellCheckEngine.getInstance().getSpellChecker();
+		checker.ignoreWord("thirdd");
+		List<String> ignored;
+		try {
+			ignored= check(fDocument);
+		} finally {
+			checker.checkWord("thirdd");
+		}
+
+		List<String> checked= check(fDocument);
+		assertEquals(ignored.size() + 1, checked.size());
+		assertEquals(checkCopy(), checked);
+	}
+
+	@Test
+	public void testWordNotInNewUserDictionaryReported() throws Exception {
+		File userDictionary= File.createTempFile("user", ".dictionary");
+		try {
+			List<String> first= check(fDocument);
+			fPreferences.setValue(PreferenceConstants.SPELLING_USER_DICTIONARY, userDictionary.getAbsolutePath());
+			SpellCheckEngine.getInstance().getSpellChecker().addWord("thirdd");
+			assertEquals(first.size() - 1, check(fDocument).size());
+
+			// no user dictionary
+			fPreferences.setToDefault(PreferenceConstants.SPELLING_USER_DICTIONARY);
+			assertEquals(first, check(fDocument));
+		} finally {
+			fPreferences.setToDefault(PreferenceConstants.SPELLING_USER_DICTIONARY);
+			userDictionary.delete();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,7 +19,11 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -36,7 +40,10 @@ import org.eclipse.jdt.internal.corext.refactoring.typeconstraints.FullConstrain
 import org.eclipse.jdt.internal.corext.refactoring.typeconstraints.ITypeConstraint;
 import org.eclipse.jdt.internal.corext.refactoring.typeconstraints.TypeConstraintFactory;
 import org.eclipse.jdt.internal.corext.refactoring.typeconstraints.types.TypeEnvironment;
-import org.eclipse.jdt.internal.corext.refactoring.typeconstraints.types.TypeTuple;
+import org.eclipse.jdt.internal.corext.refactoring.typeconstraints2.ConstraintVariable2;
+import org.eclipse.jdt.internal.corext.refactoring.typeconstraints2.ConstraintVariableWorkList;
+import org.eclipse.jdt.internal.corext.refactoring.typeconstraints2.ImmutableTypeVariable2;
+import org.eclipse.jdt.internal.corext.refactoring.typeconstraints2.TypeEquivalenceSet;
 
 import org.eclipse.jdt.ui.tests.refactoring.GenericRefactoringTest;
 import org.eclipse.jdt.ui.tests.refactoring.rules.RefactoringTestSetup;
@@ -280,10 +287,70 @@ public class TypeConstraintTests extends GenericRefactoringTest {
 	}
 
 	@Test
-	public void testTypeTuplesuniqueHashcode() {
-		TypeEnvironment te=new TypeEnvironment();
-		assertNotEquals("HashCode of two different TypeTuples should be different",
-				new TypeTuple(te.INT, te.BOOLEAN).hashCode(),
-				new TypeTuple(te.INT, te.DOUBLE).hashCode());
+	public void testTypeIdsUnique() {
+		TypeEnvironment te= new TypeEnvironment();
+		assertNotEquals(te.INT.getId(), te.BOOLEAN.getId());
+		assertNotEquals(te.NULL.getId(), te.VOID.getId());
+	}
+
+	@Test
+	public void testConstraintVariableWorkList() {
+		TypeEnvironment te= new TypeEnvironment();
+		ConstraintVariable2 a= new ImmutableTypeVariable2(te.INT);
+		ConstraintVariable2 b= new ImmutableTypeVariable2(te.LONG);
+		ConstraintVariable2 c= new ImmutableTypeVariable2(te.SHORT);
+		ConstraintVariable2 d= new ImmutableTypeVariable2(te.BYTE);
+		ConstraintVariable2 unknown= new ImmutableTypeVariable2(te.CHAR);
+		// a -> b <-> c, d isolated
+		Map<ConstraintVariable2, Collection<ConstraintVariable2>> edges= new IdentityHashMap<>();
+		edges.put(a, Arrays.asList(b));
+		edges.put(b, Arrays.asList(c));
+		edges.put(c, Arrays.asList(b));
+		ConstraintVariableWorkList workList= new ConstraintVariableWorkList(Arrays.asList(c, d, b, a),
+				v -> edges.getOrDefault(v, Collections.emptyList()));
+		assertTrue(workList.isEmpty());
+
+		workList.addAll(new ConstraintVariable2[] { c, b, unknown, a, d, a, c });
+		assertEquals(5, workList.size());
+		List<ConstraintVariable2> order= new ArrayList<>();
+		while (!workList.isEmpty())
+			order.add(workList.removeFirst());
+		assertEquals(5, order.size());
+		assertTrue(order.indexOf(a) < order.indexOf(b));
+		assertTrue(order.indexOf(a) < order.indexOf(c));
+		assertEquals(unknown, order.get(4));
+
+		// re-adding a variable processes it again
+		workList.add(c);
+		workList.add(a);
+		assertEquals(a, workList.removeFirst());
+		assertEquals(c, workList.removeFirst());
+		assertTrue(workList.isEmpty());
+	}
+
+	@Test
+	public void testConstraintVariableWorkListEquivalenceSets() {
+		TypeEnvironment te= new TypeEnvironment();
+		ConstraintVariable2 x= new ImmutableTypeVariable2(te.INT);
+		ConstraintVariable2 s1= new ImmutableTypeVariable2(te.LONG);
+		ConstraintVariable2 s2= new ImmutableTypeVariable2(te.SHORT);
+		ConstraintVariable2 y= new ImmutableTypeVariable2(te.BYTE);
+		TypeEquivalenceSet set= new TypeEquivalenceSet(s1, s2);
+		s1.setTypeEquivalenceSet(set);
+		s2.setTypeEquivalenceSet(set);
+		// x -> {s1, s2} -> y, the edges of the set are only given for one member each
+		Map<ConstraintVariable2, Collection<ConstraintVariable2>> edges= new IdentityHashMap<>();
+		edges.put(x, Arrays.asList(s1));
+		edges.put(s2, Arrays.asList(y, s1));
+		ConstraintVariableWorkList workList= new ConstraintVariableWorkList(Arrays.asList(y, s2, s1, x),
+				v -> edges.getOrDefault(v, Collections.emptyList()));
+
+		workList.addAll(new ConstraintVariable2[] { y, s2, s1, x });
+		List<ConstraintVariable2> order= new ArrayList<>();
+		while (!workList.isEmpty())
+			order.add(workList.removeFirst());
+		assertEquals(4, order.size());
+		assertEquals(x, order.get(0));
+		assertEquals(y, order.get(3));
 	}
 }
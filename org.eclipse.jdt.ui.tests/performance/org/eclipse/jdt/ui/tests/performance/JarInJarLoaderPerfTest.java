@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.FixMethodOrder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+import org.junit.runners.MethodSorters;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.test.performance.Dimension;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PlatformUI;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.ui.jarpackager.IJarExportRunnable;
+import org.eclipse.jdt.ui.jarpackager.JarPackageData;
+
+import org.eclipse.jdt.internal.ui.jarpackagerfat.FatJarRsrcUrlBuilder;
+
+/**
+ * Measures the startup time of runnable JARs which package their libraries with the JAR in JAR
+ * loader, with and without the index of the nested JARs.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class JarInJarLoaderPerfTest extends JdtPerformanceTestCaseCommon {
+
+	private static final int LIBRARY_COUNT= 30;
+
+	private static final int CLASSES_PER_LIBRARY= 20;
+
+	private static final String INDEX_NAME= "META-INF/RSRC-INDEX.LIST";
+
+	private static class MyTestSetup extends ExternalResource {
+		public static IJavaProject fLibProject;
+		public static IJavaProject fMainProject;
+		public static File fIndexedJar;
+		public static File fUnindexedJar;
+
+		@Override
+		public void before() throws Throwable {
+			fLibProject= JavaProjectHelper.createJavaProject("JarInJarLibs", "bin");
+			assertNotNull("rt not found", JavaProjectHelper.addRTJar(fLibProject));
+			IPackageFragmentRoot libRoot= JavaProjectHelper.addSourceContainer(fLibProject, "src");
+			for (int i= 0; i < LIBRARY_COUNT; i++) {
+				IPackageFragment pack= libRoot.createPackageFragment("p" + i, true, null);
+				for (int j= 0; j < CLASSES_PER_LIBRARY; j++) {
+					pack.createCompilationUnit("C" + j + ".java", "package p" + i + ";\npublic class C" + j + " {\n}\n", true, null);
+				}
+			}
+
+			fMainProject= JavaProjectHelper.createJavaProject("JarInJarMain", "bin");
+			assertNotNull("rt not found", JavaProjectHelper.addRTJar(fMainProject));
+			IPackageFragmentRoot mainRoot= JavaProjectHelper.addSourceContainer(fMainProject, "src");
+			IPackageFragment pack= mainRoot.createPackageFragment("org.eclipse.jdt.ui.test", true, null);
+			StringBuilder buf= new StringBuilder();
+			buf.append("package org.eclipse.jdt.ui.test;\n");
+			buf.append("public class Main {\n");
+			buf.append("    public static void main(String[] args) throws Exception {\n");
+			buf.append("        // starting with the last library, like an application using its dependencies\n");
+			buf.append("        for (int i= " + (LIBRARY_COUNT - 1) + "; i >= 0; i-= 3) {\n");
+			buf.append("            Class.forName(\"p\" + i + \".C0\");\n");
+			buf.append("        }\n");
+			buf.append("        System.out.println(\"done\");\n");
+			buf.append("    }\n");
+			buf.append("}\n");
+			pack.createCompilationUnit("Main.java", buf.toString(), true, null);
+
+			ResourcesPlugin.getWorkspace().build(IncrementalProjectBuilder.FULL_BUILD, null);
+
+			List<Object> elements= new ArrayList<>();
+			elements.add(mainRoot);
+			IPath libraries= ResourcesPlugin.getWorkspace().getRoot().getLocation().append("jarinjar_libs");
+			libraries.toFile().mkdirs();
+			for (int i= 0; i < LIBRARY_COUNT; i++) {
+				File library= libraries.append("lib" + i + ".jar").toFile();
+				createLibrary(fLibProject.getProject().getFolder("bin").getFolder("p" + i), library);
+				elements.add(JavaProjectHelper.addLibrary(fMainProject, Path.fromOSString(library.getPath())));
+			}
+
+			JarPackageData data= new JarPackageData();
+			data.setOverwrite(true);
+			data.setIncludeDirectoryEntries(true);
+			data.setJarLocation(ResourcesPlugin.getWorkspace().getRoot().getLocation().append("jarinjar_indexed.jar"));
+			data.setElements(elements.toArray());
+			data.setManifestMainClass(fMainProject.findType("org.eclipse.jdt.ui.test.Main"));
+			data.setJarBuilder(new FatJarRsrcUrlBuilder());
+			IWorkbenchWindow window= PlatformUI.getWorkbench().getActiveWorkbenchWindow();
+			IJarExportRunnable op= data.createJarExportRunnable(window.getShell());
+			window.run(false, false, op);
+			assertTrue(op.getStatus().toString(), op.getStatus().getSeverity() != IStatus.ERROR);
+
+			fIndexedJar= data.getAbsoluteJarLocation().toFile();
+			try (ZipFile zipFile= new ZipFile(fIndexedJar)) {
+				assertNotNull(zipFile.getEntry(INDEX_NAME));
+			}
+			fUnindexedJar= new File(fIndexedJar.getParentFile(), "jarinjar_unindexed.jar");
+			copyWithoutIndex(fIndexedJar, fUnindexedJar);
+		}
+
+		@Override
+		public void after() {
+			try {
+				if (fMainProject != null && fMainProject.exists())
+					JavaProjectHelper.delete(fMainProject);
+				if (fLibProject != null && fLibProject.exists())
+					JavaProjectHelper.delete(fLibProject);
+			} catch (CoreException e) {
+				e.printStackTrace();
+			}
+			IPath location= ResourcesPlugin.getWorkspace().getRoot().getLocation();
+			delete(location.append("jarinjar_libs").toFile());
+			delete(location.append("jarinjar_indexed.jar").toFile());
+			delete(location.append("jarinjar_unindexed.jar").toFile());
+		}
+
+		private static void delete(File file) {
+			File[] children= file.listFiles();
+			if (children != null) {
+				for (File child : children) {
+					delete(child);
+				}
+			}
+			file.delete();
+		}
+	}
+
+	@Rule
+	public MyTestSetup stup= new MyTestSetup();
+
+	@Test
+	public void testAStartIndexed() throws Exception {
+		tagAsSummary("Start runnable JAR with JAR in JAR loader", Dimension.ELAPSED_PROCESS);
+		measureStart(MyTestSetup.fIndexedJar);
+	}
+
+	@Test
+	public void testBStartUnindexed() throws Exception {
+		// JARs exported by older versions have no index, for comparison with testAStartIndexed
+		measureStart(MyTestSetup.fUnindexedJar);
+	}
+
+	private void measureStart(File jar) throws Exception {
+		String java= System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		joinBackgroudActivities();
+		for (int i= 0; i < 10; i++) {
+			ProcessBuilder builder= new ProcessBuilder(java, "-jar", jar.getAbsolutePath());
+			builder.redirectErrorStream(true);
+			startMeasuring();
+			Process process= builder.start();
+			String output;
+			try (InputStream in= process.getInputStream()) {
+				output= new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			}
+			int exitCode= process.waitFor();
+			stopMeasuring();
+			assertEquals(output, 0, exitCode);
+			assertEquals("done", output.trim());
+		}
+		commitMeasurements();
+		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+	}
+
+	private static void createLibrary(IFolder classes, File library) throws Exception {
+		try (ZipOutputStream out= new ZipOutputStream(new FileOutputStream(library))) {
+			out.putNextEntry(new ZipEntry(classes.getName() + "/"));
+			for (IResource member : classes.members()) {
+				out.putNextEntry(new ZipEntry(classes.getName() + "/" + member.getName()));
+				try (InputStream in= ((IFile) member).getContents()) {
+					in.transferTo(out);
+				}
+			}
+		}
+	}
+
+	private static void copyWithoutIndex(File jar, File copy) throws Exception {
+		try (ZipFile zipFile= new ZipFile(jar); OutputStream stream= new FileOutputStream(copy); ZipOutputStream out= new ZipOutputStream(stream)) {
+			for (ZipEntry entry : zipFile.stream().toList()) {
+				if (INDEX_NAME.equals(entry.getName()))
+					continue;
+				out.putNextEntry(new ZipEntry(entry.getName()));
+				try (InputStream in= zipFile.getInputStream(entry)) {
+					in.transferTo(out);
+				}
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,7 +21,8 @@ import org.eclipse.jdt.ui.tests.performance.views.TypeHierarchyPerfTest;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-	TypeHierarchyPerfTest.class
+	TypeHierarchyPerfTest.class,
+	JarInJarLoaderPerfTest.class
 })
 public class PerformanceTestSuite {
 }
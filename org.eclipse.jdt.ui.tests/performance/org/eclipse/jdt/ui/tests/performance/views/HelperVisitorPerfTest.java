@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.testplugin.JavaTestPlugin;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.SharedASTProviderCore;
+
+import org.eclipse.jdt.internal.common.CompiledHelperVisitor;
+import org.eclipse.jdt.internal.common.HelperVisitor;
+import org.eclipse.jdt.internal.common.ReferenceHolder;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCaseCommon;
+
+/**
+ * Compares the map based dispatch of {@link HelperVisitor#build(ASTNode)} with the table based
+ * dispatch of {@link HelperVisitor#buildCompiled(ASTNode)} and with fused helper visitors.
+ */
+public class HelperVisitorPerfTest extends JdtPerformanceTestCaseCommon {
+
+	private static class MyTestSetup extends ExternalResource {
+		public static final String SRC_CONTAINER= "src";
+
+		public static IJavaProject fJProject1;
+
+		@Override
+		public void before() throws Throwable {
+			fJProject1= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+			assertNotNull("rt not found", JavaProjectHelper.addRTJar(fJProject1));
+			File junitSrcArchive= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.JUNIT_SRC_381);
+			JavaProjectHelper.addSourceContainerWithImport(fJProject1, SRC_CONTAINER, junitSrcArchive, JavaProjectHelper.JUNIT_SRC_ENCODING);
+		}
+
+		@Override
+		public void after() {
+			try {
+				if (fJProject1 != null && fJProject1.exists()) {
+					JavaProjectHelper.delete(fJProject1);
+				}
+			} catch (CoreException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static final int TRAVERSALS= 20;
+
+	@Rule
+	public MyTestSetup stup= new MyTestSetup();
+
+	private interface Traversal {
+		void run(CompilationUnit root, int[] counts);
+	}
+
+	private static HelperVisitor<ReferenceHolder<String, Integer>, String, Integer> createMethodInvocationVisitor(int[] counts) {
+		HelperVisitor<ReferenceHolder<String, Integer>, String, Integer> hv= new HelperVisitor<>(null, new ReferenceHolder<>());
+		hv.addMethodInvocation((node, holder) -> {
+			counts[0]++;
+			return true;
+		});
+		return hv;
+	}
+
+	private static HelperVisitor<ReferenceHolder<String, Integer>, String, Integer> createLoopVisitor(int[] counts) {
+		HelperVisitor<ReferenceHolder<String, Integer>, String, Integer> hv= new HelperVisitor<>(null, new ReferenceHolder<>());
+		hv.addWhileStatement((node, holder) -> {
+			counts[1]++;
+			return true;
+		});
+		hv.addEnhancedForStatement((node, holder) -> {
+			counts[1]++;
+			return true;
+		});
+		hv.addForStatement((node, holder) -> {
+			counts[1]++;
+			return true;
+		});
+		return hv;
+	}
+
+	private static HelperVisitor<ReferenceHolder<String, Integer>, String, Integer> createNameVisitor(int[] counts) {
+		HelperVisitor<ReferenceHolder<String, Integer>, String, Integer> hv= new HelperVisitor<>(null, new ReferenceHolder<>());
+		hv.addSimpleName((node, holder) -> {
+			counts[2]++;
+			return true;
+		});
+		return hv;
+	}
+
+	private void addAllCUs(IJavaElement[] children, List<ICompilationUnit> result) throws JavaModelException {
+		for (IJavaElement element : children) {
+			if (element instanceof ICompilationUnit) {
+				result.add((ICompilationUnit) element);
+			} else if (element instanceof IPackageFragmentRoot) {
+				addAllCUs(((IPackageFragmentRoot) element).getChildren(), result);
+			} else if (element instanceof IPackageFragment) {
+				addAllCUs(((IPackageFragment) element).getChildren(), result);
+			}
+		}
+	}
+
+	private CompilationUnit[] createASTs() throws JavaModelException {
+		List<ICompilationUnit> cus= new ArrayList<>();
+		addAllCUs(MyTestSetup.fJProject1.getChildren(), cus);
+		CompilationUnit[] result= new CompilationUnit[cus.size()];
+		for (int i= 0; i < result.length; i++) {
+			result[i]= SharedASTProviderCore.getAST(cus.get(i), SharedASTProviderCore.WAIT_YES, new NullProgressMonitor());
+		}
+		return result;
+	}
+
+	private static final Traversal MAP_DISPATCH= (root, counts) -> {
+		createMethodInvocationVisitor(counts).build(root);
+		createLoopVisitor(counts).build(root);
+		createNameVisitor(counts).build(root);
+	};
+
+	private static final Traversal COMPILED_DISPATCH= (root, counts) -> {
+		createMethodInvocationVisitor(counts).buildCompiled(root);
+		createLoopVisitor(counts).buildCompiled(root);
+		createNameVisitor(counts).buildCompiled(root);
+	};
+
+	private static final Traversal FUSED_DISPATCH= (root, counts) -> {
+		CompiledHelperVisitor.fuse(createMethodInvocationVisitor(counts), createLoopVisitor(counts), createNameVisitor(counts)).build(root);
+	};
+
+	@Test
+	public void testMapDispatch() throws Exception {
+		measureDispatch(MAP_DISPATCH);
+	}
+
+	@Test
+	public void testCompiledDispatch() throws Exception {
+		measureDispatch(COMPILED_DISPATCH);
+	}
+
+	@Test
+	public void testFusedDispatch() throws Exception {
+		measureDispatch(FUSED_DISPATCH);
+	}
+
+	private void measureDispatch(Traversal traversal) throws Exception {
+		CompilationUnit[] roots= createASTs();
+		int[] expected= new int[3];
+		for (CompilationUnit root : roots) {
+			MAP_DISPATCH.run(root, expected);
+		}
+
+		measure(roots, traversal, Performance.getDefault().getNullPerformanceMeter(), 5);
+		measure(roots, traversal, fPerformanceMeter, 10);
+
+		int[] counts= new int[3];
+		for (CompilationUnit root : roots) {
+			traversal.run(root, counts);
+		}
+		assertEquals(expected[0], counts[0]);
+		assertEquals(expected[1], counts[1]);
+		assertEquals(expected[2], counts[2]);
+
+		commitMeasurements();
+		Performance.getDefault().assertPerformance(fPerformanceMeter);
+	}
+
+	private void measure(CompilationUnit[] roots, Traversal traversal, PerformanceMeter performanceMeter, int runs) throws Exception {
+		int[] counts= new int[3];
+		for (int j= 0; j < runs; j++) {
+			joinBackgroudActivities();
+
+			performanceMeter.start();
+			for (int k= 0; k < TRAVERSALS; k++) {
+				for (CompilationUnit root : roots) {
+					traversal.run(root, counts);
+				}
+			}
+			performanceMeter.stop();
+		}
+	}
+}
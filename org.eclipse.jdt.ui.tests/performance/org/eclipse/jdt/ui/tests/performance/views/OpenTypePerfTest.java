@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,8 +13,14 @@
  *******************************************************************************/
 package org.eclipse.jdt.ui.tests.performance.views;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.FixMethodOrder;
 import org.junit.Rule;
 import org.junit.Test;
@@ -29,12 +35,15 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Shell;
 
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 
 import org.eclipse.ui.dialogs.ISelectionStatusValidator;
 import org.eclipse.ui.dialogs.SelectionDialog;
 
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
 import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.TypeNameMatch;
 
 import org.eclipse.jdt.ui.IJavaElementSearchConstants;
 import org.eclipse.jdt.ui.JavaUI;
@@ -42,7 +51,10 @@ import org.eclipse.jdt.ui.dialogs.TypeSelectionExtension;
 import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCaseCommon;
 import org.eclipse.jdt.ui.tests.performance.SWTTestProject;
 
+import org.eclipse.jdt.internal.corext.util.TypeInfoFilter;
+
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.dialogs.TypeNameMatchIndex;
 import org.eclipse.jdt.internal.ui.util.CoreUtility;
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
@@ -166,8 +178,42 @@ public class OpenTypePerfTest extends JdtPerformanceTestCaseCommon {
 		}
 	}
 
+	@Test
+	public void testGIndexedException10() throws Exception {
+		//warm, repeated, filtered by the type name index
+		measureIndexed("*Exception", 10);
+	}
+
+	@Test
+	public void testHIndexedCamelCase10() throws Exception {
+		//warm, repeated, many matches, filtered by the type name index
+		measureIndexed("SWTE", 10);
+	}
+
 	//---
 
+	private void measureIndexed(String pattern, int runs) throws Exception {
+		NullProgressMonitor monitor= new NullProgressMonitor();
+		TypeNameMatchIndex index= TypeNameMatchIndex.getInstance();
+		joinBackgroudActivities();
+		assertNotNull(index.update(monitor));
+
+		TypeInfoFilter filter= new TypeInfoFilter(pattern, SearchEngine.createWorkspaceScope(), IJavaSearchConstants.TYPE, null);
+		List<TypeNameMatch> matches= new ArrayList<>();
+		try {
+			for (int i= 0; i < runs; i++) {
+				matches.clear();
+				startMeasuring();
+				assertTrue(index.collect(filter, matches::add, monitor));
+				stopMeasuring();
+			}
+			assertFalse(matches.isEmpty());
+		} finally {
+			commitMeasurements();
+			Performance.getDefault().assertPerformanceInAbsoluteBand(fPerformanceMeter, Dimension.ELAPSED_PROCESS, 0, 100);
+		}
+	}
+
 	private void measureOpenType(String pattern) throws Exception {
 		measureOpenType(pattern, false);
 	}
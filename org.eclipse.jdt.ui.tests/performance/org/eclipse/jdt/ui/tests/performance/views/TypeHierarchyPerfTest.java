@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.jdt.ui.tests.performance.views;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 
@@ -29,6 +30,7 @@ import org.eclipse.test.performance.Dimension;
 import org.eclipse.test.performance.Performance;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
 
 import org.eclipse.core.resources.ResourcesPlugin;
 
@@ -36,14 +38,21 @@ import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
 
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCaseCommon;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyLifeCycle;
 import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyViewPart;
 import org.eclipse.jdt.internal.ui.util.OpenTypeHierarchyUtil;
 
@@ -124,6 +133,53 @@ public class TypeHierarchyPerfTest extends JdtPerformanceTestCaseCommon {
 		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
 	}
 
+	@Test
+	public void testDRefreshObjectHierarchyAfterBodyChange() throws Exception {
+		// the hierarchy is kept, only the changed compilation unit is checked
+		tagAsSummary("Refresh type hierarchy on Object after body change", Dimension.ELAPSED_PROCESS);
+		measureRefreshHierarchy(false);
+		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+	}
+
+	@Test
+	public void testERebuildObjectHierarchyAfterBodyChange() throws Exception {
+		// the hierarchy is rebuilt, for comparison with testDRefreshObjectHierarchyAfterBodyChange
+		measureRefreshHierarchy(true);
+		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+	}
+
+	private void measureRefreshHierarchy(boolean rebuild) throws Exception {
+		IJavaElement[] input= { MyTestSetup.fJProject1.findType("java.lang.Object") };
+		IType testCase= MyTestSetup.fJProject1.findType("junit.framework.TestCase");
+		TypeHierarchyLifeCycle lifeCycle= new TypeHierarchyLifeCycle(false);
+		lifeCycle.doHierarchyRefresh(input, new NullProgressMonitor());
+		try {
+			for (int i= 0; i < 10; i++) {
+				joinBackgroudActivities();
+				startMeasuring();
+				changeMethodBody(testCase, i);
+				if (rebuild)
+					lifeCycle.invalidateHierarchy();
+				lifeCycle.doHierarchyRefresh(input, new NullProgressMonitor());
+				stopMeasuring();
+			}
+			assertTrue(lifeCycle.getHierarchy().contains(testCase));
+		} finally {
+			lifeCycle.freeHierarchy();
+		}
+		commitMeasurements();
+	}
+
+	private static void changeMethodBody(IType type, int run) throws JavaModelException {
+		IMethod method= type.getMethod("runBare", new String[0]);
+		ISourceRange range= method.getSourceRange();
+		ICompilationUnit unit= type.getCompilationUnit();
+		IBuffer buffer= unit.getBuffer();
+		// insert a statement before the closing brace of the body
+		buffer.replace(range.getOffset() + range.getLength() - 1, 0, "int run" + run + "= " + run + ";");
+		unit.save(null, true);
+	}
+
 	private void measureOpenHierarchy(IJavaElement element) throws Exception {
 		IWorkbenchWindow activeWorkbenchWindow= JavaPlugin.getActiveWorkbenchWindow();
 		joinBackgroudActivities();
@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.common;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
@@ -617,6 +619,65 @@ public class VisitorTest {
 		hv.build(result2);
 	}
 
+	private static HelperVisitor<ReferenceHolder<String,NodeFound>,String,NodeFound> createTracingVisitor(List<String> trace, VisitorEnum skipped) {
+		HelperVisitor<ReferenceHolder<String,NodeFound>,String,NodeFound> hv = new HelperVisitor<>(null, new ReferenceHolder<>());
+		VisitorEnum.stream().forEach(ve -> {
+			hv.add(ve, (node, holder) -> {
+				trace.add("Start " + node.getNodeType() + " :" + node);
+				return ve != skipped;
+			}, (node, holder) -> {
+				trace.add("End   " + node.getNodeType() + " :" + node);
+			});
+		});
+		return hv;
+	}
+
+	@Test
+	public void compiledTest1() {
+		List<String> expected = new ArrayList<>();
+		createTracingVisitor(expected, VisitorEnum.WhileStatement).build(result2);
+		List<String> actual = new ArrayList<>();
+		createTracingVisitor(actual, VisitorEnum.WhileStatement).buildCompiled(result2);
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void compiledTest2() {
+		List<String> expected = new ArrayList<>();
+		HelperVisitor<ReferenceHolder<String,NodeFound>,String,NodeFound> hv = new HelperVisitor<>(null, new ReferenceHolder<>());
+		hv.addMethodInvocation("println", (node, holder) -> {
+			expected.add(node.toString());
+			return true;
+		});
+		hv.build(result);
+		List<String> actual = new ArrayList<>();
+		HelperVisitor<ReferenceHolder<String,NodeFound>,String,NodeFound> hv2 = new HelperVisitor<>(null, new ReferenceHolder<>());
+		hv2.addMethodInvocation("println", (node, holder) -> {
+			actual.add(node.toString());
+			return true;
+		});
+		hv2.buildCompiled(result);
+		assertEquals(3, actual.size());
+		assertEquals(expected, actual);
+	}
+
+	/**
+	 * Fused visitors share one traversal, but each one sees the same nodes as on its own.
+	 */
+	@Test
+	public void fusedTest1() {
+		List<String> expected1 = new ArrayList<>();
+		createTracingVisitor(expected1, VisitorEnum.Block).build(result2);
+		List<String> expected2 = new ArrayList<>();
+		createTracingVisitor(expected2, VisitorEnum.WhileStatement).build(result2);
+
+		List<String> actual1 = new ArrayList<>();
+		List<String> actual2 = new ArrayList<>();
+		CompiledHelperVisitor.fuse(createTracingVisitor(actual1, VisitorEnum.Block), createTracingVisitor(actual2, VisitorEnum.WhileStatement)).build(result2);
+		assertEquals(expected1, actual1);
+		assertEquals(expected2, actual2);
+	}
+
 	Collection<String> getUsedVariableNames(ASTNode node) {
 		CompilationUnit root= (CompilationUnit) node.getRoot();
 		Collection<String> res= (new ScopeAnalyzer(root)).getUsedVariableNames(node.getStartPosition(), node.getLength());
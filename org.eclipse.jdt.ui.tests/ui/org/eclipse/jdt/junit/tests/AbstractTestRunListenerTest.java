@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -89,6 +89,10 @@ public class AbstractTestRunListenerTest {
 
 
 	IJavaProject fProject;
+	/**
+	 * Whether the tests are launched with {@link JUnitLaunchConfigurationConstants#ATTR_PARALLEL_EXECUTION}
+	 */
+	boolean fParallelExecution= false;
 	private boolean fLaunchHasTerminated= false;
 
 	@Before
@@ -186,6 +190,9 @@ public class AbstractTestRunListenerTest {
 		if (testKindID != null) {
 			configuration.setAttribute(JUnitLaunchConfigurationConstants.ATTR_TEST_RUNNER_KIND, testKindID);
 		}
+		if (fParallelExecution) {
+			configuration.setAttribute(JUnitLaunchConfigurationConstants.ATTR_PARALLEL_EXECUTION, true);
+		}
 		try {
 			configuration.launch(ILaunchManager.RUN_MODE, null);
 			new DisplayHelper() {
@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.eclipse.jdt.internal.junit.model.ITestRunListener2;
+import org.eclipse.jdt.internal.junit.model.RemoteTestRunnerClient;
+import org.eclipse.jdt.internal.junit.runner.BinaryMessageIds;
+import org.eclipse.jdt.internal.junit.runner.BinaryMessageSender;
+import org.eclipse.jdt.internal.junit.runner.MessageIds;
+
+public class BinaryMessageSenderTest {
+
+	private static DataInputStream send(String... messages) throws IOException {
+		ByteArrayOutputStream out= new ByteArrayOutputStream();
+		BinaryMessageSender sender= new BinaryMessageSender(out);
+		for (String message : messages)
+			sender.sendMessage(message);
+		sender.close();
+		ByteArrayInputStream in= new ByteArrayInputStream(out.toByteArray());
+		assertTrue(BinaryMessageIds.readHeader(in));
+		return new DataInputStream(in);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes= new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testTextHeaderIsNotBinary() throws Exception {
+		ByteArrayInputStream in= new ByteArrayInputStream((MessageIds.TEST_RUN_START + "1 v2\n").getBytes(StandardCharsets.UTF_8));
+		assertFalse(BinaryMessageIds.readHeader(in));
+		assertEquals('%', in.read());
+	}
+
+	@Test
+	public void testTestNamesAreSentOnce() throws Exception {
+		ByteArrayOutputStream out= new ByteArrayOutputStream();
+		BinaryMessageSender sender= new BinaryMessageSender(out);
+		sender.sendTestMessage(MessageIds.TEST_START, 7, "testFoo(p.A)");
+		sender.sendTestMessage(MessageIds.TEST_END, 7, "testFoo(p.A)");
+		sender.close();
+		ByteArrayInputStream bytes= new ByteArrayInputStream(out.toByteArray());
+		assertTrue(BinaryMessageIds.readHeader(bytes));
+		DataInputStream in= new DataInputStream(bytes);
+
+		assertEquals(BinaryMessageIds.TEST_START, in.readByte());
+		assertEquals(7, in.readInt());
+		assertTrue(in.readBoolean());
+		assertEquals("testFoo(p.A)", readString(in));
+
+		assertEquals(BinaryMessageIds.TEST_END, in.readByte());
+		assertEquals(7, in.readInt());
+		assertFalse(in.readBoolean());
+		assertEquals(-1, in.read());
+	}
+
+	@Test
+	public void testLongMessagesAreChunked() throws Exception {
+		StringBuilder trace= new StringBuilder();
+		while (trace.length() < 2 * BinaryMessageIds.MAX_CHUNK_LENGTH + 10)
+			trace.append("\tat p.A.testFoo(A.java:42)\n");
+		DataInputStream in= send(trace.toString());
+
+		StringBuilder received= new StringBuilder();
+		assertEquals(BinaryMessageIds.CHUNK, in.readByte());
+		received.append(readString(in));
+		assertEquals(BinaryMessageIds.CHUNK, in.readByte());
+		received.append(readString(in));
+		assertEquals(BinaryMessageIds.MESSAGE, in.readByte());
+		received.append(readString(in));
+		assertEquals(trace.toString(), received.toString());
+		assertEquals(-1, in.read());
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		StringBuilder trace= new StringBuilder("java.lang.AssertionError: \u00e4\u00f6\u00fc \u20ac \ud83d\ude00\n");
+		while (trace.length() < 4 * 1024 * 1024)
+			trace.append("\tat p.\u00c4.test\u00df(\u00c4.java:42)\n");
+		String expected= "expected \u65e5\u672c\u8a9e\r\nsecond line";
+		String actual= "actual \ud83d\ude00,\\";
+
+		RecordingListener listener= new RecordingListener();
+		RemoteTestRunnerClient client= new RemoteTestRunnerClient();
+		int port;
+		try (ServerSocket socket= new ServerSocket(0)) {
+			port= socket.getLocalPort();
+		}
+		client.startListening(new ITestRunListener2[] { listener }, port);
+		try (Socket socket= connect(port)) {
+			BinaryMessageSender sender= new BinaryMessageSender(socket.getOutputStream());
+			sender.sendMessage(MessageIds.TEST_RUN_START + "1 v2");
+			sender.sendMessage(MessageIds.TEST_TREE + "1,test\u00e4(p.\u00c4),false,1,false,-1,test\u00e4(p.\u00c4),,");
+			sender.sendTestMessage(MessageIds.TEST_START, 1, "test\u00e4(p.\u00c4)");
+			sender.sendTestMessage(MessageIds.TEST_FAILED, 1, "test\u00e4(p.\u00c4)");
+			sender.sendMessage(MessageIds.EXPECTED_START);
+			sender.sendMessage(expected);
+			sender.sendMessage(MessageIds.EXPECTED_END);
+			sender.sendMessage(MessageIds.ACTUAL_START);
+			sender.sendMessage(actual);
+			sender.sendMessage(MessageIds.ACTUAL_END);
+			sender.sendMessage(MessageIds.TRACE_START);
+			sender.sendMessage(trace.toString());
+			sender.sendMessage(MessageIds.TRACE_END);
+			sender.sendTestMessage(MessageIds.TEST_END, 1, "test\u00e4(p.\u00c4)");
+			sender.sendMessage(MessageIds.TEST_RUN_END + "42");
+			sender.flush();
+			assertTrue(listener.fEnded.await(30, TimeUnit.SECONDS));
+			sender.close();
+		} finally {
+			client.stopWaiting();
+		}
+
+		assertEquals(Arrays.asList("started 1 test\u00e4(p.\u00c4)", "failed 1 test\u00e4(p.\u00c4)", "ended 1 test\u00e4(p.\u00c4)", "runEnded 42"), listener.fEvents);
+		// like in the text protocol, the trace ends with a line delimiter
+		assertEquals(trace.toString() + "\n", listener.fTrace);
+		assertEquals(expected, listener.fExpected);
+		assertEquals(actual, listener.fActual);
+	}
+
+	@Test
+	public void testSparseTestIds() throws Exception {
+		ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+		BinaryMessageSender sender= new BinaryMessageSender(bytes);
+		sender.sendMessage(MessageIds.TEST_RUN_START + "2 v2");
+		sender.sendTestMessage(MessageIds.TEST_START, 3, "testFoo(p.A)");
+		sender.sendTestMessage(MessageIds.TEST_END, 3, "testFoo(p.A)");
+		sender.close();
+		// a corrupt id must not make the client allocate an array for all ids below it
+		DataOutputStream out= new DataOutputStream(bytes);
+		out.writeByte(BinaryMessageIds.TEST_START);
+		out.writeInt(Integer.MAX_VALUE);
+		out.writeBoolean(true);
+		writeString(out, "testBar(p.A)");
+		out.writeByte(BinaryMessageIds.TEST_END);
+		out.writeInt(Integer.MAX_VALUE);
+		out.writeBoolean(false);
+		out.writeByte(BinaryMessageIds.MESSAGE);
+		writeString(out, MessageIds.TEST_RUN_END + "42");
+		out.flush();
+
+		RecordingListener listener= new RecordingListener();
+		RemoteTestRunnerClient client= new RemoteTestRunnerClient();
+		int port;
+		try (ServerSocket socket= new ServerSocket(0)) {
+			port= socket.getLocalPort();
+		}
+		client.startListening(new ITestRunListener2[] { listener }, port);
+		try (Socket socket= connect(port)) {
+			socket.getOutputStream().write(bytes.toByteArray());
+			socket.getOutputStream().flush();
+			assertTrue(listener.fEnded.await(30, TimeUnit.SECONDS));
+		} finally {
+			client.stopWaiting();
+		}
+
+		assertEquals(Arrays.asList("started 3 testFoo(p.A)", "ended 3 testFoo(p.A)", "started 2147483647 testBar(p.A)", "ended 2147483647 testBar(p.A)", "runEnded 42"), listener.fEvents);
+	}
+
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes= string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static Socket connect(int port) throws Exception {
+		for (int i= 0; ; i++) {
+			try {
+				return new Socket(InetAddress.getLoopbackAddress(), port);
+			} catch (ConnectException e) {
+				if (i == 50)
+					throw e;
+				Thread.sleep(100);
+			}
+		}
+	}
+
+	private static class RecordingListener implements ITestRunListener2 {
+		final List<String> fEvents= Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch fEnded= new CountDownLatch(1);
+		volatile String fTrace;
+		volatile String fExpected;
+		volatile String fActual;
+
+		@Override
+		public void testRunStarted(int testCount) {
+		}
+		@Override
+		public void testRunEnded(long elapsedTime) {
+			fEvents.add("runEnded " + elapsedTime);
+			fEnded.countDown();
+		}
+		@Override
+		public void testRunStopped(long elapsedTime) {
+			fEvents.add("runStopped " + elapsedTime);
+			fEnded.countDown();
+		}
+		@Override
+		public void testStarted(String testId, String testName) {
+			fEvents.add("started " + testId + " " + testName);
+		}
+		@Override
+		public void testEnded(String testId, String testName) {
+			fEvents.add("ended " + testId + " " + testName);
+		}
+		@Override
+		public void testRunTerminated() {
+			fEvents.add("terminated");
+			fEnded.countDown();
+		}
+		@Override
+		public void testTreeEntry(String description) {
+		}
+		@Override
+		public void testFailed(int status, String testId, String testName, String trace, String expected, String actual) {
+			fEvents.add("failed " + testId + " " + testName);
+			fTrace= trace;
+			fExpected= expected;
+			fActual= actual;
+		}
+		@Override
+		public void testReran(String testId, String testClass, String testName, int status, String trace, String expected, String actual) {
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.eclipse.jdt.internal.junit.model.CoalescingTestSessionListener;
+import org.eclipse.jdt.internal.junit.model.ITestSessionListener;
+import org.eclipse.jdt.internal.junit.model.TestCaseElement;
+import org.eclipse.jdt.internal.junit.model.TestElement;
+import org.eclipse.jdt.internal.junit.model.TestElement.Status;
+import org.eclipse.jdt.internal.junit.model.TestSuiteElement;
+
+public class CoalescingTestSessionListenerTest {
+
+	private static class RecordingListener implements ITestSessionListener {
+		final List<String> fEvents= new ArrayList<>();
+
+		@Override
+		public void sessionStarted() {
+			fEvents.add("sessionStarted");
+		}
+		@Override
+		public void sessionEnded(long elapsedTime) {
+			fEvents.add("sessionEnded");
+		}
+		@Override
+		public void sessionStopped(long elapsedTime) {
+			fEvents.add("sessionStopped");
+		}
+		@Override
+		public void sessionTerminated() {
+			fEvents.add("sessionTerminated");
+		}
+		@Override
+		public void testAdded(TestElement testElement) {
+			fEvents.add("added " + testElement.getId());
+		}
+		@Override
+		public void runningBegins() {
+			fEvents.add("runningBegins");
+		}
+		@Override
+		public void testStarted(TestCaseElement testCaseElement) {
+			fEvents.add("started " + testCaseElement.getId());
+		}
+		@Override
+		public void testEnded(TestCaseElement testCaseElement) {
+			fEvents.add("ended " + testCaseElement.getId());
+		}
+		@Override
+		public void testFailed(TestElement testElement, Status status, String trace, String expected, String actual) {
+			fEvents.add("failed " + testElement.getId());
+		}
+		@Override
+		public void testReran(TestCaseElement testCaseElement, Status status, String trace, String expectedResult, String actualResult) {
+			fEvents.add("reran " + testCaseElement.getId());
+		}
+		@Override
+		public boolean acceptsSwapToDisk() {
+			return false;
+		}
+	}
+
+	@Test
+	public void testCoalescing() {
+		TestSuiteElement suite= new TestSuiteElement(null, "1", "p.Suite", 2, "Suite", null, null);
+		TestCaseElement test2= new TestCaseElement(suite, "2", "test2(p.Suite)", "test2", false, null, null);
+		TestCaseElement test3= new TestCaseElement(suite, "3", "test3(p.Suite)", "test3", false, null, null);
+
+		RecordingListener recorder= new RecordingListener();
+		CoalescingTestSessionListener listener= new CoalescingTestSessionListener(recorder, 60_000);
+		listener.sessionStarted();
+		listener.testAdded(suite);
+		listener.testAdded(test2);
+		listener.testAdded(test3);
+		listener.runningBegins();
+
+		listener.testStarted(test2);
+		listener.testFailed(test2, Status.FAILURE, "trace", null, null);
+		listener.testEnded(test2);
+		listener.testStarted(test3);
+		assertEquals(5, recorder.fEvents.size());
+
+		listener.sessionEnded(0);
+
+		String[] expected= {
+				"sessionStarted", "added 1", "added 2", "added 3", "runningBegins",
+				"failed 2", "ended 2", "started 3", "sessionEnded"
+		};
+		assertEquals(List.of(expected), recorder.fEvents);
+		assertEquals(7, listener.getReceivedCount());
+		assertEquals(6, listener.getForwardedCount());
+		assertEquals(2, listener.getMergedCount());
+		assertEquals(1, listener.getDroppedCount());
+	}
+
+	@Test
+	public void testDispose() throws Exception {
+		TestSuiteElement suite= new TestSuiteElement(null, "1", "p.Suite", 1, "Suite", null, null);
+		TestCaseElement test2= new TestCaseElement(suite, "2", "test2(p.Suite)", "test2", false, null, null);
+
+		RecordingListener recorder= new RecordingListener();
+		CoalescingTestSessionListener listener= new CoalescingTestSessionListener(recorder, 10);
+		listener.sessionStarted();
+		listener.testAdded(suite);
+		listener.testAdded(test2);
+		// removed from the session before the slice is forwarded
+		listener.dispose();
+		Thread.sleep(200);
+		listener.flush();
+
+		assertEquals(List.of("sessionStarted"), recorder.fEvents);
+	}
+
+	@Test
+	public void testForwardedWithoutLock() throws Exception {
+		TestSuiteElement suite= new TestSuiteElement(null, "1", "p.Suite", 1, "Suite", null, null);
+		TestCaseElement test2= new TestCaseElement(suite, "2", "test2(p.Suite)", "test2", false, null, null);
+
+		CoalescingTestSessionListener[] listener= new CoalescingTestSessionListener[1];
+		boolean[] notifiedWhileForwarding= new boolean[1];
+		RecordingListener recorder= new RecordingListener() {
+			@Override
+			public void testAdded(TestElement testElement) {
+				super.testAdded(testElement);
+				if (testElement == suite) {
+					// like the view, which waits for the UI thread, which may notify the listener
+					Thread thread= new Thread(() -> listener[0].testStarted(test2));
+					thread.start();
+					try {
+						thread.join(10_000);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					notifiedWhileForwarding[0]= !thread.isAlive();
+				}
+			}
+		};
+		listener[0]= new CoalescingTestSessionListener(recorder, 60_000);
+		listener[0].testAdded(suite);
+		listener[0].flush();
+		listener[0].sessionEnded(0);
+
+		assertTrue(notifiedWhileForwarding[0]);
+		assertEquals(List.of("added 1", "started 2", "sessionEnded"), recorder.fEvents);
+	}
+}
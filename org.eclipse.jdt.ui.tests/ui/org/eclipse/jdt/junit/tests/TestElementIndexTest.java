@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import org.eclipse.jdt.internal.junit.model.TestCaseElement;
+import org.eclipse.jdt.internal.junit.model.TestElementIndex;
+import org.eclipse.jdt.internal.junit.model.TestSuiteElement;
+
+public class TestElementIndexTest {
+
+	private static final TestSuiteElement SUITE= new TestSuiteElement(null, "1", "p.Suite", 0, "Suite", null, null);
+
+	private static TestCaseElement createTest(String id) {
+		return new TestCaseElement(SUITE, id, "test" + id + "(p.Suite)", "test" + id, false, null, null);
+	}
+
+	@Test
+	public void denseIds() {
+		TestElementIndex index= new TestElementIndex();
+		TestCaseElement[] tests= new TestCaseElement[1000];
+		for (int i= 1; i < tests.length; i++) {
+			tests[i]= createTest(String.valueOf(i));
+			index.put(tests[i].getId(), tests[i]);
+		}
+		for (int i= 1; i < tests.length; i++) {
+			assertSame(tests[i], index.get(String.valueOf(i)));
+		}
+		assertNull(index.get("0"));
+		assertNull(index.get(String.valueOf(tests.length)));
+		assertTrue(index.getCapacity() < 4 * tests.length);
+	}
+
+	@Test
+	public void sparseIds() {
+		TestElementIndex index= new TestElementIndex();
+		TestCaseElement small= createTest("3");
+		TestCaseElement large= createTest("16000000");
+		TestCaseElement huge= createTest("999999999");
+		index.put(small.getId(), small);
+		index.put(large.getId(), large);
+		index.put(huge.getId(), huge);
+		assertSame(small, index.get("3"));
+		assertSame(large, index.get("16000000"));
+		assertSame(huge, index.get("999999999"));
+		assertNull(index.get("15999999"));
+		// a single large id must not grow the array
+		assertTrue(String.valueOf(index.getCapacity()), index.getCapacity() <= 128);
+	}
+
+	@Test
+	public void sparseIdsMovedIntoArray() {
+		TestElementIndex index= new TestElementIndex();
+		TestCaseElement early= createTest("200");
+		index.put(early.getId(), early);
+		for (int i= 1; i < 300; i++) {
+			if (i != 200)
+				index.put(String.valueOf(i), createTest(String.valueOf(i)));
+		}
+		assertTrue(index.getCapacity() > 200);
+		assertSame(early, index.get("200"));
+		TestCaseElement replaced= createTest("200");
+		index.put(replaced.getId(), replaced);
+		assertSame(replaced, index.get("200"));
+	}
+
+	@Test
+	public void otherIds() {
+		TestElementIndex index= new TestElementIndex();
+		TestCaseElement leadingZero= createTest("01");
+		TestCaseElement text= createTest("[engine:junit-jupiter]/[class:p.Test]");
+		TestCaseElement tooLong= createTest("12345678901");
+		index.put(leadingZero.getId(), leadingZero);
+		index.put(text.getId(), text);
+		index.put(tooLong.getId(), tooLong);
+		assertSame(leadingZero, index.get("01"));
+		assertNull(index.get("1"));
+		assertSame(text, index.get(text.getId()));
+		assertSame(tooLong, index.get("12345678901"));
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2020 IBM Corporation and others.
+ * Copyright (c) 2006, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,9 @@
 
 package org.eclipse.jdt.junit.tests;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -24,6 +27,8 @@ import org.eclipse.jdt.junit.model.ITestElement.ProgressState;
 import org.eclipse.jdt.junit.model.ITestElement.Result;
 import org.eclipse.jdt.testplugin.JavaProjectHelper;
 
+import org.eclipse.core.resources.IFile;
+
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
 
@@ -141,6 +146,75 @@ public class TestRunListenerTest5 extends AbstractTestRunListenerTest {
 		assertEqualLog(expectedTree, actual);
 	}
 
+	private void createParallelismProperties() throws Exception {
+		// a fixed pool, so that the tests also run concurrently on a machine with a single core
+		String properties= "junit.jupiter.execution.parallel.config.strategy=fixed\n"
+				+ "junit.jupiter.execution.parallel.config.fixed.parallelism=4\n";
+		IFile file= fProject.getProject().getFolder("src").getFile("junit-platform.properties");
+		file.create(new ByteArrayInputStream(properties.getBytes(StandardCharsets.ISO_8859_1)), true, null);
+	}
+
+	@Test
+	public void testParallelExecution() throws Exception {
+		String source=
+				"package pack;\n" +
+				"import java.util.concurrent.CyclicBarrier;\n" +
+				"import java.util.concurrent.TimeUnit;\n" +
+				"import org.junit.jupiter.api.*;\n" +
+				"@TestMethodOrder(MethodOrderer.MethodName.class)\n" +
+				"public class ATestCase {\n" +
+				"    static final CyclicBarrier BARRIER= new CyclicBarrier(2);\n" +
+				"    @Test public void test1() throws Exception { BARRIER.await(10, TimeUnit.SECONDS); }\n" +
+				"    @Test public void test2() throws Exception { BARRIER.await(10, TimeUnit.SECONDS); }\n" +
+				"}";
+		IType aTestCase= createType(source, "pack", "ATestCase.java");
+		createParallelismProperties();
+
+		// both tests only pass if they are executed at the same time
+		String[] expectedTree= new String[] {
+			TestRunListeners.sessionAsString("ATestCase", ProgressState.COMPLETED, Result.OK, 0),
+			TestRunListeners.suiteAsString("pack.ATestCase", ProgressState.COMPLETED, Result.OK, null, 1),
+			TestRunListeners.testCaseAsString("test1", "pack.ATestCase", ProgressState.COMPLETED, Result.OK, null, 2),
+			TestRunListeners.testCaseAsString("test2", "pack.ATestCase", ProgressState.COMPLETED, Result.OK, null, 2),
+		};
+		fParallelExecution= true;
+		String[] actual= runTreeTest(aTestCase, 6);
+		assertEqualLog(expectedTree, actual);
+	}
+
+	@Test
+	public void testParallelFailures() throws Exception {
+		String source=
+				"package pack;\n" +
+				"import static org.junit.jupiter.api.Assertions.*;\n" +
+				"import java.util.concurrent.CyclicBarrier;\n" +
+				"import java.util.concurrent.TimeUnit;\n" +
+				"import org.junit.jupiter.api.*;\n" +
+				"@TestMethodOrder(MethodOrderer.MethodName.class)\n" +
+				"public class ATestCase {\n" +
+				"    static final CyclicBarrier BARRIER= new CyclicBarrier(4);\n" +
+				"    @Test public void test1() throws Exception { BARRIER.await(10, TimeUnit.SECONDS); assertEquals(\"expected1\", \"actual1\"); }\n" +
+				"    @Test public void test2() throws Exception { BARRIER.await(10, TimeUnit.SECONDS); assertEquals(\"expected2\", \"actual2\"); }\n" +
+				"    @Test public void test3() throws Exception { BARRIER.await(10, TimeUnit.SECONDS); }\n" +
+				"    @Test public void test4() throws Exception { BARRIER.await(10, TimeUnit.SECONDS); assertEquals(\"expected4\", \"actual4\"); }\n" +
+				"}";
+		IType aTestCase= createType(source, "pack", "ATestCase.java");
+		createParallelismProperties();
+
+		// the failures reported at the same time must keep their own expected and actual values
+		String[] expectedTree= new String[] {
+			TestRunListeners.sessionAsString("ATestCase", ProgressState.COMPLETED, Result.FAILURE, 0),
+			TestRunListeners.suiteAsString("pack.ATestCase", ProgressState.COMPLETED, Result.FAILURE, null, 1),
+			TestRunListeners.testCaseAsString("test1", "pack.ATestCase", ProgressState.COMPLETED, Result.FAILURE, new FailureTrace("org.opentest4j.AssertionFailedError", "expected1", "actual1"), 2),
+			TestRunListeners.testCaseAsString("test2", "pack.ATestCase", ProgressState.COMPLETED, Result.FAILURE, new FailureTrace("org.opentest4j.AssertionFailedError", "expected2", "actual2"), 2),
+			TestRunListeners.testCaseAsString("test3", "pack.ATestCase", ProgressState.COMPLETED, Result.OK, null, 2),
+			TestRunListeners.testCaseAsString("test4", "pack.ATestCase", ProgressState.COMPLETED, Result.FAILURE, new FailureTrace("org.opentest4j.AssertionFailedError", "expected4", "actual4"), 2),
+		};
+		fParallelExecution= true;
+		String[] actual= runTreeTest(aTestCase, 10);
+		assertEqualLog(expectedTree, actual);
+	}
+
 	@Test
 	public void testThatLauncherLibGetsAdded() throws Exception {
 		JavaProjectHelper.removeFromClasspath(fProject, JUnitCore.JUNIT5_CONTAINER_PATH);
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.junit.model.ITestElement.Result;
+
+import org.eclipse.jdt.internal.junit.model.TestCaseElement;
+import org.eclipse.jdt.internal.junit.model.TestElement;
+import org.eclipse.jdt.internal.junit.model.TestElement.Status;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+import org.eclipse.jdt.internal.junit.model.TestSuiteElement;
+
+public class TestRunSessionSwapFileTest {
+
+	private TestRunSession fSession;
+
+	@Before
+	public void setUp() {
+		fSession= new TestRunSession("SwapFileTest", null);
+	}
+
+	@After
+	public void tearDown() {
+		fSession.removeSwapFile();
+	}
+
+	private TestCaseElement createTest(TestSuiteElement suite, String id) {
+		return (TestCaseElement) fSession.createTestElement(suite, id, "test" + id + "(p.Suite)", false, 0, false, null, null, null);
+	}
+
+	private TestElement swapOutAndIn(TestElement element) {
+		String id= element.getId();
+		fSession.swapOut();
+		fSession.swapIn();
+		TestElement swappedIn= fSession.getTestElement(id);
+		assertNotSame(element, swappedIn);
+		return swappedIn;
+	}
+
+	@Test
+	public void failureKinds() {
+		TestSuiteElement suite= (TestSuiteElement) fSession.createTestElement(fSession.getTestRoot(), "1", "p.Suite", true, 0, false, null, null, null);
+		TestCaseElement passed= createTest(suite, "2");
+		TestCaseElement error= createTest(suite, "3");
+		fSession.registerTestFailureStatus(error, Status.ERROR, "java.lang.NullPointerException\n\tat p.Suite.test3", null, null);
+		TestCaseElement failure= createTest(suite, "4");
+		fSession.registerTestFailureStatus(failure, Status.FAILURE, "org.junit.ComparisonFailure", "expected ä", "actual ö");
+		TestCaseElement assumption= createTest(suite, "5");
+		assumption.setAssumptionFailed(true);
+		fSession.registerTestFailureStatus(assumption, Status.OK, "org.junit.AssumptionViolatedException", null, null);
+		TestCaseElement assumptionWithoutTrace= createTest(suite, "6");
+		assumptionWithoutTrace.setAssumptionFailed(true);
+		TestCaseElement ignored= createTest(suite, "7");
+		ignored.setIgnored(true);
+		for (TestCaseElement test : new TestCaseElement[] { passed, error, failure, assumption, assumptionWithoutTrace, ignored }) {
+			fSession.registerTestEnded(test, true);
+		}
+		fSession.registerTestEnded(suite, true);
+
+		swapOutAndIn(suite);
+
+		TestElement swappedPassed= fSession.getTestElement("2");
+		assertEquals(Result.OK, swappedPassed.getTestResult(false));
+		assertNull(swappedPassed.getFailureTrace());
+
+		TestElement swappedError= fSession.getTestElement("3");
+		assertEquals(Result.ERROR, swappedError.getTestResult(false));
+		assertEquals("java.lang.NullPointerException\n\tat p.Suite.test3", swappedError.getTrace());
+		assertFalse(swappedError.isComparisonFailure());
+
+		TestElement swappedFailure= fSession.getTestElement("4");
+		assertEquals(Result.FAILURE, swappedFailure.getTestResult(false));
+		assertEquals("org.junit.ComparisonFailure", swappedFailure.getTrace());
+		assertEquals("expected ä", swappedFailure.getExpected());
+		assertEquals("actual ö", swappedFailure.getActual());
+
+		TestElement swappedAssumption= fSession.getTestElement("5");
+		assertTrue(swappedAssumption.isAssumptionFailure());
+		assertEquals(Result.IGNORED, swappedAssumption.getTestResult(false));
+		assertEquals("org.junit.AssumptionViolatedException", swappedAssumption.getTrace());
+
+		TestCaseElement swappedAssumptionWithoutTrace= (TestCaseElement) fSession.getTestElement("6");
+		assertTrue(swappedAssumptionWithoutTrace.isAssumptionFailure());
+		assertFalse(swappedAssumptionWithoutTrace.isIgnored());
+		assertNull(swappedAssumptionWithoutTrace.getTrace());
+
+		TestCaseElement swappedIgnored= (TestCaseElement) fSession.getTestElement("7");
+		assertTrue(swappedIgnored.isIgnored());
+		assertFalse(swappedIgnored.isAssumptionFailure());
+
+		assertEquals(1, fSession.getErrorCount());
+		assertEquals(1, fSession.getFailureCount());
+		assertEquals(2, fSession.getAssumptionFailureCount());
+		assertEquals(1, fSession.getIgnoredCount());
+	}
+
+	@Test
+	public void unreadTracesSurviveSecondSwap() {
+		TestSuiteElement suite= (TestSuiteElement) fSession.createTestElement(fSession.getTestRoot(), "1", "p.Suite", true, 0, false, null, null, null);
+		StringBuilder trace= new StringBuilder();
+		for (int i= 0; i < 10000; i++) {
+			trace.append("\tat p.Suite.test").append(i).append("(Suite.java:").append(i).append(")\n");
+		}
+		TestCaseElement failure= createTest(suite, "2");
+		fSession.registerTestFailureStatus(failure, Status.FAILURE, trace.toString(), null, null);
+		fSession.registerTestEnded(failure, true);
+		fSession.registerTestEnded(suite, true);
+
+		swapOutAndIn(failure);
+		// the trace has not been read when the session is swapped out again
+		TestElement swappedIn= swapOutAndIn(fSession.getTestElement("2"));
+		assertEquals(trace.toString(), swappedIn.getTrace());
+	}
+}
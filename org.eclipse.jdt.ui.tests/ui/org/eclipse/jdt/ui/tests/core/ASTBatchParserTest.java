@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.internal.corext.dom.ASTBatchParser;
+import org.eclipse.jdt.internal.corext.fix.CleanUpConstants;
+import org.eclipse.jdt.internal.corext.fix.CleanUpRefactoring;
+
+import org.eclipse.jdt.ui.cleanup.CleanUpOptions;
+import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
+
+import org.eclipse.jdt.internal.ui.fix.CodeStyleCleanUp;
+
+/**
+ * Tests the concurrent variant of {@link ASTBatchParser#createASTs(ICompilationUnit[], String[], ASTRequestor, int, org.eclipse.core.runtime.IProgressMonitor)}.
+ */
+public class ASTBatchParserTest {
+
+	private static final int UNIT_COUNT= 120;
+
+	private static final int THREADS= 4;
+
+	@Rule
+	public ProjectTestSetup projectSetup= new ProjectTestSetup();
+
+	private IJavaProject fJProject1;
+
+	private ICompilationUnit[] fUnits;
+
+	@Before
+	public void setUp() throws Exception {
+		fJProject1= projectSetup.getProject();
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		IPackageFragment pack= sourceFolder.createPackageFragment("test1", false, null);
+		// enough units for several workers, see ASTBatchParser#MIN_AT_ONCE_PER_WORKER
+		fUnits= new ICompilationUnit[UNIT_COUNT];
+		for (int i= 0; i < UNIT_COUNT; i++) {
+			StringBuilder buf= new StringBuilder();
+			buf.append("package test1;\n");
+			buf.append("public class E" + i + " {\n");
+			buf.append("    public static int I;\n");
+			buf.append("    public void foo() {\n");
+			buf.append("        (new E" + i + "()).I= " + i + ";\n");
+			buf.append("    }\n");
+			buf.append("}\n");
+			fUnits[i]= pack.createCompilationUnit("E" + i + ".java", buf.toString(), false, null);
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		JavaProjectHelper.clear(fJProject1, projectSetup.getDefaultClasspath());
+	}
+
+	@Test
+	public void acceptsEveryUnitOnce() throws Exception {
+		List<ICompilationUnit> accepted= Collections.synchronizedList(new ArrayList<>());
+		Set<Thread> threads= Collections.synchronizedSet(new HashSet<>());
+		new ASTBatchParser().createASTs(fUnits, new String[0], new ASTRequestor() {
+			@Override
+			public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+				assertEquals(source.getElementName(), ast.getJavaElement().getElementName());
+				threads.add(Thread.currentThread());
+				accepted.add(source);
+			}
+		}, THREADS, null);
+
+		assertEquals(UNIT_COUNT, accepted.size());
+		assertEquals(UNIT_COUNT, new HashSet<>(accepted).size());
+		assertFalse("parsed on the calling thread", threads.contains(Thread.currentThread()));
+	}
+
+	@Test
+	public void progressOnCallingThread() throws Exception {
+		Thread caller= Thread.currentThread();
+		AtomicInteger reported= new AtomicInteger();
+		new ASTBatchParser() {
+			@Override
+			protected void chunkParsed(ICompilationUnit[] chunk, IProgressMonitor monitor) {
+				assertSame(caller, Thread.currentThread());
+				reported.addAndGet(chunk.length);
+			}
+		}.createASTs(fUnits, new String[0], new ASTRequestor() {
+			// accept all
+		}, THREADS, null);
+		assertEquals(UNIT_COUNT, reported.get());
+	}
+
+	@Test
+	public void cancelation() throws Exception {
+		AtomicInteger accepted= new AtomicInteger();
+		NullProgressMonitor monitor= new NullProgressMonitor();
+		ASTRequestor requestor= new ASTRequestor() {
+			@Override
+			public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+				if (accepted.incrementAndGet() == 10)
+					monitor.setCanceled(true);
+			}
+		};
+		try {
+			new ASTBatchParser().createASTs(fUnits, new String[0], requestor, THREADS, monitor);
+			fail("not canceled");
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		int acceptedWhenCanceled= accepted.get();
+		assertTrue(String.valueOf(acceptedWhenCanceled), acceptedWhenCanceled < UNIT_COUNT);
+		Thread.sleep(500);
+		// the workers have stopped before createASTs returned
+		assertEquals(acceptedWhenCanceled, accepted.get());
+	}
+
+	@Test
+	public void exceptionPropagation() throws Exception {
+		RuntimeException exception= new IllegalStateException("test");
+		AtomicInteger accepted= new AtomicInteger();
+		ASTRequestor requestor= new ASTRequestor() {
+			@Override
+			public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+				accepted.incrementAndGet();
+				if (source.equals(fUnits[UNIT_COUNT / 2]))
+					throw exception;
+			}
+		};
+		try {
+			new ASTBatchParser().createASTs(fUnits, new String[0], requestor, THREADS, null);
+			fail("exception not propagated");
+		} catch (IllegalStateException e) {
+			assertSame(exception, e);
+		}
+		int acceptedWhenFailed= accepted.get();
+		Thread.sleep(500);
+		assertEquals(acceptedWhenFailed, accepted.get());
+	}
+
+	@Test
+	public void cleanUpChangeOrder() throws Exception {
+		// the change must not depend on the order in which the workers deliver the ASTs
+		assertArrayEquals(getCleanUpChangeNames(1), getCleanUpChangeNames(THREADS));
+	}
+
+	private String[] getCleanUpChangeNames(int maxThreads) throws Exception {
+		CleanUpRefactoring refactoring= new CleanUpRefactoring();
+		refactoring.setMaxThreads(maxThreads);
+		for (ICompilationUnit unit : fUnits) {
+			refactoring.addCompilationUnit(unit);
+		}
+		Map<String, String> options= new Hashtable<>();
+		options.put(CleanUpConstants.MEMBER_ACCESSES_STATIC_QUALIFY_WITH_DECLARING_CLASS, CleanUpOptions.TRUE);
+		options.put(CleanUpConstants.MEMBER_ACCESSES_STATIC_QUALIFY_WITH_DECLARING_CLASS_INSTANCE_ACCESS, CleanUpOptions.TRUE);
+		refactoring.addCleanUp(new CodeStyleCleanUp(options));
+
+		assertFalse(refactoring.checkAllConditions(new NullProgressMonitor()).hasError());
+		Change[] children= ((CompositeChange) refactoring.createChange(null)).getChildren();
+		assertEquals(UNIT_COUNT, children.length);
+		String[] names= new String[children.length];
+		for (int i= 0; i < children.length; i++) {
+			names[i]= children[i].getName();
+		}
+		return names;
+	}
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import org.eclipse.jdt.internal.corext.dom.AdaptiveBatchSize;
+
+public class AdaptiveBatchSizeTest {
+
+	private static final long MIB= 1 << 20;
+
+	private static final long MAX_HEAP= 1000 * MIB;
+
+	private static int compute(int size, int units, long usedMiB, long retainedMiB, long elapsedMillis, long gcMillis, double bytesPerUnit, double millisPerUnit) {
+		return AdaptiveBatchSize.computeBatchSize(size, units, elapsedMillis, usedMiB * MIB, retainedMiB * MIB, gcMillis, MAX_HEAP, bytesPerUnit, millisPerUnit);
+	}
+
+	@Test
+	public void growsAfterFullBatch() {
+		assertEquals(300, compute(200, 200, 200, 100, 1000, 0, 0, 0));
+	}
+
+	@Test
+	public void keepsSizeAfterPartialBatch() {
+		assertEquals(200, compute(200, 199, 200, 100, 1000, 0, 0, 0));
+	}
+
+	@Test
+	public void keepsSizeAtModeratePressure() {
+		assertEquals(200, compute(200, 200, 600, 100, 1000, 0, 0, 0));
+		assertEquals(200, compute(200, 200, 200, 100, 1000, 100, 0, 0));
+	}
+
+	@Test
+	public void shrinksAtHighPressure() {
+		assertEquals(100, compute(200, 200, 900, 100, 1000, 0, 0, 0));
+		assertEquals(100, compute(200, 50, 900, 100, 1000, 0, 0, 0));
+	}
+
+	@Test
+	public void shrinksAtHighCollectionTime() {
+		assertEquals(100, compute(200, 200, 200, 100, 1000, 300, 0, 0));
+	}
+
+	@Test
+	public void growthLimitedByRetainedHeap() {
+		// 600MiB target - 100MiB used before the batch leaves room for 250 units of 2MiB
+		assertEquals(250, compute(200, 200, 200, 100, 1000, 0, 2 * MIB, 0));
+		// never shrinks because of the estimate
+		assertEquals(200, compute(200, 200, 200, 100, 1000, 0, 10 * MIB, 0));
+	}
+
+	@Test
+	public void growthLimitedByTime() {
+		assertEquals(250, compute(200, 200, 200, 100, 1000, 0, 0, 120));
+	}
+
+	@Test
+	public void bounds() {
+		assertEquals(AdaptiveBatchSize.MAX_AT_ONCE, compute(1800, 1800, 200, 100, 1000, 0, 0, 0));
+		assertEquals(AdaptiveBatchSize.MIN_AT_ONCE, compute(30, 30, 900, 100, 1000, 0, 0, 0));
+	}
+}
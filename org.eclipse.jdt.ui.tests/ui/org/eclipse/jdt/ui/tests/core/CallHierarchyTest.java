@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,17 +17,24 @@ package org.eclipse.jdt.ui.tests.core;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 
 import org.eclipse.jdt.core.IInitializer;
@@ -36,6 +43,9 @@ import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
 
 import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchyVisitor;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallerMethodWrapper;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodCall;
 import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
 
 import org.eclipse.jdt.ui.tests.callhierarchy.CallHierarchyTestHelper;
@@ -47,6 +57,29 @@ public class CallHierarchyTest {
 
     private CallHierarchyTestHelper helper;
 
+    /**
+     * Records the members whose callers are searched.
+     */
+    private static class SearchRecordingWrapper extends CallerMethodWrapper {
+        private final Set<IMember> fSearched;
+
+        SearchRecordingWrapper(MethodWrapper parent, MethodCall methodCall, Set<IMember> searched) {
+            super(parent, methodCall);
+            fSearched= searched;
+        }
+
+        @Override
+        public MethodWrapper createMethodWrapper(MethodCall methodCall) {
+            return new SearchRecordingWrapper(this, methodCall, fSearched);
+        }
+
+        @Override
+        protected Map<String, MethodCall> findChildren(IProgressMonitor progressMonitor) {
+            fSearched.add(getMember());
+            return super.findChildren(progressMonitor);
+        }
+    }
+
 	@Before
 	public void setUp() throws Exception {
         helper= new CallHierarchyTestHelper();
@@ -96,6 +129,51 @@ public class CallHierarchyTest {
         helper.assertCalls(expectedSecondLevelMethods, wrapper2.getCalls(new NullProgressMonitor()));
     }
 
+	@Test
+	public void callersAfterChange() throws Exception {
+        helper.createSimpleClasses();
+
+        IMethod method= helper.getMethod1();
+        helper.assertCalls(Arrays.asList(helper.getMethod2(), helper.getMethod3()), getSingleCallerRoot(method).getCalls(new NullProgressMonitor()));
+
+        // callers are cached across hierarchies until the next change
+        IMethod method5= helper.getType2().createMethod("public void method5() { method1(); }\n", null, true, null);
+        helper.assertCalls(Arrays.asList(helper.getMethod2(), helper.getMethod3(), method5), getSingleCallerRoot(method).getCalls(new NullProgressMonitor()));
+    }
+
+	@Test
+	public void callersSearchedAgainAfterRemoveFromCache() throws Exception {
+        helper.createSimpleClasses();
+
+        IMethod method= helper.getMethod1();
+        MethodCall first= helper.findMethodWrapper(helper.getMethod2(), getSingleCallerRoot(method).getCalls(new NullProgressMonitor())).getMethodCall();
+        // another hierarchy gets the cached callers
+        MethodWrapper root= getSingleCallerRoot(method);
+        assertSame(first, helper.findMethodWrapper(helper.getMethod2(), root.getCalls(new NullProgressMonitor())).getMethodCall());
+
+        // refreshing the member searches again
+        root.removeFromCache();
+        MethodCall refreshed= helper.findMethodWrapper(helper.getMethod2(), root.getCalls(new NullProgressMonitor())).getMethodCall();
+        assertNotSame(first, refreshed);
+        assertSame(refreshed, helper.findMethodWrapper(helper.getMethod2(), getSingleCallerRoot(method).getCalls(new NullProgressMonitor())).getMethodCall());
+    }
+
+	@Test
+	public void acceptSearchesOnlyVisitedMembers() throws Exception {
+        helper.createSimpleClasses();
+
+        Set<IMember> searched= ConcurrentHashMap.newKeySet();
+        MethodWrapper root= new SearchRecordingWrapper(null, new MethodCall(helper.getMethod1()), searched);
+        root.accept(new CallHierarchyVisitor() {
+            @Override
+            public boolean visit(MethodWrapper methodWrapper) {
+                return !methodWrapper.getMember().equals(helper.getMethod3());
+            }
+        }, new NullProgressMonitor());
+
+        assertEquals(new HashSet<>(Arrays.asList(helper.getMethod1(), helper.getMethod2())), searched);
+    }
+
 	@Test
 	public void callersNoResults() throws Exception {
         helper.createSimpleClasses();
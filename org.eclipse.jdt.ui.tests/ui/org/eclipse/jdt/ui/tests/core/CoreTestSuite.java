@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020 IBM Corporation and others.
+ * Copyright (c) 2020, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -25,6 +25,8 @@ import org.eclipse.jdt.internal.ui.compare.JavaTokenComparatorTest;
 @Suite.SuiteClasses({
 AddImportTest.class,
 SourceActionTests.class,
+AdaptiveBatchSizeTest.class,
+ASTBatchParserTest.class,
 ASTNodesInsertTest.class,
 BindingsHierarchyTest.class,
 BindingsNameTest.class,
@@ -55,9 +57,12 @@ TypeHierarchyViewPartTest.class,
 TypeRulesTest.class,
 TypeInfoTest.class,
 StringsTest.class,
+SuperTypeHierarchyCacheTest.class,
+HierarchyChangeCollectorTest.class,
 IndentManipulationTest.class,
 SelectionHistoryTest.class,
 ASTProviderTest.class,
+RecentASTCacheTest.class,
 JDTFlagsTest18.class,
 JavaTokenComparatorTest.class,
 JavaIgnoreWhitespaceContributorTest.class,
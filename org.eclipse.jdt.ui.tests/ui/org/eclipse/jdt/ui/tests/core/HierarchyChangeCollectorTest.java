@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
+
+import org.eclipse.jdt.internal.ui.typehierarchy.HierarchyChangeCollector;
+
+/**
+ * Tests which changes of the Java model require a rebuild of a type hierarchy.
+ */
+public class HierarchyChangeCollectorTest {
+
+	@Rule
+	public ProjectTestSetup projectSetup= new ProjectTestSetup();
+
+	private IJavaProject fJProject1;
+
+	private IPackageFragment fPack;
+
+	private ICompilationUnit fUnitA;
+
+	private ICompilationUnit fUnitB;
+
+	private ICompilationUnit fUnitC;
+
+	private ICompilationUnit fUnitD;
+
+	private ICompilationUnit fWorkingCopy;
+
+	private final HierarchyChangeCollector fCollector= new HierarchyChangeCollector();
+
+	private final IElementChangedListener fListener= event -> fCollector.collect(event.getDelta());
+
+	@Before
+	public void setUp() throws Exception {
+		fJProject1= projectSetup.getProject();
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		fPack= sourceFolder.createPackageFragment("test1", false, null);
+		fUnitA= fPack.createCompilationUnit("A.java", "package test1;\npublic class A {\n}\n", false, null);
+		fUnitB= fPack.createCompilationUnit("B.java", "package test1;\npublic class B extends A {\n    void foo() {\n    }\n}\n", false, null);
+		fPack.createCompilationUnit("I.java", "package test1;\npublic interface I {\n}\n", false, null);
+		fUnitC= fPack.createCompilationUnit("C.java", "package test1;\npublic class C implements I {\n}\n", false, null);
+		fUnitD= fPack.createCompilationUnit("D.java", "package test1;\npublic class D {\n}\n", false, null);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		JavaCore.removeElementChangedListener(fListener);
+		if (fWorkingCopy != null)
+			fWorkingCopy.discardWorkingCopy();
+		JavaProjectHelper.clear(fJProject1, projectSetup.getDefaultClasspath());
+	}
+
+	private ITypeHierarchy createHierarchy(ICompilationUnit unit) throws Exception {
+		ITypeHierarchy hierarchy= unit.findPrimaryType().newTypeHierarchy(null);
+		fCollector.reset();
+		JavaCore.addElementChangedListener(fListener, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		return hierarchy;
+	}
+
+	private void change(ICompilationUnit unit, String contents) throws Exception {
+		fPack.createCompilationUnit(unit.getElementName(), contents, true, null);
+	}
+
+	private void reconcile(ICompilationUnit unit, String contents) throws Exception {
+		// the working copy is discarded in tearDown, the changes are checked against its contents
+		unit.becomeWorkingCopy(null);
+		fWorkingCopy= unit;
+		unit.getBuffer().setContents(contents);
+		unit.reconcile(ICompilationUnit.NO_AST, false, null, null);
+	}
+
+	@Test
+	public void bodyChangeKeepsHierarchy() throws Exception {
+		ITypeHierarchy hierarchy= createHierarchy(fUnitA);
+		change(fUnitB, "package test1;\npublic class B extends A {\n    void foo() {\n        int i= 1;\n    }\n    void bar() {\n    }\n}\n");
+		assertFalse(fCollector.isAffected(hierarchy, false));
+	}
+
+	@Test
+	public void reconciledBodyChangeKeepsHierarchy() throws Exception {
+		ITypeHierarchy hierarchy= createHierarchy(fUnitA);
+		reconcile(fUnitB, "package test1;\npublic class B extends A {\n    void foo() {\n        foo();\n    }\n}\n");
+		assertFalse(fCollector.isAffected(hierarchy, false));
+	}
+
+	@Test
+	public void superclassChangeRebuilds() throws Exception {
+		ITypeHierarchy hierarchy= createHierarchy(fUnitA);
+		change(fUnitB, "package test1;\npublic class B {\n    void foo() {\n    }\n}\n");
+		assertTrue(fCollector.isAffected(hierarchy, false));
+	}
+
+	@Test
+	public void reconciledSuperclassChangeRebuilds() throws Exception {
+		ITypeHierarchy hierarchy= createHierarchy(fUnitA);
+		reconcile(fUnitB, "package test1;\npublic class B extends D {\n    void foo() {\n    }\n}\n");
+		assertTrue(fCollector.isAffected(hierarchy, false));
+	}
+
+	@Test
+	public void interfaceChangeRebuilds() throws Exception {
+		ITypeHierarchy hierarchy= createHierarchy(fUnitC);
+		change(fUnitC, "package test1;\npublic class C {\n}\n");
+		assertTrue(fCollector.isAffected(hierarchy, false));
+	}
+
+	@Test
+	public void typeRemovalRebuilds() throws Exception {
+		ITypeHierarchy hierarchy= createHierarchy(fUnitA);
+		fUnitB.delete(true, null);
+		assertTrue(fCollector.isAffected(hierarchy, false));
+	}
+
+	@Test
+	public void newSubtypeInChangedUnitRebuilds() throws Exception {
+		ITypeHierarchy hierarchy= createHierarchy(fUnitA);
+		change(fUnitD, "package test1;\npublic class D {\n}\nclass E extends B {\n}\n");
+		assertTrue(fCollector.isAffected(hierarchy, false));
+	}
+
+	@Test
+	public void newTypeInChangedUnitKeepsHierarchy() throws Exception {
+		ITypeHierarchy hierarchy= createHierarchy(fUnitA);
+		change(fUnitD, "package test1;\npublic class D {\n}\nclass E implements I {\n}\n");
+		assertFalse(fCollector.isAffected(hierarchy, false));
+	}
+
+	@Test
+	public void rebuildIsKeptUntilReset() throws Exception {
+		ITypeHierarchy hierarchy= createHierarchy(fUnitA);
+		change(fUnitB, "package test1;\npublic class B {\n}\n");
+		assertTrue(fCollector.isAffected(hierarchy, false));
+		assertTrue(fCollector.isAffected(hierarchy, false));
+		fCollector.reset();
+		assertFalse(fCollector.isAffected(hierarchy, false));
+	}
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+
+import org.eclipse.jdt.internal.core.manipulation.RecentASTCache;
+
+import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
+
+/**
+ * Tests the cache of recently used ASTs of {@link CoreASTProvider}.
+ */
+public class RecentASTCacheTest {
+
+	@Rule
+	public ProjectTestSetup projectSetup= new ProjectTestSetup();
+
+	private IJavaProject fJProject1;
+
+	private IPackageFragment fPack;
+
+	private ICompilationUnit fCaller;
+
+	private ICompilationUnit fCallee;
+
+	@Before
+	public void setUp() throws Exception {
+		fJProject1= projectSetup.getProject();
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		fPack= sourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("    void foo(E2 e) {\n");
+		buf.append("        e.bar();\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		fCaller= fPack.createCompilationUnit("E1.java", buf.toString(), false, null);
+		buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class E2 {\n");
+		buf.append("    public void bar() {\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		fCallee= fPack.createCompilationUnit("E2.java", buf.toString(), false, null);
+		RecentASTCache.getDefault().clear();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		RecentASTCache.getDefault().clear();
+		JavaProjectHelper.clear(fJProject1, projectSetup.getDefaultClasspath());
+	}
+
+	private static CompilationUnit getAST(ICompilationUnit cu) {
+		CompilationUnit ast= CoreASTProvider.getInstance().getAST(cu, CoreASTProvider.WAIT_YES, null);
+		assertNotNull(ast);
+		return ast;
+	}
+
+	@Test
+	public void hit() throws Exception {
+		RecentASTCache cache= RecentASTCache.getDefault();
+		CompilationUnit ast= getAST(fCaller);
+		long hits= cache.getHitCount();
+		assertSame(ast, getAST(fCaller));
+		assertEquals(hits + 1, cache.getHitCount());
+	}
+
+	@Test
+	public void missAfterBufferChange() throws Exception {
+		fCaller.becomeWorkingCopy(null);
+		try {
+			CompilationUnit ast= getAST(fCaller);
+			long misses= RecentASTCache.getDefault().getMissCount();
+			// same length, so that only the stamp tells the sources apart
+			String contents= fCaller.getBuffer().getContents();
+			fCaller.getBuffer().replace(contents.indexOf("foo"), 3, "baz");
+			CompilationUnit changed= getAST(fCaller);
+			assertNotSame(ast, changed);
+			assertEquals(misses + 1, RecentASTCache.getDefault().getMissCount());
+			assertTrue(changed.toString(), changed.toString().contains("baz("));
+			assertSame(changed, getAST(fCaller));
+		} finally {
+			fCaller.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void bodyChangeInOtherUnitKeepsAST() throws Exception {
+		// becoming a working copy changes the Java model
+		fCallee.becomeWorkingCopy(null);
+		try {
+			CompilationUnit ast= getAST(fCaller);
+			String contents= fCallee.getBuffer().getContents();
+			fCallee.getBuffer().replace(contents.indexOf("    }"), 0, "        int i= 1;\n");
+			fCallee.reconcile(ICompilationUnit.NO_AST, false, null, null);
+			assertSame(ast, getAST(fCaller));
+		} finally {
+			fCallee.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void signatureChangeInOtherUnitInvalidates() throws Exception {
+		// becoming a working copy changes the Java model
+		fCallee.becomeWorkingCopy(null);
+		try {
+			CompilationUnit ast= getAST(fCaller);
+			String contents= fCallee.getBuffer().getContents();
+			fCallee.getBuffer().replace(contents.indexOf("void bar()"), 4, "int");
+			fCallee.reconcile(ICompilationUnit.NO_AST, false, null, null);
+			// the binding of e.bar() has changed
+			assertNotSame(ast, getAST(fCaller));
+		} finally {
+			fCallee.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void newMemberInOtherUnitInvalidates() throws Exception {
+		// becoming a working copy changes the Java model
+		fCallee.becomeWorkingCopy(null);
+		try {
+			CompilationUnit ast= getAST(fCaller);
+			String contents= fCallee.getBuffer().getContents();
+			fCallee.getBuffer().replace(contents.lastIndexOf('}'), 0, "    public void bar(int i) {\n    }\n");
+			fCallee.reconcile(ICompilationUnit.NO_AST, false, null, null);
+			assertNotSame(ast, getAST(fCaller));
+		} finally {
+			fCallee.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void javaModelChangeInvalidates() throws Exception {
+		CompilationUnit ast= getAST(fCaller);
+		fPack.createCompilationUnit("E3.java", "package test1;\npublic class E3 {\n}\n", false, null);
+		assertNotSame(ast, getAST(fCaller));
+	}
+}
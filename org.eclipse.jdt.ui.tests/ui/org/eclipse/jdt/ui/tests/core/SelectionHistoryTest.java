@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,12 +13,17 @@
  *******************************************************************************/
 package org.eclipse.jdt.ui.tests.core;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.text.Collator;
 import java.util.Arrays;
 import java.util.Comparator;
 
+import org.junit.After;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -26,6 +31,8 @@ import org.w3c.dom.Element;
 
 import org.eclipse.jdt.internal.corext.util.History;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
 
 public class SelectionHistoryTest {
@@ -124,6 +131,32 @@ public class SelectionHistoryTest {
 
 	}
 
+	private static final class PersistentTestHistory extends History<String, String> {
+
+		public PersistentTestHistory() {
+			super(HISTORY_FILE);
+			load();
+		}
+		@Override
+		protected void setAttributes(Object object, Element element) {
+			element.setAttribute("name", (String) object);
+		}
+		@Override
+		protected String createFromElement(Element type) {return type.getAttribute("name");}
+		@Override
+		protected String getKey(String object) {return object;}
+
+	}
+
+	private static final String HISTORY_FILE= "SelectionHistoryTest.xml";
+
+	@After
+	public void tearDown() throws Exception {
+		File stateLocation= JavaPlugin.getDefault().getStateLocation().toFile();
+		new File(stateLocation, HISTORY_FILE).delete();
+		new File(stateLocation, HISTORY_FILE + ".journal").delete();
+	}
+
 	@Test
 	public void organizeImportHistory01() throws Exception {
 		History<String, String> history= new TestHistory();
@@ -190,4 +223,61 @@ public class SelectionHistoryTest {
 		Arrays.sort(strings, comparator);
 		assertEquals(strings, expected);
 	}
+
+	@Test
+	public void persistedHistory() throws Exception {
+		History<String, String> history= new PersistentTestHistory();
+		history.accessed("a");
+		history.accessed("b");
+		history.accessed("c");
+		history.remove("b");
+		history.accessed("a");
+		history.flush();
+
+		History<String, String> loaded= new PersistentTestHistory();
+		assertFalse(loaded.containsKey("b"));
+		Assert.assertEquals(0, loaded.getPosition("c"));
+		Assert.assertEquals(1, loaded.getPosition("a"));
+	}
+
+	@Test
+	public void persistedHistoryCompacted() throws Exception {
+		History<String, String> history= new PersistentTestHistory();
+		for (int i= 0; i < 1000; i++) {
+			history.accessed(String.valueOf(i % 100));
+		}
+		history.flush();
+		File journal= new File(JavaPlugin.getDefault().getStateLocation().toFile(), HISTORY_FILE + ".journal");
+		long length= journal.length();
+		history.save();
+		assertTrue(journal.length() <= length);
+
+		History<String, String> loaded= new PersistentTestHistory();
+		for (int i= 0; i < 100; i++) {
+			String key= String.valueOf(i);
+			Assert.assertEquals(history.getPosition(key), loaded.getPosition(key));
+		}
+		assertFalse(loaded.containsKey("39"));
+		Assert.assertEquals(59, loaded.getPosition("99"));
+	}
+
+	@Test
+	public void persistedHistoryBuffered() throws Exception {
+		History<String, String> history= new PersistentTestHistory();
+		history.accessed("a");
+		history.flush();
+		File journal= new File(JavaPlugin.getDefault().getStateLocation().toFile(), HISTORY_FILE + ".journal");
+		long length= journal.length();
+		history.accessed("b");
+		history.accessed("c");
+		// written by a job later
+		Assert.assertEquals(length, journal.length());
+		assertFalse(new PersistentTestHistory().containsKey("b"));
+
+		history.flush();
+		assertTrue(journal.length() > length);
+		History<String, String> loaded= new PersistentTestHistory();
+		Assert.assertEquals(0, loaded.getPosition("a"));
+		Assert.assertEquals(2, loaded.getPosition("c"));
+	}
 }
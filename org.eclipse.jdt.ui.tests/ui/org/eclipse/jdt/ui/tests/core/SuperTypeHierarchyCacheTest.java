@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
+
+import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
+
+public class SuperTypeHierarchyCacheTest {
+
+	@Rule
+	public ProjectTestSetup projectSetup= new ProjectTestSetup();
+
+	private IJavaProject fJProject1;
+
+	private IPackageFragment fPack;
+
+	@Before
+	public void setUp() throws Exception {
+		fJProject1= projectSetup.getProject();
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		fPack= sourceFolder.createPackageFragment("test1", false, null);
+		SuperTypeHierarchyCache.clear();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		SuperTypeHierarchyCache.clear();
+		JavaProjectHelper.clear(fJProject1, projectSetup.getDefaultClasspath());
+	}
+
+	private IType createType(String name, String superclass) throws Exception {
+		String extendsClause= superclass != null ? " extends " + superclass : "";
+		String contents= "package test1;\npublic class " + name + extendsClause + " {\n}\n";
+		return fPack.createCompilationUnit(name + ".java", contents, true, null).getType(name);
+	}
+
+	@Test
+	public void hit() throws Exception {
+		IType type= createType("A", null);
+		int hits= SuperTypeHierarchyCache.getCacheHits();
+		ITypeHierarchy hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(type);
+		assertSame(hierarchy, SuperTypeHierarchyCache.getTypeHierarchy(type));
+		assertEquals(hits + 1, SuperTypeHierarchyCache.getCacheHits());
+	}
+
+	@Test
+	public void hierarchyOfSubtypeContainsSupertype() throws Exception {
+		IType a= createType("A", null);
+		IType b= createType("B", "A");
+		ITypeHierarchy hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(b);
+		assertTrue(SuperTypeHierarchyCache.hasInCache(a));
+		assertSame(hierarchy, SuperTypeHierarchyCache.getTypeHierarchy(a));
+	}
+
+	@Test
+	public void changedHierarchyIsRemoved() throws Exception {
+		IType a= createType("A", null);
+		IType b= createType("B", null);
+		ITypeHierarchy hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(b);
+		assertFalse(hierarchy.contains(a));
+
+		b= createType("B", "A");
+		assertFalse(SuperTypeHierarchyCache.hasInCache(b));
+		ITypeHierarchy changed= SuperTypeHierarchyCache.getTypeHierarchy(b);
+		assertNotSame(hierarchy, changed);
+		assertTrue(changed.contains(a));
+	}
+
+	@Test
+	public void removedTypeIsNotFound() throws Exception {
+		IType a= createType("A", null);
+		SuperTypeHierarchyCache.getTypeHierarchy(a);
+		a.getCompilationUnit().delete(true, null);
+		assertFalse(SuperTypeHierarchyCache.hasInCache(a));
+	}
+
+	@Test
+	public void hierarchyCountIsBounded() throws Exception {
+		int count= SuperTypeHierarchyCache.getMaxHierarchyCount() + 5;
+		IType[] types= new IType[count];
+		for (int i= 0; i < count; i++) {
+			types[i]= createType("C" + i, null);
+		}
+		for (IType type : types) {
+			SuperTypeHierarchyCache.getTypeHierarchy(type);
+		}
+		// the hierarchies are small, so only the number of hierarchies limits the cache
+		assertTrue(SuperTypeHierarchyCache.getWeight() < SuperTypeHierarchyCache.getCapacity());
+		assertEquals(SuperTypeHierarchyCache.getMaxHierarchyCount(), SuperTypeHierarchyCache.getHierarchyCount());
+		assertFalse(SuperTypeHierarchyCache.hasInCache(types[0]));
+		assertTrue(SuperTypeHierarchyCache.hasInCache(types[count - 1]));
+	}
+
+	@Test
+	public void weightIsBounded() throws Exception {
+		int capacity= SuperTypeHierarchyCache.getCapacity();
+		try {
+			SuperTypeHierarchyCache.setCapacity(5);
+			IType a= createType("A", null);
+			IType b= createType("B", null);
+			IType c= createType("C", null);
+			SuperTypeHierarchyCache.getTypeHierarchy(a);
+			SuperTypeHierarchyCache.getTypeHierarchy(b);
+			SuperTypeHierarchyCache.getTypeHierarchy(c);
+			assertTrue(String.valueOf(SuperTypeHierarchyCache.getWeight()), SuperTypeHierarchyCache.getWeight() <= 5);
+			assertFalse(SuperTypeHierarchyCache.hasInCache(a));
+			assertTrue(SuperTypeHierarchyCache.hasInCache(c));
+		} finally {
+			SuperTypeHierarchyCache.setCapacity(capacity);
+		}
+	}
+}
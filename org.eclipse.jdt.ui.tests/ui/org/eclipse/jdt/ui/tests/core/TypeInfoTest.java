@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -32,6 +32,7 @@ import org.eclipse.jdt.testplugin.JavaProjectHelper;
 import org.eclipse.jdt.testplugin.JavaTestPlugin;
 import org.eclipse.jdt.testplugin.StringAsserts;
 
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -50,6 +51,8 @@ import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
 
 import org.eclipse.jdt.internal.corext.util.TypeInfoFilter;
 
+import org.eclipse.jdt.internal.ui.dialogs.TypeNameMatchIndex;
+
 import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
 
 public class TypeInfoTest {
@@ -132,6 +135,55 @@ public class TypeInfoTest {
 
 	}
 
+	@Test
+	public void testTypeNameMatchIndex() throws Exception {
+		IPackageFragmentRoot root1= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		IPackageFragment pack1= root1.createPackageFragment("com.oti", true, null);
+		ICompilationUnit cu1= pack1.getCompilationUnit("V.java");
+		cu1.createType("public class V {\n static class VInner {\n}\n}\n", null, true, null);
+
+		NullProgressMonitor monitor= new NullProgressMonitor();
+		TypeNameMatchIndex index= TypeNameMatchIndex.getInstance();
+		try {
+			assertNotNull(index.update(monitor));
+
+			IJavaSearchScope scope= SearchEngine.createWorkspaceScope();
+			TypeInfoFilter filter= new TypeInfoFilter("VInn", scope, IJavaSearchConstants.TYPE, null);
+			ArrayList<TypeNameMatch> result= new ArrayList<>();
+			assertTrue(index.collect(filter, result::add, monitor));
+			findTypeRef(result, "com.oti.V.VInner");
+			assertEquals(1, result.size());
+
+			// types of new compilation units are found without rebuilding the index
+			ICompilationUnit cu2= pack1.getCompilationUnit("VInnest.java");
+			cu2.createType("public class VInnest {\n}\n", null, true, null);
+			result.clear();
+			assertTrue(index.collect(filter, result::add, monitor));
+			findTypeRef(result, "com.oti.VInnest");
+			assertEquals(2, result.size());
+
+			result.clear();
+			assertTrue(index.collect(new TypeInfoFilter("*Innest", scope, IJavaSearchConstants.TYPE, null), result::add, monitor));
+			findTypeRef(result, "com.oti.VInnest");
+			assertEquals(1, result.size());
+
+			cu2.delete(true, null);
+			result.clear();
+			assertTrue(index.collect(filter, result::add, monitor));
+			assertEquals(1, result.size());
+
+			// same matches as the search engine
+			result.clear();
+			assertTrue(index.collect(new TypeInfoFilter("Vec", scope, IJavaSearchConstants.TYPE, null), result::add, monitor));
+			ArrayList<TypeNameMatch> searched= new ArrayList<>();
+			new SearchEngine().searchAllTypeNames(null, 0, "Vec".toCharArray(), SearchPattern.R_PREFIX_MATCH, IJavaSearchConstants.TYPE, scope,
+					new TypeNameMatchCollector(searched), IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, null);
+			assertEquals(searched.size(), result.size());
+		} finally {
+			TypeNameMatchIndex.shutdown();
+		}
+	}
+
 	private void assertResolve(TypeNameMatch ref) {
 		IType resolvedType= ref.getType();
 		assertNotNull("Could not be resolved: " + ref.toString(), resolvedType);
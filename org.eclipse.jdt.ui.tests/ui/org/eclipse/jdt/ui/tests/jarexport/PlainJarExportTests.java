@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2020 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,17 +13,22 @@
  *******************************************************************************/
 package org.eclipse.jdt.ui.tests.jarexport;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -41,6 +46,8 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.ResourcesPlugin;
 
 import org.eclipse.ui.IWorkbenchWindow;
@@ -160,6 +167,45 @@ public class PlainJarExportTests {
 		assertEquals(expected.toString(), entries.toString());
 	}
 
+	@Test
+	public void exportManyResources() throws Exception {
+		IFolder folder= ((IFolder) fMainRoot.getResource()).getFolder("res");
+		folder.create(true, true, null);
+		List<byte[]> contents= new ArrayList<>();
+		// more files than are read in advance, and one that is too large to be read in advance
+		for (int i= 0; i < 300; i++) {
+			contents.add(("content of file " + i).getBytes());
+		}
+		byte[] large= new byte[1024 * 1024];
+		new Random(1).nextBytes(large);
+		contents.add(large);
+		for (int i= 0; i < contents.size(); i++) {
+			IFile file= folder.getFile("file" + i + ".txt");
+			file.create(new ByteArrayInputStream(contents.get(i)), true, null);
+		}
+
+		for (boolean compress : new boolean[] { false, true }) {
+			JarPackageData data= createJarPackageData();
+			data.setElements(new Object[] { folder });
+			data.setExportClassFiles(true);
+			data.setCompress(compress);
+
+			try (ZipFile jar= createArchive(data)) {
+				for (int i= 0; i < contents.size(); i++) {
+					ZipEntry entry= jar.getEntry("res/file" + i + ".txt");
+					assertNotNull(entry);
+					assertEquals(compress ? ZipEntry.DEFLATED : ZipEntry.STORED, entry.getMethod());
+					CRC32 crc= new CRC32();
+					crc.update(contents.get(i));
+					assertEquals(crc.getValue(), entry.getCrc());
+					try (InputStream in= jar.getInputStream(entry)) {
+						assertArrayEquals(contents.get(i), in.readAllBytes());
+					}
+				}
+			}
+		}
+	}
+
 	private JarPackageData createJarPackageData() {
 		JarPackageData data= new JarPackageData();
 		data.setJarLocation(ResourcesPlugin.getWorkspace().getRoot().getLocation().append(getName() + ".jar"));
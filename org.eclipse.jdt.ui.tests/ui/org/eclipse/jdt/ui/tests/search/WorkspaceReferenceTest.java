@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,12 +14,21 @@
 package org.eclipse.jdt.ui.tests.search;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Rule;
 import org.junit.Test;
 
+import org.eclipse.search.ui.text.Match;
+
 import org.eclipse.jdt.ui.tests.core.rules.JUnitSourceSetup;
 
+import org.eclipse.jdt.internal.ui.search.JavaSearchQuery;
+import org.eclipse.jdt.internal.ui.search.JavaSearchResult;
+
 public class WorkspaceReferenceTest {
 
 	@Rule
@@ -34,4 +43,58 @@ public class WorkspaceReferenceTest {
 	public void testFindOverridden() throws Exception {
 		assertEquals(6, SearchTestHelper.countMethodRefs("junit.framework.TestCase", "countTestCases", new String[0]));
 	}
+
+	@Test
+	public void testMatchesShareElement() throws Exception {
+		JavaSearchQuery query= SearchTestHelper.runTypeRefQuery("junit.framework.Test");
+		JavaSearchResult result= (JavaSearchResult) query.getSearchResult();
+		assertTrue(result.getMatchCount() > 0);
+		for (Object element : result.getElements()) {
+			for (Match match : result.getMatches(element)) {
+				assertSame(element, match.getElement());
+			}
+		}
+	}
+
+	@Test
+	public void testMatchesAreViewsOfResult() throws Exception {
+		JavaSearchQuery query= SearchTestHelper.runTypeRefQuery("junit.framework.Test");
+		JavaSearchResult result= (JavaSearchResult) query.getSearchResult();
+		int count= 0;
+		for (Object element : result.getElements()) {
+			Match[] matches= result.getMatches(element);
+			assertEquals(matches.length, result.getMatchCount(element));
+			for (int i= 1; i < matches.length; i++) {
+				assertTrue(matches[i - 1].getOffset() <= matches[i].getOffset());
+			}
+			count+= matches.length;
+		}
+		assertEquals(result.getMatchCount(), count);
+
+		Object element= result.getElements()[0];
+		Match match= result.getMatches(element)[0];
+		Match other= result.getMatches(element)[0];
+		assertNotSame(match, other);
+		assertEquals(match, other);
+		assertEquals(match.hashCode(), other.hashCode());
+
+		match.setOffset(match.getOffset() + 1);
+		match.setFiltered(true);
+		assertEquals(match.getOffset(), other.getOffset());
+		assertTrue(other.isFiltered());
+
+		int elementCount= result.getMatchCount(element);
+		result.removeMatch(other);
+		assertEquals(count - 1, result.getMatchCount());
+		assertEquals(elementCount - 1, result.getMatchCount(element));
+		for (Match remaining : result.getMatches(element)) {
+			assertFalse(remaining.equals(match));
+		}
+		result.removeMatch(match);
+		assertEquals(count - 1, result.getMatchCount());
+
+		result.removeAll();
+		assertEquals(0, result.getMatchCount());
+		assertEquals(0, result.getElements().length);
+	}
 }
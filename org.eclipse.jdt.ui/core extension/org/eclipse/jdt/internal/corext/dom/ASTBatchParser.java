@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,9 +18,17 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
@@ -34,20 +42,104 @@ import org.eclipse.jdt.internal.ui.util.Progress;
  * Creates AST from a set of compilation units. Uses the
  * batch parser. Splits the set of compilation units in subsets
  * such that it is unlikely that a out of memory exception will occur.
+ * The size of the subsets adapts to the observed heap usage, see {@link AdaptiveBatchSize}.
  *
  * @since 3.4
  */
 public class ASTBatchParser {
 
-	private static final int MAX_AT_ONCE;
-	static {
-		long maxMemory= Runtime.getRuntime().maxMemory() / (1 << 20); // in MiB
+	/**
+	 * Resources consumed by the batches of an {@link ASTBatchParser}.
+	 */
+	public static final class Metrics {
+		private int fUnits;
+		private int fBatches;
+		private long fElapsedNanos;
+		private long fPeakRetainedBytes;
+		private long fGCMillis;
+
+		synchronized void record(int units, long elapsedNanos, long retainedBytes, long gcMillis) {
+			fUnits+= units;
+			fBatches++;
+			fElapsedNanos+= elapsedNanos;
+			fPeakRetainedBytes= Math.max(fPeakRetainedBytes, retainedBytes);
+			fGCMillis+= gcMillis;
+		}
+
+		/**
+		 * @return the number of parsed compilation units
+		 */
+		public synchronized int getUnits() {
+			return fUnits;
+		}
+
+		/**
+		 * @return the number of batches
+		 */
+		public synchronized int getBatches() {
+			return fBatches;
+		}
+
+		/**
+		 * @return the number of compilation units parsed per second over all batches
+		 */
+		public synchronized double getUnitsPerSecond() {
+			return fElapsedNanos == 0 ? 0 : fUnits * 1e9 / fElapsedNanos;
+		}
 
-		if      (maxMemory >= 2000) MAX_AT_ONCE= 400;
-		else if (maxMemory >= 1500) MAX_AT_ONCE= 300;
-		else if (maxMemory >= 1000) MAX_AT_ONCE= 200;
-		else if (maxMemory >=  500) MAX_AT_ONCE= 100;
-		else                        MAX_AT_ONCE=  25;
+		/**
+		 * @return the largest heap growth during a batch in bytes. This is an approximation of
+		 *         the memory retained by a batch, since it includes garbage that has not been
+		 *         collected yet.
+		 */
+		public synchronized long getPeakRetainedBytes() {
+			return fPeakRetainedBytes;
+		}
+
+		/**
+		 * @return the time spent in garbage collection during the batches in milliseconds
+		 */
+		public synchronized long getGCMillis() {
+			return fGCMillis;
+		}
+
+		@Override
+		public synchronized String toString() {
+			return "units=" + fUnits + ", batches=" + fBatches + ", units/s=" + Math.round(getUnitsPerSecond()) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ ", peak retained=" + (fPeakRetainedBytes >> 20) + "MiB, GC=" + fGCMillis + "ms"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	private final Metrics fMetrics= new Metrics();
+
+	/**
+	 * Minimal number of compilation units parsed by one worker, smaller sets are not worth the
+	 * overhead of an additional parser.
+	 */
+	private static final int MIN_AT_ONCE_PER_WORKER= 25;
+
+	/**
+	 * Memory in MiB that should be available for each concurrently running parser.
+	 */
+	private static final int MEMORY_PER_WORKER= 1000;
+
+	/**
+	 * Upper bound for the number of concurrently running parsers, <code>1</code> disables
+	 * concurrent parsing.
+	 */
+	private static final int PARALLELISM= Integer.getInteger("org.eclipse.jdt.ui.astBatchParserParallelism", Integer.MAX_VALUE).intValue(); //$NON-NLS-1$
+
+	/**
+	 * Returns the number of parsers that can run concurrently without risking an out of
+	 * memory exception, bounded by the number of available processors and by the system
+	 * property <code>org.eclipse.jdt.ui.astBatchParserParallelism</code>.
+	 *
+	 * @return the maximal number of worker threads, at least 1
+	 */
+	public static int getMaxParallelism() {
+		long maxMemory= Runtime.getRuntime().maxMemory() / (1 << 20); // in MiB
+		int byMemory= (int) Math.min(Integer.MAX_VALUE, maxMemory / MEMORY_PER_WORKER);
+		return Math.max(1, Math.min(PARALLELISM, Math.min(Runtime.getRuntime().availableProcessors(), byMemory)));
 	}
 
 	/**
@@ -79,27 +171,181 @@ public class ASTBatchParser {
 		try {
 
 			for (ICompilationUnit[] units : splitByProject(compilationUnits)) {
-				if (units.length <= MAX_AT_ONCE) {
-					createParser(units[0].getJavaProject()).createASTs(units, bindingKeys, requestor, Progress.subMonitor(monitor, units.length));
-				} else {
-					List<ICompilationUnit> list= Arrays.asList(units);
-					int end= 0;
-					int cursor= 0;
-					while (cursor < units.length) {
-						end= Math.min(end + MAX_AT_ONCE, units.length);
-						List<ICompilationUnit> toParse= list.subList(cursor, end);
-
-						createParser(units[0].getJavaProject()).createASTs(toParse.toArray(new ICompilationUnit[toParse.size()]), bindingKeys, requestor,
-							Progress.subMonitor(monitor, toParse.size()));
-						cursor= end;
+				int cursor= 0;
+				while (cursor < units.length) {
+					// the batch size is adapted after each batch
+					int end= Math.min(cursor + AdaptiveBatchSize.get(), units.length);
+					ICompilationUnit[] toParse= cursor == 0 && end == units.length ? units : Arrays.copyOfRange(units, cursor, end);
+					parseBatch(toParse, bindingKeys, requestor, Progress.subMonitor(monitor, toParse.length));
+					cursor= end;
+				}
+			}
+		} finally {
+			monitor.done();
+		}
+	}
+
+	/**
+	 * Creates ASTs for each compilation unit in <code>units</code> using up to
+	 * <code>maxThreads</code> worker threads.
+	 * <p>
+	 * The compilation units are split into batches, and the compilation units of each batch
+	 * into chunks per project, which are parsed concurrently. The batch size is adapted after
+	 * each batch, see {@link AdaptiveBatchSize}. <code>ASTRequestor.acceptAST</code> is called
+	 * in no particular order and from the worker threads, so <code>requestor</code> must be
+	 * thread-safe. {@link #createParser(IJavaProject)} is called from the worker threads as well.
+	 * The workers report no progress, the progress is reported by {@link #chunkParsed(ICompilationUnit[], IProgressMonitor)}
+	 * on the calling thread.
+	 * </p>
+	 * <p>
+	 * The first exception thrown by a worker cancels the remaining workers and is rethrown.
+	 * </p>
+	 *
+	 * @param compilationUnits the compilation units to create ASTs for
+	 * @param bindingKeys the binding keys to create bindings for
+	 * @param requestor the thread-safe AST requestor that collects abstract syntax trees and bindings
+	 * @param maxThreads the maximal number of worker threads, see {@link #getMaxParallelism()}
+	 * @param monitor the progress monitor used to report progress and request cancelation,
+	 *   or <code>null</code> if none
+	 * @throws OperationCanceledException if the monitor has been canceled
+	 */
+	public final void createASTs(ICompilationUnit[] compilationUnits, String[] bindingKeys, ASTRequestor requestor, int maxThreads, IProgressMonitor monitor) {
+		if (maxThreads <= 1 || compilationUnits.length <= MIN_AT_ONCE_PER_WORKER) {
+			createASTs(compilationUnits, bindingKeys, requestor, monitor);
+			return;
+		}
+
+		if (monitor == null)
+			monitor= new NullProgressMonitor();
+		final IProgressMonitor parentMonitor= monitor;
+		final AtomicBoolean aborted= new AtomicBoolean();
+		IProgressMonitor workerMonitor= new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return aborted.get() || parentMonitor.isCanceled();
+			}
+		};
+
+		monitor.beginTask("", compilationUnits.length); //$NON-NLS-1$
+		int threads= Math.min(maxThreads, (compilationUnits.length + MIN_AT_ONCE_PER_WORKER - 1) / MIN_AT_ONCE_PER_WORKER);
+		ExecutorService executor= Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread= new Thread(runnable, "AST Batch Parser"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			ICompilationUnit[][] projects= splitByProject(compilationUnits);
+			int project= 0;
+			int cursor= 0;
+			while (project < projects.length) {
+				// one batch at a time, so that the batch size bounds the memory used by all workers
+				int batchSize= AdaptiveBatchSize.get();
+				int chunkSize= Math.max(MIN_AT_ONCE_PER_WORKER, (batchSize + maxThreads - 1) / maxThreads);
+				List<ICompilationUnit[]> chunks= new ArrayList<>();
+				int batchUnits= 0;
+				while (project < projects.length && batchUnits < batchSize) {
+					ICompilationUnit[] units= projects[project];
+					int end= Math.min(cursor + Math.min(chunkSize, batchSize - batchUnits), units.length);
+					chunks.add(Arrays.copyOfRange(units, cursor, end));
+					batchUnits+= end - cursor;
+					cursor= end;
+					if (cursor == units.length) {
+						project++;
+						cursor= 0;
 					}
 				}
+				parseChunks(chunks, batchUnits, bindingKeys, requestor, executor, monitor, workerMonitor, aborted);
 			}
 		} finally {
+			aborted.set(true);
+			executor.shutdown();
+			try {
+				// don't call the requestor after returning, workers stop at their next cancelation check
+				while (!executor.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+					// wait
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
 			monitor.done();
 		}
 	}
 
+	/**
+	 * Returns the resources consumed by the batches of this parser so far.
+	 *
+	 * @return the metrics of this parser
+	 */
+	public final Metrics getMetrics() {
+		return fMetrics;
+	}
+
+	private void parseBatch(ICompilationUnit[] units, String[] bindingKeys, ASTRequestor requestor, IProgressMonitor monitor) {
+		long[] start= AdaptiveBatchSize.batchStarted();
+		createParser(units[0].getJavaProject()).createASTs(units, bindingKeys, requestor, monitor);
+		AdaptiveBatchSize.batchDone(start, units.length, fMetrics);
+	}
+
+	private void parseChunks(List<ICompilationUnit[]> chunks, int batchUnits, String[] bindingKeys, ASTRequestor requestor, ExecutorService executor,
+			IProgressMonitor monitor, IProgressMonitor workerMonitor, AtomicBoolean aborted) {
+		// the chunks form a single batch, adapt the batch size once for all workers
+		long[] start= AdaptiveBatchSize.batchStarted();
+		List<Future<?>> futures= new ArrayList<>(chunks.size());
+		for (ICompilationUnit[] chunk : chunks) {
+			futures.add(executor.submit(() -> {
+				if (!workerMonitor.isCanceled())
+					createParser(chunk[0].getJavaProject()).createASTs(chunk, bindingKeys, requestor, workerMonitor);
+			}));
+		}
+		for (int i= 0; i < futures.size(); i++) {
+			waitFor(futures.get(i), monitor, aborted);
+			chunkParsed(chunks.get(i), monitor);
+		}
+		AdaptiveBatchSize.batchDone(start, batchUnits, fMetrics);
+	}
+
+	private static void waitFor(Future<?> future, IProgressMonitor monitor, AtomicBoolean aborted) {
+		while (true) {
+			if (monitor.isCanceled()) {
+				aborted.set(true);
+				throw new OperationCanceledException();
+			}
+			try {
+				future.get(100, TimeUnit.MILLISECONDS);
+				return;
+			} catch (TimeoutException e) {
+				// check for cancelation
+			} catch (InterruptedException e) {
+				aborted.set(true);
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				aborted.set(true);
+				Throwable cause= e.getCause();
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+	/**
+	 * Called on the thread calling {@link #createASTs(ICompilationUnit[], String[], ASTRequestor, int, IProgressMonitor)}
+	 * when a chunk of compilation units has been parsed concurrently and its ASTs have been
+	 * accepted. The default implementation reports the compilation units of the chunk as worked.
+	 * <p>
+	 * Subclasses may override
+	 * </p>
+	 *
+	 * @param chunk the parsed compilation units
+	 * @param monitor the progress monitor passed to <code>createASTs</code>
+	 */
+	protected void chunkParsed(ICompilationUnit[] chunk, IProgressMonitor monitor) {
+		monitor.worked(chunk.length);
+	}
+
 	/**
 	 * Creates a new parser which can be used to create ASTs
 	 * for compilation units in <code>project</code>
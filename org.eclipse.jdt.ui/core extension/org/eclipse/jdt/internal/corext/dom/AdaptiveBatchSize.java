@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.dom;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+
+/**
+ * The number of compilation units the {@link ASTBatchParser} parses at once.
+ * <p>
+ * The batch size starts at a value based on the maximal heap size and is adapted after each
+ * batch to the observed heap pressure, the time spent in garbage collection, the heap retained
+ * per compilation unit, and the time needed per compilation unit (which is dominated by binding
+ * resolution). The batch size is shared by all parsers, since they share the heap. Concurrent
+ * parsers split a batch among their workers, so that the batch size bounds the number of
+ * compilation units parsed at once in both cases.
+ * </p>
+ */
+public final class AdaptiveBatchSize {
+
+	/**
+	 * Smallest batch size.
+	 */
+	public static final int MIN_AT_ONCE= 25;
+
+	/**
+	 * Largest batch size.
+	 */
+	public static final int MAX_AT_ONCE= 2000;
+
+	/**
+	 * Heap usage after a batch (in percent of the maximal heap size) above which the batch size
+	 * is reduced.
+	 */
+	private static final int HIGH_PRESSURE_PERCENT= 80;
+
+	/**
+	 * Heap usage after a batch (in percent of the maximal heap size) below which the batch size
+	 * may grow.
+	 */
+	private static final int LOW_PRESSURE_PERCENT= 50;
+
+	/**
+	 * Part of the heap a batch may retain, in percent of the maximal heap size.
+	 */
+	private static final int TARGET_PRESSURE_PERCENT= 60;
+
+	/**
+	 * Time spent in garbage collection during a batch (in percent of the batch time) above
+	 * which the batch size is reduced.
+	 */
+	private static final int HIGH_GC_PERCENT= 25;
+
+	/**
+	 * Time spent in garbage collection during a batch (in percent of the batch time) below
+	 * which the batch size may grow.
+	 */
+	private static final int LOW_GC_PERCENT= 5;
+
+	/**
+	 * Batches should not take longer than this, so that the ASTs of expensive compilation units
+	 * are not retained for too long.
+	 */
+	private static final long TARGET_BATCH_MILLIS= 30_000;
+
+	private static final MemoryMXBean MEMORY= ManagementFactory.getMemoryMXBean();
+
+	private static final List<GarbageCollectorMXBean> COLLECTORS= ManagementFactory.getGarbageCollectorMXBeans();
+
+	private static int fgBatchSize= getInitialBatchSize();
+
+	/**
+	 * Smoothed heap retained per compilation unit in bytes, or 0 if unknown.
+	 */
+	private static double fgBytesPerUnit;
+
+	/**
+	 * Smoothed time per compilation unit in milliseconds, or 0 if unknown.
+	 */
+	private static double fgMillisPerUnit;
+
+	private AdaptiveBatchSize() {
+	}
+
+	private static int getInitialBatchSize() {
+		long maxMemory= Runtime.getRuntime().maxMemory() / (1 << 20); // in MiB
+
+		if      (maxMemory >= 2000) return 400;
+		else if (maxMemory >= 1500) return 300;
+		else if (maxMemory >= 1000) return 200;
+		else if (maxMemory >=  500) return 100;
+		else                        return  25;
+	}
+
+	/**
+	 * @return the number of compilation units to parse at once
+	 */
+	static synchronized int get() {
+		return fgBatchSize;
+	}
+
+	/**
+	 * Samples the heap and garbage collection state before a batch.
+	 *
+	 * @return the sample to pass to {@link #batchDone(long[], int, ASTBatchParser.Metrics)}
+	 */
+	static long[] batchStarted() {
+		return new long[] { System.nanoTime(), MEMORY.getHeapMemoryUsage().getUsed(), getCollectionTime() };
+	}
+
+	/**
+	 * Adapts the batch size to the resources consumed by a batch and records them in the
+	 * given metrics.
+	 *
+	 * @param start the sample taken before the batch
+	 * @param units the number of compilation units in the batch
+	 * @param metrics the metrics to update
+	 */
+	static void batchDone(long[] start, int units, ASTBatchParser.Metrics metrics) {
+		long elapsedNanos= System.nanoTime() - start[0];
+		long used= MEMORY.getHeapMemoryUsage().getUsed();
+		long retained= Math.max(0, used - start[1]);
+		long gcMillis= Math.max(0, getCollectionTime() - start[2]);
+		metrics.record(units, elapsedNanos, retained, gcMillis);
+		if (units > 0)
+			adapt(units, elapsedNanos / 1_000_000, used, retained, gcMillis);
+	}
+
+	private static synchronized void adapt(int units, long elapsedMillis, long used, long retained, long gcMillis) {
+		fgBytesPerUnit= smooth(fgBytesPerUnit, (double) retained / units);
+		fgMillisPerUnit= smooth(fgMillisPerUnit, (double) elapsedMillis / units);
+		fgBatchSize= computeBatchSize(fgBatchSize, units, elapsedMillis, used, retained, gcMillis, Runtime.getRuntime().maxMemory(), fgBytesPerUnit, fgMillisPerUnit);
+	}
+
+	/**
+	 * Computes the batch size after a batch from the resources it consumed.
+	 *
+	 * @param size the batch size before the batch
+	 * @param units the number of compilation units in the batch
+	 * @param elapsedMillis the time needed for the batch in milliseconds
+	 * @param used the used heap after the batch in bytes
+	 * @param retained the heap growth during the batch in bytes
+	 * @param gcMillis the time spent in garbage collection during the batch in milliseconds
+	 * @param maxHeap the maximal heap size in bytes
+	 * @param bytesPerUnit the smoothed heap retained per compilation unit in bytes, or 0 if unknown
+	 * @param millisPerUnit the smoothed time per compilation unit in milliseconds, or 0 if unknown
+	 * @return the batch size for the next batch
+	 */
+	public static int computeBatchSize(int size, int units, long elapsedMillis, long used, long retained, long gcMillis, long maxHeap, double bytesPerUnit, double millisPerUnit) {
+		long pressurePercent= maxHeap > 0 ? used * 100 / maxHeap : 0;
+		long gcPercent= elapsedMillis > 0 ? gcMillis * 100 / elapsedMillis : 0;
+
+		int result= size;
+		if (pressurePercent > HIGH_PRESSURE_PERCENT || gcPercent > HIGH_GC_PERCENT) {
+			result= size / 2;
+		} else if (pressurePercent < LOW_PRESSURE_PERCENT && gcPercent < LOW_GC_PERCENT && units >= size) {
+			// only grow if the batch was full, otherwise the measurement says little about larger batches
+			result= size + size / 2;
+			if (bytesPerUnit > 0) {
+				long headroom= maxHeap / 100 * TARGET_PRESSURE_PERCENT - (used - retained);
+				result= (int) Math.min(result, Math.max(0, headroom) / bytesPerUnit);
+			}
+			if (millisPerUnit > 0)
+				result= (int) Math.min(result, TARGET_BATCH_MILLIS / millisPerUnit);
+			result= Math.max(result, size);
+		}
+		return Math.max(MIN_AT_ONCE, Math.min(MAX_AT_ONCE, result));
+	}
+
+	private static double smooth(double average, double value) {
+		return average == 0 ? value : 0.7 * average + 0.3 * value;
+	}
+
+	private static long getCollectionTime() {
+		long result= 0;
+		for (GarbageCollectorMXBean collector : COLLECTORS) {
+			long time= collector.getCollectionTime();
+			if (time > 0)
+				result+= time;
+		}
+		return result;
+	}
+}
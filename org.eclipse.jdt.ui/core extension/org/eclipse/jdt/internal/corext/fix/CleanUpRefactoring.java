@@ -14,6 +14,7 @@
 package org.eclipse.jdt.internal.corext.fix;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
@@ -218,24 +219,33 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		}
 
 		@Override
-		public void internalWorked(double work) {
+		public synchronized void internalWorked(double work) {
 			fRealWork+= work;
 		}
 
-		public void flush() {
+		public synchronized void flush() {
 			super.internalWorked(fRealWork);
 			reset();
 			fFlushCount++;
 		}
 
-		public void reset() {
+		public synchronized void reset() {
 			fRealWork= 0.0;
 		}
 
+		/**
+		 * Reports a compilation unit whose AST has been parsed and accepted on a worker thread,
+		 * the work of which has not been reported to this monitor.
+		 */
+		public synchronized void accepted() {
+			super.internalWorked(1);
+			fFlushCount++;
+		}
+
 		@Override
 		public void done() {}
 
-		public int getIndex() {
+		public synchronized int getIndex() {
 			return fIndex + fFlushCount;
 		}
 
@@ -245,17 +255,31 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		}
 	}
 
+	/**
+	 * Calculates the solutions for the accepted ASTs. The requestor is thread-safe, ASTs may be
+	 * accepted concurrently, but the clean ups are executed for one AST at a time.
+	 * <p>
+	 * Only the thread which created the requestor reports progress. The compilation units
+	 * accepted on other threads are reported by {@link #reportAccepted()}.
+	 * </p>
+	 */
 	private static class CleanUpASTRequestor extends ASTRequestor {
 
-		private final List<ParseListElement> fUndoneElements;
+		private final List<ParseListElement> fParseList;
+		private final HashMap<ParseListElement, ParseListElement> fUndoneElements; // map from parse list element to its undone clean ups
 		private final Hashtable<ICompilationUnit, List<CleanUpChange>> fSolutions;
 		private final Hashtable<ICompilationUnit, ParseListElement> fCompilationUnitParseElementMap;
 		private final CleanUpRefactoringProgressMonitor fMonitor;
+		private final Thread fReportingThread;
+		private final List<ICompilationUnit> fUnreported;
 
 		public CleanUpASTRequestor(List<ParseListElement> parseList, Hashtable<ICompilationUnit, List<CleanUpChange>> solutions, CleanUpRefactoringProgressMonitor monitor) {
+			fParseList= parseList;
 			fSolutions= solutions;
 			fMonitor= monitor;
-			fUndoneElements= new ArrayList<>();
+			fReportingThread= Thread.currentThread();
+			fUnreported= new ArrayList<>();
+			fUndoneElements= new HashMap<>();
 			fCompilationUnitParseElementMap= new Hashtable<>(parseList.size());
 			for (ParseListElement element : parseList) {
 				fCompilationUnitParseElementMap.put(element.getTarget().getCompilationUnit(), element);
@@ -263,9 +287,10 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		}
 
 		@Override
-		public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
-
-			fMonitor.subTask(fMonitor.getSubTaskMessage(source));
+		public synchronized void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+			boolean report= Thread.currentThread() == fReportingThread;
+			if (report)
+				fMonitor.subTask(fMonitor.getSubTaskMessage(source));
 
 			ICompilationUnit primary= (ICompilationUnit)source.getPrimaryElement();
 			ParseListElement element= fCompilationUnitParseElementMap.get(primary);
@@ -280,19 +305,57 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 			ICleanUp[] rejectedCleanUps= calculateSolutions(context, element.getCleanUps());
 
 			if (rejectedCleanUps.length > 0) {
-				fUndoneElements.add(new ParseListElement(target, rejectedCleanUps));
+				fUndoneElements.put(element, new ParseListElement(target, rejectedCleanUps));
+			}
+			if (!report) {
+				fUnreported.add(primary);
+			} else if (rejectedCleanUps.length > 0) {
 				fMonitor.reset();
 			} else {
 				fMonitor.flush();
 			}
 		}
 
+		/**
+		 * Reports the progress of the compilation units accepted on other threads. Must be called
+		 * by the thread which created the requestor.
+		 */
+		public void reportAccepted() {
+			List<ICompilationUnit> unreported;
+			synchronized (this) {
+				if (fUnreported.isEmpty())
+					return;
+				unreported= new ArrayList<>(fUnreported);
+				fUnreported.clear();
+			}
+			for (ICompilationUnit unit : unreported) {
+				fMonitor.subTask(fMonitor.getSubTaskMessage(unit));
+				// like reset(), no progress for compilation units which are cleaned up again
+				if (!isUndone(unit))
+					fMonitor.accepted();
+			}
+		}
+
+		private synchronized boolean isUndone(ICompilationUnit primary) {
+			return fUndoneElements.containsKey(fCompilationUnitParseElementMap.get(primary));
+		}
+
 		public void acceptSource(ICompilationUnit source) {
 			acceptAST(source, null);
 		}
 
-		public List<ParseListElement> getUndoneElements() {
-			return fUndoneElements;
+		/**
+		 * @return the elements with undone clean ups, in the order of the parse list, independent
+		 *         of the order in which the ASTs have been accepted
+		 */
+		public synchronized List<ParseListElement> getUndoneElements() {
+			List<ParseListElement> result= new ArrayList<>(fUndoneElements.size());
+			for (ParseListElement element : fParseList) {
+				ParseListElement undone= fUndoneElements.get(element);
+				if (undone != null)
+					result.add(undone);
+			}
+			return result;
 		}
 
 		private ICleanUp[] calculateSolutions(CleanUpContext context, ICleanUp[] cleanUps) {
@@ -326,6 +389,7 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 	private class CleanUpFixpointIterator {
 
 		private List<ParseListElement> fParseList;
+		private final CleanUpTarget[] fTargets;
 		private final Hashtable<ICompilationUnit, List<CleanUpChange>> fSolutions;
 		private final Hashtable<ICompilationUnit, ICompilationUnit> fWorkingCopies; // map from primary to working copy
 		private final Map<String, String> fCleanUpOptions;
@@ -333,6 +397,7 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		private int fIndex;
 
 		public CleanUpFixpointIterator(CleanUpTarget[] targets, ICleanUp[] cleanUps) {
+			fTargets= targets;
 			fSolutions= new Hashtable<>(targets.length);
 			fWorkingCopies= new Hashtable<>();
 
@@ -394,13 +459,20 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 							result.setCompilerOptions(options);
 							return result;
 						}
+
+						@Override
+						protected void chunkParsed(ICompilationUnit[] chunk, IProgressMonitor progressMonitor) {
+							// the workers do not report progress, the requestor reports the accepted units
+							requestor.reportAccepted();
+						}
 					};
 					try {
 						ICompilationUnit[] units= parseList.toArray(new ICompilationUnit[parseList.size()]);
-						parser.createASTs(units, new String[0], requestor, cuMonitor);
+						parser.createASTs(units, new String[0], requestor, fMaxThreads, cuMonitor);
 					} catch (FixCalculationException e) {
 						throw e.getException();
 					}
+					requestor.reportAccepted();
 				}
 
 				for (ICompilationUnit cu : sourceList) {
@@ -439,10 +511,19 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		}
 
 		public Change[] getResult() {
+			// report the changes in the order of the targets, independent of the order in which they have been calculated
+			HashMap<ICompilationUnit, Integer> order= new HashMap<>(fTargets.length);
+			for (int i= 0; i < fTargets.length; i++) {
+				order.putIfAbsent(fTargets[i].getCompilationUnit().getPrimary(), Integer.valueOf(i));
+			}
+			List<Entry<ICompilationUnit, List<CleanUpChange>>> entries= new ArrayList<>(fSolutions.entrySet());
+			entries.sort((e1, e2) -> Integer.compare(
+					order.getOrDefault(e1.getKey(), Integer.valueOf(Integer.MAX_VALUE)).intValue(),
+					order.getOrDefault(e2.getKey(), Integer.valueOf(Integer.MAX_VALUE)).intValue()));
 
-			Change[] result= new Change[fSolutions.size()];
+			Change[] result= new Change[entries.size()];
 			int i=0;
-			for (Entry<ICompilationUnit, List<CleanUpChange>> entry : fSolutions.entrySet()) {
+			for (Entry<ICompilationUnit, List<CleanUpChange>> entry : entries) {
 				List<CleanUpChange> changes= entry.getValue();
 				ICompilationUnit unit= entry.getKey();
 
@@ -510,6 +591,11 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 
 	private boolean fUseOptionsFromProfile;
 
+	/**
+	 * Maximal number of threads used to parse the compilation units of a project
+	 */
+	private int fMaxThreads;
+
 	public CleanUpRefactoring() {
 		this(FixMessages.CleanUpRefactoring_Refactoring_name);
 	}
@@ -519,12 +605,25 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		fCleanUps= new ArrayList<>();
 		fProjects= new Hashtable<>();
 		fUseOptionsFromProfile= false;
+		fMaxThreads= ASTBatchParser.getMaxParallelism();
 	}
 
 	public void setUseOptionsFromProfile(boolean enabled) {
 		fUseOptionsFromProfile= enabled;
 	}
 
+	/**
+	 * Sets the maximal number of threads used to parse the compilation units of a project. The
+	 * clean ups are still executed for one compilation unit at a time. The default is
+	 * {@link ASTBatchParser#getMaxParallelism()}.
+	 *
+	 * @param maxThreads the maximal number of threads, <code>1</code> to parse on the calling
+	 *            thread only
+	 */
+	public void setMaxThreads(int maxThreads) {
+		fMaxThreads= Math.max(1, maxThreads);
+	}
+
 	public void addCompilationUnit(ICompilationUnit unit) {
 		addCleanUpTarget(new CleanUpTarget(unit));
 	}
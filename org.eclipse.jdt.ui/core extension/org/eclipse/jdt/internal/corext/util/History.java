@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,28 +13,30 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.util;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Collection;
-import java.util.Hashtable;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactoryConfigurationError;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -42,12 +44,14 @@ import org.xml.sax.helpers.DefaultHandler;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.jdt.internal.core.manipulation.util.BasicElementLabels;
 import org.eclipse.jdt.internal.corext.CorextMessages;
@@ -62,7 +66,13 @@ import org.eclipse.jdt.internal.ui.util.XmlProcessorFactoryJdtUi;
  * MAX_HISTORY_SIZE. If the list exceeds this size the eldest element is removed
  * from the list. An element can be added/renewed with a call to <code>accessed(Object)</code>.
  *
- * The history can be stored to/loaded from an xml file.
+ * The history is stored in an append-only journal: every access and removal appends a small
+ * record, and the journal is compacted to one record per element when it grows too long or when
+ * the history is saved. The records are buffered and written by a job shortly after the changes,
+ * or when the history is saved or flushed. Histories that were stored to an xml file by earlier versions are read
+ * from that file once.
+ *
+ * The position queries read an immutable snapshot and do not lock the history.
  *
  * @param <K> key type
  * @param <V> value type
@@ -73,16 +83,48 @@ public abstract class History<K, V> {
 	private static final String DEFAULT_INFO_NODE_NAME= "infoNode"; //$NON-NLS-1$
 	private static final int MAX_HISTORY_SIZE= 60;
 
+	private static final String JOURNAL_EXTENSION= ".journal"; //$NON-NLS-1$
+	private static final int JOURNAL_MAGIC= 0x4A484953; // "JHIS"
+	private static final int JOURNAL_VERSION= 1;
+	private static final byte RECORD_ACCESSED= 1;
+	private static final byte RECORD_REMOVED= 2;
+	/**
+	 * The number of records after which the journal is compacted.
+	 */
+	private static final int MAX_JOURNAL_RECORDS= 4 * MAX_HISTORY_SIZE;
+	/**
+	 * The delay in ms after which buffered records are written to the journal.
+	 */
+	private static final long FLUSH_DELAY= 2000;
+
 	private static JavaUIException createException(Throwable t, String message) {
 		return new JavaUIException(JavaUIStatus.createError(IStatus.ERROR, message, t));
 	}
 
 	private final Map<K, V> fHistory;
-	private final Hashtable<K, Integer> fPositions;
+	/**
+	 * Immutable snapshot of the positions of the keys, replaced on every change.
+	 */
+	private volatile Map<K, Integer> fPositions;
 	private final String fFileName;
 	private final String fRootNodeName;
 	private final String fInfoNodeName;
 
+	/**
+	 * The journal file, <code>null</code> until the history is loaded or saved.
+	 */
+	private File fJournal;
+	/**
+	 * The number of records in the journal, including the buffered ones.
+	 */
+	private int fJournalRecords;
+	/**
+	 * The records that have not been written to the journal yet.
+	 */
+	private final ByteArrayOutputStream fBufferedRecords= new ByteArrayOutputStream(1024);
+	private Job fFlushJob;
+	private Document fDocument;
+
 	public History(String fileName, String rootNodeName, String infoNodeName) {
 		fHistory= new LinkedHashMap<>(80, 0.75f, true) {
 			private static final long serialVersionUID= 1L;
@@ -94,7 +136,7 @@ public abstract class History<K, V> {
 		fFileName= fileName;
 		fRootNodeName= rootNodeName;
 		fInfoNodeName= infoNodeName;
-		fPositions= new Hashtable<>(MAX_HISTORY_SIZE);
+		fPositions= Collections.emptyMap();
 	}
 
 	public History(String fileName) {
@@ -104,29 +146,34 @@ public abstract class History<K, V> {
 	public synchronized void accessed(V object) {
 		fHistory.put(getKey(object), object);
 		rebuildPositions();
+		appendToJournal(RECORD_ACCESSED, object);
 	}
 
-	public synchronized boolean contains(V object) {
-		return fHistory.containsKey(getKey(object));
+	public boolean contains(V object) {
+		return fPositions.containsKey(getKey(object));
 	}
 
-	public synchronized boolean containsKey(K key) {
-		return fHistory.containsKey(key);
+	public boolean containsKey(K key) {
+		return fPositions.containsKey(key);
 	}
 
-	public synchronized boolean isEmpty() {
-		return fHistory.isEmpty();
+	public boolean isEmpty() {
+		return fPositions.isEmpty();
 	}
 
 	public synchronized Object remove(V object) {
-		Object removed= fHistory.remove(getKey(object));
+		V removed= fHistory.remove(getKey(object));
 		rebuildPositions();
+		if (removed != null)
+			appendToJournal(RECORD_REMOVED, removed);
 		return removed;
 	}
 
 	public synchronized Object removeKey(Object key) {
-		Object removed= fHistory.remove(key);
+		V removed= fHistory.remove(key);
 		rebuildPositions();
+		if (removed != null)
+			appendToJournal(RECORD_REMOVED, removed);
 		return removed;
 	}
 
@@ -139,14 +186,16 @@ public abstract class History<K, V> {
 	 * @param key The key of the object to inspect
 	 * @return value in [0.0, 1.0] the lower the older the element
 	 */
-	public synchronized float getNormalizedPosition(K key) {
-		if (!containsKey(key))
+	public float getNormalizedPosition(K key) {
+		Map<K, Integer> positions= fPositions;
+		Integer position= positions.get(key);
+		if (position == null)
 			return 0.0f;
 
-		int pos= fPositions.get(key).intValue() + 1;
+		int pos= position.intValue() + 1;
 
-		//containsKey(key) implies fHistory.size()>0
-		return (float)pos / (float)fHistory.size();
+		//positions.get(key) != null implies positions.size()>0
+		return (float)pos / (float)positions.size();
 	}
 
 	/**
@@ -157,34 +206,68 @@ public abstract class History<K, V> {
 	 * @param key The key of the object to inspect
 	 * @return value between 0 and MAX_HISTORY_SIZE - 1, or -1
 	 */
-	public synchronized int getPosition(K key) {
-		if (!containsKey(key))
+	public int getPosition(K key) {
+		Integer position= fPositions.get(key);
+		if (position == null)
 			return -1;
 
-		return fPositions.get(key);
+		return position.intValue();
 	}
 
 	public synchronized void load() {
-		IPath stateLocation= JavaPlugin.getDefault().getStateLocation().append(fFileName);
-		File file= stateLocation.toFile();
-		if (file.exists()) {
-			try (InputStreamReader reader= new InputStreamReader(new FileInputStream(file), "utf-8")) {//$NON-NLS-1$
-				load(new InputSource(reader));
-			} catch (IOException | CoreException e) {
-				JavaPlugin.log(e);
+		IPath stateLocation= JavaPlugin.getDefault().getStateLocation();
+		File journal= stateLocation.append(fFileName + JOURNAL_EXTENSION).toFile();
+		boolean compact;
+		if (journal.exists()) {
+			compact= !loadJournal(journal);
+		} else {
+			File file= stateLocation.append(fFileName).toFile();
+			compact= file.exists();
+			if (compact) {
+				try (InputStreamReader reader= new InputStreamReader(new FileInputStream(file), "utf-8")) {//$NON-NLS-1$
+					load(new InputSource(reader));
+				} catch (IOException | CoreException e) {
+					JavaPlugin.log(e);
+				}
 			}
 		}
+		fJournal= journal;
+		if (compact || fJournalRecords > MAX_JOURNAL_RECORDS)
+			compactJournal();
 	}
 
+	/**
+	 * Compacts the journal to one record per element. This also writes the buffered records.
+	 */
 	public synchronized void save() {
-		IPath stateLocation= JavaPlugin.getDefault().getStateLocation().append(fFileName);
-		File file= stateLocation.toFile();
-		try (OutputStream out= new FileOutputStream(file)) {
-			save(out);
-		} catch (IOException | CoreException | TransformerFactoryConfigurationError e) {
-			// The XML library can be misconficgured (e.g. via
-			// -Djava.endorsed.dirs=C:\notExisting\xerces-2_7_1)
+		if (fJournal == null)
+			fJournal= JavaPlugin.getDefault().getStateLocation().append(fFileName + JOURNAL_EXTENSION).toFile();
+		compactJournal();
+	}
+
+	/**
+	 * Writes the buffered records to the journal.
+	 */
+	public synchronized void flush() {
+		if (fJournal == null || fBufferedRecords.size() == 0)
+			return;
+		try {
+			// the records are written at once, so that a crash can at most truncate the last record
+			ByteArrayOutputStream bytes= new ByteArrayOutputStream(fBufferedRecords.size() + 8);
+			if (fJournal.length() == 0) {
+				try (DataOutputStream out= new DataOutputStream(bytes)) {
+					out.writeInt(JOURNAL_MAGIC);
+					out.writeInt(JOURNAL_VERSION);
+				}
+			}
+			fBufferedRecords.writeTo(bytes);
+			try (OutputStream out= new FileOutputStream(fJournal, true)) {
+				bytes.writeTo(out);
+			}
+		} catch (IOException e) {
 			JavaPlugin.log(e);
+		} finally {
+			fBufferedRecords.reset();
 		}
 	}
 
@@ -221,12 +304,130 @@ public abstract class History<K, V> {
 	protected abstract K getKey(V object);
 
 	private void rebuildPositions() {
-		fPositions.clear();
+		Map<K, Integer> positions= new HashMap<>(2 * fHistory.size());
 		int pos=0;
 		for (V element : fHistory.values()) {
-			fPositions.put(getKey(element), pos);
+			positions.put(getKey(element), pos);
 			pos++;
 		}
+		fPositions= Collections.unmodifiableMap(positions);
+	}
+
+	private Document getDocument() throws ParserConfigurationException {
+		if (fDocument == null)
+			fDocument= XmlProcessorFactoryJdtUi.createDocumentBuilderFactoryWithErrorOnDOCTYPE().newDocumentBuilder().newDocument();
+		return fDocument;
+	}
+
+	/**
+	 * Reads the journal into the history.
+	 *
+	 * @param journal the journal file
+	 * @return <code>true</code> if the journal was read completely, <code>false</code> if it is
+	 *         truncated, from another version or could not be read
+	 */
+	private boolean loadJournal(File journal) {
+		fJournalRecords= 0;
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(journal)))) {
+			if (in.readInt() != JOURNAL_MAGIC || in.readInt() != JOURNAL_VERSION)
+				return false;
+			Document document= getDocument();
+			int kind;
+			while ((kind= in.read()) != -1) {
+				Element element= document.createElement(fInfoNodeName);
+				int count= in.readUnsignedShort();
+				for (int i= 0; i < count; i++) {
+					element.setAttribute(in.readUTF(), in.readUTF());
+				}
+				V object= createFromElement(element);
+				if (object != null) {
+					if (kind == RECORD_ACCESSED)
+						fHistory.put(getKey(object), object);
+					else if (kind == RECORD_REMOVED)
+						fHistory.remove(getKey(object));
+				}
+				fJournalRecords++;
+			}
+			return true;
+		} catch (EOFException e) {
+			// an incomplete last record, which is dropped by the compaction
+			return false;
+		} catch (IOException | ParserConfigurationException e) {
+			JavaPlugin.log(e);
+			return false;
+		} finally {
+			rebuildPositions();
+		}
+	}
+
+	private void writeRecord(DataOutputStream out, byte kind, Object object) throws IOException, ParserConfigurationException {
+		Element element= getDocument().createElement(fInfoNodeName);
+		setAttributes(object, element);
+		NamedNodeMap attributes= element.getAttributes();
+		int count= attributes.getLength();
+		out.writeByte(kind);
+		out.writeShort(count);
+		for (int i= 0; i < count; i++) {
+			Node attribute= attributes.item(i);
+			out.writeUTF(attribute.getNodeName());
+			out.writeUTF(attribute.getNodeValue());
+		}
+	}
+
+	private void appendToJournal(byte kind, V object) {
+		if (fJournal == null)
+			return;
+		if (fJournalRecords >= MAX_JOURNAL_RECORDS) {
+			compactJournal();
+			return;
+		}
+		try {
+			ByteArrayOutputStream bytes= new ByteArrayOutputStream(256);
+			try (DataOutputStream out= new DataOutputStream(bytes)) {
+				writeRecord(out, kind, object);
+			}
+			bytes.writeTo(fBufferedRecords);
+			fJournalRecords++;
+			scheduleFlush();
+		} catch (IOException | ParserConfigurationException e) {
+			JavaPlugin.log(e);
+		}
+	}
+
+	private void scheduleFlush() {
+		if (fFlushJob == null) {
+			fFlushJob= Job.create("Writing history " + fFileName, monitor -> { //$NON-NLS-1$
+				flush();
+			});
+			fFlushJob.setSystem(true);
+			fFlushJob.setPriority(Job.DECORATE);
+		}
+		if (fFlushJob.getState() != Job.SLEEPING && fFlushJob.getState() != Job.WAITING)
+			fFlushJob.schedule(FLUSH_DELAY);
+	}
+
+	private void compactJournal() {
+		File temp= new File(fJournal.getPath() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+				out.writeInt(JOURNAL_MAGIC);
+				out.writeInt(JOURNAL_VERSION);
+				for (V object : fHistory.values()) {
+					writeRecord(out, RECORD_ACCESSED, object);
+				}
+			}
+			try {
+				Files.move(temp.toPath(), fJournal.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), fJournal.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			fJournalRecords= fHistory.size();
+			// the journal contains all elements now
+			fBufferedRecords.reset();
+		} catch (IOException | ParserConfigurationException e) {
+			JavaPlugin.log(e);
+			temp.delete();
+		}
 	}
 
 	private void load(InputSource inputSource) throws CoreException {
@@ -260,34 +461,4 @@ public abstract class History<K, V> {
 		rebuildPositions();
 	}
 
-	private void save(OutputStream stream) throws CoreException {
-		try {
-			DocumentBuilderFactory factory= XmlProcessorFactoryJdtUi.createDocumentBuilderFactoryWithErrorOnDOCTYPE();
-			DocumentBuilder builder= factory.newDocumentBuilder();
-			Document document= builder.newDocument();
-
-			Element rootElement = document.createElement(fRootNodeName);
-			document.appendChild(rootElement);
-
-			Iterator<V> values= getValues().iterator();
-			while (values.hasNext()) {
-				Object object= values.next();
-				Element element= document.createElement(fInfoNodeName);
-				setAttributes(object, element);
-				rootElement.appendChild(element);
-			}
-
-			Transformer transformer= XmlProcessorFactoryJdtUi.createTransformerFactoryWithErrorOnDOCTYPE().newTransformer();
-			transformer.setOutputProperty(OutputKeys.METHOD, "xml"); //$NON-NLS-1$
-			transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8"); //$NON-NLS-1$
-			transformer.setOutputProperty(OutputKeys.INDENT, "yes"); //$NON-NLS-1$
-			DOMSource source = new DOMSource(document);
-			StreamResult result = new StreamResult(stream);
-
-			transformer.transform(source, result);
-		} catch (TransformerException | ParserConfigurationException e) {
-			throw createException(e, Messages.format(CorextMessages.History_error_serialize, BasicElementLabels.getResourceName(fFileName)));
-		}
-	}
-
 }
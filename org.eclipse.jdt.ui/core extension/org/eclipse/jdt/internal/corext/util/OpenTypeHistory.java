@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,9 +17,9 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.w3c.dom.Element;
 
@@ -156,7 +156,8 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
 			OpenTypeHistory history= OpenTypeHistory.getInstance();
-			history.internalCheckConsistency(monitor);
+			if (history.needConsistencyCheck())
+				history.internalCheckConsistency(monitor);
 			return Status.OK_STATUS;
 		}
 		@Override
@@ -167,8 +168,11 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 
 	// Needs to be volatile since accesses aren't synchronized.
 	private volatile boolean fNeedsConsistencyCheck;
-	// Map of cached time stamps
-	private Map<TypeNameMatch, Long> fTimestampMapping;
+	// Map of cached time stamps, accessed without holding the lock of the history
+	private final Map<TypeNameMatch, Long> fTimestampMapping;
+	// Serializes the consistency checks, which don't hold the lock of the history while
+	// accessing the file system, so that the history can be read and updated meanwhile
+	private final Object fConsistencyCheckLock= new Object();
 
 	private final IElementChangedListener fDeltaListener;
 	private final UpdateJob fUpdateJob;
@@ -196,9 +200,11 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 
 	private OpenTypeHistory() {
 		super(FILENAME, NODE_ROOT, NODE_TYPE_INFO);
-		fTimestampMapping= new HashMap<>();
+		fTimestampMapping= new ConcurrentHashMap<>();
 		fNeedsConsistencyCheck= true;
 		load();
+		// the journal may contain time stamps of removed entries
+		fTimestampMapping.keySet().retainAll(getKeys());
 		fDeltaListener= new TypeHistoryDeltaListener();
 		JavaCore.addElementChangedListener(fDeltaListener);
 		fUpdateJob= new UpdateJob();
@@ -238,16 +244,12 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 	}
 
 	@Override
-	public synchronized boolean contains(TypeNameMatch type) {
-		return super.contains(type);
-	}
-
-	@Override
-	public synchronized void accessed(TypeNameMatch info) {
+	public void accessed(TypeNameMatch info) {
 		// Fetching the timestamp might not be cheap (remote file system
-		// external Jars. So check if we alreay have one.
+		// external Jars. So check if we alreay have one and fetch it
+		// without holding the lock of the history.
 		if (!fTimestampMapping.containsKey(info)) {
-			fTimestampMapping.put(info, getContainerTimestamp(info));
+			fTimestampMapping.putIfAbsent(info, getContainerTimestamp(info));
 		}
 		super.accessed(info);
 	}
@@ -258,11 +260,14 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 		return (TypeNameMatch)super.remove(info);
 	}
 
-	public synchronized void replace(TypeNameMatch old, TypeNameMatch newMatch) {
-		fTimestampMapping.remove(old);
-		fTimestampMapping.put(newMatch, getContainerTimestamp(newMatch));
-		super.remove(old);
-		super.accessed(newMatch);
+	public void replace(TypeNameMatch old, TypeNameMatch newMatch) {
+		long timestamp= getContainerTimestamp(newMatch);
+		synchronized (this) {
+			fTimestampMapping.remove(old);
+			fTimestampMapping.put(newMatch, timestamp);
+			super.remove(old);
+			super.accessed(newMatch);
+		}
 	}
 
 	public synchronized TypeNameMatch[] getTypeInfos() {
@@ -293,40 +298,47 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 		return object;
 	}
 
-	private synchronized void internalCheckConsistency(IProgressMonitor monitor) throws OperationCanceledException {
-		// Setting fNeedsConsistencyCheck is necessary here since
-		// markAsInconsistent isn't synchronized.
-		fNeedsConsistencyCheck= true;
-		List<TypeNameMatch> typesToCheck= new ArrayList<>(getKeys());
-		monitor.beginTask(CorextMessages.TypeInfoHistory_consistency_check, typesToCheck.size());
-		monitor.setTaskName(CorextMessages.TypeInfoHistory_consistency_check);
-		for (TypeNameMatch type : typesToCheck) {
-			long currentTimestamp= getContainerTimestamp(type);
-			Long lastTested= fTimestampMapping.get(type);
-			if (lastTested != null && currentTimestamp != IResource.NULL_STAMP && currentTimestamp == lastTested.longValue() && !isContainerDirty(type))
-				continue;
-			try {
-				IType jType= type.getType();
-				if (jType == null || !jType.exists()) {
-					remove(type);
-				} else {
-					// copy over the modifiers since they may have changed
-					int modifiers= jType.getFlags();
-					if (modifiers != type.getModifiers()) {
-						replace(type, SearchEngine.createTypeNameMatch(jType, modifiers));
+	private void internalCheckConsistency(IProgressMonitor monitor) throws OperationCanceledException {
+		synchronized (fConsistencyCheckLock) {
+			// Setting fNeedsConsistencyCheck is necessary here since
+			// markAsInconsistent isn't synchronized.
+			fNeedsConsistencyCheck= true;
+			List<TypeNameMatch> typesToCheck;
+			synchronized (this) {
+				typesToCheck= new ArrayList<>(getKeys());
+			}
+			monitor.beginTask(CorextMessages.TypeInfoHistory_consistency_check, typesToCheck.size());
+			monitor.setTaskName(CorextMessages.TypeInfoHistory_consistency_check);
+			for (TypeNameMatch type : typesToCheck) {
+				long currentTimestamp= getContainerTimestamp(type);
+				Long lastTested= fTimestampMapping.get(type);
+				if (lastTested != null && currentTimestamp != IResource.NULL_STAMP && currentTimestamp == lastTested.longValue() && !isContainerDirty(type))
+					continue;
+				try {
+					IType jType= type.getType();
+					if (jType == null || !jType.exists()) {
+						remove(type);
 					} else {
-						fTimestampMapping.put(type, currentTimestamp);
+						// copy over the modifiers since they may have changed
+						int modifiers= jType.getFlags();
+						if (modifiers != type.getModifiers()) {
+							// the history isn't locked, so the type may have been removed meanwhile
+							if (contains(type))
+								replace(type, SearchEngine.createTypeNameMatch(jType, modifiers));
+						} else {
+							fTimestampMapping.put(type, currentTimestamp);
+						}
 					}
+				} catch (JavaModelException e) {
+					remove(type);
 				}
-			} catch (JavaModelException e) {
-				remove(type);
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				monitor.worked(1);
 			}
-			if (monitor.isCanceled())
-				throw new OperationCanceledException();
-			monitor.worked(1);
+			monitor.done();
+			fNeedsConsistencyCheck= false;
 		}
-		monitor.done();
-		fNeedsConsistencyCheck= false;
 	}
 
 	private long getContainerTimestamp(TypeNameMatch match) {
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.jarinjarloader;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.JarURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * This class will be compiled into the binary jar-in-jar-loader.zip. This ZIP is used for the
+ * "Runnable JAR File Exporter".
+ * Source has to comply to java 1.8 - see <a href="file:../../../../../../scripts/build_jar-in-jar-loader.xml">build_jar-in-jar-loader.xml</a>
+ *
+ * Loads the classes and resources of the Rsrc-Class-Path using the index written by the exporter.
+ * The index lists the packages of every nested JAR, so a class or resource is only looked up in
+ * the nested JARs that contain its package. Nested JARs that are not needed are never extracted,
+ * while a plain URLClassLoader opens and searches all nested JARs in front of the one containing
+ * a class. Directories and nested JARs that are not in the index are always searched.
+ *
+ * @since 3.32
+ */
+public class IndexedRsrcClassLoader extends URLClassLoader {
+
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+
+	/** The entries of the Rsrc-Class-Path */
+	private final URL[] urls;
+
+	/** Whether an entry is a nested JAR listed in the index */
+	private final boolean[] indexed;
+
+	/** The indexed entries containing a package */
+	private final Map<String, BitSet> index;
+
+	/** The opened nested JARs, by entry */
+	private final JarFile[] jarFiles;
+
+	private final boolean[] opened;
+
+	/** The loaders for the entries which are directories */
+	private final URLClassLoader[] directoryLoaders;
+
+	private IndexedRsrcClassLoader(URL[] urls, boolean[] indexed, Map<String, BitSet> index, ClassLoader parent) {
+		super(urls, parent);
+		this.urls= urls;
+		this.indexed= indexed;
+		this.index= index;
+		this.jarFiles= new JarFile[urls.length];
+		this.opened= new boolean[urls.length];
+		this.directoryLoaders= new URLClassLoader[urls.length];
+	}
+
+	/**
+	 * Creates a class loader for the given Rsrc-Class-Path.
+	 *
+	 * @param rsrcClassPath the entries of the Rsrc-Class-Path
+	 * @param rsrcUrls the URLs of the entries
+	 * @param indexStream the contents of the index
+	 * @param parent the parent class loader
+	 * @return the class loader, or <code>null</code> if the index has an unknown format
+	 * @throws IOException if the index cannot be read
+	 */
+	public static IndexedRsrcClassLoader create(String[] rsrcClassPath, URL[] rsrcUrls, InputStream indexStream, ClassLoader parent) throws IOException {
+		BufferedReader reader= new BufferedReader(new InputStreamReader(indexStream, JIJConstants.UTF8_ENCODING));
+		if (!JIJConstants.RSRC_INDEX_VERSION.equals(reader.readLine()))
+			return null;
+		boolean[] indexed= new boolean[rsrcClassPath.length];
+		Map<String, BitSet> index= new HashMap<>();
+		int entry= -1;
+		boolean sectionStart= true;
+		String line;
+		while ((line= reader.readLine()) != null) {
+			if (line.isEmpty()) {
+				sectionStart= true;
+			} else if (sectionStart) {
+				// the first line of a section is the nested JAR, as written in the Rsrc-Class-Path
+				entry= -1;
+				for (int i= 0; i < rsrcClassPath.length; i++) {
+					if (line.equals(rsrcClassPath[i]) && !rsrcClassPath[i].endsWith(JIJConstants.PATH_SEPARATOR)) {
+						entry= i;
+						indexed[i]= true;
+						break;
+					}
+				}
+				sectionStart= false;
+			} else if (entry != -1) {
+				BitSet entries= index.get(line);
+				if (entries == null) {
+					entries= new BitSet(rsrcClassPath.length);
+					index.put(line, entries);
+				}
+				entries.set(entry);
+			}
+		}
+		return new IndexedRsrcClassLoader(rsrcUrls, indexed, index, parent);
+	}
+
+	/**
+	 * Returns the key of a class file or resource in the index. This has to be the same as
+	 * <code>FatJarRsrcUrlBuilder.getIndexKey(String)</code>.
+	 *
+	 * @param name the path of the class file or resource
+	 * @return the directory of the class file or resource, or the name itself if it is in the root
+	 */
+	static String getIndexKey(String name) {
+		int slash= name.lastIndexOf('/');
+		return slash < 0 ? name : name.substring(0, slash);
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		String path= name.replace('.', '/').concat(".class"); //$NON-NLS-1$
+		BitSet entries= index.get(getIndexKey(path));
+		for (int i= 0; i < urls.length; i++) {
+			if (indexed[i] && (entries == null || !entries.get(i)))
+				continue;
+			try {
+				Class<?> result= defineClass(name, i, path);
+				if (result != null)
+					return result;
+			} catch (IOException e) {
+				throw new ClassNotFoundException(name, e);
+			}
+		}
+		throw new ClassNotFoundException(name);
+	}
+
+	@Override
+	public URL findResource(String name) {
+		BitSet entries= index.get(getIndexKey(name));
+		for (int i= 0; i < urls.length; i++) {
+			if (indexed[i] && (entries == null || !entries.get(i)))
+				continue;
+			URL result= findResource(i, name);
+			if (result != null)
+				return result;
+		}
+		return null;
+	}
+
+	@Override
+	public Enumeration<URL> findResources(String name) throws IOException {
+		BitSet entries= index.get(getIndexKey(name));
+		List<URL> result= new ArrayList<>();
+		for (int i= 0; i < urls.length; i++) {
+			if (indexed[i] && (entries == null || !entries.get(i)))
+				continue;
+			URL url= findResource(i, name);
+			if (url != null)
+				result.add(url);
+		}
+		return Collections.enumeration(result);
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (directoryLoaders) {
+			for (URLClassLoader loader : directoryLoaders) {
+				if (loader != null)
+					loader.close();
+			}
+		}
+		// the nested JARs are shared with the cache of the JAR URL connections
+		super.close();
+	}
+
+	private URL findResource(int entry, String name) {
+		JarFile jarFile= getJarFile(entry);
+		if (jarFile != null) {
+			if (jarFile.getEntry(name) == null)
+				return null;
+			try {
+				return new URL(urls[entry], name);
+			} catch (MalformedURLException e) {
+				return null;
+			}
+		}
+		return getDirectoryLoader(entry).findResource(name);
+	}
+
+	private Class<?> defineClass(String name, int entry, String path) throws IOException {
+		byte[] bytes;
+		CodeSigner[] signers= null;
+		Manifest manifest= null;
+		JarFile jarFile= getJarFile(entry);
+		if (jarFile != null) {
+			JarEntry jarEntry= jarFile.getJarEntry(path);
+			if (jarEntry == null)
+				return null;
+			try (InputStream in= jarFile.getInputStream(jarEntry)) {
+				bytes= readAll(in);
+			}
+			// only known after the entry has been read
+			signers= jarEntry.getCodeSigners();
+			manifest= jarFile.getManifest();
+		} else {
+			URL url= getDirectoryLoader(entry).findResource(path);
+			if (url == null)
+				return null;
+			try (InputStream in= url.openStream()) {
+				bytes= readAll(in);
+			}
+		}
+		int lastDot= name.lastIndexOf('.');
+		if (lastDot != -1)
+			definePackageIfAbsent(name.substring(0, lastDot), manifest, urls[entry]);
+		return defineClass(name, bytes, 0, bytes.length, new CodeSource(urls[entry], signers));
+	}
+
+	@SuppressWarnings("deprecation")
+	private void definePackageIfAbsent(String packageName, Manifest manifest, URL url) {
+		// getDefinedPackage(String) is not available on java 1.8
+		if (getPackage(packageName) != null)
+			return;
+		try {
+			if (manifest != null)
+				definePackage(packageName, manifest, url);
+			else
+				definePackage(packageName, null, null, null, null, null, null, null);
+		} catch (IllegalArgumentException e) {
+			// defined concurrently
+		}
+	}
+
+	private JarFile getJarFile(int entry) {
+		if (!JIJConstants.JAR_URL_PROTOCOL.equals(urls[entry].getProtocol()))
+			return null;
+		synchronized (jarFiles) {
+			if (!opened[entry]) {
+				opened[entry]= true;
+				try {
+					// extracts the nested JAR once, later connections to its entries use the cached JarFile
+					JarURLConnection connection= (JarURLConnection) urls[entry].openConnection();
+					jarFiles[entry]= connection.getJarFile();
+				} catch (IOException | ClassCastException e) {
+					// like URLClassLoader, ignore entries that cannot be opened
+				}
+			}
+			return jarFiles[entry];
+		}
+	}
+
+	private URLClassLoader getDirectoryLoader(int entry) {
+		synchronized (directoryLoaders) {
+			if (directoryLoaders[entry] == null)
+				directoryLoaders[entry]= new URLClassLoader(new URL[] { urls[entry] }, null);
+			return directoryLoaders[entry];
+		}
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		// InputStream.readAllBytes() is not available on java 1.8
+		ByteArrayOutputStream out= new ByteArrayOutputStream();
+		byte[] buffer= new byte[8192];
+		int read;
+		while ((read= in.read(buffer)) != -1)
+			out.write(buffer, 0, read);
+		return out.toByteArray();
+	}
+}
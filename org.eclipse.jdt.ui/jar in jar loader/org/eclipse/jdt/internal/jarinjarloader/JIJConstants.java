@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2017 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -36,6 +36,9 @@ final class JIJConstants {
 	static final String CURRENT_DIR                          = "./";  //$NON-NLS-1$
 	static final String UTF8_ENCODING                        = "UTF-8";  //$NON-NLS-1$
 	static final String RUNTIME                              = "#runtime";  //$NON-NLS-1$
+	static final String JAR_URL_PROTOCOL                     = "jar";  //$NON-NLS-1$
+	static final String RSRC_INDEX_NAME                      = "META-INF/RSRC-INDEX.LIST";  //$NON-NLS-1$
+	static final String RSRC_INDEX_VERSION                   = "Rsrc-Index-Version: 1.0";  //$NON-NLS-1$
 
 	private JIJConstants() {
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2023 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,10 +16,12 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.jarinjarloader;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
@@ -41,6 +43,8 @@ public class JarRsrcLoader {
 	private static class ManifestInfo {
 		String rsrcMainClass;
 		String[] rsrcClassPath;
+		/** The index next to the manifest, in the same JAR */
+		URL rsrcIndex;
 	}
 
 	public static void main(String[] args) throws ClassNotFoundException, IllegalArgumentException, IllegalAccessException, InvocationTargetException, SecurityException, NoSuchMethodException, IOException {
@@ -55,14 +59,55 @@ public class JarRsrcLoader {
 			else
 				rsrcUrls[i] = new URL(JIJConstants.JAR_INTERNAL_URL_PROTOCOL_WITH_COLON + rsrcPath + JIJConstants.JAR_INTERNAL_SEPARATOR);
 		}
-		@SuppressWarnings("resource")
-		ClassLoader jceClassLoader = new URLClassLoader(rsrcUrls, getParentClassLoader());
+		ClassLoader jceClassLoader = createClassLoader(mi, rsrcUrls);
 		Thread.currentThread().setContextClassLoader(jceClassLoader);
 		Class<?> c = Class.forName(mi.rsrcMainClass, true, jceClassLoader);
 		Method main = c.getMethod(JIJConstants.MAIN_METHOD_NAME, args.getClass());
 		main.invoke((Object) null, new Object[] {args});
 	}
 
+	@SuppressWarnings("resource")
+	private static ClassLoader createClassLoader(ManifestInfo mi, URL[] rsrcUrls) throws InvocationTargetException, IllegalAccessException, IOException {
+		ClassLoader parent = getParentClassLoader();
+		// JARs exported by older versions have no index
+		try (InputStream index = openIndex(mi.rsrcIndex)) {
+			if (index != null) {
+				ClassLoader result = IndexedRsrcClassLoader.create(mi.rsrcClassPath, rsrcUrls, index, parent);
+				if (result != null)
+					return result;
+			}
+		}
+		return new URLClassLoader(rsrcUrls, parent);
+	}
+
+	private static InputStream openIndex(URL rsrcIndex) throws IOException {
+		if (rsrcIndex == null)
+			return null;
+		try {
+			return rsrcIndex.openStream();
+		} catch (FileNotFoundException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the URL of the index in the JAR of the given manifest. Other JARs on the classpath
+	 * may have an index for a different Rsrc-Class-Path.
+	 *
+	 * @param manifestUrl the URL of the manifest
+	 * @return the URL of the index, or <code>null</code> if the manifest has an unexpected URL
+	 */
+	private static URL getIndexUrl(URL manifestUrl) {
+		String manifest = manifestUrl.toExternalForm();
+		if (!manifest.endsWith(JarFile.MANIFEST_NAME))
+			return null;
+		try {
+			return new URL(manifest.substring(0, manifest.length() - JarFile.MANIFEST_NAME.length()) + JIJConstants.RSRC_INDEX_NAME);
+		} catch (MalformedURLException e) {
+			return null;
+		}
+	}
+
 	private static ClassLoader getParentClassLoader() throws InvocationTargetException, IllegalAccessException {
 		// On Java8, it is ok to use a null parent class loader, but, starting with Java 9,
 		// we need to provide one that has access to the restricted list of packages that
@@ -82,7 +127,8 @@ public class JarRsrcLoader {
 		Enumeration<URL> resEnum;
 		resEnum = Thread.currentThread().getContextClassLoader().getResources(JarFile.MANIFEST_NAME);
 		while (resEnum.hasMoreElements()) {
-			try (InputStream is =  resEnum.nextElement().openStream()){
+			URL manifestUrl = resEnum.nextElement();
+			try (InputStream is =  manifestUrl.openStream()){
 				if (is != null) {
 					ManifestInfo result = new ManifestInfo();
 					Manifest manifest = new Manifest(is);
@@ -92,6 +138,7 @@ public class JarRsrcLoader {
 					if (rsrcCP == null)
 						rsrcCP = JIJConstants.DEFAULT_REDIRECTED_CLASSPATH;
 					result.rsrcClassPath = splitSpaces(rsrcCP);
+					result.rsrcIndex = getIndexUrl(manifestUrl);
 					if ((result.rsrcMainClass != null) && !result.rsrcMainClass.trim().isEmpty())
 							return result;
 				}
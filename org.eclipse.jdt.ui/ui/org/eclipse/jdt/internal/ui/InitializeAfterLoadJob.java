@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -36,8 +36,8 @@ public class InitializeAfterLoadJob extends UIJob {
 		protected IStatus run(IProgressMonitor monitor) {
 			SubMonitor subMonitor= SubMonitor.convert(monitor, 10);
 			try {
-				JavaCore.initializeAfterLoad(subMonitor.split(6));
-				JavaPlugin.initializeAfterLoad(subMonitor.split(4));
+				JavaCore.initializeAfterLoad(subMonitor.split(10));
+				JavaPlugin.initializeAfterLoad();
 			} catch (CoreException e) {
 				JavaPlugin.log(e);
 				return e.getStatus();
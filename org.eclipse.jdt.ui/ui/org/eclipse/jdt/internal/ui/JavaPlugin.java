@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -40,7 +40,6 @@ import org.eclipse.swt.widgets.Shell;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IConfigurationElement;
-import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.Platform;
@@ -109,6 +108,7 @@ import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.PreferenceConstants;
 import org.eclipse.jdt.ui.text.JavaTextTools;
 
+import org.eclipse.jdt.internal.ui.dialogs.TypeNameMatchIndex;
 import org.eclipse.jdt.internal.ui.javaeditor.ASTProvider;
 import org.eclipse.jdt.internal.ui.javaeditor.ClassFileDocumentProvider;
 import org.eclipse.jdt.internal.ui.javaeditor.CompilationUnitDocumentProvider;
@@ -453,8 +453,10 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 		}
 	}
 
-	/* package */ static void initializeAfterLoad(IProgressMonitor monitor) {
-		OpenTypeHistory.getInstance().checkConsistency(monitor);
+	/* package */ static void initializeAfterLoad() {
+		// validate the open type history lazily in the background, the Open Type dialog
+		// waits for the validation if it is still running
+		OpenTypeHistory.getInstance().markAsInconsistent();
 	}
 
 	/*
@@ -551,6 +553,8 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 
 			OpenTypeHistory.shutdown();
 
+			TypeNameMatchIndex.shutdown();
+
 			JavaManipulation.setPreferenceNodeId(null);
 		} finally {
 			super.stop(context);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -239,6 +239,7 @@ public final class JavaUIMessages extends NLS {
 	public static String FilteredTypesSelectionDialog_error_type_doesnot_exist;
 	public static String FilteredTypesSelectionDialog_library_name_format;
 	public static String FilteredTypesSelectionDialog_searchJob_taskName;
+	public static String FilteredTypesSelectionDialog_indexJob_name;
 	public static String FilteredTypeSelectionDialog_titleFormat;
 
 	public static String InitializeAfterLoadJob_starter_job_name;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@
 package org.eclipse.jdt.internal.ui.callhierarchy;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.swt.widgets.Display;
 
@@ -67,6 +68,13 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
     private DeferredTreeContentManager fManager;
     private CallHierarchyViewPart fPart;
 
+    /**
+     * The number of deferred fetches in progress, siblings are fetched concurrently.
+     *
+     * @since 3.32
+     */
+    private final AtomicInteger fFetchCount= new AtomicInteger();
+
     private static class MethodWrapperRunnable implements IRunnableWithProgress {
         private MethodWrapper fMethodWrapper;
         private MethodWrapper[] fCalls= null;
@@ -463,13 +471,13 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
     }
 
     public void doneFetching() {
-        if (fPart != null) {
+        if (fFetchCount.decrementAndGet() == 0 && fPart != null) {
             fPart.setCancelEnabled(false);
         }
     }
 
     public void startFetching() {
-        if (fPart != null) {
+        if (fFetchCount.getAndIncrement() == 0 && fPart != null) {
             fPart.setCancelEnabled(true);
         }
     }
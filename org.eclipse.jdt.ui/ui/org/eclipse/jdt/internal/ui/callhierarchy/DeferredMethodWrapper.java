@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.callhierarchy;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -30,6 +32,23 @@ import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 
 public class DeferredMethodWrapper extends MethodWrapperWorkbenchAdapter implements IDeferredWorkbenchAdapter {
+    private static final String RULE_ID= "org.eclipse.jdt.ui.callhierarchy.methodwrapper"; //$NON-NLS-1$
+
+    /**
+     * The maximum number of siblings that are searched in parallel.
+     *
+     * @since 3.32
+     */
+    private static final int MAX_CONCURRENT_FETCHES= Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * The slot of the next fetch. Fetches in the same slot are serialized, so that up to
+     * {@link #MAX_CONCURRENT_FETCHES} siblings are searched in parallel.
+     *
+     * @since 3.32
+     */
+    private static final AtomicInteger fgNextSlot= new AtomicInteger();
+
     private final CallHierarchyContentProvider fProvider;
 
     /**
@@ -102,7 +121,8 @@ public class DeferredMethodWrapper extends MethodWrapperWorkbenchAdapter impleme
 
     @Override
 	public ISchedulingRule getRule(Object o) {
-        return new BatchSimilarSchedulingRule("org.eclipse.jdt.ui.callhierarchy.methodwrapper"); //$NON-NLS-1$
+        int slot= Math.floorMod(fgNextSlot.getAndIncrement(), MAX_CONCURRENT_FETCHES);
+        return new BatchSimilarSchedulingRule(RULE_ID + slot);
     }
 
     @Override
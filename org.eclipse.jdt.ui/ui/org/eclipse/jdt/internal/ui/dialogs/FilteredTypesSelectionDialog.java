@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -469,10 +469,30 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 	@Override
 	protected void fillContentProvider(AbstractContentProvider provider, ItemsFilter itemsFilter, IProgressMonitor progressMonitor) throws CoreException {
 		TypeItemsFilter typeSearchFilter= (TypeItemsFilter) itemsFilter;
+		progressMonitor.setTaskName(JavaUIMessages.FilteredTypesSelectionDialog_searchJob_taskName);
+
+		/*
+		 * Types of the workspace scope are filtered in memory by the type name
+		 * index once it is built. The index only provides matching types, so the
+		 * filter is set into match everything mode like for the search engine.
+		 */
+		if (typeSearchFilter.getSearchScope().equals(SearchEngine.createWorkspaceScope())) {
+			typeSearchFilter.setMatchEverythingMode(true);
+			try {
+				boolean indexed= TypeNameMatchIndex.getInstance().collect(typeSearchFilter.getTypeInfoFilter(), match -> {
+					if (!TypeFilter.isFiltered(match))
+						provider.add(match, typeSearchFilter);
+				}, progressMonitor);
+				if (indexed)
+					return;
+			} finally {
+				typeSearchFilter.setMatchEverythingMode(false);
+			}
+		}
+
 		TypeSearchRequestor requestor= new TypeSearchRequestor(provider, typeSearchFilter);
 		SearchEngine engine= new SearchEngine((WorkingCopyOwner) null);
 		String packPattern= typeSearchFilter.getPackagePattern();
-		progressMonitor.setTaskName(JavaUIMessages.FilteredTypesSelectionDialog_searchJob_taskName);
 
 		/*
 		 * Setting the filter into match everything mode avoids filtering twice
@@ -951,6 +971,10 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 			return fTypeInfoFilter.getSearchScope();
 		}
 
+		public TypeInfoFilter getTypeInfoFilter() {
+			return fTypeInfoFilter;
+		}
+
 		public int getMyTypeFilterVersion() {
 			return fMyTypeFilterVersion;
 		}
@@ -0,0 +1,421 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.dialogs;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.WorkingCopyOwner;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
+
+import org.eclipse.jdt.internal.core.manipulation.util.Strings;
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+import org.eclipse.jdt.internal.corext.util.TypeInfoFilter;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.JavaUIMessages;
+
+/**
+ * In-memory index of the types of the workspace scope, used by the
+ * {@link FilteredTypesSelectionDialog} to filter types without querying the search engine for
+ * every pattern.
+ * <p>
+ * The types are kept in an array sorted by their simple names, so that the candidates of a
+ * pattern that starts with a literal prefix are found by a binary search. The index is maintained
+ * from Java element deltas: changed compilation units are read again when the index is used next,
+ * whereas changes of class paths and libraries discard the index, which is then rebuilt by a
+ * background job. The index is softly referenced and dropped when memory gets low.
+ * </p>
+ *
+ * @since 3.32
+ */
+public final class TypeNameMatchIndex {
+
+	/**
+	 * Orders matches by their simple names, ignoring case the same way as
+	 * {@link Strings#startsWithIgnoreCase(String, String)},
+	 * so that all names with a given prefix are adjacent.
+	 */
+	private static final Comparator<TypeNameMatch> NAME_ORDER= (m1, m2) -> compareNames(m1.getSimpleTypeName(), m2.getSimpleTypeName());
+
+	private class DeltaListener implements IElementChangedListener {
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			if (processDelta(event.getDelta()))
+				discard();
+		}
+
+		/**
+		 * Records the changed compilation units of the delta.
+		 *
+		 * @param delta the Java element delta
+		 * @return <code>true</code> if the whole index must be discarded
+		 */
+		private boolean processDelta(IJavaElementDelta delta) {
+			IJavaElement elem= delta.getElement();
+			int kind= delta.getKind();
+			int flags= delta.getFlags();
+			boolean isAddedOrRemoved= kind == IJavaElementDelta.ADDED || kind == IJavaElementDelta.REMOVED;
+
+			switch (elem.getElementType()) {
+				case IJavaElement.JAVA_MODEL:
+					return processChildrenDelta(delta);
+				case IJavaElement.JAVA_PROJECT:
+					if (isAddedOrRemoved || (flags & (IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED
+							| IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+						return true;
+					}
+					return processChildrenDelta(delta);
+				case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+					if (isAddedOrRemoved || (flags & (IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED
+							| IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH)) != 0) {
+						return true;
+					}
+					return processChildrenDelta(delta);
+				case IJavaElement.PACKAGE_FRAGMENT:
+					// the compilation units of added or removed packages aren't always reported
+					if (isAddedOrRemoved) {
+						return true;
+					}
+					return processChildrenDelta(delta);
+				case IJavaElement.CLASS_FILE:
+					return isAddedOrRemoved;
+				case IJavaElement.COMPILATION_UNIT:
+					ICompilationUnit unit= (ICompilationUnit) elem;
+					// Not the primary compilation unit. Ignore it
+					if (!JavaModelUtil.isPrimary(unit)) {
+						return false;
+					}
+					if (isAddedOrRemoved || hasChangedTypes(delta)) {
+						fChangedUnits.add(unit);
+					}
+					return false;
+				default:
+					return false;
+			}
+		}
+
+		private boolean processChildrenDelta(IJavaElementDelta delta) {
+			for (IJavaElementDelta child : delta.getAffectedChildren()) {
+				if (processDelta(child)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean hasChangedTypes(IJavaElementDelta delta) {
+			int flags= delta.getFlags();
+			if ((flags & IJavaElementDelta.F_CONTENT) != 0 && (flags & IJavaElementDelta.F_FINE_GRAINED) == 0) {
+				// unknown structural change
+				return true;
+			}
+			for (IJavaElementDelta child : delta.getAffectedChildren()) {
+				if (child.getElement().getElementType() != IJavaElement.TYPE)
+					continue;
+				if (child.getKind() != IJavaElementDelta.CHANGED || (child.getFlags() & IJavaElementDelta.F_MODIFIERS) != 0 || hasChangedTypes(child))
+					return true;
+			}
+			return false;
+		}
+	}
+
+	private class BuildJob extends Job {
+		public BuildJob() {
+			super(JavaUIMessages.FilteredTypesSelectionDialog_indexJob_name);
+			setSystem(true);
+			setPriority(Job.DECORATE);
+		}
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				update(monitor);
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			} catch (JavaModelException e) {
+				JavaPlugin.log(e);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	private static TypeNameMatchIndex fgInstance;
+
+	public static synchronized TypeNameMatchIndex getInstance() {
+		if (fgInstance == null)
+			fgInstance= new TypeNameMatchIndex();
+		return fgInstance;
+	}
+
+	public static synchronized void shutdown() {
+		if (fgInstance == null)
+			return;
+		fgInstance.doShutdown();
+		fgInstance= null;
+	}
+
+	private final IElementChangedListener fDeltaListener;
+
+	private final Job fBuildJob;
+
+	/**
+	 * Serializes the updates of the index.
+	 */
+	private final Object fUpdateLock= new Object();
+
+	/**
+	 * The matches sorted by {@link #NAME_ORDER}, or a cleared reference if the index must be
+	 * rebuilt. Guarded by <code>this</code> for writing.
+	 */
+	private volatile SoftReference<TypeNameMatch[]> fMatches= new SoftReference<>(null);
+
+	/**
+	 * Incremented whenever the index is discarded. Guarded by <code>this</code>.
+	 */
+	private int fGeneration;
+
+	/**
+	 * The primary compilation units that changed since the index was last updated.
+	 */
+	private final Set<ICompilationUnit> fChangedUnits= ConcurrentHashMap.newKeySet();
+
+	private TypeNameMatchIndex() {
+		fDeltaListener= new DeltaListener();
+		JavaCore.addElementChangedListener(fDeltaListener, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		fBuildJob= new BuildJob();
+	}
+
+	private void doShutdown() {
+		JavaCore.removeElementChangedListener(fDeltaListener);
+		fBuildJob.cancel();
+		discard();
+	}
+
+	private synchronized void discard() {
+		fGeneration++;
+		fMatches= new SoftReference<>(null);
+	}
+
+	/**
+	 * Reports the types of the workspace scope that match the given filter. If the index has not
+	 * been built yet, nothing is reported and the index is built in the background.
+	 *
+	 * @param filter the filter, which must have the workspace scope
+	 * @param requestor receives the matching types
+	 * @param monitor the progress monitor
+	 * @return <code>true</code> if the index was used, <code>false</code> if it isn't available yet
+	 *         and the types must be searched otherwise
+	 * @throws JavaModelException if the changed compilation units could not be read
+	 * @throws OperationCanceledException if the monitor has been canceled
+	 */
+	public boolean collect(TypeInfoFilter filter, Consumer<TypeNameMatch> requestor, IProgressMonitor monitor) throws JavaModelException {
+		TypeNameMatch[] matches= fMatches.get();
+		if (matches == null) {
+			fBuildJob.schedule();
+			return false;
+		}
+		if (!fChangedUnits.isEmpty()) {
+			matches= update(monitor);
+			if (matches == null)
+				return false;
+		}
+
+		int start= 0;
+		int end= matches.length;
+		String prefix= getPrefix(filter.getNamePattern(), filter.getSearchFlags());
+		if (prefix.length() > 0) {
+			start= lowerBound(matches, prefix);
+			end= start;
+			while (end < matches.length && Strings.startsWithIgnoreCase(matches[end].getSimpleTypeName(), prefix))
+				end++;
+		}
+		for (int i= start; i < end; i++) {
+			if ((i & 0xfff) == 0 && monitor.isCanceled())
+				throw new OperationCanceledException();
+			TypeNameMatch match= matches[i];
+			if (filter.matchesHistoryElement(match))
+				requestor.accept(match);
+		}
+		return true;
+	}
+
+	/**
+	 * Builds the index if necessary and reads the changed compilation units.
+	 *
+	 * @param monitor the progress monitor
+	 * @return the sorted matches, or <code>null</code> if the index has been discarded meanwhile
+	 * @throws JavaModelException if the types could not be searched
+	 * @throws OperationCanceledException if the monitor has been canceled
+	 */
+	public TypeNameMatch[] update(IProgressMonitor monitor) throws JavaModelException {
+		synchronized (fUpdateLock) {
+			int generation;
+			TypeNameMatch[] matches;
+			synchronized (this) {
+				generation= fGeneration;
+				matches= fMatches.get();
+			}
+			if (matches == null) {
+				// the search sees the current content of the changed units
+				fChangedUnits.clear();
+				matches= searchAllTypes(monitor);
+			} else if (fChangedUnits.isEmpty()) {
+				return matches;
+			}
+			matches= applyChanges(matches);
+			synchronized (this) {
+				if (generation != fGeneration)
+					return null;
+				fMatches= new SoftReference<>(matches);
+			}
+			return matches;
+		}
+	}
+
+	private static TypeNameMatch[] searchAllTypes(IProgressMonitor monitor) throws JavaModelException {
+		final List<TypeNameMatch> result= new ArrayList<>();
+		new SearchEngine((WorkingCopyOwner) null).searchAllTypeNames(
+				null,
+				SearchPattern.R_PREFIX_MATCH,
+				null,
+				SearchPattern.R_PREFIX_MATCH,
+				IJavaSearchConstants.TYPE,
+				SearchEngine.createWorkspaceScope(),
+				new TypeNameMatchRequestor() {
+					@Override
+					public void acceptTypeNameMatch(TypeNameMatch match) {
+						result.add(match);
+					}
+				},
+				IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
+				monitor);
+		TypeNameMatch[] matches= result.toArray(new TypeNameMatch[result.size()]);
+		Arrays.parallelSort(matches, NAME_ORDER);
+		return matches;
+	}
+
+	/**
+	 * Replaces the types of the changed compilation units by their current types.
+	 *
+	 * @param matches the sorted matches
+	 * @return the updated sorted matches
+	 */
+	private TypeNameMatch[] applyChanges(TypeNameMatch[] matches) {
+		Set<ICompilationUnit> changed= new HashSet<>(fChangedUnits);
+		if (changed.isEmpty())
+			return matches;
+		fChangedUnits.removeAll(changed);
+
+		List<TypeNameMatch> added= new ArrayList<>();
+		for (ICompilationUnit unit : changed) {
+			if (!unit.exists())
+				continue;
+			try {
+				for (IType type : unit.getAllTypes()) {
+					added.add(SearchEngine.createTypeNameMatch(type, type.getFlags()));
+				}
+			} catch (JavaModelException e) {
+				// the unit has been removed meanwhile
+			}
+		}
+		added.sort(NAME_ORDER);
+
+		List<TypeNameMatch> result= new ArrayList<>(matches.length + added.size());
+		int next= 0;
+		for (TypeNameMatch match : matches) {
+			ICompilationUnit unit= match.getType().getCompilationUnit();
+			if (unit != null && changed.contains(unit))
+				continue;
+			while (next < added.size() && NAME_ORDER.compare(added.get(next), match) < 0)
+				result.add(added.get(next++));
+			result.add(match);
+		}
+		result.addAll(added.subList(next, added.size()));
+		return result.toArray(new TypeNameMatch[result.size()]);
+	}
+
+	/**
+	 * Returns the prefix that all simple names matching the pattern start with, ignoring case.
+	 *
+	 * @param pattern the name pattern
+	 * @param matchKind the match kind of the pattern
+	 * @return the prefix, can be empty
+	 */
+	private static String getPrefix(String pattern, int matchKind) {
+		switch (matchKind) {
+			case SearchPattern.R_PATTERN_MATCH:
+				for (int i= 0; i < pattern.length(); i++) {
+					char ch= pattern.charAt(i);
+					if (ch == '*' || ch == '?')
+						return pattern.substring(0, i);
+				}
+				return pattern;
+			case SearchPattern.R_CAMELCASE_MATCH:
+			case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH:
+				// camel case patterns only need to match the first character
+				return pattern.length() > 0 ? pattern.substring(0, 1) : pattern;
+			default:
+				return pattern;
+		}
+	}
+
+	private static int lowerBound(TypeNameMatch[] matches, String prefix) {
+		int low= 0;
+		int high= matches.length;
+		while (low < high) {
+			int mid= (low + high) >>> 1;
+			if (compareNames(matches[mid].getSimpleTypeName(), prefix) < 0)
+				low= mid + 1;
+			else
+				high= mid;
+		}
+		return low;
+	}
+
+	private static int compareNames(String name1, String name2) {
+		int length= Math.min(name1.length(), name2.length());
+		for (int i= 0; i < length; i++) {
+			char ch1= Character.toLowerCase(name1.charAt(i));
+			char ch2= Character.toLowerCase(name2.charAt(i));
+			if (ch1 != ch2)
+				return ch1 - ch2;
+		}
+		return name1.length() - name2.length();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2020 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -53,6 +53,18 @@ public abstract class JarBuilder implements IJarBuilder {
 		return fStatus;
 	}
 
+	/**
+	 * Writes the files that the builder has not written yet, so that their problems are part of
+	 * the status. Builders that write the files passed to
+	 * {@link #writeFile(org.eclipse.core.resources.IFile, org.eclipse.core.runtime.IPath)} later
+	 * must override.
+	 *
+	 * @since 3.32
+	 */
+	public void flush() {
+		// files are written immediately
+	}
+
 	//some methods for convenience
 	protected final void addInfo(String message, Throwable error) {
 		fStatus.add(new Status(IStatus.INFO, JavaPlugin.getPluginId(), IJavaStatusConstants.INTERNAL_ERROR, message, error));
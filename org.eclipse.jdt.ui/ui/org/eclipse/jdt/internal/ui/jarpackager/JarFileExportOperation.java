@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1001,6 +1001,10 @@ public class JarFileExportOperation extends WorkspaceModifyOperation implements
 			fJarBuilder.open(fJarPackage, fParentShell, fStatus);
 
 			exportSelectedElements(progressMonitor);
+			if (fJarBuilder instanceof JarBuilder) {
+				// report the problems of files written in the background
+				((JarBuilder) fJarBuilder).flush();
+			}
 			if (getStatus().getSeverity() != IStatus.ERROR) {
 				progressMonitor.subTask(JarPackagerMessages.JarFileExportOperation_savingFiles);
 				saveFiles();
@@ -0,0 +1,376 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.jarpackager;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.jdt.internal.core.manipulation.util.BasicElementLabels;
+import org.eclipse.jdt.internal.corext.util.Messages;
+
+import org.eclipse.jdt.ui.jarpackager.JarPackageData;
+import org.eclipse.jdt.ui.jarpackager.JarWriter3;
+
+import org.eclipse.jdt.internal.ui.IJavaStatusConstants;
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * A JAR writer that reads the files passed to {@link #writeLater(IFile, IPath)} on worker threads,
+ * while it writes the entries of the files that have been read before.
+ * <p>
+ * The entries are written by the thread calling the writer, in the order in which the files have
+ * been passed, so the archive is the same as the one written by {@link JarWriter3}. The workers
+ * read the contents, the time stamps and, for uncompressed archives, the checksums of the files.
+ * Large files are not kept in memory but streamed into the archive when their entry is written, so
+ * that only a bounded number of small files is buffered at any time.
+ * </p>
+ * <p>
+ * Since the files are written later, problems are not thrown but added to the status of the
+ * export. All files have been written when {@link #flush()} or {@link #close()} returns.
+ * </p>
+ *
+ * @since 3.32
+ */
+public class PipelinedJarWriter extends JarWriter3 {
+
+	/** The maximum number of files that are read but not yet written */
+	private static final int MAX_PENDING_FILES= 128;
+
+	/** Files larger than this are streamed into the archive instead of being read in advance */
+	private static final long MAX_BUFFERED_SIZE= 256 * 1024;
+
+	private static final int MAX_THREADS= Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+	/**
+	 * A file whose contents have been read by a worker.
+	 */
+	private static final class PreparedFile {
+
+		final IFile fResource;
+
+		final File fFile;
+
+		final IPath fDestination;
+
+		/** The contents, or <code>null</code> if the file is streamed */
+		byte[] fContents;
+
+		long fLastModified;
+
+		/** The size and the checksum of the contents, only computed for uncompressed archives */
+		long fSize= -1;
+
+		long fCrc;
+
+		PreparedFile(IFile resource, File file, IPath destination) {
+			fResource= resource;
+			fFile= file;
+			fDestination= destination;
+		}
+
+		InputStream openContents() throws IOException, CoreException {
+			if (fContents != null)
+				return new ByteArrayInputStream(fContents);
+			if (fResource != null)
+				return fResource.getContents(false);
+			return Files.newInputStream(fFile.toPath());
+		}
+
+		IPath getSourcePath() {
+			return fResource != null ? fResource.getFullPath() : new Path(fFile.getAbsolutePath());
+		}
+	}
+
+	private final JarPackageData fJarPackage;
+
+	private final MultiStatus fStatus;
+
+	/** The files that have been passed but not yet written, in the order they were passed */
+	private final Deque<Future<PreparedFile>> fPending= new ArrayDeque<>();
+
+	private ExecutorService fExecutor;
+
+	/**
+	 * Creates a writer which is used to create a JAR based on the given JarPackage.
+	 *
+	 * @param jarPackage the JAR specification
+	 * @param parent the shell used to display question dialogs, or <code>null</code> if
+	 *            "false/no/cancel" is the answer and no dialog should be shown
+	 * @param status the status to add the problems of the files written later to, or
+	 *            <code>null</code> to write all files immediately
+	 * @throws CoreException to signal any other unusual termination
+	 */
+	public PipelinedJarWriter(JarPackageData jarPackage, Shell parent, MultiStatus status) throws CoreException {
+		super(jarPackage, parent);
+		fJarPackage= jarPackage;
+		fStatus= status;
+	}
+
+	/**
+	 * Writes the passed resource to the current archive after the files passed before. The
+	 * contents are read in the background.
+	 *
+	 * @param resource the file to be written
+	 * @param destinationPath the path for the file inside the archive
+	 * @throws CoreException if the file is written immediately and writing it failed
+	 */
+	public void writeLater(IFile resource, IPath destinationPath) throws CoreException {
+		if (fStatus == null) {
+			write(resource, destinationPath);
+			return;
+		}
+		submit(new PreparedFile(resource, null, destinationPath));
+	}
+
+	/**
+	 * Writes the passed file to the current archive after the files passed before. The contents
+	 * are read in the background.
+	 *
+	 * @param file the file to be written
+	 * @param destinationPath the path for the file inside the archive
+	 * @throws CoreException if the file is written immediately and writing it failed
+	 */
+	public void writeLater(File file, IPath destinationPath) throws CoreException {
+		if (fStatus == null) {
+			writeNow(file, destinationPath);
+			return;
+		}
+		submit(new PreparedFile(null, file, destinationPath));
+	}
+
+	/**
+	 * Writes the passed file to the current archive, after writing the files passed before.
+	 * Large files are streamed into the archive.
+	 *
+	 * @param file the file to be written
+	 * @param destinationPath the path for the file inside the archive
+	 * @throws CoreException if writing the file failed
+	 */
+	protected void writeNow(File file, IPath destinationPath) throws CoreException {
+		flush();
+		write(prepare(new PreparedFile(null, file, destinationPath)));
+	}
+
+	/**
+	 * Writes all files that have been passed to the writer.
+	 */
+	public void flush() {
+		while (!fPending.isEmpty()) {
+			writeNext();
+		}
+	}
+
+	@Override
+	public void write(IFile resource, IPath destinationPath) throws CoreException {
+		flush();
+		super.write(resource, destinationPath);
+	}
+
+	@Override
+	public JarOutputStream getJarOutputStream() {
+		// entries written directly must not overtake the pending ones
+		flush();
+		return super.getJarOutputStream();
+	}
+
+	@Override
+	public void close() throws CoreException {
+		try {
+			flush();
+		} finally {
+			if (fExecutor != null) {
+				fExecutor.shutdownNow();
+				fExecutor= null;
+			}
+		}
+		super.close();
+	}
+
+	private void submit(PreparedFile file) {
+		if (fExecutor == null) {
+			fExecutor= Executors.newFixedThreadPool(MAX_THREADS, runnable -> {
+				Thread thread= new Thread(runnable, "JAR Export"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		fPending.add(fExecutor.submit(() -> prepare(file)));
+		while (fPending.size() > MAX_PENDING_FILES || (!fPending.isEmpty() && fPending.peekFirst().isDone())) {
+			writeNext();
+		}
+	}
+
+	private void writeNext() {
+		Future<PreparedFile> next= fPending.removeFirst();
+		boolean interrupted= false;
+		try {
+			while (true) {
+				try {
+					write(next.get());
+					return;
+				} catch (InterruptedException e) {
+					// the entries have to be written to get a valid archive
+					interrupted= true;
+				}
+			}
+		} catch (ExecutionException e) {
+			Throwable cause= e.getCause();
+			if (cause instanceof CoreException)
+				addProblem((CoreException) cause);
+			else if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			else if (cause instanceof Error)
+				throw (Error) cause;
+			else
+				throw new IllegalStateException(cause);
+		} catch (CoreException e) {
+			addProblem(e);
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Reads the file, called by the workers.
+	 *
+	 * @param file the file to read
+	 * @return the read file
+	 * @throws CoreException if the file could not be read
+	 */
+	private PreparedFile prepare(PreparedFile file) throws CoreException {
+		try {
+			long length= -1;
+			file.fLastModified= System.currentTimeMillis();
+			if (file.fResource != null) {
+				URI location= file.fResource.getLocationURI();
+				if (location != null) {
+					IFileInfo info= EFS.getStore(location).fetchInfo();
+					if (info.exists()) {
+						file.fLastModified= info.getLastModified();
+						length= info.getLength();
+					}
+				}
+			} else {
+				file.fLastModified= file.fFile.lastModified();
+				length= file.fFile.length();
+			}
+
+			if (length >= 0 && length <= MAX_BUFFERED_SIZE) {
+				try (InputStream contents= file.openContents()) {
+					file.fContents= contents.readAllBytes();
+				}
+			}
+			if (!fJarPackage.isCompressed()) {
+				if (file.fContents != null) {
+					CRC32 crc= new CRC32();
+					crc.update(file.fContents);
+					file.fCrc= crc.getValue();
+					file.fSize= file.fContents.length;
+				} else {
+					// streamed, so the checksum needs an extra pass
+					CheckedOutputStream checked= new CheckedOutputStream(OutputStream.nullOutputStream(), new CRC32());
+					try (InputStream contents= file.openContents()) {
+						file.fSize= contents.transferTo(checked);
+					}
+					file.fCrc= checked.getChecksum().getValue();
+				}
+			}
+			return file;
+		} catch (IOException ex) {
+			throw createWriteException(file, ex);
+		}
+	}
+
+	private void write(PreparedFile file) throws CoreException {
+		try {
+			if (fJarPackage.areDirectoryEntriesIncluded()) {
+				if (file.fResource != null)
+					addDirectories(file.fResource, file.fDestination);
+				else
+					addDirectories(file.fDestination);
+			}
+			JarEntry newEntry= new JarEntry(file.fDestination.toString().replace(File.separatorChar, '/'));
+			if (fJarPackage.isCompressed()) {
+				newEntry.setMethod(ZipEntry.DEFLATED);
+				// Entry is filled automatically.
+			} else {
+				newEntry.setMethod(ZipEntry.STORED);
+				newEntry.setSize(file.fSize);
+				newEntry.setCrc(file.fCrc);
+			}
+			newEntry.setTime(file.fLastModified);
+			addEntry(newEntry, file.openContents());
+		} catch (IOException ex) {
+			throw createWriteException(file, ex);
+		}
+	}
+
+	private static CoreException createWriteException(PreparedFile file, IOException ex) {
+		// Ensure full path is visible
+		String path= BasicElementLabels.getPathLabel(file.getSourcePath(), false);
+		String message;
+		if (ex.getLocalizedMessage() != null)
+			message= Messages.format(JarPackagerMessages.JarWriter_writeProblemWithMessage, new Object[] { path, ex.getLocalizedMessage() });
+		else
+			message= Messages.format(JarPackagerMessages.JarWriter_writeProblem, path);
+		return JarPackagerUtil.createCoreException(message, ex);
+	}
+
+	/**
+	 * Adds a problem like {@link JarFileExportOperation} does for files that are written
+	 * immediately.
+	 *
+	 * @param ex the problem
+	 */
+	private void addProblem(CoreException ex) {
+		Throwable realEx= ex.getStatus().getException();
+		if (realEx instanceof ZipException && realEx.getMessage() != null
+				&& realEx.getMessage().startsWith("duplicate entry:")) //$NON-NLS-1$ hardcoded message string from java.util.zip.ZipOutputStream.putNextEntry(ZipEntry)
+			fStatus.add(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), IJavaStatusConstants.INTERNAL_ERROR, ex.getMessage(), realEx));
+		else
+			fStatus.add(ex.getStatus());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2011 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -27,7 +27,6 @@ import org.eclipse.core.resources.IFile;
 
 import org.eclipse.jdt.ui.jarpackager.IManifestProvider;
 import org.eclipse.jdt.ui.jarpackager.JarPackageData;
-import org.eclipse.jdt.ui.jarpackager.JarWriter3;
 
 /**
  * Jar builder for the plain jar exported. Does not export archives.
@@ -39,7 +38,7 @@ public class PlainJarBuilder extends JarBuilder {
 	public static final String BUILDER_ID= "org.eclipse.jdt.ui.plain_jar_builder"; //$NON-NLS-1$
 
 	private JarPackageData fJarPackage;
-	private JarWriter3 fJarWriter;
+	private PipelinedJarWriter fJarWriter;
 
 	@Override
 	public String getId() {
@@ -55,12 +54,12 @@ public class PlainJarBuilder extends JarBuilder {
 	public void open(JarPackageData jarPackage, Shell displayShell, MultiStatus statusMsg) throws CoreException {
 		super.open(jarPackage, displayShell, statusMsg);
 		fJarPackage= jarPackage;
-		fJarWriter= new JarWriter3(fJarPackage, displayShell);
+		fJarWriter= new PipelinedJarWriter(fJarPackage, displayShell, statusMsg);
 	}
 
 	@Override
 	public void writeFile(IFile resource, IPath destinationPath) throws CoreException {
-		fJarWriter.write(resource, destinationPath);
+		fJarWriter.writeLater(resource, destinationPath);
 	}
 
 	@Override
@@ -68,6 +67,13 @@ public class PlainJarBuilder extends JarBuilder {
 		//do nothing, plain jar builder can not handle archives, use fat jar builder
 	}
 
+	@Override
+	public void flush() {
+		if (fJarWriter != null) {
+			fJarWriter.flush();
+		}
+	}
+
 	@Override
 	public void close() throws CoreException {
 		if (fJarWriter != null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2011 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -54,17 +54,24 @@ public abstract class FatJarBuilder extends JarBuilder implements IJarBuilderExt
 	public void open(JarPackageData jarPackage, Shell displayShell, MultiStatus status) throws CoreException {
 		super.open(jarPackage, displayShell, status);
 		fJarPackage= jarPackage;
-		fJarWriter= new JarWriter4(fJarPackage, displayShell);
+		fJarWriter= new JarWriter4(fJarPackage, displayShell, status);
 	}
 
 	@Override
 	public void writeFile(IFile resource, IPath destinationPath) throws CoreException {
-		fJarWriter.write(resource, destinationPath);
+		fJarWriter.writeLater(resource, destinationPath);
 	}
 
 	@Override
 	public void writeFile(File file, IPath destinationPath) throws CoreException {
-		fJarWriter.write(file, destinationPath);
+		fJarWriter.writeLater(file, destinationPath);
+	}
+
+	@Override
+	public void flush() {
+		if (fJarWriter != null) {
+			fJarWriter.flush();
+		}
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2023 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,10 +18,15 @@ package org.eclipse.jdt.internal.ui.jarpackagerfat;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
-import java.util.jar.JarEntry;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
@@ -32,6 +37,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
 
 import org.eclipse.jdt.ui.JavaUI;
@@ -39,7 +45,6 @@ import org.eclipse.jdt.ui.jarpackager.IManifestProvider;
 import org.eclipse.jdt.ui.jarpackager.JarPackageData;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
-import org.eclipse.jdt.internal.ui.jarpackager.JarPackagerUtil;
 
 /**
  * A jar builder which copies the referenced libraries into the generated jar and adds a special
@@ -53,7 +58,12 @@ public class FatJarRsrcUrlBuilder extends FatJarBuilder {
 	public static final String JAR_RSRC_LOADER_ZIP= "jar-in-jar-loader.zip"; //$NON-NLS-1$
 
 	private Set<String> jarNames;
-	private JarPackageData fJarPackage;
+
+	/**
+	 * The index for the class loader, from the names of the nested JARs in the Rsrc-Class-Path
+	 * to the keys of their entries, see {@link #getIndexKey(String)}
+	 */
+	private Map<String, Set<String>> jarIndex;
 
 	@Override
 	public String getId() {
@@ -91,8 +101,8 @@ public class FatJarRsrcUrlBuilder extends FatJarBuilder {
 	@Override
 	public void open(JarPackageData jarPackage, Shell displayShell, MultiStatus status) throws CoreException {
 		super.open(jarPackage, displayShell, status);
-		fJarPackage= jarPackage;
 		jarNames= new HashSet<>();
+		jarIndex= new LinkedHashMap<>();
 		try {
 			writeRsrcUrlClasses();
 		} catch (IOException e) {
@@ -108,17 +118,69 @@ public class FatJarRsrcUrlBuilder extends FatJarBuilder {
 			jarName= FatJarPackagerUtil.nextNumberedFileName(jarName);
 		}
 		jarNames.add(jarName);
-		JarEntry newEntry = new JarEntry(jarName);
-		newEntry.setMethod(ZipEntry.STORED);
+		Set<String> keys= new TreeSet<>();
+		Enumeration<? extends ZipEntry> entries= jarFile.entries();
+		while (entries.hasMoreElements()) {
+			String key= getIndexKey(entries.nextElement().getName());
+			if (!key.isEmpty())
+				keys.add(key);
+		}
+		// as written to the manifest by FatJarRsrcUrlManifestProvider
+		jarIndex.put(URLEncoder.encode(jarName, StandardCharsets.UTF_8), keys);
 		try {
-			byte[] allBytes= Files.readAllBytes(jarPathFile.toPath());
-			if (!fJarPackage.isCompressed()) {
-				JarPackagerUtil.setCrcAndSize(newEntry, allBytes);
-			}
-			getJarWriter().addZipEntryStream(newEntry, allBytes, jarName);
+			// streamed, libraries can be large
+			getJarWriter().writeLater(jarPathFile, new Path(jarName));
+		} catch (CoreException e) {
+			addToStatus(e);
+		}
+	}
+
+	@Override
+	public void close() throws CoreException {
+		try {
+			if (jarIndex != null && !jarIndex.isEmpty() && getJarWriter() != null)
+				writeRsrcIndex();
 		} catch (IOException e) {
-			throw new RuntimeException(e);
+			addToStatus(new CoreException(new Status(IStatus.ERROR, JavaUI.ID_PLUGIN, e.getMessage(), e)));
+		}
+		super.close();
+	}
+
+	/**
+	 * Returns the key of a JAR entry in the index. This has to be the same as
+	 * <code>IndexedRsrcClassLoader.getIndexKey(String)</code> in the JAR in JAR loader.
+	 *
+	 * @param name the name of the entry
+	 * @return the directory of the entry, or the name itself if it is in the root
+	 */
+	static String getIndexKey(String name) {
+		int slash= name.lastIndexOf('/');
+		return slash < 0 ? name : name.substring(0, slash);
+	}
+
+	/**
+	 * Writes the index which lets the class loader look up classes and resources only in the
+	 * nested JARs which contain their package. It has a section for every nested JAR, separated by
+	 * empty lines. The first line of a section is the name of the JAR, the other lines are the
+	 * keys of its entries.
+	 *
+	 * @throws IOException if writing the index failed
+	 */
+	private void writeRsrcIndex() throws IOException {
+		StringBuilder index= new StringBuilder(JIJConstants.RSRC_INDEX_VERSION).append('\n');
+		for (Map.Entry<String, Set<String>> jar : jarIndex.entrySet()) {
+			index.append('\n').append(jar.getKey()).append('\n');
+			for (String key : jar.getValue()) {
+				index.append(key).append('\n');
+			}
 		}
+		byte[] content= index.toString().getBytes(StandardCharsets.UTF_8);
+		ZipEntry zipEntry= new ZipEntry(JIJConstants.RSRC_INDEX_NAME);
+		CRC32 crc= new CRC32();
+		crc.update(content);
+		zipEntry.setSize(content.length);
+		zipEntry.setCrc(crc.getValue());
+		getJarWriter().addZipEntryStream(zipEntry, content, JIJConstants.RSRC_INDEX_NAME);
 	}
 
 	public void writeRsrcUrlClasses() throws IOException {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2020 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,7 +20,6 @@ package org.eclipse.jdt.internal.ui.jarpackagerfat;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import java.util.zip.ZipEntry;
@@ -30,23 +29,19 @@ import org.eclipse.swt.widgets.Shell;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
-import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.MultiStatus;
 
-import org.eclipse.jdt.internal.core.manipulation.util.BasicElementLabels;
-import org.eclipse.jdt.internal.corext.util.Messages;
 import org.eclipse.jdt.internal.jarpackager.JarPackagerUtilCore;
 
 import org.eclipse.jdt.ui.jarpackager.JarPackageData;
-import org.eclipse.jdt.ui.jarpackager.JarWriter3;
 
-import org.eclipse.jdt.internal.ui.jarpackager.JarPackagerMessages;
-import org.eclipse.jdt.internal.ui.jarpackager.JarPackagerUtil;
+import org.eclipse.jdt.internal.ui.jarpackager.PipelinedJarWriter;
 
 
 /**
  * @since 3.4
  */
-public class JarWriter4 extends JarWriter3 {
+public class JarWriter4 extends PipelinedJarWriter {
 
 	private final JarPackageData fJarPackage;
 
@@ -62,7 +57,21 @@ public class JarWriter4 extends JarWriter3 {
 	}
 
 	public JarWriter4(JarPackageData jarPackage, Shell parent) throws CoreException {
-		super(jarPackage, parent);
+		this(jarPackage, parent, null);
+	}
+
+	/**
+	 * Creates a writer that writes the files passed to {@link #writeLater(File, IPath)} in the
+	 * background.
+	 *
+	 * @param jarPackage the JAR specification
+	 * @param parent the shell used to display question dialogs, or <code>null</code>
+	 * @param status the status to add the problems of the files written later to
+	 * @throws CoreException to signal any other unusual termination
+	 * @since 3.32
+	 */
+	public JarWriter4(JarPackageData jarPackage, Shell parent, MultiStatus status) throws CoreException {
+		super(jarPackage, parent, status);
 		fJarPackage= jarPackage;
 	}
 
@@ -95,41 +104,6 @@ public class JarWriter4 extends JarWriter3 {
 	}
 
 	public void write(File file, IPath destinationPath) throws CoreException {
-		try {
-			addFile(file, destinationPath);
-		} catch (IOException ex) {
-			// Ensure full path is visible
-			String message= null;
-			IPath path= new Path(file.getAbsolutePath());
-			if (ex.getLocalizedMessage() != null)
-				message= Messages.format(JarPackagerMessages.JarWriter_writeProblemWithMessage,
-						new Object[] { BasicElementLabels.getPathLabel(path, false), ex.getLocalizedMessage() });
-			else
-				message= Messages.format(JarPackagerMessages.JarWriter_writeProblem, BasicElementLabels.getPathLabel(path, false));
-			throw JarPackagerUtil.createCoreException(message, ex);
-		}
-	}
-
-	private void addFile(File file, IPath path) throws IOException {
-		if (fJarPackage.areDirectoryEntriesIncluded())
-			addDirectories(path);
-
-		JarEntry newEntry= new JarEntry(path.toString().replace(File.separatorChar, '/'));
-
-		byte[] allBytes= Files.readAllBytes(file.toPath());
-		if (fJarPackage.isCompressed())
-			newEntry.setMethod(ZipEntry.DEFLATED);
-			// Entry is filled automatically.
-		else {
-			newEntry.setMethod(ZipEntry.STORED);
-				JarPackagerUtil.setCrcAndSize(newEntry, allBytes);
-		}
-
-		newEntry.setTime(file.lastModified());
-
-		@SuppressWarnings("resource")
-		JarOutputStream jarOutputStream= getJarOutputStream();
-		jarOutputStream.putNextEntry(newEntry);
-		jarOutputStream.write(allBytes);
+		writeNow(file, destinationPath);
 	}
 }
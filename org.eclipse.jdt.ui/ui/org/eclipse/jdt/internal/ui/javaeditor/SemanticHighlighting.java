@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -76,6 +76,17 @@ public abstract class SemanticHighlighting extends SemanticHighlightingCore {
 	 */
 	public abstract boolean isEnabledByDefault();
 
+	/**
+	 * Returns the kinds of bindings of the simple names this highlighting may consume, so that
+	 * {@link SemanticHighlightingClassifier} does not ask it about other simple names.
+	 *
+	 * @return a combination of the binding flags of {@link SemanticHighlightingClassifier}
+	 * @since 3.32
+	 */
+	public int getConsumedBindingKinds() {
+		return SemanticHighlightingClassifier.ANY_BINDING;
+	}
+
 	private String getThemeColorKey() {
 		return JavaUI.ID_PLUGIN + "." + getPreferenceKey() + "Highlighting";  //$NON-NLS-1$//$NON-NLS-2$
 	}
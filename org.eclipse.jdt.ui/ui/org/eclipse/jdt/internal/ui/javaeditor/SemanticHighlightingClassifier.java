@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.javaeditor;
+
+import org.eclipse.jdt.core.dom.IBinding;
+
+/**
+ * Classifies semantic tokens by the enabled semantic highlightings.
+ * <p>
+ * Instead of asking every enabled highlighting whether it consumes a token, the classifier
+ * resolves the binding of the token once and only asks the highlightings that can consume a
+ * token with that kind of binding (see {@link SemanticHighlighting#getConsumedBindingKinds()}).
+ * The candidates per kind of binding are precomputed in the order of the highlightings, so
+ * that the precedence of the highlightings is kept.
+ * </p>
+ *
+ * @since 3.32
+ */
+public final class SemanticHighlightingClassifier {
+
+	/** Flag for tokens without binding */
+	public static final int NO_BINDING= 1 << 0;
+	/** Flag for tokens with a variable binding */
+	public static final int VARIABLE_BINDING= 1 << 1;
+	/** Flag for tokens with a method binding */
+	public static final int METHOD_BINDING= 1 << 2;
+	/** Flag for tokens with a type binding */
+	public static final int TYPE_BINDING= 1 << 3;
+	/** Flag for tokens with any other binding (package, module, annotation, member value pair) */
+	public static final int OTHER_BINDING= 1 << 4;
+	/** Flags for tokens with any or no binding */
+	public static final int ANY_BINDING= NO_BINDING | VARIABLE_BINDING | METHOD_BINDING | TYPE_BINDING | OTHER_BINDING;
+
+	private static final int NO_BINDING_INDEX= 0;
+	private static final int VARIABLE_BINDING_INDEX= 1;
+	private static final int METHOD_BINDING_INDEX= 2;
+	private static final int TYPE_BINDING_INDEX= 3;
+	private static final int OTHER_BINDING_INDEX= 4;
+
+	private final SemanticHighlighting[] fSemanticHighlightings;
+
+	/** Indices of the candidate highlightings for simple names, per kind of binding */
+	private final int[][] fCandidates;
+
+	/** Indices of the enabled highlightings, the candidates for literals */
+	private final int[] fLiteralCandidates;
+
+	/**
+	 * Creates a classifier for the given highlightings.
+	 *
+	 * @param semanticHighlightings the semantic highlightings in the order of their precedence
+	 * @param enabled the enablement of each semantic highlighting
+	 */
+	public SemanticHighlightingClassifier(SemanticHighlighting[] semanticHighlightings, boolean[] enabled) {
+		fSemanticHighlightings= semanticHighlightings;
+		int[] kinds= new int[semanticHighlightings.length];
+		int enabledCount= 0;
+		for (int i= 0; i < semanticHighlightings.length; i++) {
+			if (enabled[i]) {
+				kinds[i]= semanticHighlightings[i].getConsumedBindingKinds();
+				enabledCount++;
+			}
+		}
+		fLiteralCandidates= new int[enabledCount];
+		for (int i= 0, j= 0; i < semanticHighlightings.length; i++) {
+			if (enabled[i])
+				fLiteralCandidates[j++]= i;
+		}
+		fCandidates= new int[OTHER_BINDING_INDEX + 1][];
+		for (int index= 0; index < fCandidates.length; index++) {
+			int flag= 1 << index;
+			int count= 0;
+			for (int kind : kinds) {
+				if ((kind & flag) != 0)
+					count++;
+			}
+			int[] candidates= new int[count];
+			for (int i= 0, j= 0; i < kinds.length; i++) {
+				if ((kinds[i] & flag) != 0)
+					candidates[j++]= i;
+			}
+			fCandidates[index]= candidates;
+		}
+	}
+
+	/**
+	 * Returns the index of the first highlighting that consumes the given simple name token.
+	 *
+	 * @param token the semantic token for a simple name
+	 * @return the index of the highlighting, or <code>-1</code> if none consumes the token
+	 */
+	public int classify(SemanticToken token) {
+		for (int i : getCandidates(token)) {
+			if (fSemanticHighlightings[i].consumes(token))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Computes the indices of all highlightings that consume the given simple name token.
+	 *
+	 * @param token the semantic token for a simple name
+	 * @param result the array to store the indices in, in the order of the highlightings, must be
+	 *            at least as long as the highlightings array
+	 * @return the number of highlightings that consume the token
+	 */
+	public int classifyAll(SemanticToken token, int[] result) {
+		int count= 0;
+		for (int i : getCandidates(token)) {
+			if (fSemanticHighlightings[i].consumes(token))
+				result[count++]= i;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the index of the first highlighting that consumes the given literal token.
+	 *
+	 * @param token the semantic token for a literal
+	 * @return the index of the highlighting, or <code>-1</code> if none consumes the token
+	 */
+	public int classifyLiteral(SemanticToken token) {
+		for (int i : fLiteralCandidates) {
+			if (fSemanticHighlightings[i].consumesLiteral(token))
+				return i;
+		}
+		return -1;
+	}
+
+	private int[] getCandidates(SemanticToken token) {
+		IBinding binding= token.getBinding();
+		if (binding == null)
+			return fCandidates[NO_BINDING_INDEX];
+		switch (binding.getKind()) {
+			case IBinding.VARIABLE:
+				return fCandidates[VARIABLE_BINDING_INDEX];
+			case IBinding.METHOD:
+				return fCandidates[METHOD_BINDING_INDEX];
+			case IBinding.TYPE:
+				return fCandidates[TYPE_BINDING_INDEX];
+			default:
+				return fCandidates[OTHER_BINDING_INDEX];
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -52,6 +52,39 @@ public class SemanticHighlightingPresenter extends SemanticHighlightingPresenter
 	/** The background presentation reconciler */
 	private JavaPresentationReconciler fPresentationReconciler;
 
+	/**
+	 * Lock for the changed regions.
+	 * @since 3.32
+	 */
+	private final Object fChangedRegionLock= new Object();
+	/**
+	 * Region changed since the reconciler took the last one, as start and end offset, or
+	 * <code>null</code>.
+	 * @since 3.32
+	 */
+	private int[] fChangedRegion;
+	/**
+	 * <code>true</code> iff the whole document must be reconciled.
+	 * @since 3.32
+	 */
+	private boolean fIsAllChanged= true;
+	/**
+	 * Region taken by the running reconcile, or <code>null</code>.
+	 * @since 3.32
+	 */
+	private int[] fReconcilingRegion;
+	/**
+	 * <code>true</code> iff the running reconcile reconciles the whole document.
+	 * @since 3.32
+	 */
+	private boolean fIsReconcilingAll;
+	/**
+	 * Region of the last successful reconcile, or <code>null</code>. It is reconciled once more,
+	 * since the AST of the last reconcile may not have contained the latest changes.
+	 * @since 3.32
+	 */
+	private int[] fReconciledRegion;
+
 	/**
 	 * Creates and returns a new highlighted position with the given offset, length and highlighting.
 	 * <p>
@@ -344,6 +377,104 @@ public class SemanticHighlightingPresenter extends SemanticHighlightingPresenter
 	 */
 	@Override
 	public void documentChanged(DocumentEvent event) {
+		int offset= event.getOffset();
+		int length= event.getLength();
+		String text= event.getText();
+		int textLength= text != null ? text.length() : 0;
+		synchronized (fChangedRegionLock) {
+			fChangedRegion= union(update(fChangedRegion, offset, length, textLength), new int[] { offset, offset + textLength });
+			fReconcilingRegion= update(fReconcilingRegion, offset, length, textLength);
+			fReconciledRegion= update(fReconciledRegion, offset, length, textLength);
+		}
+	}
+
+	/**
+	 * Returns the region of the document that changed since the last reconcile. The reconciler
+	 * must call {@link #changedRegionReconciled(boolean)} when it is done.
+	 * <p>
+	 * NOTE: Called from background thread.
+	 * </p>
+	 *
+	 * @return the changed region, or <code>null</code> if the whole document must be reconciled
+	 * @since 3.32
+	 */
+	public IRegion takeChangedRegion() {
+		synchronized (fChangedRegionLock) {
+			int[] region= union(fChangedRegion, fReconciledRegion);
+			boolean isAllChanged= fIsAllChanged;
+			fReconcilingRegion= fChangedRegion;
+			fIsReconcilingAll= isAllChanged;
+			fChangedRegion= null;
+			fIsAllChanged= false;
+			if (region == null || isAllChanged)
+				return null;
+			return new Region(region[0], region[1] - region[0]);
+		}
+	}
+
+	/**
+	 * Tells that the region returned by {@link #takeChangedRegion()} has been reconciled.
+	 * <p>
+	 * NOTE: Called from background thread.
+	 * </p>
+	 *
+	 * @param success <code>true</code> if the highlighting of the region has been updated,
+	 *            <code>false</code> if the reconcile has been canceled
+	 * @since 3.32
+	 */
+	public void changedRegionReconciled(boolean success) {
+		synchronized (fChangedRegionLock) {
+			if (success) {
+				fReconciledRegion= fReconcilingRegion;
+			} else {
+				fChangedRegion= union(fChangedRegion, fReconcilingRegion);
+				fIsAllChanged|= fIsReconcilingAll;
+			}
+			fReconcilingRegion= null;
+			fIsReconcilingAll= false;
+		}
+	}
+
+	/**
+	 * Requires the next reconcile to reconcile the whole document.
+	 *
+	 * @since 3.32
+	 */
+	public void invalidateChangedRegion() {
+		synchronized (fChangedRegionLock) {
+			fIsAllChanged= true;
+		}
+	}
+
+	/**
+	 * Updates the given region for a document change.
+	 *
+	 * @param region the region as start and end offset, or <code>null</code>
+	 * @param offset the offset of the change
+	 * @param length the length of the replaced text
+	 * @param textLength the length of the inserted text
+	 * @return the updated region
+	 */
+	private static int[] update(int[] region, int offset, int length, int textLength) {
+		if (region == null)
+			return null;
+		return new int[] { update(region[0], offset, length, textLength, false), update(region[1], offset, length, textLength, true) };
+	}
+
+	private static int update(int position, int offset, int length, int textLength, boolean isEnd) {
+		if (position >= offset + length)
+			return position + textLength - length;
+		if (position > offset)
+			return isEnd ? offset + textLength : offset;
+		return position;
+	}
+
+	private static int[] union(int[] region1, int[] region2) {
+		if (region1 == null)
+			return region2;
+		if (region2 == null)
+			return region1;
+		return new int[] { Math.min(region1[0], region2[0]), Math.max(region1[1], region2[1]) };
 	}
 
 	/**
@@ -485,6 +616,7 @@ public class SemanticHighlightingPresenter extends SemanticHighlightingPresenter
 		synchronized (fPositionLock) {
 			fPositions.clear();
 		}
+		invalidateChangedRegion();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,10 +22,12 @@ import org.eclipse.swt.widgets.Shell;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.PerformanceStats;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextInputListener;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.TextPresentation;
@@ -37,13 +39,19 @@ import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.ConstructorInvocation;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.GuardedPattern;
 import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.Modifier;
 import org.eclipse.jdt.core.dom.Modifier.ModifierKeyword;
+import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.core.dom.RecordDeclaration;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.SimpleType;
@@ -67,6 +75,12 @@ import org.eclipse.jdt.internal.ui.util.ASTHelper;
  */
 public class SemanticHighlightingReconciler implements IJavaReconcilingListener, ITextInputListener {
 
+	/**
+	 * Performance event for a reconcile.
+	 * @since 3.32
+	 */
+	private static final String PERF_RECONCILE= "org.eclipse.jdt.ui/perf/javaeditor/semanticHighlighting"; //$NON-NLS-1$
+
 	/**
 	 * Collects positions from the AST.
 	 */
@@ -79,15 +93,12 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		@Override
 		protected boolean visitLiteral(Expression node) {
 			fToken.update(node);
-			for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
-				SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[i];
-				if (fJobHighlightings[i].isEnabled() && semanticHighlighting.consumesLiteral(fToken)) {
-					int offset= node.getStartPosition();
-					int length= node.getLength();
-					if (offset > -1 && length > 0)
-						addPosition(offset, length, fJobHighlightings[i]);
-					break;
-				}
+			int i= fJobClassifier.classifyLiteral(fToken);
+			if (i != -1) {
+				int offset= node.getStartPosition();
+				int length= node.getLength();
+				if (offset > -1 && length > 0)
+					addPosition(offset, length, fJobHighlightings[i]);
 			}
 			fToken.clear();
 			return false;
@@ -242,15 +253,12 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		@Override
 		public boolean visit(SimpleName node) {
 			fToken.update(node);
-			for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
-				SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[i];
-				if (fJobHighlightings[i].isEnabled() && semanticHighlighting.consumes(fToken)) {
-					int offset= node.getStartPosition();
-					int length= node.getLength();
-					if (offset > -1 && length > 0)
-						addPosition(offset, length, fJobHighlightings[i]);
-					break;
-				}
+			int i= fJobClassifier.classify(fToken);
+			if (i != -1) {
+				int offset= node.getStartPosition();
+				int length= node.getLength();
+				if (offset > -1 && length > 0)
+					addPosition(offset, length, fJobHighlightings[i]);
 			}
 			fToken.clear();
 			return false;
@@ -366,6 +374,11 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	private SemanticHighlighting[] fJobSemanticHighlightings;
 	/** Highlightings - cache for background thread, only valid during {@link #reconciled(CompilationUnit, boolean, IProgressMonitor)} */
 	private Highlighting[] fJobHighlightings;
+	/**
+	 * Classifier for the enabled highlightings - cache for background thread, only valid during {@link #reconciled(CompilationUnit, boolean, IProgressMonitor)}
+	 * @since 3.32
+	 */
+	private SemanticHighlightingClassifier fJobClassifier;
 
 	/**
 	 * XXX Hack for performance reasons (should loop over fJobSemanticHighlightings can call consumes(*))
@@ -373,6 +386,22 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 */
 	private Highlighting fJobDeprecatedMemberHighlighting;
 
+	/**
+	 * Number of declarations in the AST of the last successful reconcile, or <code>-1</code>.
+	 * @since 3.32
+	 */
+	private int fDeclarationCount= -1;
+	/**
+	 * Duration of the last reconcile in nanoseconds, only for testing and tracing.
+	 * @since 3.32
+	 */
+	private long fLastReconcileNanos;
+	/**
+	 * <code>true</code> iff the last reconcile only reconciled the changed body, only for testing and tracing.
+	 * @since 3.32
+	 */
+	private boolean fLastReconcileIncremental;
+
 	/*
 	 * @see org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener#aboutToBeReconciled()
 	 */
@@ -403,39 +432,66 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 
 			fJobPresenter.setCanceled(progressMonitor.isCanceled());
 
-			if (ast == null || fJobPresenter.isCanceled())
-				return;
-
-			ASTNode[] subtrees= getAffectedSubtrees(ast);
-			if (subtrees.length == 0)
-				return;
-
-			startReconcilingPositions();
-
-			if (!fJobPresenter.isCanceled()) {
-				fJobDeprecatedMemberHighlighting= null;
-				for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
-					SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[i];
-					if (fJobHighlightings[i].isEnabled() && semanticHighlighting instanceof DeprecatedMemberHighlighting) {
-						fJobDeprecatedMemberHighlighting= fJobHighlightings[i];
-						break;
+			IRegion changedRegion= fJobPresenter.takeChangedRegion();
+			boolean success= false;
+			try {
+				if (ast == null || fJobPresenter.isCanceled())
+					return;
+
+				long start= System.nanoTime();
+				int declarationCount= countDeclarations(ast);
+				ASTNode[] subtrees= getAffectedSubtrees(ast, changedRegion, forced, declarationCount);
+				if (subtrees.length == 0)
+					return;
+
+				boolean incremental= subtrees[0] != ast;
+				PerformanceStats stats= PerformanceStats.isEnabled(PERF_RECONCILE) ? PerformanceStats.getStats(PERF_RECONCILE, this) : null;
+				if (stats != null)
+					stats.startRun(ast.getTypeRoot() != null ? ast.getTypeRoot().getElementName() + (incremental ? " (incremental)" : "") : null); //$NON-NLS-1$ //$NON-NLS-2$
+
+				startReconcilingPositions(subtrees);
+
+				if (!fJobPresenter.isCanceled()) {
+					boolean[] enabled= new boolean[fJobHighlightings.length];
+					for (int i= 0; i < enabled.length; i++)
+						enabled[i]= fJobHighlightings[i].isEnabled();
+					fJobClassifier= new SemanticHighlightingClassifier(fJobSemanticHighlightings, enabled);
+					fJobDeprecatedMemberHighlighting= null;
+					for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
+						SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[i];
+						if (fJobHighlightings[i].isEnabled() && semanticHighlighting instanceof DeprecatedMemberHighlighting) {
+							fJobDeprecatedMemberHighlighting= fJobHighlightings[i];
+							break;
+						}
 					}
+					reconcilePositions(subtrees);
 				}
-				reconcilePositions(subtrees);
-			}
 
-			TextPresentation textPresentation= null;
-			if (!fJobPresenter.isCanceled())
-				textPresentation= fJobPresenter.createPresentation(fAddedPositions, fRemovedPositions);
+				TextPresentation textPresentation= null;
+				if (!fJobPresenter.isCanceled())
+					textPresentation= fJobPresenter.createPresentation(fAddedPositions, fRemovedPositions);
+
+				if (!fJobPresenter.isCanceled())
+					updatePresentation(textPresentation, fAddedPositions, fRemovedPositions);
 
-			if (!fJobPresenter.isCanceled())
-				updatePresentation(textPresentation, fAddedPositions, fRemovedPositions);
+				stopReconcilingPositions();
 
-			stopReconcilingPositions();
+				if (stats != null)
+					stats.endRun();
+				fLastReconcileNanos= System.nanoTime() - start;
+				fLastReconcileIncremental= incremental;
+
+				success= !fJobPresenter.isCanceled();
+				if (success)
+					fDeclarationCount= declarationCount;
+			} finally {
+				fJobPresenter.changedRegionReconciled(success);
+			}
 		} finally {
 			fJobPresenter= null;
 			fJobSemanticHighlightings= null;
 			fJobHighlightings= null;
+			fJobClassifier= null;
 			fJobDeprecatedMemberHighlighting= null;
 			synchronized (fReconcileLock) {
 				fIsReconciling= false;
@@ -444,32 +500,112 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	}
 
 	/**
-	 * @param node Root node
+	 * Returns the subtrees whose highlighting may be affected by the document changes since the
+	 * last reconcile.
+	 * <p>
+	 * If all changes are inside the body of a method or an initializer and no declaration has
+	 * been added or removed, only that body is affected: names declared in a body are not visible
+	 * outside of it. Otherwise, the whole AST is returned, since a change may have distant effects.
+	 * </p>
+	 *
+	 * @param ast the AST
+	 * @param changedRegion the changed region, or <code>null</code> if unknown
+	 * @param forced <code>true</code> iff the reconcile has been forced
+	 * @param declarationCount the number of declarations in the AST
 	 * @return Array of subtrees that may be affected by past document changes
 	 */
-	private ASTNode[] getAffectedSubtrees(ASTNode node) {
-		// TODO: only return nodes which are affected by document changes - would require an 'anchor' concept for taking distant effects into account
-		return new ASTNode[] { node };
+	private ASTNode[] getAffectedSubtrees(CompilationUnit ast, IRegion changedRegion, boolean forced, int declarationCount) {
+		if (forced || changedRegion == null || declarationCount != fDeclarationCount)
+			return new ASTNode[] { ast };
+
+		Block body= getEnclosingMemberBody(ast, changedRegion);
+		if (body == null)
+			return new ASTNode[] { ast };
+		return new ASTNode[] { body };
+	}
+
+	/**
+	 * Returns the body of the outermost method or initializer whose braces enclose the given
+	 * region.
+	 *
+	 * @param ast the AST
+	 * @param region the region
+	 * @return the body or <code>null</code>
+	 */
+	private static Block getEnclosingMemberBody(CompilationUnit ast, IRegion region) {
+		int start= region.getOffset();
+		int end= start + region.getLength();
+		Block result= null;
+		for (ASTNode node= NodeFinder.perform(ast, start, region.getLength()); node != null; node= node.getParent()) {
+			Block body= null;
+			if (node instanceof MethodDeclaration)
+				body= ((MethodDeclaration) node).getBody();
+			else if (node instanceof Initializer)
+				body= ((Initializer) node).getBody();
+			if (body != null && body.getStartPosition() < start && end < body.getStartPosition() + body.getLength())
+				result= body;
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the imports, types, members and enum constants of the given AST, without visiting
+	 * the bodies.
+	 *
+	 * @param ast the AST
+	 * @return the number of declarations
+	 */
+	private static int countDeclarations(CompilationUnit ast) {
+		int count= ast.imports().size();
+		for (Object type : ast.types())
+			count+= countDeclarations((AbstractTypeDeclaration) type);
+		return count;
+	}
+
+	private static int countDeclarations(AbstractTypeDeclaration type) {
+		List<?> declarations= type.bodyDeclarations();
+		int count= 1 + declarations.size();
+		if (type instanceof EnumDeclaration)
+			count+= ((EnumDeclaration) type).enumConstants().size();
+		for (Object declaration : declarations) {
+			if (declaration instanceof AbstractTypeDeclaration)
+				count+= countDeclarations((AbstractTypeDeclaration) declaration);
+		}
+		return count;
 	}
 
 	/**
 	 * Start reconciling positions.
+	 *
+	 * @param subtrees the AST subtrees to reconcile, positions outside of them are retained
 	 */
-	private void startReconcilingPositions() {
+	private void startReconcilingPositions(ASTNode[] subtrees) {
 		fJobPresenter.addAllPositions(fRemovedPositions);
+		if (!(subtrees.length == 1 && subtrees[0] instanceof CompilationUnit)) {
+			List<Position> affectedPositions= new ArrayList<>();
+			for (Position position : fRemovedPositions) {
+				if (position.isDeleted() || isContained(position, subtrees))
+					affectedPositions.add(position);
+			}
+			fRemovedPositions= affectedPositions;
+		}
 		fNOfRemovedPositions= fRemovedPositions.size();
 	}
 
+	private static boolean isContained(Position position, ASTNode[] subtrees) {
+		for (ASTNode subtree : subtrees) {
+			if (position.overlapsWith(subtree.getStartPosition(), subtree.getLength()))
+				return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Reconcile positions based on the AST subtrees
 	 *
 	 * @param subtrees the AST subtrees
 	 */
 	private void reconcilePositions(ASTNode[] subtrees) {
-		// FIXME: remove positions not covered by subtrees
-
-
-
 		for (ASTNode subtree : subtrees)
 			subtree.accept(fCollector);
 		List<Position> oldPositions= fRemovedPositions;
@@ -669,6 +805,9 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @since 3.2
 	 */
 	public void refresh() {
+		SemanticHighlightingPresenter presenter= fPresenter;
+		if (presenter != null)
+			presenter.invalidateChangedRegion();
 		scheduleJob();
 	}
 }
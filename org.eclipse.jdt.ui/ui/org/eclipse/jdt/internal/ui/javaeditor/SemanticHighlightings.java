@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -266,6 +266,14 @@ public class SemanticHighlightings {
 			IBinding binding= token.getBinding();
 			return binding != null && binding.getKind() == IBinding.VARIABLE && ((IVariableBinding)binding).isField() && (binding.getModifiers() & (Modifier.FINAL | Modifier.STATIC)) == (Modifier.FINAL | Modifier.STATIC);
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.VARIABLE_BINDING;
+		}
 	}
 
 	/**
@@ -329,6 +337,14 @@ public class SemanticHighlightings {
 			IBinding binding= token.getBinding();
 			return binding != null && binding.getKind() == IBinding.VARIABLE && ((IVariableBinding)binding).isField() && (binding.getModifiers() & Modifier.STATIC) == Modifier.STATIC;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.VARIABLE_BINDING;
+		}
 	}
 
 	/**
@@ -392,6 +408,14 @@ public class SemanticHighlightings {
 			IBinding binding= token.getBinding();
 			return binding != null && binding.getKind() == IBinding.VARIABLE && ((IVariableBinding)binding).isField();
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.VARIABLE_BINDING;
+		}
 	}
 
 	/**
@@ -563,6 +587,14 @@ public class SemanticHighlightings {
 			StructuralPropertyDescriptor location= token.getNode().getLocationInParent();
 			return location == MethodDeclaration.NAME_PROPERTY || location == AnnotationTypeMemberDeclaration.NAME_PROPERTY;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.NO_BINDING | SemanticHighlightingClassifier.METHOD_BINDING;
+		}
 	}
 
 	/**
@@ -630,6 +662,14 @@ public class SemanticHighlightings {
 			IBinding binding= token.getBinding();
 			return binding != null && binding.getKind() == IBinding.METHOD && (binding.getModifiers() & Modifier.STATIC) == Modifier.STATIC;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.METHOD_BINDING;
+		}
 	}
 
 	/**
@@ -701,6 +741,14 @@ public class SemanticHighlightings {
 
 			return false;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.METHOD_BINDING;
+		}
 	}
 
 	/**
@@ -779,6 +827,14 @@ public class SemanticHighlightings {
 
 			return true;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.METHOD_BINDING;
+		}
 	}
 
 	/**
@@ -854,6 +910,14 @@ public class SemanticHighlightings {
 
 			return Bindings.isSuperType(declaringType, currentType);
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.METHOD_BINDING;
+		}
 	}
 
 	/**
@@ -917,6 +981,14 @@ public class SemanticHighlightings {
 			IBinding binding= getBinding(token);
 			return binding != null && binding.getKind() == IBinding.METHOD;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.NO_BINDING | SemanticHighlightingClassifier.METHOD_BINDING | SemanticHighlightingClassifier.TYPE_BINDING;
+		}
 	}
 
 	/**
@@ -988,6 +1060,14 @@ public class SemanticHighlightings {
 			}
 			return false;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.NO_BINDING | SemanticHighlightingClassifier.VARIABLE_BINDING;
+		}
 	}
 
 	/**
@@ -1055,6 +1135,14 @@ public class SemanticHighlightings {
 			}
 			return false;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.VARIABLE_BINDING;
+		}
 	}
 
 	/**
@@ -1122,6 +1210,14 @@ public class SemanticHighlightings {
 			}
 			return false;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.VARIABLE_BINDING;
+		}
 	}
 
 	/**
@@ -1288,6 +1384,14 @@ public class SemanticHighlightings {
 			IBinding binding= token.getBinding();
 			return binding instanceof ITypeBinding && ((ITypeBinding) binding).isTypeVariable();
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.TYPE_BINDING;
+		}
 	}
 
 	/**
@@ -1367,6 +1471,14 @@ public class SemanticHighlightings {
 			IBinding binding= token.getBinding();
 			return binding instanceof ITypeBinding && ((ITypeBinding) binding).isClass();
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.TYPE_BINDING;
+		}
 	}
 
 	/**
@@ -1447,6 +1559,14 @@ public class SemanticHighlightings {
 			IBinding binding= token.getBinding();
 			return binding instanceof ITypeBinding && ((ITypeBinding) binding).isEnum();
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.TYPE_BINDING;
+		}
 	}
 
 	/**
@@ -1526,6 +1646,14 @@ public class SemanticHighlightings {
 			IBinding binding= token.getBinding();
 			return binding instanceof ITypeBinding && ((ITypeBinding) binding).isInterface();
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.TYPE_BINDING;
+		}
 	}
 
 	/**
@@ -1606,6 +1734,14 @@ public class SemanticHighlightings {
 			IBinding binding= token.getBinding();
 			return binding instanceof ITypeBinding && ((ITypeBinding) binding).isAnnotation();
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.TYPE_BINDING;
+		}
 	}
 
 	/**
@@ -1682,6 +1818,14 @@ public class SemanticHighlightings {
 
 			return false;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.NO_BINDING | SemanticHighlightingClassifier.TYPE_BINDING;
+		}
 	}
 
 	/**
@@ -1746,6 +1890,14 @@ public class SemanticHighlightings {
 			return false;
 		}
 
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return 0;
+		}
+
 		/*
 		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#consumesLiteral(org.eclipse.jdt.internal.ui.javaeditor.SemanticToken)
 		 */
@@ -1839,6 +1991,14 @@ public class SemanticHighlightings {
 
 			return false;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.TYPE_BINDING;
+		}
 	}
 
 	/**
@@ -1917,6 +2077,14 @@ public class SemanticHighlightings {
 
 			return Bindings.isSuperType(declaringType, currentType);
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return SemanticHighlightingClassifier.VARIABLE_BINDING;
+		}
 	}
 
 	static final class RestrictedIdentifiersHighlighting extends SemanticHighlighting {
@@ -1955,6 +2123,14 @@ public class SemanticHighlightings {
 		public boolean consumes(SemanticToken token) {
 			return false;
 		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting#getConsumedBindingKinds()
+		 */
+		@Override
+		public int getConsumedBindingKinds() {
+			return 0;
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,48 +15,140 @@ package org.eclipse.jdt.internal.ui.search;
 
 import org.eclipse.search.ui.text.Match;
 
+import org.eclipse.jdt.core.search.SearchMatch;
+
 /**
  * A search match with additional java-specific info.
+ * <p>
+ * Searches can report millions of matches, so the additional info is packed into a single int.
+ * The matches of a {@link JavaSearchResult} are views of its {@link JavaMatchStore}.
+ * </p>
  */
 public class JavaElementMatch extends Match {
-	private final int fAccuracy;
-	private final int fMatchRule;
-	private final boolean fIsWriteAccess;
-	private final boolean fIsReadAccess;
-	private final boolean fIsJavadoc;
-	private final boolean fIsSuperInvocation;
+	private static final int RULE_MASK= 0x00FFFFFF;
+	private static final int INACCURATE= 1 << 24;
+	private static final int WRITE_ACCESS= 1 << 25;
+	private static final int READ_ACCESS= 1 << 26;
+	private static final int JAVADOC= 1 << 27;
+	private static final int SUPER_INVOCATION= 1 << 28;
+
+	private final int fInfo;
+
+	/** The store of which this match is a view, or <code>null</code> */
+	private final JavaMatchStore fStore;
+	private final int fIndex;
 
 	JavaElementMatch(Object element, int matchRule, int offset, int length, int accuracy, boolean isReadAccess, boolean isWriteAccess, boolean isJavadoc, boolean isSuperInvocation) {
 		super(element, offset, length);
-		fAccuracy= accuracy;
-		fMatchRule= matchRule;
-		fIsWriteAccess= isWriteAccess;
-		fIsReadAccess= isReadAccess;
-		fIsJavadoc= isJavadoc;
-		fIsSuperInvocation= isSuperInvocation;
+		// the match rules of SearchPattern only use the lower bits
+		int info= matchRule & RULE_MASK;
+		if (accuracy == SearchMatch.A_INACCURATE)
+			info|= INACCURATE;
+		if (isWriteAccess)
+			info|= WRITE_ACCESS;
+		if (isReadAccess)
+			info|= READ_ACCESS;
+		if (isJavadoc)
+			info|= JAVADOC;
+		if (isSuperInvocation)
+			info|= SUPER_INVOCATION;
+		fInfo= info;
+		fStore= null;
+		fIndex= -1;
+	}
+
+	JavaElementMatch(JavaMatchStore store, int index, Object element, int offset, int length, int info) {
+		super(element, offset, length);
+		fInfo= info;
+		fStore= store;
+		fIndex= index;
+	}
+
+	JavaMatchStore getStore() {
+		return fStore;
+	}
+
+	int getIndex() {
+		return fIndex;
+	}
+
+	int getInfo() {
+		return fInfo;
+	}
+
+	@Override
+	public int getOffset() {
+		return fStore != null ? fStore.getOffset(fIndex) : super.getOffset();
+	}
+
+	@Override
+	public void setOffset(int offset) {
+		if (fStore != null)
+			fStore.setOffset(fIndex, offset);
+		else
+			super.setOffset(offset);
+	}
+
+	@Override
+	public int getLength() {
+		return fStore != null ? fStore.getLength(fIndex) : super.getLength();
+	}
+
+	@Override
+	public void setLength(int length) {
+		if (fStore != null)
+			fStore.setLength(fIndex, length);
+		else
+			super.setLength(length);
+	}
+
+	@Override
+	public boolean isFiltered() {
+		return fStore != null ? fStore.isFiltered(fIndex) : super.isFiltered();
+	}
+
+	@Override
+	public void setFiltered(boolean value) {
+		if (fStore != null)
+			fStore.setFiltered(fIndex, value);
+		else
+			super.setFiltered(value);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (fStore == null || !(obj instanceof JavaElementMatch))
+			return super.equals(obj);
+		JavaElementMatch other= (JavaElementMatch) obj;
+		return fStore == other.fStore && fIndex == other.fIndex;
+	}
+
+	@Override
+	public int hashCode() {
+		return fStore != null ? 31 * System.identityHashCode(fStore) + fIndex : super.hashCode();
 	}
 
 	public int getAccuracy() {
-		return fAccuracy;
+		return (fInfo & INACCURATE) != 0 ? SearchMatch.A_INACCURATE : SearchMatch.A_ACCURATE;
 	}
 
 	public boolean isWriteAccess() {
-		return fIsWriteAccess;
+		return (fInfo & WRITE_ACCESS) != 0;
 	}
 
 	public boolean isReadAccess() {
-		return fIsReadAccess;
+		return (fInfo & READ_ACCESS) != 0;
 	}
 
 	public boolean isJavadoc() {
-		return fIsJavadoc;
+		return (fInfo & JAVADOC) != 0;
 	}
 
 	public boolean isSuperInvocation() {
-		return fIsSuperInvocation;
+		return (fInfo & SUPER_INVOCATION) != 0;
 	}
 
 	public int getMatchRule() {
-		return fMatchRule;
+		return fInfo & RULE_MASK;
 	}
 }
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.search.ui.text.Match;
+
+/**
+ * Stores the matches of a {@link JavaSearchResult} in columns.
+ * <p>
+ * Searches can report millions of matches. Instead of a {@link Match} object per match, the store
+ * keeps the element id, offset, length and Java specific info of every match in int arrays. Match
+ * objects are only created when the matches of an element are requested. They are views of the
+ * store: two views of the same match are equal, and changes to the offset, length or filter state
+ * of a view are written to the store. Matches which are no {@link JavaElementMatch} are kept as
+ * they are.
+ * </p>
+ * <p>
+ * Matches are never removed from the columns, a store is replaced when all matches are removed.
+ * The store is thread safe.
+ * </p>
+ */
+class JavaMatchStore {
+
+	private static final int INITIAL_CAPACITY= 64;
+
+	private static final byte REMOVED= 1;
+	private static final byte FILTERED= 2;
+
+	private final Map<Object, Integer> fElementIds= new HashMap<>();
+	/** The elements, by element id */
+	private Object[] fElements;
+	/** The number of matches of the elements, by element id */
+	private int[] fElementMatchCounts;
+	/** The last added match of the elements, by element id */
+	private int[] fLastMatches;
+	private int fElementCount;
+
+	/** The element ids of the matches, by match index */
+	private int[] fElementColumn;
+	private int[] fOffsets;
+	private int[] fLengths;
+	/** The info of {@link JavaElementMatch}, by match index */
+	private int[] fInfos;
+	/** The previous match of the same element, by match index, or -1 */
+	private int[] fPreviousMatches;
+	private byte[] fStates;
+	private int fSize;
+	private int fMatchCount;
+
+	/** The matches kept as objects, by match index */
+	private final Map<Integer, Match> fObjectMatches= new HashMap<>();
+
+	JavaMatchStore() {
+		fElements= new Object[INITIAL_CAPACITY];
+		fElementMatchCounts= new int[INITIAL_CAPACITY];
+		fLastMatches= new int[INITIAL_CAPACITY];
+		fElementColumn= new int[INITIAL_CAPACITY];
+		fOffsets= new int[INITIAL_CAPACITY];
+		fLengths= new int[INITIAL_CAPACITY];
+		fInfos= new int[INITIAL_CAPACITY];
+		fPreviousMatches= new int[INITIAL_CAPACITY];
+		fStates= new byte[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Adds a match to the store.
+	 *
+	 * @param match the match to add
+	 * @return the match as stored, a view of the store or the given match
+	 */
+	synchronized Match add(Match match) {
+		Object element= match.getElement();
+		Integer id= fElementIds.get(element);
+		if (id == null) {
+			id= Integer.valueOf(fElementCount);
+			if (fElementCount == fElements.length) {
+				int capacity= 2 * fElementCount;
+				fElements= Arrays.copyOf(fElements, capacity);
+				fElementMatchCounts= Arrays.copyOf(fElementMatchCounts, capacity);
+				fLastMatches= Arrays.copyOf(fLastMatches, capacity);
+			}
+			fElements[fElementCount]= element;
+			fLastMatches[fElementCount]= -1;
+			fElementCount++;
+			fElementIds.put(element, id);
+		}
+		if (fSize == fOffsets.length) {
+			int capacity= 2 * fSize;
+			fElementColumn= Arrays.copyOf(fElementColumn, capacity);
+			fOffsets= Arrays.copyOf(fOffsets, capacity);
+			fLengths= Arrays.copyOf(fLengths, capacity);
+			fInfos= Arrays.copyOf(fInfos, capacity);
+			fPreviousMatches= Arrays.copyOf(fPreviousMatches, capacity);
+			fStates= Arrays.copyOf(fStates, capacity);
+		}
+		int elementId= id.intValue();
+		int index= fSize++;
+		fElementColumn[index]= elementId;
+		fOffsets[index]= match.getOffset();
+		fLengths[index]= match.getLength();
+		fStates[index]= match.isFiltered() ? FILTERED : 0;
+		fPreviousMatches[index]= fLastMatches[elementId];
+		fLastMatches[elementId]= index;
+		fElementMatchCounts[elementId]++;
+		fMatchCount++;
+		if (match instanceof JavaElementMatch) {
+			fInfos[index]= ((JavaElementMatch) match).getInfo();
+			return createMatch(index);
+		}
+		fObjectMatches.put(Integer.valueOf(index), match);
+		return match;
+	}
+
+	/**
+	 * Removes a match from the store.
+	 *
+	 * @param match the match to remove
+	 * @return <code>true</code> if the match was in the store
+	 */
+	synchronized boolean remove(Match match) {
+		int index= indexOf(match);
+		if (index == -1)
+			return false;
+		fStates[index]|= REMOVED;
+		fObjectMatches.remove(Integer.valueOf(index));
+		fElementMatchCounts[fElementColumn[index]]--;
+		fMatchCount--;
+		return true;
+	}
+
+	/**
+	 * Returns the matches of an element, ordered by offset.
+	 *
+	 * @param element the element
+	 * @return the matches of the element
+	 */
+	synchronized Match[] getMatches(Object element) {
+		Integer id= fElementIds.get(element);
+		if (id == null || fElementMatchCounts[id.intValue()] == 0)
+			return AbstractJavaSearchResult.NO_MATCHES;
+		Integer[] indices= new Integer[fElementMatchCounts[id.intValue()]];
+		int count= indices.length;
+		for (int index= fLastMatches[id.intValue()]; index != -1; index= fPreviousMatches[index]) {
+			if ((fStates[index] & REMOVED) == 0)
+				indices[--count]= Integer.valueOf(index);
+		}
+		// stable, so matches at the same offset keep the order in which they were added
+		Arrays.sort(indices, (i1, i2) -> Integer.compare(fOffsets[i1.intValue()], fOffsets[i2.intValue()]));
+		Match[] matches= new Match[indices.length];
+		for (int i= 0; i < indices.length; i++) {
+			int index= indices[i].intValue();
+			Match match= fObjectMatches.get(indices[i]);
+			matches[i]= match != null ? match : createMatch(index);
+		}
+		return matches;
+	}
+
+	synchronized int getMatchCount() {
+		return fMatchCount;
+	}
+
+	synchronized int getMatchCount(Object element) {
+		Integer id= fElementIds.get(element);
+		return id != null ? fElementMatchCounts[id.intValue()] : 0;
+	}
+
+	/**
+	 * Returns the elements which have matches.
+	 *
+	 * @return the elements
+	 */
+	synchronized Object[] getElements() {
+		int count= 0;
+		for (int id= 0; id < fElementCount; id++) {
+			if (fElementMatchCounts[id] > 0)
+				count++;
+		}
+		Object[] elements= new Object[count];
+		count= 0;
+		for (int id= 0; id < fElementCount; id++) {
+			if (fElementMatchCounts[id] > 0)
+				elements[count++]= fElements[id];
+		}
+		return elements;
+	}
+
+	synchronized int getOffset(int index) {
+		return fOffsets[index];
+	}
+
+	synchronized void setOffset(int index, int offset) {
+		fOffsets[index]= offset;
+	}
+
+	synchronized int getLength(int index) {
+		return fLengths[index];
+	}
+
+	synchronized void setLength(int index, int length) {
+		fLengths[index]= length;
+	}
+
+	synchronized boolean isFiltered(int index) {
+		return (fStates[index] & FILTERED) != 0;
+	}
+
+	synchronized void setFiltered(int index, boolean filtered) {
+		if (filtered)
+			fStates[index]|= FILTERED;
+		else
+			fStates[index]&= ~FILTERED;
+	}
+
+	private int indexOf(Match match) {
+		if (match instanceof JavaElementMatch) {
+			JavaElementMatch javaMatch= (JavaElementMatch) match;
+			if (javaMatch.getStore() == this) {
+				int index= javaMatch.getIndex();
+				return (fStates[index] & REMOVED) == 0 ? index : -1;
+			}
+		}
+		Integer id= fElementIds.get(match.getElement());
+		if (id == null)
+			return -1;
+		for (int index= fLastMatches[id.intValue()]; index != -1; index= fPreviousMatches[index]) {
+			if ((fStates[index] & REMOVED) == 0 && fObjectMatches.get(Integer.valueOf(index)) == match)
+				return index;
+		}
+		return -1;
+	}
+
+	private Match createMatch(int index) {
+		return new JavaElementMatch(this, index, fElements[fElementColumn[index]], fOffsets[index], fLengths[index], fInfos[index]);
+	}
+}
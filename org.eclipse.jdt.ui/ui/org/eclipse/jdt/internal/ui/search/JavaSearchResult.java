@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,8 +13,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.search;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -22,8 +24,12 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.resource.ImageDescriptor;
 
 import org.eclipse.search.ui.ISearchQuery;
+import org.eclipse.search.ui.ISearchResult;
+import org.eclipse.search.ui.text.FilterUpdateEvent;
 import org.eclipse.search.ui.text.Match;
+import org.eclipse.search.ui.text.MatchEvent;
 import org.eclipse.search.ui.text.MatchFilter;
+import org.eclipse.search.ui.text.RemoveAllEvent;
 
 import org.eclipse.jdt.internal.corext.util.Messages;
 
@@ -31,14 +37,41 @@ import org.eclipse.jdt.ui.search.IMatchPresentation;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 
+/**
+ * The result of a Java search.
+ * <p>
+ * The matches are kept in a {@link JavaMatchStore} instead of the map of
+ * {@link org.eclipse.search.ui.text.AbstractTextSearchResult}, which stays empty. These methods
+ * of the superclass access its map and must stay overridden: {@link #addMatch(Match)},
+ * {@link #addMatches(Match[])}, {@link #removeMatch(Match)}, {@link #removeMatches(Match[])},
+ * {@link #removeAll()}, {@link #getMatches(Object)}, {@link #getMatchCount()},
+ * {@link #getMatchCount(Object)} and {@link #getElements()}. The filter update of
+ * {@link #setActiveMatchFilters(MatchFilter[])} in the superclass finds no matches, the filters
+ * are applied to the store afterwards.
+ * </p>
+ */
 public class JavaSearchResult extends AbstractJavaSearchResult {
 
+	private static class JavaMatchEvent extends MatchEvent {
+		private static final long serialVersionUID= 1L;
+
+		JavaMatchEvent(ISearchResult searchResult, int kind, Match[] matches) {
+			super(searchResult);
+			setKind(kind);
+			setMatches(matches);
+		}
+	}
+
 	private final JavaSearchQuery fQuery;
 	private final Map<Object, IMatchPresentation> fElementsToParticipants;
+	/** Guarded by {@link #fMatchesLock}, events are fired while holding the lock to keep their order */
+	private JavaMatchStore fMatches;
+	private final Object fMatchesLock= new Object();
 
 	public JavaSearchResult(JavaSearchQuery query) {
 		fQuery= query;
-		fElementsToParticipants= new HashMap<>();
+		fElementsToParticipants= new ConcurrentHashMap<>();
+		fMatches= new JavaMatchStore();
 		setActiveMatchFilters(JavaMatchFilter.getLastUsedFilters());
 	}
 
@@ -62,9 +95,37 @@ public class JavaSearchResult extends AbstractJavaSearchResult {
 	@Override
 	public void setActiveMatchFilters(MatchFilter[] filters) {
 		super.setActiveMatchFilters(filters);
+		updateFilterState(filters);
 		JavaMatchFilter.setLastUsedFilters(filters);
 	}
 
+	private void updateFilterState(MatchFilter[] filters) {
+		List<Match> changed= new ArrayList<>();
+		synchronized (fMatchesLock) {
+			for (Object element : fMatches.getElements()) {
+				for (Match match : fMatches.getMatches(element)) {
+					boolean filtered= isFiltered(match, filters);
+					if (match.isFiltered() != filtered) {
+						match.setFiltered(filtered);
+						changed.add(match);
+					}
+				}
+			}
+			if (!changed.isEmpty())
+				fireChange(new FilterUpdateEvent(this, changed.toArray(new Match[changed.size()]), filters));
+		}
+	}
+
+	private static boolean isFiltered(Match match, MatchFilter[] filters) {
+		if (filters != null) {
+			for (MatchFilter filter : filters) {
+				if (filter.filters(match))
+					return true;
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public MatchFilter[] getAllMatchFilters() {
 		return JavaMatchFilter.allFilters(fQuery);
@@ -75,36 +136,96 @@ public class JavaSearchResult extends AbstractJavaSearchResult {
 		return fQuery;
 	}
 
-	synchronized IMatchPresentation getSearchParticpant(Object element) {
+	IMatchPresentation getSearchParticpant(Object element) {
 		return fElementsToParticipants.get(element);
 	}
 
 	boolean addMatch(Match match, IMatchPresentation participant) {
 		Object element= match.getElement();
-		if (fElementsToParticipants.get(element) != null) {
+		if (fElementsToParticipants.putIfAbsent(element, participant) != null) {
 			// TODO must access the participant id / label to properly report the error.
 			JavaPlugin.log(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), 0, "A second search participant was found for an element", null)); //$NON-NLS-1$
 			return false;
 		}
-		fElementsToParticipants.put(element, participant);
 		addMatch(match);
 		return true;
 	}
 
+	@Override
+	public void addMatch(Match match) {
+		addMatches(new Match[] { match });
+	}
+
+	@Override
+	public void addMatches(Match[] matches) {
+		if (matches.length == 0)
+			return;
+		MatchFilter[] filters= getActiveMatchFilters();
+		Match[] added= new Match[matches.length];
+		synchronized (fMatchesLock) {
+			for (int i= 0; i < matches.length; i++) {
+				matches[i].setFiltered(isFiltered(matches[i], filters));
+				added[i]= fMatches.add(matches[i]);
+			}
+			// no added event after the event of a concurrent removeAll()
+			fireChange(new JavaMatchEvent(this, MatchEvent.ADDED, added));
+		}
+	}
+
 	@Override
 	public void removeAll() {
-		synchronized(this) {
+		synchronized (fMatchesLock) {
 			fElementsToParticipants.clear();
+			// views of the old store stay valid
+			fMatches= new JavaMatchStore();
+			fireChange(new RemoveAllEvent(this));
 		}
-		super.removeAll();
 	}
 
 	@Override
 	public void removeMatch(Match match) {
-		synchronized(this) {
-			if (getMatchCount(match.getElement()) == 1)
-				fElementsToParticipants.remove(match.getElement());
+		removeMatches(new Match[] { match });
+	}
+
+	@Override
+	public void removeMatches(Match[] matches) {
+		List<Match> removed= new ArrayList<>(matches.length);
+		synchronized (fMatchesLock) {
+			for (Match match : matches) {
+				if (fMatches.remove(match)) {
+					removed.add(match);
+					if (fMatches.getMatchCount(match.getElement()) == 0)
+						fElementsToParticipants.remove(match.getElement());
+				}
+			}
+			if (!removed.isEmpty())
+				fireChange(new JavaMatchEvent(this, MatchEvent.REMOVED, removed.toArray(new Match[removed.size()])));
+		}
+	}
+
+	@Override
+	public Match[] getMatches(Object element) {
+		return getStore().getMatches(element);
+	}
+
+	@Override
+	public int getMatchCount() {
+		return getStore().getMatchCount();
+	}
+
+	@Override
+	public int getMatchCount(Object element) {
+		return getStore().getMatchCount(element);
+	}
+
+	@Override
+	public Object[] getElements() {
+		return getStore().getElements();
+	}
+
+	private JavaMatchStore getStore() {
+		synchronized (fMatchesLock) {
+			return fMatches;
 		}
-		super.removeMatch(match);
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,9 +19,6 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.dnd.DND;
 import org.eclipse.swt.dnd.Transfer;
 import org.eclipse.swt.widgets.Composite;
-import org.eclipse.swt.widgets.Item;
-import org.eclipse.swt.widgets.Table;
-import org.eclipse.swt.widgets.Tree;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IAdaptable;
@@ -349,12 +346,14 @@ public class JavaSearchResultPage extends AbstractTextSearchViewPage implements
 
 	@Override
 	protected TreeViewer createTreeViewer(Composite parent) {
-		return new ProblemTreeViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+		// virtual, so that only the visible items are created by the widget
+		return new ProblemTreeViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL | SWT.VIRTUAL);
 	}
 
 	@Override
 	protected TableViewer createTableViewer(Composite parent) {
-		return new ProblemTableViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+		// virtual, so that the labels are only computed for the visible elements
+		return new ProblemTableViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL | SWT.VIRTUAL);
 	}
 
 	void setSortOrder(int order) {
@@ -502,23 +501,13 @@ public class JavaSearchResultPage extends AbstractTextSearchViewPage implements
 	}
 
 	private Object[] getRootElements(TreeViewer viewer) {
-		Tree t= viewer.getTree();
-		Item[] roots= t.getItems();
-		Object[] elements= new Object[roots.length];
-		for (int i = 0; i < elements.length; i++) {
-			elements[i]= roots[i].getData();
-		}
-		return elements;
+		// items of the virtual tree have no data before they are shown
+		return ((LevelTreeContentProvider) viewer.getContentProvider()).getRootElements();
 	}
 
 	private Object[] getRootElements(TableViewer viewer) {
-		Table t= viewer.getTable();
-		Item[] roots= t.getItems();
-		Object[] elements= new Object[roots.length];
-		for (int i = 0; i < elements.length; i++) {
-			elements[i]= roots[i].getData();
-		}
-		return elements;
+		// the items of the virtual table have no element before they are shown
+		return ((JavaSearchTableContentProvider) viewer.getContentProvider()).getShownElements();
 	}
 
 
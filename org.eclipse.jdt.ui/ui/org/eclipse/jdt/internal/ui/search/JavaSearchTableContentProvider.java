@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,13 +16,20 @@ package org.eclipse.jdt.internal.ui.search;
 import java.util.HashSet;
 import java.util.Set;
 
-import org.eclipse.swt.widgets.Table;
-
 import org.eclipse.jface.viewers.TableViewer;
 
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
 
+/**
+ * Content provider for the virtual table of the Java search result page.
+ * <p>
+ * The items of a virtual table only know their element once they have been shown, so the provider
+ * keeps track of the elements in the table.
+ * </p>
+ */
 public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
+	private Set<Object> fShownElements= new HashSet<>();
+
 	public JavaSearchTableContentProvider(JavaSearchResultPage page) {
 		super(page);
 	}
@@ -39,11 +46,17 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 					}
 				}
 			}
+			fShownElements= filteredElements;
 			return filteredElements.toArray();
 		}
+		fShownElements= new HashSet<>();
 		return EMPTY_ARR;
 	}
 
+	Object[] getShownElements() {
+		return fShownElements.toArray();
+	}
+
 	@Override
 	public void elementsChanged(Object[] updatedElements) {
 		if (getSearchResult() == null)
@@ -57,15 +70,16 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 		Set<Object> removed= new HashSet<>();
 		for (Object updatedElement : updatedElements) {
 			if (getPage().getDisplayedMatchCount(updatedElement) > 0) {
-				if (viewer.testFindItem(updatedElement) != null) {
+				if (fShownElements.contains(updatedElement)) {
 					updated.add(updatedElement);
 				} else {
 					if (addLimit > 0) {
 						added.add(updatedElement);
+						fShownElements.add(updatedElement);
 						addLimit--;
 					}
 				}
-			} else {
+			} else if (fShownElements.remove(updatedElement)) {
 				removed.add(updatedElement);
 			}
 		}
@@ -78,8 +92,7 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 	private int getAddLimit() {
 		int limit= getPage().getElementLimit();
 		if (limit != -1) {
-			Table table= (Table) getPage().getViewer().getControl();
-			int itemCount= table.getItemCount();
+			int itemCount= fShownElements.size();
 			if (itemCount >= limit) {
 				return 0;
 			}
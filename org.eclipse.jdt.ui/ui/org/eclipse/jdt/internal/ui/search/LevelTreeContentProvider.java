@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -228,6 +228,16 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 		return children.toArray();
 	}
 
+	/**
+	 * Returns the root elements shown in the tree. The items of the virtual tree have no element
+	 * before they are shown.
+	 *
+	 * @return the root elements
+	 */
+	Object[] getRootElements() {
+		return getSearchResult() != null ? getChildren(getSearchResult()) : EMPTY_ARR;
+	}
+
 	@Override
 	public boolean hasChildren(Object element) {
 		Set<Object> children= fChildrenMap.get(element);
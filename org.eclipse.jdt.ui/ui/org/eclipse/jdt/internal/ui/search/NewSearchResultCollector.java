@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,9 +13,20 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.search;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
+import org.eclipse.search.ui.text.Match;
 
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.search.FieldDeclarationMatch;
@@ -27,14 +38,40 @@ import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchRequestor;
 
+/**
+ * Collects the matches of a search into a search result.
+ * <p>
+ * The matches are added in batches, so that the result is locked and its listeners are notified
+ * once per batch instead of once per match. A batch is added when it is full, and by a job at the
+ * latest {@link #BATCH_INTERVAL} ms after its first match, so that slow searches still show their
+ * matches. Matches in the same element share one element handle. The collected matches are added
+ * to the result at the latest in {@link #endReporting()}.
+ * </p>
+ */
 public class NewSearchResultCollector extends SearchRequestor {
+	/** The maximal number of matches added to the result at once */
+	private static final int BATCH_SIZE= 1000;
+	/** The maximal time in milliseconds before the collected matches are added to the result */
+	private static final long BATCH_INTERVAL= 200;
+
 	private AbstractTextSearchResult fSearch;
 	private boolean fIgnorePotentials;
 
+	private final Queue<Match> fBatch= new ConcurrentLinkedQueue<>();
+	private final AtomicInteger fBatchSize= new AtomicInteger();
+	private final AtomicBoolean fFlushScheduled= new AtomicBoolean();
+	private final Job fFlushJob;
+	private final Map<IJavaElement, IJavaElement> fElements= new HashMap<>();
+
 	public NewSearchResultCollector(AbstractTextSearchResult search, boolean ignorePotentials) {
 		super();
 		fSearch= search;
 		fIgnorePotentials= ignorePotentials;
+		fFlushJob= Job.create("Adding search matches", monitor -> { //$NON-NLS-1$
+			fFlushScheduled.set(false);
+			flush();
+		});
+		fFlushJob.setSystem(true);
 	}
 
 	@Override
@@ -63,7 +100,33 @@ public class NewSearchResultCollector extends SearchRequestor {
 				MethodReferenceMatch methodRef= (MethodReferenceMatch) match;
 				isSuperInvocation= methodRef.isSuperInvocation();
 			}
-			fSearch.addMatch(new JavaElementMatch(enclosingElement, match.getRule(), match.getOffset(), match.getLength(), match.getAccuracy(), isReadAccess, isWriteAccess, match.isInsideDocComment(), isSuperInvocation));
+			IJavaElement element= fElements.putIfAbsent(enclosingElement, enclosingElement);
+			if (element == null) {
+				element= enclosingElement;
+			}
+			addMatch(new JavaElementMatch(element, match.getRule(), match.getOffset(), match.getLength(), match.getAccuracy(), isReadAccess, isWriteAccess, match.isInsideDocComment(), isSuperInvocation));
+		}
+	}
+
+	private void addMatch(Match match) {
+		fBatch.add(match);
+		if (fBatchSize.incrementAndGet() >= BATCH_SIZE) {
+			flush();
+		} else if (fFlushScheduled.compareAndSet(false, true)) {
+			fFlushJob.schedule(BATCH_INTERVAL);
+		}
+	}
+
+	private void flush() {
+		// called by the searching thread and by the job, each match is polled by one of them
+		List<Match> matches= new ArrayList<>();
+		Match match;
+		while ((match= fBatch.poll()) != null) {
+			matches.add(match);
+		}
+		if (!matches.isEmpty()) {
+			fBatchSize.addAndGet(-matches.size());
+			fSearch.addMatches(matches.toArray(new Match[matches.size()]));
 		}
 	}
 
@@ -73,6 +136,16 @@ public class NewSearchResultCollector extends SearchRequestor {
 
 	@Override
 	public void endReporting() {
+		fFlushJob.cancel();
+		try {
+			// a running job may still add matches
+			fFlushJob.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		fFlushScheduled.set(false);
+		flush();
+		fElements.clear();
 	}
 
 	@Override
@@ -81,6 +154,7 @@ public class NewSearchResultCollector extends SearchRequestor {
 
 	@Override
 	public void exitParticipant(SearchParticipant participant) {
+		flush();
 	}
 
 }
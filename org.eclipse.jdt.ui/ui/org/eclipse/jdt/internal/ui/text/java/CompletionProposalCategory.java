@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2013 IBM Corporation and others.
+ * Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -276,6 +276,25 @@ public final class CompletionProposalCategory {
 		return false;
 	}
 
+	/**
+	 * Returns <code>true</code> if any of the computers of this category for the given partition
+	 * requires the UI thread.
+	 *
+	 * @param partition the partition type for which to check
+	 * @return <code>true</code> if the proposals of this category must be computed in the UI
+	 *         thread, <code>false</code> if they can be computed in any thread
+	 * @see CompletionProposalComputerDescriptor#requiresUIThread()
+	 * @since 3.32
+	 */
+	public boolean requiresUIThread(String partition) {
+		List<CompletionProposalComputerDescriptor> descriptors= fRegistry.getProposalComputerDescriptors(partition);
+		for (CompletionProposalComputerDescriptor desc : descriptors) {
+			if (desc.getCategory() == this && desc.requiresUIThread())
+				return true;
+		}
+		return false;
+	}
+
 	/**
 	 * @return sortOrder
 	 */
@@ -336,6 +355,9 @@ public final class CompletionProposalCategory {
 		List<ICompletionProposal> result= new ArrayList<>();
 		List<CompletionProposalComputerDescriptor> descriptors= new ArrayList<>(fRegistry.getProposalComputerDescriptors(partition));
 		for (CompletionProposalComputerDescriptor desc : descriptors) {
+			// the results of a canceled computation are dropped, so stop calling computers
+			if (monitor != null && monitor.isCanceled())
+				break;
 			if (desc.getCategory() == this)
 				result.addAll(desc.computeCompletionProposals(context, monitor));
 			if (fLastError == null && desc.getErrorMessage() != null)
@@ -360,6 +382,8 @@ public final class CompletionProposalCategory {
 		List<IContextInformation> result= new ArrayList<>();
 		List<CompletionProposalComputerDescriptor> descriptors= new ArrayList<>(fRegistry.getProposalComputerDescriptors(partition));
 		for (CompletionProposalComputerDescriptor desc : descriptors) {
+			if (monitor != null && monitor.isCanceled())
+				break;
 			if (desc.getCategory() == this && (isIncluded() || isSeparateCommand()))
 				result.addAll(desc.computeContextInformation(context, monitor));
 			if (fLastError == null)
@@ -377,6 +401,16 @@ public final class CompletionProposalCategory {
 		return fLastError;
 	}
 
+	/**
+	 * Sets the error message of this category, used when the computation of the category failed
+	 * as a whole.
+	 *
+	 * @param message the error message
+	 */
+	void setErrorMessage(String message) {
+		fLastError= message;
+	}
+
 	/**
 	 * Notifies the computers in this category of a proposal computation session start.
 	 */
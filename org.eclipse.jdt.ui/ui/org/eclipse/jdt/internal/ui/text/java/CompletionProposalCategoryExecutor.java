@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.util.Progress;
+
+/**
+ * Computes the results of the completion proposal categories of one content assist invocation.
+ * <p>
+ * Categories whose computers don't require the UI thread for the partition are independent of
+ * each other and are computed concurrently in a shared, bounded thread pool, while the other
+ * categories are computed in the calling thread. All categories share one latency budget: once it
+ * is exhausted, the categories that have not completed yet are canceled and their results are
+ * dropped, so that the results of the other categories can be shown. A canceled category does not
+ * call any further computers, so that it stops touching the computers soon after the session has
+ * ended. The computer running at that time has to check its progress monitor.
+ * </p>
+ * <p>
+ * The time it takes to compute each category is recorded in a {@link LatencyHistogram}.
+ * </p>
+ *
+ * @since 3.32
+ */
+final class CompletionProposalCategoryExecutor {
+
+	/**
+	 * Computation of the results of one category.
+	 *
+	 * @param <T> the type of the results
+	 */
+	interface CategoryComputation<T> {
+		List<T> compute(CompletionProposalCategory category, IProgressMonitor monitor);
+	}
+
+	/**
+	 * Progress monitor of a concurrently computed category, which is canceled when the content
+	 * assist invocation is canceled or when the latency budget is exhausted.
+	 */
+	private static final class DeadlineProgressMonitor extends NullProgressMonitor {
+
+		private final IProgressMonitor fParent;
+		private final long fDeadline;
+
+		DeadlineProgressMonitor(IProgressMonitor parent, long deadline) {
+			fParent= parent;
+			fDeadline= deadline;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return super.isCanceled() || fParent.isCanceled() || System.nanoTime() - fDeadline >= 0;
+		}
+	}
+
+	/**
+	 * The latency budget for all categories of one content assist invocation in ms.
+	 */
+	private static final long LATENCY_BUDGET= Long.getLong("org.eclipse.jdt.ui.codeAssistLatencyBudget", 5000); //$NON-NLS-1$
+
+	/**
+	 * The maximal number of categories that are computed concurrently, <code>1</code> to compute
+	 * all categories in the calling thread.
+	 */
+	private static final int PARALLELISM= Integer.getInteger("org.eclipse.jdt.ui.codeAssistParallelism", Math.min(4, Runtime.getRuntime().availableProcessors())); //$NON-NLS-1$
+
+	private static final Map<String, LatencyHistogram> fgHistograms= new ConcurrentHashMap<>();
+
+	private static ThreadPoolExecutor fgExecutor;
+
+	private CompletionProposalCategoryExecutor() {
+	}
+
+	private static synchronized ThreadPoolExecutor getExecutor() {
+		if (fgExecutor == null) {
+			AtomicInteger count= new AtomicInteger();
+			// computations that don't fit into the queue run in the calling thread
+			fgExecutor= new ThreadPoolExecutor(PARALLELISM, PARALLELISM, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(4 * PARALLELISM), runnable -> {
+				Thread thread= new Thread(runnable, "Java Content Assist #" + count.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}, new ThreadPoolExecutor.CallerRunsPolicy());
+			fgExecutor.allowCoreThreadTimeOut(true);
+		}
+		return fgExecutor;
+	}
+
+	/**
+	 * Returns the latency histogram of the given category.
+	 *
+	 * @param category the category
+	 * @return the histogram of the latencies of the category
+	 */
+	static LatencyHistogram getHistogram(CompletionProposalCategory category) {
+		return fgHistograms.computeIfAbsent(category.getId(), id -> new LatencyHistogram());
+	}
+
+	/**
+	 * Computes the results of the given categories.
+	 *
+	 * @param <T> the type of the results
+	 * @param categories the categories
+	 * @param partition the partition content assist is invoked in
+	 * @param computation the computation of the results of one category
+	 * @param monitor the progress monitor, with one unit of work per category
+	 * @return the results per category, in the order of the categories, or <code>null</code> for
+	 *         categories that did not complete within the latency budget. Categories that failed
+	 *         have no results and an error message.
+	 */
+	static <T> List<List<T>> computeAll(List<CompletionProposalCategory> categories, String partition, CategoryComputation<T> computation, IProgressMonitor monitor) {
+		int size= categories.size();
+		List<List<T>> results= new ArrayList<>(Collections.nCopies(size, null));
+		List<Future<List<T>>> futures= new ArrayList<>(Collections.nCopies(size, null));
+		List<DeadlineProgressMonitor> monitors= new ArrayList<>(Collections.nCopies(size, null));
+		long deadline= System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LATENCY_BUDGET);
+
+		if (PARALLELISM > 1 && size > 1) {
+			for (int i= 0; i < size; i++) {
+				CompletionProposalCategory category= categories.get(i);
+				if (category.hasComputers(partition) && !category.requiresUIThread(partition)) {
+					DeadlineProgressMonitor categoryMonitor= new DeadlineProgressMonitor(monitor, deadline);
+					monitors.set(i, categoryMonitor);
+					futures.set(i, getExecutor().submit(() -> compute(category, computation, categoryMonitor)));
+				}
+			}
+		}
+
+		for (int i= 0; i < size; i++) {
+			if (futures.get(i) == null)
+				results.set(i, compute(categories.get(i), computation, Progress.subMonitor(monitor, 1)));
+		}
+
+		for (int i= 0; i < size; i++) {
+			Future<List<T>> future= futures.get(i);
+			if (future == null)
+				continue;
+			try {
+				results.set(i, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+			} catch (TimeoutException e) {
+				// don't interrupt, Java model operations don't cope well with interrupts
+				monitors.get(i).setCanceled(true);
+				future.cancel(false);
+				getHistogram(categories.get(i)).recordTimeout();
+			} catch (ExecutionException e) {
+				// a failure of the category, not a timeout
+				JavaPlugin.log(e.getCause());
+				categories.get(i).setErrorMessage(JavaTextMessages.CompletionProposalComputerDescriptor_reason_runtime_ex);
+				results.set(i, Collections.emptyList());
+			} catch (InterruptedException e) {
+				monitors.get(i).setCanceled(true);
+				future.cancel(false);
+				Thread.currentThread().interrupt();
+			}
+			monitor.worked(1);
+		}
+		return results;
+	}
+
+	private static <T> List<T> compute(CompletionProposalCategory category, CategoryComputation<T> computation, IProgressMonitor monitor) {
+		long start= System.nanoTime();
+		try {
+			return computation.compute(category, monitor);
+		} finally {
+			getHistogram(category).record(System.nanoTime() - start);
+		}
+	}
+}
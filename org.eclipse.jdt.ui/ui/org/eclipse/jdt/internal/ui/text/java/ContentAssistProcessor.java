@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -76,7 +76,6 @@ import org.eclipse.jdt.ui.text.java.ContentAssistInvocationContext;
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.JavaUIMessages;
 import org.eclipse.jdt.internal.ui.dialogs.OptionalMessageDialog;
-import org.eclipse.jdt.internal.ui.util.Progress;
 
 
 /**
@@ -275,19 +274,15 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 	 */
 	@Override
 	public final ICompletionProposal[] computeCompletionProposals(ITextViewer viewer, int offset) {
-		long start= JavaPlugin.DEBUG_RESULT_COLLECTOR ? System.currentTimeMillis() : 0;
-
 		clearState();
 
 		IProgressMonitor monitor= createProgressMonitor();
 		monitor.beginTask(JavaTextMessages.ContentAssistProcessor_computing_proposals, fCategories.size() + 1);
 
 		ContentAssistInvocationContext context= createContext(viewer, offset);
-		long setup= JavaPlugin.DEBUG_RESULT_COLLECTOR ? System.currentTimeMillis() : 0;
 
 		monitor.subTask(JavaTextMessages.ContentAssistProcessor_collecting_proposals);
 		List<ICompletionProposal> proposals= collectProposals(viewer, offset, monitor, context);
-		long collect= JavaPlugin.DEBUG_RESULT_COLLECTOR ? System.currentTimeMillis() : 0;
 
 		monitor.subTask(JavaTextMessages.ContentAssistProcessor_sorting_proposals);
 		if (fNeedsSortingAfterFiltering) {
@@ -296,16 +291,15 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 			proposals= sortProposals(proposals, monitor, context);
 		}
 		fNumberOfComputedResults= proposals.size();
-		long filter= JavaPlugin.DEBUG_RESULT_COLLECTOR ? System.currentTimeMillis() : 0;
 
 		ICompletionProposal[] result= proposals.toArray(new ICompletionProposal[proposals.size()]);
 		monitor.done();
 
 		if (JavaPlugin.DEBUG_RESULT_COLLECTOR) {
 			System.err.println("Code Assist Stats (" + result.length + " proposals)"); //$NON-NLS-1$ //$NON-NLS-2$
-			System.err.println("Code Assist (setup):\t" + (setup - start) ); //$NON-NLS-1$
-			System.err.println("Code Assist (collect):\t" + (collect - setup) ); //$NON-NLS-1$
-			System.err.println("Code Assist (sort):\t" + (filter - collect) ); //$NON-NLS-1$
+			for (CompletionProposalCategory cat : getCategories()) {
+				System.err.println("Code Assist (" + cat.getId() + "):\t" + CompletionProposalCategoryExecutor.getHistogram(cat)); //$NON-NLS-1$ //$NON-NLS-2$
+			}
 		}
 
 		return result;
@@ -329,8 +323,17 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		boolean needsSortingAfterFiltering= false;
 		List<ICompletionProposal> proposals= new ArrayList<>();
 		List<CompletionProposalCategory> providers= getCategories();
-		for (CompletionProposalCategory cat : providers) {
-			List<ICompletionProposal> computed= cat.computeCompletionProposals(context, fPartition, Progress.subMonitor(monitor, 1));
+		List<List<ICompletionProposal>> results= CompletionProposalCategoryExecutor.computeAll(providers, fPartition,
+				(cat, categoryMonitor) -> cat.computeCompletionProposals(context, fPartition, categoryMonitor), monitor);
+		for (int i= 0; i < providers.size(); i++) {
+			CompletionProposalCategory cat= providers.get(i);
+			List<ICompletionProposal> computed= results.get(i);
+			if (computed == null) {
+				if (fErrorMessage == null) {
+					fErrorMessage= Messages.format(JavaTextMessages.ContentAssistProcessor_category_timeout, toString(cat));
+				}
+				continue;
+			}
 			proposals.addAll(computed);
 			needsSortingAfterFiltering= needsSortingAfterFiltering || (cat.isSortingAfterFilteringNeeded() && !computed.isEmpty());
 			if (fErrorMessage == null) {
@@ -386,8 +389,17 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		ContentAssistInvocationContext context= createContext(viewer, offset);
 
 		List<CompletionProposalCategory> providers= getCategories();
-		for (CompletionProposalCategory cat : providers) {
-			List<IContextInformation> computed= cat.computeContextInformation(context, fPartition, Progress.subMonitor(monitor, 1));
+		List<List<IContextInformation>> results= CompletionProposalCategoryExecutor.computeAll(providers, fPartition,
+				(cat, categoryMonitor) -> cat.computeContextInformation(context, fPartition, categoryMonitor), monitor);
+		for (int i= 0; i < providers.size(); i++) {
+			CompletionProposalCategory cat= providers.get(i);
+			List<IContextInformation> computed= results.get(i);
+			if (computed == null) {
+				if (fErrorMessage == null) {
+					fErrorMessage= Messages.format(JavaTextMessages.ContentAssistProcessor_category_timeout, toString(cat));
+				}
+				continue;
+			}
 			proposals.addAll(computed);
 			if (fErrorMessage == null) {
 				fErrorMessage= cat.getErrorMessage();
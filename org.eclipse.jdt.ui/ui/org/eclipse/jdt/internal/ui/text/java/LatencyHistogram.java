@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies with buckets of exponentially growing size: bucket 0 counts latencies
+ * below 1 ms, bucket <code>i</code> latencies from 2<sup>i-1</sup> ms to below 2<sup>i</sup> ms
+ * and the last bucket all longer latencies.
+ */
+public final class LatencyHistogram {
+
+	private static final int BUCKET_COUNT= 16;
+
+	private final AtomicLongArray fBuckets= new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong fTotalNanos= new AtomicLong();
+	private final AtomicLong fMaxNanos= new AtomicLong();
+	private final AtomicLong fTimeouts= new AtomicLong();
+
+	/**
+	 * Records the latency of a completed computation.
+	 *
+	 * @param nanos the latency in ns
+	 */
+	public void record(long nanos) {
+		long millis= TimeUnit.NANOSECONDS.toMillis(nanos);
+		int bucket= millis == 0 ? 0 : Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(millis));
+		fBuckets.incrementAndGet(bucket);
+		fTotalNanos.addAndGet(nanos);
+		fMaxNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	/**
+	 * Records a computation that did not complete within the latency budget.
+	 */
+	public void recordTimeout() {
+		fTimeouts.incrementAndGet();
+	}
+
+	/**
+	 * @return the number of recorded latencies
+	 */
+	public long getCount() {
+		long count= 0;
+		for (int i= 0; i < BUCKET_COUNT; i++)
+			count+= fBuckets.get(i);
+		return count;
+	}
+
+	/**
+	 * @return the number of computations that did not complete within the latency budget
+	 */
+	public long getTimeouts() {
+		return fTimeouts.get();
+	}
+
+	/**
+	 * Returns an upper bound of the given percentile of the recorded latencies.
+	 *
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the upper bound of the bucket containing the percentile in ms, or
+	 *         {@link Long#MAX_VALUE} for the last bucket
+	 */
+	public long getPercentileMillis(double percentile) {
+		long count= getCount();
+		long rank= (long) Math.ceil(count * percentile / 100);
+		long seen= 0;
+		for (int i= 0; i < BUCKET_COUNT; i++) {
+			seen+= fBuckets.get(i);
+			if (seen >= rank && seen > 0)
+				return i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << i;
+		}
+		return 0;
+	}
+
+	/**
+	 * @return the mean of the recorded latencies in ms
+	 */
+	public double getMeanMillis() {
+		long count= getCount();
+		return count == 0 ? 0 : fTotalNanos.get() / 1e6 / count;
+	}
+
+	/**
+	 * @return the longest recorded latency in ms
+	 */
+	public long getMaxMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(fMaxNanos.get());
+	}
+
+	@Override
+	public String toString() {
+		return "n=" + getCount() + ", mean=" + Math.round(getMeanMillis()) + "ms, p50<" + getPercentileMillis(50) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ "ms, p90<" + getPercentileMillis(90) + "ms, p99<" + getPercentileMillis(99) + "ms, max=" + getMaxMillis() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ "ms, timeouts=" + getTimeouts(); //$NON-NLS-1$
+	}
+}
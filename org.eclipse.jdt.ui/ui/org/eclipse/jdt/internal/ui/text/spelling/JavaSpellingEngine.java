@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -45,22 +45,31 @@ public class JavaSpellingEngine extends SpellingEngine {
 	protected void check(IDocument document, IRegion[] regions, ISpellChecker checker, ISpellingProblemCollector collector, IProgressMonitor monitor) {
 		SpellEventListener listener= new SpellEventListener(collector, document);
 		boolean isIgnoringJavaStrings= PreferenceConstants.getPreferenceStore().getBoolean(PreferenceConstants.SPELLING_IGNORE_JAVA_STRINGS);
-		try {
-			for (IRegion region : regions) {
-				for (ITypedRegion partition : TextUtilities.computePartitioning(document, IJavaPartitions.JAVA_PARTITIONING, region.getOffset(), region.getLength(), false)) {
-					if (monitor != null && monitor.isCanceled())
-						return;
-					if (listener.isProblemsThresholdReached())
-						return;
-					final String type= partition.getType();
-					if (isIgnoringJavaStrings && (IJavaPartitions.JAVA_STRING.equals(type) || IJavaPartitions.JAVA_MULTI_LINE_STRING.equals(type)))
-						continue;
-					if (!IDocument.DEFAULT_CONTENT_TYPE.equals(type) && !IJavaPartitions.JAVA_CHARACTER.equals(type))
-						checker.execute(listener, new SpellCheckIterator(document, partition, checker.getLocale(), monitor));
+		SpellingPartitionCache cache= SpellingPartitionCache.get(document);
+		synchronized (cache) {
+			boolean complete= false;
+			cache.beginCheck(checker);
+			try {
+				for (IRegion region : regions) {
+					for (ITypedRegion partition : TextUtilities.computePartitioning(document, IJavaPartitions.JAVA_PARTITIONING, region.getOffset(), region.getLength(), false)) {
+						if (monitor != null && monitor.isCanceled())
+							return;
+						if (listener.isProblemsThresholdReached())
+							return;
+						final String type= partition.getType();
+						if (isIgnoringJavaStrings && (IJavaPartitions.JAVA_STRING.equals(type) || IJavaPartitions.JAVA_MULTI_LINE_STRING.equals(type)))
+							continue;
+						if (!IDocument.DEFAULT_CONTENT_TYPE.equals(type) && !IJavaPartitions.JAVA_CHARACTER.equals(type))
+							cache.check(document, partition, checker, listener, monitor);
+					}
 				}
+				complete= regions.length == 1 && regions[0].getOffset() == 0 && regions[0].getLength() == document.getLength()
+						&& (monitor == null || !monitor.isCanceled());
+			} catch (BadLocationException | AssertionFailedException x) {
+				// ignore: the document has been changed in another thread and will be checked again
+			} finally {
+				cache.endCheck(complete);
 			}
-		} catch (BadLocationException | AssertionFailedException x) {
-			// ignore: the document has been changed in another thread and will be checked again
 		}
 	}
 }
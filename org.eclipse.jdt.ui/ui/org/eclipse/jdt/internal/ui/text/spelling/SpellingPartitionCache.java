@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.spelling;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITypedRegion;
+
+import org.eclipse.jdt.ui.PreferenceConstants;
+
+import org.eclipse.jdt.internal.ui.text.spelling.engine.DefaultSpellChecker;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellChecker;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellEvent;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellEventListener;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.RankedWordProposal;
+
+/**
+ * Cache of the spell events of the partitions of a document that have already been checked.
+ * <p>
+ * The events of a partition only depend on its type and content, so they are keyed by the type,
+ * the length and a hash of the content, and are replayed at the current offset of the partition.
+ * Only partitions whose content changed are tokenized and looked up in the dictionaries again.
+ * The cache is discarded when the spell checker or the spelling preferences change, and when
+ * words that were correct may have become incorrect, since the cache only holds the problems.
+ * </p>
+ *
+ * @since 3.32
+ */
+final class SpellingPartitionCache {
+
+	/**
+	 * The key of a checked partition.
+	 */
+	private static final class Key {
+
+		private final String fType;
+
+		private final int fLength;
+
+		private final long fHash;
+
+		Key(String type, String content) {
+			fType= type;
+			fLength= content.length();
+			// 64-bit FNV-1a
+			long hash= 0xcbf29ce484222325L;
+			for (int i= 0; i < fLength; i++) {
+				hash^= content.charAt(i);
+				hash*= 0x100000001b3L;
+			}
+			fHash= hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (fHash ^ (fHash >>> 32));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other= (Key) obj;
+			return fHash == other.fHash && fLength == other.fLength && fType.equals(other.fType);
+		}
+	}
+
+	/**
+	 * A spell event relative to the start of its partition.
+	 */
+	private static final class CachedEvent {
+
+		final String fWord;
+
+		final int fBegin;
+
+		final int fEnd;
+
+		final boolean fSentence;
+
+		final boolean fMatch;
+
+		CachedEvent(ISpellEvent event, int offset) {
+			fWord= event.getWord();
+			fBegin= event.getBegin() - offset;
+			fEnd= event.getEnd() - offset;
+			fSentence= event.isStart();
+			fMatch= event.isMatch();
+		}
+	}
+
+	/**
+	 * A cached spell event at the current offset of its partition.
+	 */
+	private static final class ReplayedEvent implements ISpellEvent {
+
+		private final ISpellChecker fChecker;
+
+		private final CachedEvent fEvent;
+
+		private final int fOffset;
+
+		ReplayedEvent(ISpellChecker checker, CachedEvent event, int offset) {
+			fChecker= checker;
+			fEvent= event;
+			fOffset= offset;
+		}
+
+		@Override
+		public int getBegin() {
+			return fOffset + fEvent.fBegin;
+		}
+
+		@Override
+		public int getEnd() {
+			return fOffset + fEvent.fEnd;
+		}
+
+		@Override
+		public Set<RankedWordProposal> getProposals() {
+			return fChecker.getProposals(fEvent.fWord, fEvent.fSentence);
+		}
+
+		@Override
+		public String getWord() {
+			return fEvent.fWord;
+		}
+
+		@Override
+		public boolean isMatch() {
+			return fEvent.fMatch;
+		}
+
+		@Override
+		public boolean isStart() {
+			return fEvent.fSentence;
+		}
+	}
+
+	private static final Map<IDocument, SpellingPartitionCache> fgCaches= Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * Returns the cache of the given document.
+	 *
+	 * @param document the document
+	 * @return the cache of the document
+	 */
+	static SpellingPartitionCache get(IDocument document) {
+		return fgCaches.computeIfAbsent(document, d -> new SpellingPartitionCache());
+	}
+
+	/** The checker that computed the cached events */
+	private WeakReference<ISpellChecker> fChecker= new WeakReference<>(null);
+
+	/**
+	 * The spelling preferences and the generation of the checker's dictionaries and ignored words
+	 * the cached events were computed with
+	 */
+	private String fSettings;
+
+	/** The events of the partitions checked before the current check */
+	private Map<Key, List<CachedEvent>> fEntries= new HashMap<>();
+
+	/** The events of the partitions checked in the current check */
+	private Map<Key, List<CachedEvent>> fUsed= new HashMap<>();
+
+	private SpellingPartitionCache() {
+	}
+
+	/**
+	 * Starts a check of the document. Callers must hold the lock of this cache from the start to
+	 * the end of the check.
+	 *
+	 * @param checker the spell checker
+	 */
+	void beginCheck(ISpellChecker checker) {
+		String settings= getSettings(checker);
+		if (fChecker.get() != checker || !settings.equals(fSettings)) {
+			fChecker= new WeakReference<>(checker);
+			fSettings= settings;
+			fEntries= new HashMap<>();
+		}
+		fUsed= new HashMap<>();
+	}
+
+	/**
+	 * Ends a check of the document.
+	 *
+	 * @param complete <code>true</code> if all partitions of the document have been checked, in
+	 *            which case the events of partitions that no longer exist are discarded
+	 */
+	void endCheck(boolean complete) {
+		if (complete)
+			fEntries= fUsed;
+		else
+			fEntries.putAll(fUsed);
+		fUsed= new HashMap<>();
+	}
+
+	/**
+	 * Spell checks the given partition, or replays its events if it has already been checked.
+	 *
+	 * @param document the document
+	 * @param partition the partition
+	 * @param checker the spell checker
+	 * @param listener the listener to notify about spell events
+	 * @param monitor the progress monitor, can be <code>null</code>
+	 * @throws BadLocationException if the partition is not in the document
+	 */
+	void check(IDocument document, ITypedRegion partition, ISpellChecker checker, ISpellEventListener listener, IProgressMonitor monitor) throws BadLocationException {
+		final int offset= partition.getOffset();
+		Key key= new Key(partition.getType(), document.get(offset, partition.getLength()));
+		List<CachedEvent> events= fUsed.get(key);
+		if (events == null) {
+			events= fEntries.get(key);
+			if (events != null)
+				fUsed.put(key, events);
+		}
+
+		if (events != null) {
+			for (CachedEvent event : events) {
+				// words may have been added to the dictionary or ignored since
+				if (!event.fMatch && checker.isCorrect(event.fWord))
+					continue;
+				listener.handle(new ReplayedEvent(checker, event, offset));
+			}
+			return;
+		}
+
+		final List<CachedEvent> recorded= new ArrayList<>();
+		checker.execute(event -> {
+			recorded.add(new CachedEvent(event, offset));
+			listener.handle(event);
+		}, new SpellCheckIterator(document, partition, checker.getLocale(), monitor));
+		if (monitor == null || !monitor.isCanceled())
+			fUsed.put(key, recorded);
+	}
+
+	private static String getSettings(ISpellChecker checker) {
+		IPreferenceStore store= PreferenceConstants.getPreferenceStore();
+		StringBuilder settings= new StringBuilder();
+		// removed dictionaries and words that are no longer ignored
+		if (checker instanceof DefaultSpellChecker)
+			settings.append(((DefaultSpellChecker) checker).getGeneration()).append('|');
+		for (String key : new String[] { PreferenceConstants.SPELLING_IGNORE_DIGITS, PreferenceConstants.SPELLING_IGNORE_MIXED,
+				PreferenceConstants.SPELLING_IGNORE_SENTENCE, PreferenceConstants.SPELLING_IGNORE_UPPER, PreferenceConstants.SPELLING_IGNORE_URLS,
+				PreferenceConstants.SPELLING_IGNORE_NON_LETTERS, PreferenceConstants.SPELLING_IGNORE_SINGLE_LETTERS }) {
+			settings.append(store.getBoolean(key) ? '1' : '0');
+		}
+		settings.append(store.getInt(PreferenceConstants.SPELLING_PROBLEMS_THRESHOLD));
+		settings.append('|').append(store.getString(PreferenceConstants.SPELLING_USER_DICTIONARY));
+		settings.append('|').append(store.getString(PreferenceConstants.SPELLING_USER_DICTIONARY_ENCODING));
+		return settings.toString();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,15 +21,18 @@ import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.MalformedInputException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -111,8 +114,19 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	/** The phonetic distance algorithm */
 	private IPhoneticDistanceAlgorithm fDistanceAlgorithm= new DefaultPhoneticDistanceAlgorithm();
 
-	/** The mapping from phonetic hashes to word lists */
-	private final Map<ByteArrayWrapper, Object> fHashBuckets= new HashMap<>(getInitialSize(), LOAD_FACTOR);
+	/**
+	 * The mapping from phonetic hashes to word lists. Replaced by an empty map once the word list
+	 * has been compiled.
+	 */
+	private volatile Map<ByteArrayWrapper, Object> fHashBuckets= new HashMap<>(getInitialSize(), LOAD_FACTOR);
+
+	/**
+	 * The compiled, memory-mapped table of the word list, or <code>null</code> if the word list
+	 * is loaded into {@link #fHashBuckets}. If present, {@link #fHashBuckets} only holds the words
+	 * added after loading.
+	 * @since 3.32
+	 */
+	private volatile MappedSpellDictionaryTable fTable;
 
 	/** The phonetic hash provider */
 	private IPhoneticHashProvider fHashProvider= new DefaultPhoneticHashProvider();
@@ -156,7 +170,26 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			JavaPlugin.log(e);
 			return null;
 		}
-		return fHashBuckets.get(hashBytes);
+		Object candidates= fHashBuckets.get(hashBytes);
+		MappedSpellDictionaryTable table= fTable;
+		if (table == null)
+			return candidates;
+		Object compiled= table.getCandidates(hashBytes.byteArray);
+		if (candidates == null)
+			return compiled;
+		if (compiled == null)
+			return candidates;
+		ArrayList<Object> merged= new ArrayList<>(BUCKET_CAPACITY);
+		addCandidates(merged, compiled);
+		addCandidates(merged, candidates);
+		return merged;
+	}
+
+	private static void addCandidates(ArrayList<Object> list, Object candidates) {
+		if (candidates instanceof ArrayList)
+			list.addAll((ArrayList<?>)candidates);
+		else
+			list.add(candidates);
 	}
 
 	/**
@@ -195,7 +228,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 					JavaPlugin.log(e);
 					return result;
 				}
-				distance= fDistanceAlgorithm.getDistance(word, candidate);
+				distance= fDistanceAlgorithm.getDistance(word, candidate, DISTANCE_THRESHOLD);
 				if (distance < DISTANCE_THRESHOLD) {
 					buffer.setLength(0);
 					buffer.append(candidate);
@@ -218,7 +251,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 					JavaPlugin.log(e);
 					return result;
 				}
-				distance= fDistanceAlgorithm.getDistance(word, candidate);
+				distance= fDistanceAlgorithm.getDistance(word, candidate, DISTANCE_THRESHOLD);
 
 				if (distance < DISTANCE_THRESHOLD) {
 
@@ -286,7 +319,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 				JavaPlugin.log(e);
 				return;
 			}
-			distance= fDistanceAlgorithm.getDistance(word, candidate);
+			distance= fDistanceAlgorithm.getDistance(word, candidate, minimum == Integer.MAX_VALUE ? minimum : minimum + 1);
 
 			if (distance <= minimum) {
 
@@ -314,7 +347,8 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	 * @since 3.3
 	 */
 	protected boolean isEmpty() {
-		return fHashBuckets.isEmpty();
+		MappedSpellDictionaryTable table= fTable;
+		return fHashBuckets.isEmpty() && (table == null || table.isEmpty());
 	}
 
 	/**
@@ -454,6 +488,23 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	 */
 	protected abstract URL getURL() throws MalformedURLException;
 
+	/**
+	 * Returns the location of the compiled word list of this dictionary.
+	 * <p>
+	 * If a location is returned, the word list is compiled into a {@link MappedSpellDictionaryTable}
+	 * when it is loaded for the first time, and later loads map the compiled table instead of
+	 * reading and hashing the word list. Words added after loading are kept in memory. Subclasses
+	 * whose word list changes while it is loaded must not use a compiled word list.
+	 * </p>
+	 *
+	 * @return the location of the compiled word list, or <code>null</code> if the word list
+	 *         is always loaded into memory
+	 * @since 3.32
+	 */
+	protected Path getCompiledPath() {
+		return null;
+	}
+
 	/**
 	 * Hashes the word into the dictionary.
 	 *
@@ -574,7 +625,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 
 	@Override
 	public synchronized final boolean isLoaded() {
-		return fLoaded || fHashBuckets.size() > 0;
+		return fLoaded || fHashBuckets.size() > 0 || fTable != null;
 	}
 
 	/**
@@ -589,6 +640,23 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 		 if (!fMustLoad)
 			 return fLoaded;
 
+		Path compiledPath= url != null ? getCompiledPath() : null;
+		String source= null;
+		if (compiledPath != null) {
+			try {
+				source= getSourceIdentification(url);
+				MappedSpellDictionaryTable table= MappedSpellDictionaryTable.open(compiledPath, source);
+				if (table != null) {
+					fTable= table;
+					fMustLoad= false;
+					return true;
+				}
+			} catch (IOException e) {
+				// fall back to reading the word list
+				compiledPath= null;
+			}
+		}
+
 		if (url != null) {
 			InputStream stream= null;
 			int line= 0;
@@ -627,6 +695,8 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 								hashWord(word);
 						}
 					}
+					if (source != null)
+						compile(compiledPath, source);
 					return true;
 				}
 			} catch (FileNotFoundException ex) {
@@ -659,6 +729,58 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 		return false;
 	}
 
+	/**
+	 * Returns a string that identifies the given word list and how it is hashed, to tell whether a
+	 * compiled word list is up to date.
+	 *
+	 * @param url the URL of the word list
+	 * @return the identification of the word list
+	 * @throws IOException if the word list could not be accessed
+	 * @since 3.32
+	 */
+	private String getSourceIdentification(URL url) throws IOException {
+		URLConnection connection= url.openConnection();
+		long lastModified= connection.getLastModified();
+		long length= connection.getContentLengthLong();
+		return url + "|" + lastModified + "|" + length + "|" + getEncoding() + "|" + fHashProvider.getClass().getName() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				+ "|" + JavaPlugin.getDefault().getBundle().getVersion(); //$NON-NLS-1$
+	}
+
+	/**
+	 * Compiles the loaded word list and maps the compiled table, so that the hashed words can be
+	 * released.
+	 *
+	 * @param path the location of the compiled word list
+	 * @param source the identification of the word list
+	 * @since 3.32
+	 */
+	private void compile(Path path, String source) {
+		List<byte[]> hashes= new ArrayList<>(fHashBuckets.size());
+		List<List<byte[]>> buckets= new ArrayList<>(fHashBuckets.size());
+		for (Map.Entry<ByteArrayWrapper, Object> entry : fHashBuckets.entrySet()) {
+			hashes.add(entry.getKey().byteArray);
+			Object bucket= entry.getValue();
+			if (bucket instanceof ArrayList) {
+				@SuppressWarnings("unchecked")
+				List<byte[]> bucketList= (ArrayList<byte[]>)bucket;
+				buckets.add(bucketList);
+			} else {
+				buckets.add(List.of((byte[])bucket));
+			}
+		}
+		try {
+			MappedSpellDictionaryTable.write(path, source, hashes, buckets);
+			MappedSpellDictionaryTable table= MappedSpellDictionaryTable.open(path, source);
+			if (table != null) {
+				fTable= table;
+				fHashBuckets= new HashMap<>(BUCKET_CAPACITY, LOAD_FACTOR);
+			}
+		} catch (IOException e) {
+			// keep the word list in memory
+			JavaPlugin.log(e);
+		}
+	}
+
 	/**
 	 * Compacts the dictionary.
 	 *
@@ -698,6 +820,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 		fLoaded= false;
 		fMustLoad= true;
 		fHashBuckets.clear();
+		fTable= null;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -39,66 +39,112 @@ public final class DefaultPhoneticDistanceAlgorithm implements IPhoneticDistance
 	/** The swap characters cost */
 	public static final int COST_SWAP= 90;
 
+	/**
+	 * The rows of the distance matrix that are needed to compute the next row, per thread. The
+	 * algorithm is shared by the dictionaries, which may be used by several threads.
+	 * @since 3.32
+	 */
+	private static final ThreadLocal<int[][]> fgRows= ThreadLocal.withInitial(() -> new int[3][32]);
+
 	@Override
 	public int getDistance(final String from, final String to) {
+		return getDistance(from, to, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only the last three rows of the distance matrix are kept, in buffers that are reused. The
+	 * computation stops early if the lengths of the words differ too much, or once two adjacent rows
+	 * only contain distances that reach the threshold, since the distances in the later rows cannot
+	 * be smaller.
+	 * </p>
+	 *
+	 * @since 3.32
+	 */
+	@Override
+	public int getDistance(final String from, final String to, final int threshold) {
 
-		final char[] first= (" " + from).toCharArray(); //$NON-NLS-1$
-		final char[] second= (" " + to).toCharArray(); //$NON-NLS-1$
+		final int rows= from.length() + 1;
+		final int columns= to.length() + 1;
 
-		final int rows= first.length;
-		final int columns= second.length;
+		// only inserts and removes change the difference of the lengths
+		final int lengthDifference= Math.abs(rows - columns);
+		if (lengthDifference > 0 && (long) lengthDifference * Math.min(COST_INSERT, COST_REMOVE) >= threshold)
+			return threshold;
 
-		final int[][] metric= new int[rows][columns];
-		for (int column= 1; column < columns; column++)
-			metric[0][column]= metric[0][column - 1] + COST_REMOVE;
+		int[][] buffers= fgRows.get();
+		if (buffers[0].length < columns) {
+			buffers= new int[3][Math.max(columns, 2 * buffers[0].length)];
+			fgRows.set(buffers);
+		}
+		int[] beforePrevious= buffers[0];
+		int[] previous= buffers[1];
+		int[] current= buffers[2];
 
-		for (int row= 1; row < rows; row++)
-			metric[row][0]= metric[row - 1][0] + COST_INSERT;
+		previous[0]= 0;
+		for (int column= 1; column < columns; column++)
+			previous[column]= previous[column - 1] + COST_REMOVE;
 
 		char source, target;
 
 		int swap= Integer.MAX_VALUE;
 		int change= Integer.MAX_VALUE;
 
-		int minimum, diagonal, insert, remove;
+		int previousMinimum= 0;
+		int minimum, diagonal, insert, remove, rowMinimum;
 		for (int row= 1; row < rows; row++) {
 
-			source= first[row];
+			source= from.charAt(row - 1);
+			current[0]= previous[0] + COST_INSERT;
+			rowMinimum= current[0];
 			for (int column= 1; column < columns; column++) {
 
-				target= second[column];
-				diagonal= metric[row - 1][column - 1];
+				target= to.charAt(column - 1);
+				diagonal= previous[column - 1];
 
 				if (source == target) {
-					metric[row][column]= diagonal;
-					continue;
+					minimum= diagonal;
+				} else {
+
+					change= Integer.MAX_VALUE;
+					if (Character.toLowerCase(source) == Character.toLowerCase(target))
+						change= COST_CASE + diagonal;
+
+					swap= Integer.MAX_VALUE;
+					if (row != 1 && column != 1 && source == to.charAt(column - 2) && from.charAt(row - 2) == target)
+						swap= COST_SWAP + beforePrevious[column - 2];
+
+					minimum= COST_SUBSTITUTE + diagonal;
+					if (swap < minimum)
+						minimum= swap;
+
+					remove= current[column - 1];
+					if (COST_REMOVE + remove < minimum)
+						minimum= COST_REMOVE + remove;
+
+					insert= previous[column];
+					if (COST_INSERT + insert < minimum)
+						minimum= COST_INSERT + insert;
+					if (change < minimum)
+						minimum= change;
 				}
 
-				change= Integer.MAX_VALUE;
-				if (Character.toLowerCase(source) == Character.toLowerCase(target))
-					change= COST_CASE + diagonal;
-
-				swap= Integer.MAX_VALUE;
-				if (row != 1 && column != 1 && source == second[column - 1] && first[row - 1] == target)
-					swap= COST_SWAP + metric[row - 2][column - 2];
-
-				minimum= COST_SUBSTITUTE + diagonal;
-				if (swap < minimum)
-					minimum= swap;
-
-				remove= metric[row][column - 1];
-				if (COST_REMOVE + remove < minimum)
-					minimum= COST_REMOVE + remove;
+				current[column]= minimum;
+				if (minimum < rowMinimum)
+					rowMinimum= minimum;
+			}
 
-				insert= metric[row - 1][column];
-				if (COST_INSERT + insert < minimum)
-					minimum= COST_INSERT + insert;
-				if (change < minimum)
-					minimum= change;
+			// a cell only depends on cells of its row and the two rows above
+			if (rowMinimum >= threshold && previousMinimum >= threshold)
+				return threshold;
+			previousMinimum= rowMinimum;
 
-				metric[row][column]= minimum;
-			}
+			final int[] recycled= beforePrevious;
+			beforePrevious= previous;
+			previous= current;
+			current= recycled;
 		}
-		return metric[rows - 1][columns - 1];
+		return previous[columns - 1];
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.runtime.Assert;
 
@@ -134,6 +135,12 @@ public class DefaultSpellChecker implements ISpellChecker {
 	 */
 	private final Set<String> fIgnored= Collections.synchronizedSet(new HashSet<String>());
 
+	/**
+	 * The number of changes after which words may no longer be correct.
+	 * @since 3.32
+	 */
+	private final AtomicLong fGeneration= new AtomicLong();
+
 	/**
 	 * The preference store. Assumes the <code>IPreferenceStore</code>
 	 * implementation is thread safe.
@@ -203,7 +210,8 @@ public class DefaultSpellChecker implements ISpellChecker {
 	@Override
 	public final void checkWord(final String word) {
 		// synchronizing is necessary as this is a write access
-		fIgnored.remove(word.toLowerCase());
+		if (fIgnored.remove(word.toLowerCase()))
+			fGeneration.incrementAndGet();
 	}
 
 	@Override
@@ -307,7 +315,19 @@ public class DefaultSpellChecker implements ISpellChecker {
 	@Override
 	public final void removeDictionary(final ISpellDictionary dictionary) {
 		// synchronizing is necessary as this is a write access
-		fDictionaries.remove(dictionary);
+		if (fDictionaries.remove(dictionary))
+			fGeneration.incrementAndGet();
+	}
+
+	/**
+	 * Returns the number of changes after which words that were correct may no longer be correct,
+	 * that is of removed dictionaries and of words that are no longer ignored.
+	 *
+	 * @return the number of changes
+	 * @since 3.32
+	 */
+	public long getGeneration() {
+		return fGeneration.get();
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2005 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,4 +31,26 @@ public interface IPhoneticDistanceAlgorithm {
 	 * @return The non-negative phonetic distance between the words.
 	 */
 	int getDistance(String from, String to);
+
+	/**
+	 * Returns the non-negative phonetic distance between two words, or any value greater than or
+	 * equal to the threshold if the distance is not below the threshold.
+	 * <p>
+	 * Implementations can stop computing the distance as soon as it is known to reach the
+	 * threshold. The default implementation computes the exact distance.
+	 * </p>
+	 *
+	 * @param from
+	 *                  The first word
+	 * @param to
+	 *                  The second word
+	 * @param threshold
+	 *                  The distance from which on the exact distance is not of interest
+	 * @return The non-negative phonetic distance between the words if it is below the threshold,
+	 *         a value greater than or equal to the threshold otherwise
+	 * @since 3.32
+	 */
+	default int getDistance(String from, String to, int threshold) {
+		return getDistance(from, to);
+	}
 }
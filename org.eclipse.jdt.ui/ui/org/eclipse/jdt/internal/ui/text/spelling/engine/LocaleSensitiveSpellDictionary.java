@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,8 +15,11 @@ package org.eclipse.jdt.internal.ui.text.spelling.engine;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.Locale;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 
 /**
  * Platform wide read-only locale sensitive dictionary for spell checking.
@@ -58,6 +61,21 @@ public class LocaleSensitiveSpellDictionary extends AbstractSpellDictionary {
 		return new URL(fLocation, fLocale.toString() + ".dictionary");  //$NON-NLS-1$
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The word lists of the locales are read-only, they are compiled into the state location of
+	 * the plug-in.
+	 * </p>
+	 */
+	@Override
+	protected Path getCompiledPath() {
+		JavaPlugin plugin= JavaPlugin.getDefault();
+		if (plugin == null)
+			return null;
+		return plugin.getStateLocation().append("spelling").append(fLocale.toString() + ".dictionary.bin").toFile().toPath(); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 	@Override
 	protected int getInitialSize() {
 		return 32 * 1024;
@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.spelling.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only table from phonetic hashes to words, stored in a compiled file that is memory-mapped.
+ * <p>
+ * The file starts with a header that identifies the word list the table was compiled from,
+ * followed by an open addressing table from hashes to hash indices and by offset tables into the
+ * bytes of the hashes and of the words. Looking up a hash neither creates objects for the whole
+ * dictionary nor loads it into the Java heap; only the bytes of the words of the found bucket are
+ * copied.
+ * </p>
+ *
+ * @since 3.32
+ */
+public final class MappedSpellDictionaryTable {
+
+	private static final int MAGIC= 0x4A445350; // "JDSP"
+
+	private static final int VERSION= 1;
+
+	private final ByteBuffer fBuffer;
+
+	private final int fHashCount;
+
+	private final int fMask;
+
+	private final IntBuffer fSlots;
+
+	private final IntBuffer fHashOffsets;
+
+	private final IntBuffer fBucketStarts;
+
+	private final IntBuffer fWordOffsets;
+
+	private final int fHashBytesStart;
+
+	private final int fWordBytesStart;
+
+	private MappedSpellDictionaryTable(ByteBuffer buffer) {
+		fBuffer= buffer;
+		int position= buffer.position();
+		fHashCount= buffer.getInt();
+		int wordCount= buffer.getInt();
+		int tableSize= buffer.getInt();
+		int hashBytesLength= buffer.getInt();
+		position+= 16;
+		fMask= tableSize - 1;
+		fSlots= slice(buffer, position, tableSize);
+		position+= 4 * tableSize;
+		fHashOffsets= slice(buffer, position, fHashCount + 1);
+		position+= 4 * (fHashCount + 1);
+		fBucketStarts= slice(buffer, position, fHashCount + 1);
+		position+= 4 * (fHashCount + 1);
+		fWordOffsets= slice(buffer, position, wordCount + 1);
+		position+= 4 * (wordCount + 1);
+		fHashBytesStart= position;
+		fWordBytesStart= position + hashBytesLength;
+	}
+
+	private static IntBuffer slice(ByteBuffer buffer, int position, int length) {
+		return buffer.slice(position, 4 * length).asIntBuffer();
+	}
+
+	/**
+	 * Opens a compiled table.
+	 *
+	 * @param file the compiled file
+	 * @param source the identification of the word list, which must match the one the table was
+	 *            compiled from
+	 * @return the table, or <code>null</code> if the file does not exist, has another format, is
+	 *         corrupt or was compiled from another word list
+	 * @throws IOException if the file could not be read
+	 */
+	public static MappedSpellDictionaryTable open(Path file, String source) throws IOException {
+		if (!Files.isRegularFile(file))
+			return null;
+		MappedByteBuffer buffer;
+		try (FileChannel channel= FileChannel.open(file, StandardOpenOption.READ)) {
+			buffer= channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+			return null;
+		int sourceLength= buffer.getInt();
+		if (sourceLength < 0 || sourceLength > buffer.remaining())
+			return null;
+		byte[] sourceBytes= new byte[sourceLength];
+		buffer.get(sourceBytes);
+		if (!source.equals(new String(sourceBytes, StandardCharsets.UTF_8)))
+			return null;
+		if (!isValid(buffer))
+			return null;
+		return new MappedSpellDictionaryTable(buffer);
+	}
+
+	/**
+	 * Tells whether the counts, lengths and offsets of the table starting at the position of the
+	 * buffer are consistent with each other and with the size of the buffer, so that lookups
+	 * neither fail nor loop endlessly.
+	 *
+	 * @param buffer the buffer, positioned after the identification of the word list
+	 * @return <code>true</code> if the table is valid
+	 */
+	private static boolean isValid(ByteBuffer buffer) {
+		if (buffer.remaining() < 16)
+			return false;
+		int position= buffer.position();
+		int hashCount= buffer.getInt(position);
+		int wordCount= buffer.getInt(position + 4);
+		int tableSize= buffer.getInt(position + 8);
+		int hashBytesLength= buffer.getInt(position + 12);
+		if (hashCount < 0 || wordCount < 0 || hashBytesLength < 0 || tableSize < 2 || Integer.bitCount(tableSize) != 1 || tableSize <= hashCount)
+			return false;
+		long offsetsLength= 4L * tableSize + 8L * (hashCount + 1L) + 4L * (wordCount + 1L);
+		if (16 + offsetsLength + hashBytesLength > buffer.remaining())
+			return false;
+
+		int slots= position + 16;
+		int used= 0;
+		for (int i= 0; i < tableSize; i++) {
+			int slot= buffer.getInt(slots + 4 * i);
+			if (slot < 0 || slot > hashCount)
+				return false;
+			if (slot != 0)
+				used++;
+		}
+		int hashOffsets= slots + 4 * tableSize;
+		int bucketStarts= hashOffsets + 4 * (hashCount + 1);
+		int wordOffsets= bucketStarts + 4 * (hashCount + 1);
+		if (used != hashCount
+				|| !isAscending(buffer, hashOffsets, hashCount + 1, hashBytesLength)
+				|| !isAscending(buffer, bucketStarts, hashCount + 1, wordCount)
+				|| !isAscending(buffer, wordOffsets, wordCount + 1, -1))
+			return false;
+		int wordBytesLength= buffer.getInt(wordOffsets + 4 * wordCount);
+		return 16 + offsetsLength + hashBytesLength + wordBytesLength <= buffer.remaining();
+	}
+
+	/**
+	 * Tells whether the given offsets start at 0, do not decrease and end with the given value.
+	 *
+	 * @param buffer the buffer
+	 * @param position the position of the offsets
+	 * @param length the number of offsets
+	 * @param last the last offset, or <code>-1</code> if it is not known
+	 * @return <code>true</code> if the offsets are valid
+	 */
+	private static boolean isAscending(ByteBuffer buffer, int position, int length, int last) {
+		int previous= 0;
+		for (int i= 0; i < length; i++) {
+			int offset= buffer.getInt(position + 4 * i);
+			if (offset < previous || i == 0 && offset != 0)
+				return false;
+			previous= offset;
+		}
+		return last == -1 || previous == last;
+	}
+
+	/**
+	 * Compiles a table and writes it to the given file. The file is replaced atomically where
+	 * possible, so that it can be written while another instance maps the old file.
+	 *
+	 * @param file the compiled file
+	 * @param source the identification of the word list the table is compiled from
+	 * @param hashes the distinct phonetic hashes, encoded in UTF-8
+	 * @param buckets the words per hash, in the order of the hashes, encoded in UTF-8
+	 * @throws IOException if the file could not be written
+	 */
+	public static void write(Path file, String source, List<byte[]> hashes, List<List<byte[]>> buckets) throws IOException {
+		int hashCount= hashes.size();
+		int tableSize= Integer.highestOneBit(Math.max(2, 2 * hashCount - 1)) << 1;
+		int[] slots= new int[tableSize];
+		int hashBytesLength= 0;
+		int wordCount= 0;
+		for (int i= 0; i < hashCount; i++) {
+			byte[] hash= hashes.get(i);
+			int slot= hash(hash) & (tableSize - 1);
+			while (slots[slot] != 0)
+				slot= (slot + 1) & (tableSize - 1);
+			slots[slot]= i + 1;
+			hashBytesLength+= hash.length;
+			wordCount+= buckets.get(i).size();
+		}
+
+		Files.createDirectories(file.getParent());
+		Path temp= Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp"); //$NON-NLS-1$
+		try {
+			try (OutputStream stream= Files.newOutputStream(temp); DataOutputStream out= new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024))) {
+				byte[] sourceBytes= source.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(sourceBytes.length);
+				out.write(sourceBytes);
+				out.writeInt(hashCount);
+				out.writeInt(wordCount);
+				out.writeInt(tableSize);
+				out.writeInt(hashBytesLength);
+				for (int slot : slots)
+					out.writeInt(slot);
+				int offset= 0;
+				for (byte[] hash : hashes) {
+					out.writeInt(offset);
+					offset+= hash.length;
+				}
+				out.writeInt(offset);
+				int start= 0;
+				for (List<byte[]> bucket : buckets) {
+					out.writeInt(start);
+					start+= bucket.size();
+				}
+				out.writeInt(start);
+				offset= 0;
+				for (List<byte[]> bucket : buckets) {
+					for (byte[] word : bucket) {
+						out.writeInt(offset);
+						offset+= word.length;
+					}
+				}
+				out.writeInt(offset);
+				for (byte[] hash : hashes)
+					out.write(hash);
+				for (List<byte[]> bucket : buckets) {
+					for (byte[] word : bucket)
+						out.write(word);
+				}
+			}
+			try {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Returns the words with the given phonetic hash.
+	 *
+	 * @param hash the phonetic hash, encoded in UTF-8
+	 * @return <code>null</code> if there is no word with the hash, the UTF-8 bytes of the word if
+	 *         there is only one, or an {@link ArrayList} of the UTF-8 bytes of the words
+	 */
+	public Object getCandidates(byte[] hash) {
+		int slot= hash(hash) & fMask;
+		int index;
+		while ((index= fSlots.get(slot)) != 0) {
+			index--;
+			if (matches(hash, index))
+				return getWords(index);
+			slot= (slot + 1) & fMask;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of distinct phonetic hashes.
+	 *
+	 * @return the number of hashes
+	 */
+	public int size() {
+		return fHashCount;
+	}
+
+	/**
+	 * Tells whether the table contains no words.
+	 *
+	 * @return <code>true</code> if the table is empty
+	 */
+	public boolean isEmpty() {
+		return fHashCount == 0;
+	}
+
+	private boolean matches(byte[] hash, int index) {
+		int start= fHashOffsets.get(index);
+		int length= fHashOffsets.get(index + 1) - start;
+		if (length != hash.length)
+			return false;
+		int position= fHashBytesStart + start;
+		for (int i= 0; i < length; i++) {
+			if (fBuffer.get(position + i) != hash[i])
+				return false;
+		}
+		return true;
+	}
+
+	private Object getWords(int index) {
+		int first= fBucketStarts.get(index);
+		int last= fBucketStarts.get(index + 1);
+		if (last - first == 1)
+			return getWord(first);
+		ArrayList<byte[]> words= new ArrayList<>(last - first);
+		for (int i= first; i < last; i++)
+			words.add(getWord(i));
+		return words;
+	}
+
+	private byte[] getWord(int index) {
+		int start= fWordOffsets.get(index);
+		byte[] word= new byte[fWordOffsets.get(index + 1) - start];
+		fBuffer.get(fWordBytesStart + start, word);
+		return word;
+	}
+
+	private static int hash(byte[] bytes) {
+		int hash= 1;
+		for (byte b : bytes)
+			hash= 31 * hash + b;
+		return hash ^ (hash >>> 16);
+	}
+}
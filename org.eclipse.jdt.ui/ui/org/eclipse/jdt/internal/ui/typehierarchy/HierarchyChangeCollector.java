@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.Signature;
+
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+
+/**
+ * Collects the changes of the Java model since a type hierarchy was computed, and decides whether
+ * the hierarchy has to be rebuilt for them.
+ * <p>
+ * Changes of compilation units are checked against the hierarchy: the hierarchy stays valid if the
+ * types of the changed units still exist, keep their flags and super types, and no new type of
+ * the units is a subtype of the focus type. This is the case for changes of member bodies, which
+ * make up most of the edits. Any other change, like a classpath change, requires a rebuild.
+ * </p>
+ *
+ * @since 3.32
+ */
+public final class HierarchyChangeCollector {
+
+	/** If more compilation units changed, the hierarchy is rebuilt instead of being checked */
+	private static final int MAX_CHANGED_UNITS= 50;
+
+	/** The super types that a type can have without declaring them */
+	private static final Set<String> IMPLICIT_SUPER_TYPES= Set.of("java.lang.Object", "java.lang.Enum", "java.lang.Record", "java.lang.annotation.Annotation"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	/** The changed primary compilation units */
+	private Set<ICompilationUnit> fUnits= new HashSet<>();
+
+	private boolean fRebuildRequired;
+
+	/** The hierarchy for which the subtype names have been computed */
+	private ITypeHierarchy fSubtypeNamesHierarchy;
+
+	/** The qualified names of the focus type and its subtypes */
+	private Set<String> fSubtypeNames;
+
+	/** The hierarchy for which the source types have been computed */
+	private ITypeHierarchy fSourceTypesHierarchy;
+
+	/** The types of the hierarchy declared in source, by compilation unit */
+	private Map<ICompilationUnit, List<IType>> fSourceTypes;
+
+	/**
+	 * Collects the changes of the given delta.
+	 *
+	 * @param delta the delta
+	 */
+	public synchronized void collect(IJavaElementDelta delta) {
+		collectDelta(delta);
+		if (fUnits.size() > MAX_CHANGED_UNITS)
+			requireRebuild();
+	}
+
+	/**
+	 * Marks the hierarchy as changed.
+	 */
+	public synchronized void requireRebuild() {
+		fRebuildRequired= true;
+		fUnits= new HashSet<>();
+	}
+
+	/**
+	 * Discards the collected changes, to be called after the hierarchy has been computed.
+	 */
+	public synchronized void reset() {
+		fRebuildRequired= false;
+		fUnits= new HashSet<>();
+		fSubtypeNamesHierarchy= null;
+		fSubtypeNames= null;
+		fSourceTypesHierarchy= null;
+		fSourceTypes= null;
+	}
+
+	/**
+	 * Checks whether the collected changes affect the given hierarchy. The changes are consumed
+	 * if they don't, otherwise the hierarchy is considered changed until {@link #reset()}.
+	 *
+	 * @param hierarchy the hierarchy
+	 * @param superTypesOnly <code>true</code> if the hierarchy only contains the super types of
+	 *            its focus type
+	 * @return <code>true</code> if the hierarchy has to be rebuilt
+	 */
+	public boolean isAffected(ITypeHierarchy hierarchy, boolean superTypesOnly) {
+		Set<ICompilationUnit> units;
+		synchronized (this) {
+			if (fRebuildRequired)
+				return true;
+			if (fUnits.isEmpty())
+				return false;
+			units= fUnits;
+			fUnits= new HashSet<>();
+		}
+		boolean affected;
+		try {
+			affected= isAffected(hierarchy, superTypesOnly, units);
+		} catch (JavaModelException e) {
+			// the rebuild reports the problem if it persists
+			affected= true;
+		}
+		if (affected)
+			requireRebuild();
+		return affected;
+	}
+
+	private void collectDelta(IJavaElementDelta delta) {
+		if (fRebuildRequired)
+			return;
+		IJavaElement element= delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~(IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_CONTENT)) != 0) {
+					fRebuildRequired= true;
+					return;
+				}
+				for (IJavaElementDelta child : delta.getAffectedChildren()) {
+					collectDelta(child);
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				ICompilationUnit unit= (ICompilationUnit) element;
+				if (JavaModelUtil.isPrimary(unit)) {
+					// added and removed units are checked like changed ones
+					fUnits.add(unit);
+				}
+				break;
+			default:
+				fRebuildRequired= true;
+				break;
+		}
+	}
+
+	private boolean isAffected(ITypeHierarchy hierarchy, boolean superTypesOnly, Set<ICompilationUnit> units) throws JavaModelException {
+		IType focus= hierarchy.getType();
+		if (focus == null) {
+			// the types of a region are not known in advance
+			return true;
+		}
+		Map<ICompilationUnit, List<IType>> sourceTypes= getSourceTypes(hierarchy);
+		List<IType> types= new ArrayList<>();
+		for (ICompilationUnit unit : units) {
+			List<IType> hierarchyTypes= sourceTypes.get(unit);
+			if (hierarchyTypes != null) {
+				for (IType type : hierarchyTypes) {
+					if (!type.exists()) {
+						return true;
+					}
+				}
+			} else if (superTypesOnly) {
+				// the new types of the unit could only be subtypes
+				continue;
+			}
+			if (unit.exists()) {
+				collectTypes(unit, types);
+			}
+		}
+		for (IType type : types) {
+			if (hierarchy.contains(type)) {
+				if (hierarchy.getCachedFlags(type) != type.getFlags() || !hasSameSuperTypes(hierarchy, type)) {
+					return true;
+				}
+			} else if (!superTypesOnly && isPossibleSubtype(hierarchy, focus, type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void collectTypes(IParent parent, List<IType> types) throws JavaModelException {
+		for (IJavaElement child : parent.getChildren()) {
+			if (child instanceof IType) {
+				types.add((IType) child);
+			}
+			// local and anonymous types are children of methods, fields and initializers
+			if (child instanceof IMember && child instanceof IParent) {
+				collectTypes((IParent) child, types);
+			}
+		}
+	}
+
+	private static boolean hasSameSuperTypes(ITypeHierarchy hierarchy, IType type) throws JavaModelException {
+		Set<String> declared= new HashSet<>();
+		if (!addDeclaredSuperTypes(type, declared)) {
+			return false;
+		}
+		Set<String> actual= new HashSet<>();
+		IType superclass= hierarchy.getSuperclass(type);
+		if (superclass != null) {
+			actual.add(superclass.getFullyQualifiedName('.'));
+		}
+		for (IType superInterface : hierarchy.getSuperInterfaces(type)) {
+			actual.add(superInterface.getFullyQualifiedName('.'));
+		}
+		if (!actual.containsAll(declared)) {
+			return false;
+		}
+		actual.removeAll(declared);
+		return IMPLICIT_SUPER_TYPES.containsAll(actual);
+	}
+
+	private boolean isPossibleSubtype(ITypeHierarchy hierarchy, IType focus, IType type) throws JavaModelException {
+		Set<String> declared= new HashSet<>();
+		if (!addDeclaredSuperTypes(type, declared)) {
+			return true;
+		}
+		if (type.getSuperclassName() == null) {
+			if (type.isEnum()) {
+				declared.add("java.lang.Enum"); //$NON-NLS-1$
+			} else if (type.isRecord()) {
+				declared.add("java.lang.Record"); //$NON-NLS-1$
+			} else if (type.isAnnotation()) {
+				declared.add("java.lang.annotation.Annotation"); //$NON-NLS-1$
+			} else if (type.isClass()) {
+				declared.add("java.lang.Object"); //$NON-NLS-1$
+			}
+		}
+		Set<String> subtypeNames= getSubtypeNames(hierarchy, focus);
+		for (String name : declared) {
+			if (subtypeNames.contains(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private synchronized Set<String> getSubtypeNames(ITypeHierarchy hierarchy, IType focus) {
+		if (fSubtypeNamesHierarchy != hierarchy || fSubtypeNames == null) {
+			Set<String> names= new HashSet<>();
+			names.add(focus.getFullyQualifiedName('.'));
+			for (IType subtype : hierarchy.getAllSubtypes(focus)) {
+				names.add(subtype.getFullyQualifiedName('.'));
+			}
+			fSubtypeNamesHierarchy= hierarchy;
+			fSubtypeNames= names;
+		}
+		return fSubtypeNames;
+	}
+
+	private synchronized Map<ICompilationUnit, List<IType>> getSourceTypes(ITypeHierarchy hierarchy) {
+		if (fSourceTypesHierarchy != hierarchy || fSourceTypes == null) {
+			Map<ICompilationUnit, List<IType>> sourceTypes= new HashMap<>();
+			for (IType type : hierarchy.getAllTypes()) {
+				ICompilationUnit unit= type.getCompilationUnit();
+				if (unit != null) {
+					sourceTypes.computeIfAbsent(unit, u -> new ArrayList<>()).add(type);
+				}
+			}
+			fSourceTypesHierarchy= hierarchy;
+			fSourceTypes= sourceTypes;
+		}
+		return fSourceTypes;
+	}
+
+	/**
+	 * Adds the qualified names of the super types declared by the given type.
+	 *
+	 * @param type the type
+	 * @param names the set to add the names to
+	 * @return <code>false</code> if a super type name could not be resolved unambiguously
+	 * @throws JavaModelException if the type does not exist
+	 */
+	private static boolean addDeclaredSuperTypes(IType type, Set<String> names) throws JavaModelException {
+		String superclassName= type.getSuperclassName();
+		if (superclassName != null && !addResolvedName(type, superclassName, names)) {
+			return false;
+		}
+		for (String superInterfaceName : type.getSuperInterfaceNames()) {
+			if (!addResolvedName(type, superInterfaceName, names)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean addResolvedName(IType type, String name, Set<String> names) throws JavaModelException {
+		String[][] resolved= type.resolveType(Signature.getTypeErasure(name));
+		if (resolved == null || resolved.length != 1) {
+			return false;
+		}
+		names.add(JavaModelUtil.concatenateName(resolved[0][0], resolved[0][1]));
+		return true;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -84,6 +84,22 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	private boolean fRefreshJobCanceledExplicitly= true;
 
+	/**
+	 * The changes since the hierarchy was computed.
+	 *
+	 * @since 3.32
+	 */
+	private final HierarchyChangeCollector fChanges= new HierarchyChangeCollector();
+
+	/**
+	 * Indicates whether the hierarchy was kept on a refresh because the changes did not affect it.
+	 * The hierarchy does not report changes itself until it is refreshed, so they are checked by
+	 * this life cycle instead.
+	 *
+	 * @since 3.32
+	 */
+	private volatile boolean fHierarchyPatched;
+
 	/**
 	 * Creates the type hierarchy life cycle.
 	 *
@@ -124,6 +140,8 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 			fHierarchy= null;
 			fInputElements= null;
 		}
+		fChanges.reset();
+		fHierarchyPatched= false;
 		synchronized (this) {
 			if (fRefreshHierarchyJob != null) {
 				fRefreshHierarchyJob.cancel();
@@ -329,16 +347,36 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 				throw new OperationCanceledException();
 			}
 			fInputElements= elements;
-		} else {
+			fChanges.reset();
+			fHierarchyPatched= false;
+		} else if (fChanges.isAffected(fHierarchy, fIsSuperTypesOnly)) {
 			fHierarchy.refresh(pm);
 			if (pm != null && pm.isCanceled())
 				throw new OperationCanceledException();
+			fChanges.reset();
+			fHierarchyPatched= false;
+		} else {
+			// only members changed, keep the hierarchy
+			fHierarchyPatched= true;
 		}
 		fHierarchy.addTypeHierarchyChangedListener(this);
 		JavaCore.addElementChangedListener(this);
 		fHierarchyRefreshNeeded= false;
 	}
 
+	/**
+	 * Marks the hierarchy as changed, so that the next refresh rebuilds it.
+	 *
+	 * @since 3.32
+	 */
+	public void invalidateHierarchy() {
+		fChanges.requireRebuild();
+		ITypeHierarchy hierarchy= fHierarchy;
+		if (hierarchy != null) {
+			typeHierarchyChanged(hierarchy);
+		}
+	}
+
 	/*
 	 * @see ITypeHierarchyChangedListener#typeHierarchyChanged
 	 */
@@ -353,6 +391,18 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	@Override
 	public void elementChanged(ElementChangedEvent event) {
+		fChanges.collect(event.getDelta());
+		// working copies only report their changes on reconcile
+		int type= event.getType();
+		if (fHierarchyPatched && (type == ElementChangedEvent.POST_CHANGE || type == ElementChangedEvent.POST_RECONCILE)) {
+			ITypeHierarchy hierarchy= fHierarchy;
+			if (hierarchy != null && fChanges.isAffected(hierarchy, fIsSuperTypesOnly)) {
+				fHierarchyPatched= false;
+				typeHierarchyChanged(hierarchy);
+				return;
+			}
+		}
+
 		if (fChangeListeners.isEmpty()) {
 			return;
 		}
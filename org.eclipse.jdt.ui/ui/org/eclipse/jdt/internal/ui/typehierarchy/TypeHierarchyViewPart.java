@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -775,7 +775,7 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 					if (event.keyCode == SWT.F5) {
 						ITypeHierarchy hierarchy= fHierarchyLifeCycle.getHierarchy();
 						if (hierarchy != null) {
-							fHierarchyLifeCycle.typeHierarchyChanged(hierarchy);
+							fHierarchyLifeCycle.invalidateHierarchy();
 							doTypeHierarchyChangedOnViewers(null);
 						}
 						updateHierarchyViewer(false);
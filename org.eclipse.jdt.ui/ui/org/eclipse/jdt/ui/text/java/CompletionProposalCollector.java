@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -310,6 +310,8 @@ public class CompletionProposalCollector extends CompletionRequestor {
 	public void acceptContext(CompletionContext context) {
 		fContext= context;
 		fLabelProvider.setContext(context);
+		if (fInvocationContext != null)
+			fInvocationContext.coreContextAccepted(context);
 	}
 
 	/**
@@ -352,6 +354,8 @@ public class CompletionProposalCollector extends CompletionRequestor {
 			System.err.println("Core Collector (core):\t" + (total - fUITime)); //$NON-NLS-1$
 			System.err.println("Core Collector (ui):\t" + fUITime); //$NON-NLS-1$
 		}
+		if (fInvocationContext != null)
+			fInvocationContext.collectorCompleted(this);
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2020 IBM Corporation and others.
+ * Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -40,6 +40,11 @@ import org.eclipse.jdt.internal.ui.text.java.ContentAssistHistory.RHSHistory;
  * <p>
  * Clients may use but not subclass this class.
  * </p>
+ * <p>
+ * The context may be shared by completion proposal computers that run concurrently, access to
+ * the lazily computed information is synchronized. Code completion is not run while holding the
+ * lock, and the keyword proposals of a collector are only used once it has completed.
+ * </p>
  *
  * @since 3.2
  *
@@ -60,6 +65,12 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	private IJavaCompletionProposal[] fKeywordProposals= null;
 	private CompletionContext fCoreContext= null;
 
+	/**
+	 * Lock for running code completion in {@link #computeKeywordsAndContext(boolean)}, so that
+	 * concurrent computers don't run it more than once.
+	 */
+	private final Object fComputeLock= new Object();
+
 	/**
 	 * Creates a new context.
 	 *
@@ -103,7 +114,7 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 *
 	 * @return the compilation unit that content assist is invoked in, possibly <code>null</code>
 	 */
-	public ICompilationUnit getCompilationUnit() {
+	public synchronized ICompilationUnit getCompilationUnit() {
 		if (!fCUComputed) {
 			fCUComputed= true;
 			if (fCollector != null) {
@@ -140,17 +151,15 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 * @return the available keyword proposals
 	 */
 	public IJavaCompletionProposal[] getKeywordProposals() {
-		if (fKeywordProposals == null) {
-			if (fCollector != null && !fCollector.isIgnored(CompletionProposal.KEYWORD) && fCollector.getContext() != null) {
-				// use the existing collector if it exists, collects keywords, and has already been invoked
-				fKeywordProposals= fCollector.getKeywordCompletionProposals();
-			} else {
-				// otherwise, retrieve keywords ourselves
-				computeKeywordsAndContext();
-			}
+		synchronized (this) {
+			if (fKeywordProposals != null)
+				return fKeywordProposals;
+		}
+		// retrieve keywords ourselves
+		computeKeywordsAndContext(true);
+		synchronized (this) {
+			return fKeywordProposals;
 		}
-
-		return fKeywordProposals;
 	}
 
 	/**
@@ -165,21 +174,15 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 * @return the core completion context if available, <code>null</code> otherwise
 	 */
 	public CompletionContext getCoreContext() {
-		if (fCollector != null) {
-			CompletionContext context= fCollector.getContext();
-			if (context != null) {
-				if (fCoreContext == null) {
-					fCoreContext= context;
-				}
-				return context;
-			}
+		synchronized (this) {
+			if (fCoreContext != null)
+				return fCoreContext;
 		}
-
-		if (fCoreContext == null) {
-			computeKeywordsAndContext(); // Retrieve the context ourselves
+		// retrieve the context ourselves
+		computeKeywordsAndContext(false);
+		synchronized (this) {
+			return fCoreContext;
 		}
-
-		return fCoreContext;
 	}
 
 	/**
@@ -206,20 +209,27 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 * @return the content assist type history for the expected type
 	 */
 	private RHSHistory getRHSHistory() {
-		if (fRHSHistory == null) {
-			CompletionContext context= getCoreContext();
-			if (context != null) {
-				char[][] expectedTypes= context.getExpectedTypesSignatures();
-				if (expectedTypes != null && expectedTypes.length > 0) {
-					String expected= SignatureUtil.stripSignatureToFQN(String.valueOf(expectedTypes[0]));
-					fRHSHistory= JavaPlugin.getDefault().getContentAssistHistory().getHistory(expected);
-				}
-			}
-			if (fRHSHistory == null) {
-				fRHSHistory= JavaPlugin.getDefault().getContentAssistHistory().getHistory(null);
+		synchronized (this) {
+			if (fRHSHistory != null)
+				return fRHSHistory;
+		}
+		RHSHistory history= null;
+		CompletionContext context= getCoreContext();
+		if (context != null) {
+			char[][] expectedTypes= context.getExpectedTypesSignatures();
+			if (expectedTypes != null && expectedTypes.length > 0) {
+				String expected= SignatureUtil.stripSignatureToFQN(String.valueOf(expectedTypes[0]));
+				history= JavaPlugin.getDefault().getContentAssistHistory().getHistory(expected);
 			}
 		}
-		return fRHSHistory;
+		if (history == null) {
+			history= JavaPlugin.getDefault().getContentAssistHistory().getHistory(null);
+		}
+		synchronized (this) {
+			if (fRHSHistory == null)
+				fRHSHistory= history;
+			return fRHSHistory;
+		}
 	}
 
 	/**
@@ -233,23 +243,33 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 * @return the expected type if any, <code>null</code> otherwise
 	 */
 	public IType getExpectedType() {
-		if (fType == null && getCompilationUnit() != null) {
-			CompletionContext context= getCoreContext();
-			if (context != null) {
-				char[][] expectedTypes= context.getExpectedTypesSignatures();
-				if (expectedTypes != null && expectedTypes.length > 0) {
-					IJavaProject project= getCompilationUnit().getJavaProject();
-					if (project != null) {
-						try {
-							fType= project.findType(SignatureUtil.stripSignatureToFQN(String.valueOf(expectedTypes[0])));
-						} catch (JavaModelException x) {
-							JavaPlugin.log(x);
-						}
+		synchronized (this) {
+			if (fType != null)
+				return fType;
+		}
+		ICompilationUnit cu= getCompilationUnit();
+		if (cu == null)
+			return null;
+		IType type= null;
+		CompletionContext context= getCoreContext();
+		if (context != null) {
+			char[][] expectedTypes= context.getExpectedTypesSignatures();
+			if (expectedTypes != null && expectedTypes.length > 0) {
+				IJavaProject project= cu.getJavaProject();
+				if (project != null) {
+					try {
+						type= project.findType(SignatureUtil.stripSignatureToFQN(String.valueOf(expectedTypes[0])));
+					} catch (JavaModelException x) {
+						JavaPlugin.log(x);
 					}
 				}
 			}
 		}
-		return fType;
+		synchronized (this) {
+			if (fType == null)
+				fType= type;
+			return fType;
+		}
 	}
 
 	/**
@@ -257,7 +277,7 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 *
 	 * @return a label provider that can be used to compute proposal labels
 	 */
-	public CompletionProposalLabelProvider getLabelProvider() {
+	public synchronized CompletionProposalLabelProvider getLabelProvider() {
 		if (fLabelProvider == null) {
 			if (fCollector != null) {
 				fLabelProvider= fCollector.getLabelProvider();
@@ -270,56 +290,100 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	}
 
 	/**
-	 * Sets the collector, which is used to access the compilation unit, the core context and the
-	 * label provider. This is a performance optimization: {@link IJavaCompletionProposalComputer}s
-	 * may instantiate a {@link CompletionProposalCollector} and set this invocation context via
+	 * Sets the collector, which is used to access the compilation unit and the label provider.
+	 * This is a performance optimization: {@link IJavaCompletionProposalComputer}s may instantiate
+	 * a {@link CompletionProposalCollector} and set this invocation context via
 	 * {@link CompletionProposalCollector#setInvocationContext(JavaContentAssistInvocationContext)},
-	 * which in turn calls this method. This allows the invocation context to retrieve the core
-	 * context and keyword proposals from the existing collector, instead of computing theses values
-	 * itself via {@link #computeKeywordsAndContext()}.
+	 * which in turn calls this method. The collector reports the core context and the keyword
+	 * proposals to this invocation context via {@link #coreContextAccepted(CompletionContext)} and
+	 * {@link #collectorCompleted(CompletionProposalCollector)}, instead of this invocation context
+	 * computing these values itself via {@link #computeKeywordsAndContext(boolean)}.
+	 * <p>
+	 * Computers running concurrently may set their collectors, only the first one is used.
+	 * </p>
 	 *
 	 * @param collector the collector
 	 */
-	void setCollector(CompletionProposalCollector collector) {
-		fCollector= collector;
+	synchronized void setCollector(CompletionProposalCollector collector) {
+		if (fCollector == null)
+			fCollector= collector;
 	}
 
 	/**
-	 * Fallback to retrieve a core context and keyword proposals when no collector is available.
-	 * Runs code completion on the cu and collects keyword proposals. {@link #fKeywordProposals} is
-	 * non-<code>null</code> after this call.
+	 * Called by a collector of this invocation context when code completion reports the core
+	 * context. The core context doesn't change once it has been reported.
 	 *
+	 * @param context the core context
+	 * @since 3.32
+	 */
+	synchronized void coreContextAccepted(CompletionContext context) {
+		// prefer an extended context, which provides more information
+		if (context != null && (fCoreContext == null || !fCoreContext.isExtended() && context.isExtended()))
+			fCoreContext= context;
+	}
+
+	/**
+	 * Called by a collector of this invocation context when code completion has completed, so
+	 * that its keyword proposals are no longer modified.
+	 *
+	 * @param collector the collector
+	 * @since 3.32
+	 */
+	synchronized void collectorCompleted(CompletionProposalCollector collector) {
+		if (fKeywordProposals == null && !collector.isIgnored(CompletionProposal.KEYWORD) && collector.getContext() != null)
+			fKeywordProposals= collector.getKeywordCompletionProposals();
+	}
+
+	/**
+	 * Fallback to retrieve a core context and keyword proposals when no collector has provided
+	 * them. Runs code completion on the cu and collects keyword proposals. {@link #fKeywordProposals}
+	 * is non-<code>null</code> after this call.
+	 * <p>
+	 * Code completion is not run while holding the lock on this context, other computers may
+	 * still access it in the meantime.
+	 * </p>
+	 *
+	 * @param keywords <code>true</code> if the keyword proposals are requested,
+	 *            <code>false</code> if the core context is requested
 	 * @since 3.3
 	 */
-	private void computeKeywordsAndContext() {
-		ICompilationUnit cu= getCompilationUnit();
-		if (cu == null) {
-			if (fKeywordProposals == null) {
-				fKeywordProposals= new IJavaCompletionProposal[0];
+	private void computeKeywordsAndContext(boolean keywords) {
+		synchronized (fComputeLock) {
+			synchronized (this) {
+				if (keywords ? fKeywordProposals != null : fCoreContext != null)
+					return; // computed by another computer in the meantime
 			}
-			return;
-		}
 
-		CompletionProposalCollector collector= new CompletionProposalCollector(cu, true);
-		collector.setIgnored(CompletionProposal.KEYWORD, false);
+			CompletionContext coreContext= null;
+			IJavaCompletionProposal[] keywordProposals= new IJavaCompletionProposal[0];
+			CompletionProposalLabelProvider labelProvider= null;
+			ICompilationUnit cu= getCompilationUnit();
+			if (cu != null) {
+				CompletionProposalCollector collector= new CompletionProposalCollector(cu, true);
+				collector.setIgnored(CompletionProposal.KEYWORD, false);
 
-		try {
-			cu.codeComplete(getInvocationOffset(), collector, new CompletionTimeoutProgressMonitor());
-			if (fCoreContext == null) {
-				fCoreContext= collector.getContext();
-			}
-			if (fKeywordProposals == null) {
-				fKeywordProposals= collector.getKeywordCompletionProposals();
-			}
-			if (fLabelProvider == null) {
-				fLabelProvider= collector.getLabelProvider();
-			}
-		} catch (JavaModelException x) {
-			if (!x.isDoesNotExist() || cu.getJavaProject() == null || cu.getJavaProject().isOnClasspath(cu)) {
-				JavaPlugin.log(x);
+				try {
+					cu.codeComplete(getInvocationOffset(), collector, new CompletionTimeoutProgressMonitor());
+					coreContext= collector.getContext();
+					keywordProposals= collector.getKeywordCompletionProposals();
+					labelProvider= collector.getLabelProvider();
+				} catch (JavaModelException x) {
+					if (!x.isDoesNotExist() || cu.getJavaProject() == null || cu.getJavaProject().isOnClasspath(cu)) {
+						JavaPlugin.log(x);
+					}
+				}
 			}
-			if (fKeywordProposals == null) {
-				fKeywordProposals= new IJavaCompletionProposal[0];
+
+			synchronized (this) {
+				if (fCoreContext == null) {
+					fCoreContext= coreContext;
+				}
+				if (fKeywordProposals == null) {
+					fKeywordProposals= keywordProposals;
+				}
+				if (fLabelProvider == null && labelProvider != null) {
+					fLabelProvider= labelProvider;
+				}
 			}
 		}
 	}